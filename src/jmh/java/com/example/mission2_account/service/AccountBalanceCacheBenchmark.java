@@ -0,0 +1,80 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.dto.AccountBalanceEntry;
+import com.example.mission2_account.dto.AccountDto;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.repository.AccountRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * 잔액이 계속 바뀌는 중에 사용자 계좌 목록(GET /account)을 반복 조회할 때 처리량
+ * poll : 대시보드 조회, cache=false 면 매번 DB 에서 조회 (이전 방식)
+ * use : 같은 사용자 계좌의 잔액 사용 (cache=true 면 커밋 직후 잔액 캐시에도 씀)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class AccountBalanceCacheBenchmark {
+    private static final int ACCOUNTS = 5;
+
+    @Param({"false", "true"})
+    private boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private AccountService accountService;
+    private AccountRepository accountRepository;
+    private TransactionService transactionService;
+    private String accountNumber;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.datasource.url=jdbc:h2:mem:test;QUERY_CACHE_SIZE=0",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        accountService = context.getBean(AccountService.class);
+        accountRepository = context.getBean(AccountRepository.class);
+        transactionService = context.getBean(TransactionService.class);
+
+        for (int i = 0; i < ACCOUNTS; i++) {
+            accountNumber = accountService.createAccount(1L, Long.MAX_VALUE / 2)
+                    .getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("dashboard")
+    @GroupThreads(4)
+    public List<AccountDto> poll() {
+        if (cache) {
+            return accountService.getAccountsByUserId(1L);
+        }
+        return accountRepository.findBalanceEntriesByAccountUserId(1L).stream()
+                .map(AccountBalanceEntry::toAccountDto)
+                .collect(Collectors.toList());
+    }
+
+    @Benchmark
+    @Group("dashboard")
+    @GroupThreads(1)
+    public TransactionDto use() {
+        return transactionService.useBalance(1L, accountNumber, 1L);
+    }
+}
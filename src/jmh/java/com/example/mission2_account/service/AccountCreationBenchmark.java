@@ -0,0 +1,95 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 계좌 번호 생성 방식별 처리량 비교
+ * legacy : 이전 방식 (매번 Random 생성, 문자열 이어붙이기, 번호마다 DB 중복 조회)
+ * blockAllocated : 블록 단위로 빌려온 번호를 메모리에서 발급
+ * createAccount : 블록 방식 번호로 계좌 생성 전체 경로
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+public class AccountCreationBenchmark {
+    //사용자당 계좌가 최대 10개라서 계좌 생성용 사용자를 미리 넉넉히 만들어 둠
+    private static final long FIRST_USER_ID = 1_000L;
+    private static final int USER_COUNT = 200_000;
+
+    private ConfigurableApplicationContext context;
+    private JdbcTemplate jdbcTemplate;
+    private AccountNumberGenerator accountNumberGenerator;
+    private AccountService accountService;
+
+    private final AtomicLong createdAccounts = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        accountNumberGenerator = context.getBean(AccountNumberGenerator.class);
+        accountService = context.getBean(AccountService.class);
+
+        List<Object[]> users = new ArrayList<>();
+        for (long id = FIRST_USER_ID; id < FIRST_USER_ID + USER_COUNT; id++) {
+            users.add(new Object[]{id, "user" + id});
+        }
+        jdbcTemplate.batchUpdate("insert into account_user(id, name, created_at, updated_at) " +
+                "values (?, ?, now(), now())", users);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String legacy() {
+        String accNum = "";
+
+        while (true) {
+            Random random = new Random();
+            for (int i = 0; i < 10; i++) {
+                accNum += random.nextInt(10);
+            }
+
+            Integer count = jdbcTemplate.queryForObject(
+                    "select count(*) from account where account_number = ?",
+                    Integer.class, accNum);
+            if (count == null || count == 0) {
+                break;
+            }
+        }
+
+        return accNum;
+    }
+
+    @Benchmark
+    public String blockAllocated() {
+        return accountNumberGenerator.next();
+    }
+
+    @Benchmark
+    public Object createAccount() {
+        long userId = FIRST_USER_ID + createdAccounts.getAndIncrement() / 10 % USER_COUNT;
+        return accountService.createAccount(userId, 0L);
+    }
+}
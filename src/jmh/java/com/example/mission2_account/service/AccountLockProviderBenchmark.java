@@ -0,0 +1,106 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import com.zaxxer.hikari.HikariDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.redisson.Redisson;
+import org.redisson.api.RedissonClient;
+import org.redisson.config.Config;
+import redis.embedded.RedisServer;
+
+import java.sql.SQLException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 잠금 백엔드별 획득/해제 지연시간과 처리량 비교
+ * accountCount 가 작을수록 같은 계좌에 대한 경합이 심해짐
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+public class AccountLockProviderBenchmark {
+    private static final int REDIS_PORT = 6390;
+
+    @Param({"local", "redisson", "database"})
+    private String provider;
+
+    @Param({"1", "16", "1024"})
+    private int accountCount;
+
+    private AccountLockProvider accountLockProvider;
+    private String[] accountNumbers;
+
+    private RedisServer redisServer;
+    private RedissonClient redissonClient;
+    private HikariDataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountNumbers[i] = String.valueOf(1_000_000_000L + i);
+        }
+
+        switch (provider) {
+            case "local":
+                accountLockProvider = new LocalAccountLockProvider(1024);
+                break;
+            case "redisson":
+                redisServer = new RedisServer(REDIS_PORT);
+                redisServer.start();
+                Config config = new Config();
+                config.useSingleServer().setAddress("redis://127.0.0.1:" + REDIS_PORT);
+                redissonClient = Redisson.create(config);
+                accountLockProvider = new LockService(redissonClient);
+                break;
+            case "database":
+                dataSource = new HikariDataSource();
+                dataSource.setJdbcUrl("jdbc:h2:mem:lock-benchmark;DB_CLOSE_DELAY=-1");
+                dataSource.setUsername("sa");
+                dataSource.setMaximumPoolSize(16);
+                DatabaseAccountLockProvider databaseProvider =
+                        new DatabaseAccountLockProvider(dataSource);
+                databaseProvider.createLockTable();
+                accountLockProvider = databaseProvider;
+                break;
+            default:
+                throw new IllegalArgumentException(provider);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (redissonClient != null) {
+            redissonClient.shutdown();
+        }
+        if (redisServer != null) {
+            redisServer.stop();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Benchmark
+    public void lockAndUnlock(Blackhole blackhole) {
+        String accountNumber = accountNumbers[
+                ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+        try {
+            accountLockProvider.lock(accountNumber);
+        } catch (AccountException e) {
+            //잠금 대기 시간 초과 - 실패 횟수도 결과에 포함
+            blackhole.consume(e);
+            return;
+        }
+        try {
+            blackhole.consume(accountNumber);
+        } finally {
+            accountLockProvider.unlock(accountNumber);
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.dto.TransactionHistoryItem;
+import com.example.mission2_account.exception.AccountException;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 계좌 조회 near cache 사용 여부에 따른 처리량과 요청당 DB 쿼리 수
+ * useBalance : 잔액 사용 (계좌 번호 -> 아이디, 소유주 확인 후 계좌 행 조회)
+ * useBalanceOtherOwner : 다른 사용자 계좌로 잔액 사용 (사용자 존재 확인 후 실패)
+ * transactionHistory : 거래 내역 첫 페이지 (계좌 번호 -> 아이디 확인 후 조회)
+ * 쿼리 수는 QueryCounters 의 queries / calls 로 확인
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class AccountLookupCacheBenchmark {
+    @Param({"false", "true"})
+    private boolean cache;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private Statistics statistics;
+    private String accountNumber;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class QueryCounters {
+        public long queries;
+        public long calls;
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--account.cache.enabled=" + cache,
+                        "--spring.jpa.properties.hibernate.generate_statistics=true",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        statistics = context.getBean(EntityManagerFactory.class)
+                .unwrap(SessionFactory.class)
+                .getStatistics();
+
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(1L, Long.MAX_VALUE / 2)
+                .getAccountNumber();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto useBalance(QueryCounters counters) {
+        long before = statistics.getPrepareStatementCount();
+        TransactionDto transactionDto = transactionService.useBalance(1L, accountNumber, 1L);
+        count(counters, before);
+        return transactionDto;
+    }
+
+    @Benchmark
+    public AccountException useBalanceOtherOwner(QueryCounters counters) {
+        long before = statistics.getPrepareStatementCount();
+        try {
+            transactionService.useBalance(2L, accountNumber, 1L);
+            throw new IllegalStateException("other owner must be rejected");
+        } catch (AccountException e) {
+            count(counters, before);
+            return e;
+        }
+    }
+
+    @Benchmark
+    public Slice<TransactionHistoryItem> transactionHistory(QueryCounters counters) {
+        long before = statistics.getPrepareStatementCount();
+        Slice<TransactionHistoryItem> history = transactionService.getTransactionHistory(
+                accountNumber, null, null, null, null, null, 20);
+        count(counters, before);
+        return history;
+    }
+
+    private void count(QueryCounters counters, long before) {
+        counters.queries += statistics.getPrepareStatementCount() - before;
+        counters.calls++;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 계좌에 동시 사용 요청이 몰릴 때
+ * LOCKED(계좌 잠금 + 엔티티 변경)와 ATOMIC(조건부 UPDATE) 처리량 비교
+ * LOCKED 모드에서 잠금 획득 실패(ACCOUNT_TRANSACTION_LOCK)는 rejected 로 집계
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(16)
+public class BalanceContentionBenchmark {
+    private static final long USER_ID = 1L;
+
+    @Param({"LOCKED", "ATOMIC"})
+    private TransactionExecutionMode mode;
+
+    //1 이면 모든 스레드가 한 계좌에 몰림 (사용자당 최대 10 계좌)
+    @Param({"1", "10"})
+    private int accountCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private AccountLockProvider accountLockProvider;
+    private String[] accountNumbers;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcome {
+        public long succeeded;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--account.transaction.mode=" + mode);
+        transactionService = context.getBean(TransactionService.class);
+        accountLockProvider = context.getBean(AccountLockProvider.class);
+
+        AccountService accountService = context.getBean(AccountService.class);
+        accountNumbers = new String[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            accountNumbers[i] = accountService
+                    .createAccount(USER_ID, Long.MAX_VALUE / 2)
+                    .getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void useBalance(Outcome outcome, Blackhole blackhole) {
+        String accountNumber = accountNumbers[
+                ThreadLocalRandom.current().nextInt(accountNumbers.length)];
+        try {
+            if (mode == TransactionExecutionMode.ATOMIC) {
+                blackhole.consume(transactionService
+                        .useBalanceAtomic(USER_ID, accountNumber, 10L));
+            } else {
+                accountLockProvider.lock(accountNumber);
+                try {
+                    blackhole.consume(transactionService
+                            .useBalance(USER_ID, accountNumber, 10L));
+                } finally {
+                    accountLockProvider.unlock(accountNumber);
+                }
+            }
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.rejected++;
+        }
+    }
+}
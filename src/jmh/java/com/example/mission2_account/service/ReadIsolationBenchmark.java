@@ -0,0 +1,108 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.domain.Account;
+import com.example.mission2_account.domain.Transaction;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.repository.AccountRepository;
+import com.example.mission2_account.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static com.example.mission2_account.type.TransactionType.USE;
+
+/**
+ * 쓰기 부하 중 거래 확인(queryTransaction) 처리량
+ * write : 커넥션을 잡고 오래 걸리는 쓰기 트랜잭션 (primary 풀 크기보다 많은 스레드)
+ * read : 조회 전용 트랜잭션
+ * routing=false 면 조회도 primary 풀을 기다리고, true 면 replica 풀에서 바로 조회
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class ReadIsolationBenchmark {
+    private static final int POOL_SIZE = 4;
+    private static final long WRITE_HOLD_MILLIS = 2;
+
+    @Param({"false", "true"})
+    private boolean routing;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+    private String transactionId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        //replica 는 같은 H2 메모리 DB 에 만든 별도 커넥션 풀
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.datasource.url=jdbc:h2:mem:test;QUERY_CACHE_SIZE=0",
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--account.datasource.routing.enabled=" + routing,
+                        "--account.datasource.replica.jdbc-url=jdbc:h2:mem:test;QUERY_CACHE_SIZE=0",
+                        "--account.datasource.replica.username=sa",
+                        "--account.datasource.replica.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+        transactionTemplate = context.getBean(TransactionTemplate.class);
+
+        Account account = context.getBean(AccountRepository.class)
+                .findByAccountNumber(context.getBean(AccountService.class)
+                        .createAccount(1L, 0L)
+                        .getAccountNumber())
+                .orElseThrow(IllegalStateException::new);
+        transactionId = context.getBean(TransactionRepository.class)
+                .save(Transaction.builder()
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .account(account)
+                        .amount(1000L)
+                        .balanceSnapshot(0L)
+                        .transactionId("bench")
+                        .transactedAt(LocalDateTime.now())
+                        .build())
+                .getTransactionId();
+        jdbcTemplate.execute("create table bench_write (id bigint)");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(8)
+    public void write() {
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("insert into bench_write values (1)");
+            try {
+                Thread.sleep(WRITE_HOLD_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(4)
+    public TransactionDto read() {
+        return transactionService.queryTransaction(transactionId);
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 같은 계좌에 금액 사용 요청이 몰리는 동안 계좌 목록 조회(GET /account) 응답 시간
+ * Tomcat 작업 스레드를 적게 두고(16) 그보다 많은 스레드(64)가 한 계좌에 계속 금액 사용 요청
+ * 저장 전에 지연(fault 프로필의 save 지점)을 넣어 잠금 보유 시간을 늘림
+ * storm 이 none 이면 부하 없음, use 면 동기 API(잠금을 기다리는 동안 Tomcat 스레드 점유),
+ * use/async 면 비동기 API(잠금 대기, DB 작업 동안 Tomcat 스레드 반납)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(1)
+public class ReadLatencyUnderWriteStormBenchmark {
+    private static final int TOMCAT_THREADS = 16;
+    private static final int STORM_THREADS = 64;
+    private static final long SAVE_LATENCY_MILLIS = 10;
+
+    @Param({"none", "use", "use/async"})
+    private String storm;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest readRequest;
+    private final List<Thread> stormThreads = new ArrayList<>();
+    private volatile boolean running;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .profiles("fault")
+                .run("--server.port=0",
+                        "--spring.redis.port=6391",
+                        "--server.tomcat.threads.max=" + TOMCAT_THREADS,
+                        "--server.tomcat.threads.min-spare=" + TOMCAT_THREADS,
+                        "--account.fault.points.save.latency=" + SAVE_LATENCY_MILLIS,
+                        "--account.trace.enabled=false",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=ERROR");
+        String baseUrl = "http://localhost:"
+                + context.getEnvironment().getProperty("local.server.port");
+
+        //응답 처리 스레드는 daemon 으로 (측정이 끝나도 JVM 종료를 막지 않음)
+        httpClient = HttpClient.newBuilder()
+                .executor(Executors.newFixedThreadPool(4, runnable -> {
+                    Thread thread = new Thread(runnable, "bench-http");
+                    thread.setDaemon(true);
+                    return thread;
+                }))
+                .build();
+        readRequest = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/account?user_id=2"))
+                .timeout(Duration.ofSeconds(30))
+                .GET()
+                .build();
+
+        //조회 대상 (사용자 2), 부하 대상 (사용자 1 의 계좌 하나)
+        AccountService accountService = context.getBean(AccountService.class);
+        accountService.createAccount(2L, 1000L);
+        String hotAccountNumber = accountService
+                .createAccount(1L, Long.MAX_VALUE / 2)
+                .getAccountNumber();
+
+        if ("none".equals(storm)) {
+            return;
+        }
+
+        HttpRequest writeRequest = HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + "/transaction/" + storm))
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"userId\":1,\"accountNumber\":\"" + hotAccountNumber
+                                + "\",\"amount\":10}"))
+                .build();
+        running = true;
+        for (int i = 0; i < STORM_THREADS; i++) {
+            Thread thread = new Thread(() -> {
+                while (running) {
+                    try {
+                        httpClient.send(writeRequest, HttpResponse.BodyHandlers.discarding());
+                    } catch (IOException e) {
+                        //응답 시간 초과 등은 무시하고 계속 요청
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            }, "write-storm-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            stormThreads.add(thread);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        running = false;
+        for (Thread thread : stormThreads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+        context.close();
+    }
+
+    @Benchmark
+    public int read() throws IOException, InterruptedException {
+        return httpClient.send(readRequest, HttpResponse.BodyHandlers.ofString()).statusCode();
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.mission2_account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 요청 하나의 trace 기록 비용 (/transaction/use 와 같은 구간 8개)
+ * enabled 가 false 면 구간마다 ThreadLocal 조회만 함
+ * ring buffer 에는 넣고 OTLP 파일 내보내기는 끔
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+public class RequestTracerBenchmark {
+    @Param({"false", "true"})
+    private boolean enabled;
+
+    private RequestTracer requestTracer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        requestTracer = new RequestTracer(new RequestTraceBuffer(1024),
+                new OtlpTraceFileExporter(Jackson2ObjectMapperBuilder.json().build(), false,
+                        "traces.otlp.jsonl", 1, new SimpleMeterRegistry()),
+                enabled);
+    }
+
+    @Benchmark
+    public void useBalanceRequest() {
+        requestTracer.begin("POST", "/transaction/use");
+        requestTracer.span("lock.wait").close();
+        try (RequestTracer.Span ignored = requestTracer.span("service.useBalance")) {
+            requestTracer.span("db.findIdentityByAccountNumber").close();
+            requestTracer.span("db.findById").close();
+            requestTracer.span("db.save").close();
+            requestTracer.span("db.commit").close();
+        }
+        requestTracer.span("lock.release").close();
+        requestTracer.end();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.dto.TransactionDto;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 서비스 메서드 Timer(ServiceMetricsAspect) 유무에 따른 서비스 호출 시간
+ * query : 거래 확인 (캐시에서 바로 리턴하는 가장 짧은 경로), use : 금액 사용 (스레드마다 다른 계좌)
+ * serviceTimer 가 false 면 account.metrics.service-timer=false 로 aspect 없이 실행
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+public class ServiceMetricsBenchmark {
+    //data.sql 의 사용자 (사용자당 최대 10 계좌)
+    private static final long[] USER_IDS = {1L, 2L, 3L};
+    private static final int QUERY_TRANSACTION_COUNT = 1000;
+
+    @Param({"false", "true"})
+    private boolean serviceTimer;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private AccountService accountService;
+    private String[] transactionIds;
+
+    @State(Scope.Thread)
+    public static class ThreadAccount {
+        private long userId;
+        private String accountNumber;
+
+        @Setup(Level.Trial)
+        public void setUp(ServiceMetricsBenchmark benchmark) {
+            userId = USER_IDS[ThreadLocalRandom.current().nextInt(USER_IDS.length)];
+            accountNumber = benchmark.accountService
+                    .createAccount(userId, Long.MAX_VALUE / 2)
+                    .getAccountNumber();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN",
+                        "--account.metrics.service-timer=" + serviceTimer);
+        transactionService = context.getBean(TransactionService.class);
+        accountService = context.getBean(AccountService.class);
+
+        //거래 확인용 거래
+        String accountNumber = accountService
+                .createAccount(USER_IDS[0], Long.MAX_VALUE / 2)
+                .getAccountNumber();
+        transactionIds = new String[QUERY_TRANSACTION_COUNT];
+        for (int i = 0; i < QUERY_TRANSACTION_COUNT; i++) {
+            transactionIds[i] = transactionService
+                    .useBalance(USER_IDS[0], accountNumber, 10L)
+                    .getTransactionId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public TransactionDto query() {
+        return transactionService.queryTransaction(transactionIds[
+                ThreadLocalRandom.current().nextInt(transactionIds.length)]);
+    }
+
+    /**
+     * 스레드마다 자기 계좌만 쓰므로 계좌 잠금 없이 호출
+     */
+    @Benchmark
+    public TransactionDto use(ThreadAccount account) {
+        return transactionService.useBalance(account.userId, account.accountNumber, 10L);
+    }
+}
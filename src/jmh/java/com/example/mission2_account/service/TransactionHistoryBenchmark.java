@@ -0,0 +1,128 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.domain.Account;
+import com.example.mission2_account.domain.Transaction;
+import com.example.mission2_account.dto.TransactionHistoryCursor;
+import com.example.mission2_account.dto.TransactionHistoryItem;
+import com.example.mission2_account.repository.AccountRepository;
+import com.example.mission2_account.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Slice;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static com.example.mission2_account.type.TransactionType.USE;
+
+/**
+ * 계좌 거래 내역 페이지 조회 시간 (페이지 깊이별)
+ * keyset : 커서 (거래 일시, id) 다음부터 조회
+ * offset : 같은 정렬로 LIMIT/OFFSET 조회 (앞의 depth 건을 모두 읽고 버림)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+public class TransactionHistoryBenchmark {
+    private static final int TRANSACTION_COUNT = 200_000;
+    private static final int PAGE_SIZE = 20;
+
+    @Param({"0", "10000", "150000"})
+    private int depth;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private JdbcTemplate jdbcTemplate;
+    private String accountNumber;
+    private Long accountId;
+    private String cursor;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        //같은 조회 결과를 재사용하지 않도록 H2 조회 결과 캐시 끔
+                        "--spring.datasource.url=jdbc:h2:mem:test;QUERY_CACHE_SIZE=0",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        accountNumber = context.getBean(AccountService.class)
+                .createAccount(1L, 0L)
+                .getAccountNumber();
+        Account account = context.getBean(AccountRepository.class)
+                .findByAccountNumber(accountNumber)
+                .orElseThrow(IllegalStateException::new);
+        accountId = account.getId();
+
+        //다른 계좌 거래도 섞여 있도록 두 계좌에 번갈아 저장
+        Account otherAccount = context.getBean(AccountRepository.class)
+                .findByAccountNumber(context.getBean(AccountService.class)
+                        .createAccount(2L, 0L)
+                        .getAccountNumber())
+                .orElseThrow(IllegalStateException::new);
+        TransactionRepository transactionRepository = context.getBean(TransactionRepository.class);
+        LocalDateTime start = LocalDateTime.now().minusDays(300);
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < TRANSACTION_COUNT * 2; i++) {
+            transactions.add(Transaction.builder()
+                    .transactionType(USE)
+                    .transactionResultType(SUCCESS)
+                    .account(i % 2 == 0 ? account : otherAccount)
+                    .amount(1000L)
+                    .balanceSnapshot(0L)
+                    .transactionId("bench" + i)
+                    .transactedAt(start.plusSeconds(i / 4))
+                    .build());
+            if (transactions.size() == 10_000) {
+                transactionRepository.saveAllInBatches(transactions);
+                transactions = new ArrayList<>();
+            }
+        }
+        transactionRepository.saveAllInBatches(transactions);
+
+        if (depth > 0) {
+            Map<String, Object> row = jdbcTemplate.queryForMap(
+                    "select transacted_at, id from transaction where account_id = ? " +
+                            "order by transacted_at desc, id desc limit 1 offset ?",
+                    accountId, depth - 1);
+            cursor = new TransactionHistoryCursor(
+                    ((Timestamp) row.get("TRANSACTED_AT")).toLocalDateTime(),
+                    ((Number) row.get("ID")).longValue()).encode();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Slice<TransactionHistoryItem> keyset() {
+        return transactionService.getTransactionHistory(accountNumber,
+                null, null, null, null, cursor, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public List<Map<String, Object>> offset() {
+        return jdbcTemplate.queryForList(
+                "select id, transaction_type, transaction_result_type, transaction_id, " +
+                        "amount, balance_snapshot, transacted_at from transaction " +
+                        "where account_id = ? order by account_id desc, transacted_at desc, id desc " +
+                        "limit ? offset ?",
+                accountId, PAGE_SIZE, depth);
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.domain.Account;
+import com.example.mission2_account.domain.Transaction;
+import com.example.mission2_account.repository.AccountRepository;
+import com.example.mission2_account.repository.TransactionRepository;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static com.example.mission2_account.type.TransactionType.USE;
+
+/**
+ * 거래 내역 저장 처리량 (초당 insert 건수)
+ * save : 거래 한 건씩 저장 (기존 saveAndGetTransaction 과 같은 경로)
+ * saveAll : JpaRepository.saveAll 로 한 트랜잭션에 ROWS 건 저장
+ * saveAllInBatches : flush, clear 를 batch 크기마다 하는 대량 저장 경로
+ * batchSize 1 은 JDBC batch 를 끈 경우
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(4)
+public class TransactionLedgerBenchmark {
+    private static final int ROWS = 500;
+
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private TransactionRepository transactionRepository;
+    private Account account;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + batchSize,
+                        "--logging.level.root=WARN");
+        transactionRepository = context.getBean(TransactionRepository.class);
+
+        String accountNumber = context.getBean(AccountService.class)
+                .createAccount(1L, 0L)
+                .getAccountNumber();
+        account = context.getBean(AccountRepository.class)
+                .findByAccountNumber(accountNumber)
+                .orElseThrow(IllegalStateException::new);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Transaction save() {
+        return transactionRepository.save(newTransaction());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public List<Transaction> saveAll() {
+        return transactionRepository.saveAll(newTransactions());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void saveAllInBatches() {
+        transactionRepository.saveAllInBatches(newTransactions());
+    }
+
+    private List<Transaction> newTransactions() {
+        List<Transaction> transactions = new ArrayList<>(ROWS);
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(newTransaction());
+        }
+        return transactions;
+    }
+
+    private Transaction newTransaction() {
+        return Transaction.builder()
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .account(account)
+                .amount(1000L)
+                .balanceSnapshot(0L)
+                .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                .transactedAt(LocalDateTime.now())
+                .build();
+    }
+}
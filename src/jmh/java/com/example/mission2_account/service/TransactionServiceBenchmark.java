@@ -0,0 +1,144 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 거래 API 서비스 경로 처리량 (컨트롤러와 같이 계좌 잠금 후 서비스 호출)
+ * use : 금액 사용, useAndCancel : 금액 사용 후 바로 취소, query : 거래 확인
+ * hotRatio : 요청 중 한 계좌(hot)로 몰리는 비율, 나머지는 다른 계좌에 고르게 분산
+ * 스레드 수는 -t 옵션(./gradlew jmh -PjmhThreads=N)으로 바꿔서 측정
+ * 잠금 대기 시간을 넘긴 요청(ACCOUNT_TRANSACTION_LOCK)은 rejected 로 집계
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(8)
+public class TransactionServiceBenchmark {
+    //data.sql 의 사용자 (사용자당 최대 10 계좌)
+    private static final long[] USER_IDS = {1L, 2L, 3L};
+    private static final int ACCOUNT_COUNT = 30;
+    private static final int QUERY_TRANSACTION_COUNT = 1000;
+
+    @Param({"0.0", "0.5", "0.9"})
+    private double hotRatio;
+
+    private ConfigurableApplicationContext context;
+    private TransactionService transactionService;
+    private AccountLockProvider accountLockProvider;
+    private String[] accountNumbers;
+    private long[] ownerIds;
+    private String[] transactionIds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcome {
+        public long succeeded;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        transactionService = context.getBean(TransactionService.class);
+        accountLockProvider = context.getBean(AccountLockProvider.class);
+
+        AccountService accountService = context.getBean(AccountService.class);
+        accountNumbers = new String[ACCOUNT_COUNT];
+        ownerIds = new long[ACCOUNT_COUNT];
+        for (int i = 0; i < ACCOUNT_COUNT; i++) {
+            ownerIds[i] = USER_IDS[i % USER_IDS.length];
+            accountNumbers[i] = accountService
+                    .createAccount(ownerIds[i], Long.MAX_VALUE / 2)
+                    .getAccountNumber();
+        }
+
+        //거래 확인용 거래
+        transactionIds = new String[QUERY_TRANSACTION_COUNT];
+        for (int i = 0; i < QUERY_TRANSACTION_COUNT; i++) {
+            int account = i % ACCOUNT_COUNT;
+            transactionIds[i] = transactionService
+                    .useBalance(ownerIds[account], accountNumbers[account], 10L)
+                    .getTransactionId();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void use(Outcome outcome, Blackhole blackhole) {
+        int account = nextAccount();
+        try {
+            accountLockProvider.lock(accountNumbers[account]);
+            try {
+                blackhole.consume(transactionService.useBalance(
+                        ownerIds[account], accountNumbers[account], 10L));
+            } finally {
+                accountLockProvider.unlock(accountNumbers[account]);
+            }
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.rejected++;
+        }
+    }
+
+    @Benchmark
+    public void useAndCancel(Outcome outcome, Blackhole blackhole) {
+        int account = nextAccount();
+        try {
+            accountLockProvider.lock(accountNumbers[account]);
+            try {
+                TransactionDto used = transactionService.useBalance(
+                        ownerIds[account], accountNumbers[account], 10L);
+                blackhole.consume(transactionService.cancelBalance(
+                        used.getTransactionId(), accountNumbers[account], 10L));
+            } finally {
+                accountLockProvider.unlock(accountNumbers[account]);
+            }
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.rejected++;
+        }
+    }
+
+    @Benchmark
+    public TransactionDto query() {
+        return transactionService.queryTransaction(transactionIds[
+                ThreadLocalRandom.current().nextInt(transactionIds.length)]);
+    }
+
+    /**
+     * hotRatio 확률로 0번(hot) 계좌, 아니면 나머지 계좌 중 하나
+     */
+    private int nextAccount() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (random.nextDouble() < hotRatio) {
+            return 0;
+        }
+        return 1 + random.nextInt(ACCOUNT_COUNT - 1);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.controller.TransactionController;
+import com.example.mission2_account.dto.Transfer;
+import com.example.mission2_account.exception.AccountException;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 스레드가 임의의 두 계좌 사이에서 이체할 때 처리량
+ * 컨트롤러를 통해 호출하므로 두 계좌 잠금(계좌 번호 순서)까지 포함
+ * A -> B, B -> A 이체가 동시에 와도 교착 상태 없이 진행되어야 하고
+ * 잠금 대기 시간을 넘긴 요청(ACCOUNT_TRANSACTION_LOCK)은 rejected 로 집계
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Threads(16)
+public class TransferBenchmark {
+    //data.sql 의 사용자 (사용자당 최대 10 계좌)
+    private static final long[] USER_IDS = {1L, 2L, 3L};
+
+    //계좌가 적을수록 같은 계좌 쌍에 이체가 몰림
+    @Param({"4", "30"})
+    private int accountCount;
+
+    private ConfigurableApplicationContext context;
+    private TransactionController transactionController;
+    private String[] accountNumbers;
+    private long[] ownerIds;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Outcome {
+        public long succeeded;
+        public long rejected;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            succeeded = 0;
+            rejected = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(Mission2AccountApplication.class)
+                .web(WebApplicationType.NONE)
+                .run("--spring.redis.port=6391",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+        transactionController = context.getBean(TransactionController.class);
+
+        AccountService accountService = context.getBean(AccountService.class);
+        accountNumbers = new String[accountCount];
+        ownerIds = new long[accountCount];
+        for (int i = 0; i < accountCount; i++) {
+            ownerIds[i] = USER_IDS[i % USER_IDS.length];
+            accountNumbers[i] = accountService
+                    .createAccount(ownerIds[i], Long.MAX_VALUE / 4)
+                    .getAccountNumber();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void transfer(Outcome outcome, Blackhole blackhole) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int from = random.nextInt(accountNumbers.length);
+        int to = (from + 1 + random.nextInt(accountNumbers.length - 1)) % accountNumbers.length;
+        try {
+            blackhole.consume(transactionController.transfer(new Transfer.Request(
+                    ownerIds[from], accountNumbers[from], accountNumbers[to], 10L)));
+            outcome.succeeded++;
+        } catch (AccountException e) {
+            outcome.rejected++;
+        }
+    }
+}
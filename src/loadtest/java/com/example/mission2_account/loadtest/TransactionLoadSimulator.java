@@ -0,0 +1,444 @@
+package com.example.mission2_account.loadtest;
+
+import com.example.mission2_account.Mission2AccountApplication;
+import com.example.mission2_account.service.AccountService;
+import com.example.mission2_account.service.FailedTransactionRecorder;
+import com.example.mission2_account.type.ErrorCode;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 거래 API 부하 시뮬레이터 (./gradlew loadTest -PloadTestArgs="accounts=100 concurrency=32")
+ * 같은 JVM 에서 임의 포트로 앱(embedded redis 포함)을 띄우고 HTTP 로
+ * /transaction/use, /transaction/cancel 을 concurrency 개 스레드에서 duration 초 동안 호출
+ * 계좌는 Zipf(skew) 분포로 골라서 일부 계좌에 요청이 몰리는 상황을 재현
+ * 취소는 cancel-ratio 비율로, 성공한 사용 거래 중 하나를 골라서 요청
+ *
+ * 결과 : 작업별 p50/p99/p999 지연시간, 처리량, 잠금 실패(ACCOUNT_TRANSACTION_LOCK) 비율, FAIL 거래 수
+ * 끝나면 계좌마다 잔액 = 처음 잔액 - 성공한 사용 금액 + 성공한 취소 금액 인지 확인 (DB 거래 내역, 응답 기준 모두)
+ * 맞지 않는 계좌가 있으면 종료 코드 1
+ */
+public class TransactionLoadSimulator {
+    private static final long FIRST_USER_ID = 1_000L;
+    private static final int MAX_ACCOUNT_PER_USER = 10;
+
+    private final ConfigurableApplicationContext context;
+    private final Options options;
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final String baseUrl;
+
+    private String[] accountNumbers;
+    private long[] ownerIds;
+    //응답 기준 계좌별 순 사용 금액 (사용 성공 +, 취소 성공 -)
+    private AtomicLongArray netUsed;
+    private final ConcurrentLinkedQueue<UsedTransaction> cancelable =
+            new ConcurrentLinkedQueue<>();
+
+    public TransactionLoadSimulator(ConfigurableApplicationContext context, Options options) {
+        this.context = context;
+        this.options = options;
+        this.objectMapper = context.getBean(ObjectMapper.class);
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(Executors.newFixedThreadPool(4))
+                .build();
+        this.baseUrl = "http://localhost:"
+                + context.getEnvironment().getProperty("local.server.port");
+    }
+
+    public static void main(String[] args) throws Exception {
+        Options options = Options.parse(args);
+        ConfigurableApplicationContext context =
+                new SpringApplicationBuilder(Mission2AccountApplication.class)
+                        .run("--server.port=0",
+                                "--spring.redis.port=" + options.redisPort,
+                                "--spring.jpa.properties.hibernate.show_sql=false",
+                                "--logging.level.root=WARN");
+        int exitCode;
+        try {
+            exitCode = new TransactionLoadSimulator(context, options).run();
+        } finally {
+            context.close();
+        }
+        System.exit(exitCode);
+    }
+
+    public int run() throws Exception {
+        System.out.println("options : " + options);
+        createAccounts();
+
+        ZipfDistribution zipf = new ZipfDistribution(options.accounts, options.skew);
+        System.out.printf("hot account share : %.1f%%%n", zipf.probability(0) * 100);
+
+        Map<Operation, OperationStats> stats = drive(zipf);
+        report(stats);
+
+        //처리 여부를 알 수 없는 요청이 있으면 응답 기준 확인은 할 수 없음
+        boolean checkResponses = stats.values().stream()
+                .allMatch(operationStats -> operationStats.errors == 0);
+        return verifyBalances(checkResponses) ? 0 : 1;
+    }
+
+    /**
+     * 사용자당 최대 계좌 수만큼 계좌를 만들고, 필요한 사용자는 미리 추가
+     */
+    private void createAccounts() {
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        AccountService accountService = context.getBean(AccountService.class);
+
+        int userCount = (options.accounts + MAX_ACCOUNT_PER_USER - 1) / MAX_ACCOUNT_PER_USER;
+        List<Object[]> users = new ArrayList<>(userCount);
+        for (long id = FIRST_USER_ID; id < FIRST_USER_ID + userCount; id++) {
+            users.add(new Object[]{id, "load" + id});
+        }
+        jdbcTemplate.batchUpdate("insert into account_user(id, name, created_at, updated_at) " +
+                "values (?, ?, now(), now())", users);
+
+        accountNumbers = new String[options.accounts];
+        ownerIds = new long[options.accounts];
+        netUsed = new AtomicLongArray(options.accounts);
+        for (int i = 0; i < options.accounts; i++) {
+            ownerIds[i] = FIRST_USER_ID + i / MAX_ACCOUNT_PER_USER;
+            accountNumbers[i] = accountService
+                    .createAccount(ownerIds[i], options.initialBalance)
+                    .getAccountNumber();
+        }
+    }
+
+    private Map<Operation, OperationStats> drive(ZipfDistribution zipf) throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(options.concurrency);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(options.duration);
+        long started = System.nanoTime();
+
+        List<Future<Map<Operation, OperationStats>>> futures = new ArrayList<>();
+        for (int i = 0; i < options.concurrency; i++) {
+            futures.add(workers.submit(() -> work(zipf, deadline)));
+        }
+
+        Map<Operation, OperationStats> total = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            total.put(operation, new OperationStats());
+        }
+        for (Future<Map<Operation, OperationStats>> future : futures) {
+            future.get().forEach((operation, stats) -> total.get(operation).merge(stats));
+        }
+        long elapsed = System.nanoTime() - started;
+        workers.shutdown();
+
+        total.values().forEach(stats -> stats.elapsedNanos = elapsed);
+        return total;
+    }
+
+    private Map<Operation, OperationStats> work(ZipfDistribution zipf, long deadline) {
+        Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        while (System.nanoTime() < deadline) {
+            UsedTransaction used = random.nextDouble() < options.cancelRatio
+                    ? cancelable.poll()
+                    : null;
+            if (used != null) {
+                cancel(used, stats.get(Operation.CANCEL));
+            } else {
+                use(zipf.sample(random), 10L + random.nextInt(991),
+                        stats.get(Operation.USE));
+            }
+        }
+        return stats;
+    }
+
+    private void use(int account, long amount, OperationStats stats) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("userId", ownerIds[account]);
+        body.put("accountNumber", accountNumbers[account]);
+        body.put("amount", amount);
+
+        JsonNode response = post("/transaction/use", body, stats);
+        if (response != null) {
+            netUsed.addAndGet(account, amount);
+            cancelable.offer(new UsedTransaction(
+                    account, response.get("transactionId").asText(), amount));
+        }
+    }
+
+    private void cancel(UsedTransaction used, OperationStats stats) {
+        Map<String, Object> body = new HashMap<>();
+        body.put("transactionId", used.getTransactionId());
+        body.put("accountNumber", accountNumbers[used.getAccount()]);
+        body.put("amount", used.getAmount());
+
+        JsonNode response = post("/transaction/cancel", body, stats);
+        if (response != null) {
+            netUsed.addAndGet(used.getAccount(), -used.getAmount());
+        }
+    }
+
+    /**
+     * 성공하면 응답, 실패하면 결과를 집계하고 null
+     */
+    private JsonNode post(String path, Map<String, Object> body, OperationStats stats) {
+        long started = System.nanoTime();
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder()
+                            .uri(URI.create(baseUrl + path))
+                            .timeout(Duration.ofSeconds(30))
+                            .header("Content-Type", "application/json")
+                            .POST(HttpRequest.BodyPublishers.ofString(
+                                    objectMapper.writeValueAsString(body)))
+                            .build(),
+                    HttpResponse.BodyHandlers.ofString());
+            stats.latencies.add(System.nanoTime() - started);
+
+            JsonNode json = objectMapper.readTree(response.body());
+            JsonNode errorCode = json.get("errorCode");
+            if (response.statusCode() == 200 && (errorCode == null || errorCode.isNull())) {
+                stats.succeeded++;
+                return json;
+            }
+            if (errorCode != null && ErrorCode.ACCOUNT_TRANSACTION_LOCK.name()
+                    .equals(errorCode.asText())) {
+                stats.lockRejected++;
+            } else {
+                stats.failed++;
+            }
+            return null;
+        } catch (IOException e) {
+            //요청이 처리됐는지 알 수 없음 - 응답 기준 잔액 확인은 건너뜀
+            stats.errors++;
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stats.errors++;
+            return null;
+        }
+    }
+
+    private void report(Map<Operation, OperationStats> stats) {
+        System.out.println();
+        System.out.printf("%-8s %10s %10s %10s %10s %10s %10s %10s %10s%n",
+                "op", "requests", "ops/s", "p50(ms)", "p99(ms)", "p999(ms)",
+                "success", "lock(%)", "fail");
+        stats.forEach((operation, operationStats) -> {
+            long requests = operationStats.requests();
+            long[] latencies = operationStats.latencies.sorted();
+            System.out.printf("%-8s %10d %10.1f %10.1f %10.1f %10.1f %10d %10.2f %10d%n",
+                    operation, requests,
+                    requests / (operationStats.elapsedNanos / 1e9),
+                    percentile(latencies, 0.50), percentile(latencies, 0.99),
+                    percentile(latencies, 0.999),
+                    operationStats.succeeded,
+                    requests == 0 ? 0.0 : operationStats.lockRejected * 100.0 / requests,
+                    operationStats.failed + operationStats.errors);
+        });
+    }
+
+    /**
+     * 잔액 확인
+     * DB : 잔액 = 처음 잔액 - 성공한 사용 거래 합 + 성공한 취소 거래 합
+     * 응답 : 잔액 = 처음 잔액 - 성공 응답을 받은 사용 금액 + 성공 응답을 받은 취소 금액
+     */
+    private boolean verifyBalances(boolean checkResponses) throws InterruptedException {
+        //남아 있는 실패 거래를 모두 저장한 뒤 집계
+        context.getBean(FailedTransactionRecorder.class).shutdown();
+
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        Map<String, Long> balances = new HashMap<>();
+        jdbcTemplate.query("select account_number, balance from account",
+                resultSet -> {
+                    balances.put(resultSet.getString(1), resultSet.getLong(2));
+                });
+        Map<String, Long> netByRows = new HashMap<>();
+        jdbcTemplate.query("select a.account_number, " +
+                        "sum(case when t.transaction_type = 'USE' then t.amount else -t.amount end) " +
+                        "from transaction t join account a on a.id = t.account_id " +
+                        "where t.transaction_result_type = 'SUCCESS' " +
+                        "and t.transaction_type in ('USE', 'CANCEL') " +
+                        "group by a.account_number",
+                resultSet -> {
+                    netByRows.put(resultSet.getString(1), resultSet.getLong(2));
+                });
+        Long failRows = jdbcTemplate.queryForObject(
+                "select count(*) from transaction where transaction_result_type = 'FAIL'",
+                Long.class);
+
+        int rowMismatches = 0;
+        int responseMismatches = 0;
+        for (int i = 0; i < accountNumbers.length; i++) {
+            long balance = balances.get(accountNumbers[i]);
+            long byRows = options.initialBalance
+                    - netByRows.getOrDefault(accountNumbers[i], 0L);
+            long byResponses = options.initialBalance - netUsed.get(i);
+            if (balance != byRows) {
+                rowMismatches++;
+                System.out.printf("balance mismatch (rows) %s : balance %d, expected %d%n",
+                        accountNumbers[i], balance, byRows);
+            }
+            if (checkResponses && balance != byResponses) {
+                responseMismatches++;
+                System.out.printf("balance mismatch (responses) %s : balance %d, expected %d%n",
+                        accountNumbers[i], balance, byResponses);
+            }
+        }
+
+        System.out.println();
+        System.out.println("FAIL transaction rows : " + failRows);
+        System.out.printf("balance check : %d accounts, %d mismatches by rows, "
+                        + "%s mismatches by responses%n",
+                accountNumbers.length, rowMismatches,
+                checkResponses ? String.valueOf(responseMismatches) : "skipped (request errors)");
+        return rowMismatches == 0 && responseMismatches == 0;
+    }
+
+    private static double percentile(long[] sortedNanos, double percentile) {
+        if (sortedNanos.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sortedNanos.length) - 1;
+        return sortedNanos[Math.max(index, 0)] / 1e6;
+    }
+
+    private enum Operation {
+        USE, CANCEL
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class UsedTransaction {
+        private final int account;
+        private final String transactionId;
+        private final long amount;
+    }
+
+    /**
+     * 스레드별로 모은 뒤 끝나고 합침 (요청 중에는 공유하지 않음)
+     */
+    private static class OperationStats {
+        private final LongArray latencies = new LongArray();
+        private long succeeded;
+        private long lockRejected;
+        private long failed;
+        private long errors;
+        private long elapsedNanos;
+
+        private long requests() {
+            return succeeded + lockRejected + failed + errors;
+        }
+
+        private void merge(OperationStats other) {
+            latencies.addAll(other.latencies);
+            succeeded += other.succeeded;
+            lockRejected += other.lockRejected;
+            failed += other.failed;
+            errors += other.errors;
+        }
+    }
+
+    private static class LongArray {
+        private long[] values = new long[1024];
+        private int size;
+
+        private void add(long value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        private void addAll(LongArray other) {
+            for (int i = 0; i < other.size; i++) {
+                add(other.values[i]);
+            }
+        }
+
+        private long[] sorted() {
+            long[] copy = Arrays.copyOf(values, size);
+            Arrays.sort(copy);
+            return copy;
+        }
+    }
+
+    /**
+     * key=value 형식의 실행 인자
+     */
+    private static class Options {
+        private int accounts = 100;
+        private double skew = 1.0;
+        private int concurrency = 32;
+        private int duration = 30;
+        private double cancelRatio = 0.2;
+        private long initialBalance = 100_000_000L;
+        private int redisPort = 6393;
+
+        private static Options parse(String[] args) {
+            Options options = new Options();
+            for (String arg : args) {
+                String[] pair = arg.split("=", 2);
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("key=value 형식이 아닙니다 : " + arg);
+                }
+                switch (pair[0]) {
+                    case "accounts":
+                        options.accounts = Integer.parseInt(pair[1]);
+                        break;
+                    case "skew":
+                        options.skew = Double.parseDouble(pair[1]);
+                        break;
+                    case "concurrency":
+                        options.concurrency = Integer.parseInt(pair[1]);
+                        break;
+                    case "duration":
+                        options.duration = Integer.parseInt(pair[1]);
+                        break;
+                    case "cancel-ratio":
+                        options.cancelRatio = Double.parseDouble(pair[1]);
+                        break;
+                    case "initial-balance":
+                        options.initialBalance = Long.parseLong(pair[1]);
+                        break;
+                    case "redis-port":
+                        options.redisPort = Integer.parseInt(pair[1]);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("알 수 없는 옵션입니다 : " + pair[0]);
+                }
+            }
+            return options;
+        }
+
+        @Override
+        public String toString() {
+            return "accounts=" + accounts + " skew=" + skew + " concurrency=" + concurrency
+                    + " duration=" + duration + "s cancel-ratio=" + cancelRatio
+                    + " initial-balance=" + initialBalance;
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.mission2_account.loadtest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * 0 ~ n-1 순위 중 하나를 Zipf 분포로 뽑음 (순위 k 의 확률은 1 / (k + 1)^skew 에 비례)
+ * skew 가 0 이면 균등 분포, 클수록 0번(hot) 계좌로 요청이 몰림
+ * 누적 확률을 미리 계산해 두고 이진 탐색으로 뽑음
+ */
+public class ZipfDistribution {
+    private final double[] cumulative;
+
+    public ZipfDistribution(int n, double skew) {
+        if (n < 1 || skew < 0) {
+            throw new IllegalArgumentException("n : " + n + ", skew : " + skew);
+        }
+
+        cumulative = new double[n];
+        double sum = 0;
+        for (int k = 0; k < n; k++) {
+            sum += 1.0 / Math.pow(k + 1, skew);
+            cumulative[k] = sum;
+        }
+        for (int k = 0; k < n; k++) {
+            cumulative[k] /= sum;
+        }
+    }
+
+    public int sample(Random random) {
+        int index = Arrays.binarySearch(cumulative, random.nextDouble());
+        //찾는 값이 없으면 (-(삽입 위치) - 1) 리턴
+        int rank = index >= 0 ? index : -index - 1;
+        return Math.min(rank, cumulative.length - 1);
+    }
+
+    /**
+     * 순위 k 가 뽑힐 확률
+     */
+    public double probability(int k) {
+        return k == 0 ? cumulative[0] : cumulative[k] - cumulative[k - 1];
+    }
+}
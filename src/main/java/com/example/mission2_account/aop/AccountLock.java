@@ -1,5 +1,8 @@
 package com.example.mission2_account.aop;
 
+import com.example.mission2_account.type.AccountLockStrategy;
+import com.example.mission2_account.type.LockLeaseMode;
+
 import java.lang.annotation.*;
 
 @Target(ElementType.METHOD)
@@ -7,5 +10,18 @@ import java.lang.annotation.*;
 @Documented
 @Inherited
 public @interface AccountLock {
+    //잠금 획득 대기 시간(ms), 이 시간 안에 못 얻으면 ACCOUNT_TRANSACTION_LOCK
     long tryLockTime() default 5000L;
+
+    //잠금 유지 시간(ms), FIXED 모드에서만 사용
+    long leaseTime() default 15000L;
+
+    //잠금 유지 방식
+    LockLeaseMode leaseMode() default LockLeaseMode.FIXED;
+
+    //account.transaction.mode 가 ATOMIC 이면 잠금 없이 실행
+    boolean optionalInAtomicMode() default false;
+
+    //같은 계좌 요청 처리 방식 (즉시 잠금 시도 / 계좌별 큐에서 순서대로 처리)
+    AccountLockStrategy strategy() default AccountLockStrategy.LOCK;
 }
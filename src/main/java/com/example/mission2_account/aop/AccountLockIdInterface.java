@@ -1,5 +1,17 @@
 package com.example.mission2_account.aop;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.Collections;
+import java.util.List;
+
 public interface AccountLockIdInterface {
     String getAccountNumber();
+
+    //잠금이 필요한 계좌 번호 전체 (이체처럼 여러 계좌를 바꾸는 요청은 재정의)
+    //LockAopAspect 가 정렬된 순서로 잠그므로 순서는 상관없음
+    @JsonIgnore
+    default List<String> getAccountNumbers() {
+        return Collections.singletonList(getAccountNumber());
+    }
 }
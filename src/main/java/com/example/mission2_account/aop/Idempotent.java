@@ -0,0 +1,16 @@
+package com.example.mission2_account.aop;
+
+import java.lang.annotation.*;
+
+/**
+ * Idempotency-Key 헤더가 있는 요청은 처음 응답을 저장해 두고
+ * 같은 키로 다시 요청하면 서비스 실행, 계좌 잠금 없이 저장된 응답을 돌려줌
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+public @interface Idempotent {
+    //같은 키라도 작업(잔액 사용, 잔액 사용 취소)이 다르면 다른 요청
+    String operation();
+}
@@ -0,0 +1,18 @@
+package com.example.mission2_account.aop;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.annotation.*;
+
+/**
+ * 조회 전용 트랜잭션
+ * 데이터소스 라우팅(account.datasource.routing.enabled)을 켜면 replica 로 조회
+ * replica 지연이 허용 범위를 넘거나 연결할 수 없으면 primary 로 조회
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+@Inherited
+@Transactional(readOnly = true)
+public @interface ReadOnlyTransactional {
+}
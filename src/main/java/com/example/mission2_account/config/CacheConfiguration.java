@@ -0,0 +1,45 @@
+package com.example.mission2_account.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Collections;
+
+/**
+ * 로컬 near cache (Caffeine)
+ * 사용자 존재 여부, 계좌 번호 -> 계좌 아이디, 소유주처럼 거의 바뀌지 않는 조회 결과를 노드 메모리에 보관
+ * 캐시마다 크기, 만료 시간을 따로 두고 적중, 실패, 제거 수는 cache.* 지표로 확인
+ */
+@Configuration
+@EnableCaching
+@ConditionalOnProperty(prefix = "account.cache", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class CacheConfiguration {
+    public static final String ACCOUNT_USER_CACHE = "accountUser";
+    public static final String ACCOUNT_IDENTITY_CACHE = "accountIdentity";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${account.cache.account-user:maximumSize=10000,expireAfterWrite=10m}")
+                    String accountUserSpec,
+            @Value("${account.cache.account-identity:maximumSize=100000,expireAfterWrite=10m}")
+                    String accountIdentitySpec
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        //등록한 캐시만 사용 (이름을 잘못 쓰면 크기 제한 없는 캐시가 생기지 않도록)
+        cacheManager.setCacheNames(Collections.emptyList());
+        //없는 사용자, 계좌는 나중에 생길 수 있으므로 저장하지 않음
+        cacheManager.setAllowNullValues(false);
+        cacheManager.registerCustomCache(ACCOUNT_USER_CACHE,
+                Caffeine.from(accountUserSpec).recordStats().build());
+        cacheManager.registerCustomCache(ACCOUNT_IDENTITY_CACHE,
+                Caffeine.from(accountIdentitySpec).recordStats().build());
+        return cacheManager;
+    }
+}
@@ -15,10 +15,21 @@ public class RedisRepositoryConfig {
     @Value("${spring.redis.port}")
     private int redisPort;
 
+    //WATCHDOG 모드 잠금의 만료 시간(ms), 1/3 주기마다 연장됨
+    @Value("${account.lock.watchdog-timeout:30000}")
+    private long lockWatchdogTimeout;
+
+    //Redis 연결 pool 최대 크기 (RedissonPoolMetrics 의 redisson.connections.max)
+    @Value("${account.redis.connection-pool-size:64}")
+    private int connectionPoolSize;
+
     @Bean
     public RedissonClient redissonClient() {
         Config config = new Config();
-        config.useSingleServer().setAddress("redis://" + redisHost + ":" +redisPort);
+        config.useSingleServer()
+                .setAddress("redis://" + redisHost + ":" +redisPort)
+                .setConnectionPoolSize(connectionPoolSize);
+        config.setLockWatchdogTimeout(lockWatchdogTimeout);
 
         return Redisson.create(config);
     }
@@ -0,0 +1,74 @@
+package com.example.mission2_account.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.redisnode.RedisNode;
+import org.redisson.api.redisnode.RedisNodes;
+import org.redisson.api.redisnode.RedisSingle;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis 연결 상태 (Redisson 공개 API 로 알 수 있는 값만)
+ * redisson.connections.max : 설정한 pool 최대 크기
+ * redis.clients.connected : Redis 서버에 연결된 클라이언트 수 (INFO clients, 모든 노드의 연결 합)
+ * redisson.nodes.available : 응답하는(ping) Redis 노드 수
+ * 노드별 연결 pool 의 열린/사용 중 연결 수는 공개 API 로 알 수 없어서 제공하지 않음
+ * 값은 수집할 때 읽으므로 Redis 가 뜨기 전에 만들어져도 됨 (연결은 RedisRepositoryConfig 의 단일 서버)
+ */
+@Slf4j
+@Component
+public class RedissonPoolMetrics {
+    private static final long PING_TIMEOUT_MILLIS = 500;
+
+    //Gauge 는 대상 객체를 약한 참조로 들고 있으므로 빈 필드로 유지
+    private RedisSingle redisNodes;
+
+    public RedissonPoolMetrics(
+            RedissonClient redissonClient,
+            @Value("${account.redis.connection-pool-size:64}") int connectionPoolSize,
+            MeterRegistry meterRegistry
+    ) {
+        Gauge.builder("redisson.connections.max", () -> connectionPoolSize)
+                .description("Redis 연결 pool 최대 크기")
+                .register(meterRegistry);
+
+        try {
+            redisNodes = redissonClient.getRedisNodes(RedisNodes.SINGLE);
+        } catch (RuntimeException e) {
+            log.warn("Skip redis node metrics. Not a single server client.", e);
+            return;
+        }
+
+        Gauge.builder("redis.clients.connected", this, RedissonPoolMetrics::connectedClients)
+                .description("Redis 서버에 연결된 클라이언트 수")
+                .register(meterRegistry);
+        Gauge.builder("redisson.nodes.available", this, RedissonPoolMetrics::availableNodes)
+                .description("응답하는 Redis 노드 수")
+                .register(meterRegistry);
+    }
+
+    private double availableNodes() {
+        try {
+            return redisNodes.pingAll(PING_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS) ? 1 : 0;
+        } catch (RuntimeException e) {
+            return 0;
+        }
+    }
+
+    private double connectedClients() {
+        try {
+            Map<String, String> clients = redisNodes.getInstance()
+                    .info(RedisNode.InfoSection.CLIENTS);
+            return Double.parseDouble(clients.getOrDefault("connected_clients", "NaN"));
+        } catch (RuntimeException e) {
+            log.debug("Failed to read redis clients info.", e);
+            return Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.mission2_account.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.annotation.PostConstruct;
+import javax.sql.DataSource;
+
+/**
+ * replica 지연 확인
+ * lag-query 결과(ms)가 max-lag 이하일 때만 replica 사용 가능으로 표시
+ * 조회에 실패하면(연결 불가 등) 사용 불가로 표시해서 primary 로 조회하게 함
+ * (데이터소스 생성 중에 MeterRegistry 를 참조하지 않도록 지표는 MeterBinder 로 등록)
+ */
+@Slf4j
+public class ReplicaLagMonitor implements MeterBinder {
+    private final JdbcTemplate replicaJdbcTemplate;
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    private volatile boolean replicaAvailable;
+    private volatile long lagMillis = -1;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, String lagQuery,
+                             long maxLagMillis) {
+        this.replicaJdbcTemplate = new JdbcTemplate(replicaDataSource);
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder("account.datasource.replica.lag", this, monitor -> monitor.lagMillis)
+                .description("replica 지연 시간, 확인 실패 시 -1")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        Gauge.builder("account.datasource.replica.available", this,
+                        monitor -> monitor.replicaAvailable ? 1 : 0)
+                .description("replica 로 조회 가능 여부")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${account.datasource.routing.lag-check-interval:1000}")
+    public void check() {
+        boolean available;
+        try {
+            Long lag = replicaJdbcTemplate.queryForObject(lagQuery, Long.class);
+            lagMillis = lag == null ? -1 : lag;
+            available = lag != null && lag <= maxLagMillis;
+        } catch (RuntimeException e) {
+            lagMillis = -1;
+            available = false;
+        }
+
+        if (available != replicaAvailable) {
+            log.warn("Replica is {}. lag : {}ms, max lag : {}ms",
+                    available ? "available" : "unavailable, reading from primary",
+                    lagMillis, maxLagMillis);
+        }
+        replicaAvailable = available;
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+}
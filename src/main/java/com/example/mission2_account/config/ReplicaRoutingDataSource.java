@@ -0,0 +1,44 @@
+package com.example.mission2_account.config;
+
+import com.example.mission2_account.type.DataSourceType;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 조회 전용 트랜잭션은 replica, 나머지는 primary 로 연결
+ * 트랜잭션 시작 후 첫 쿼리 때 연결을 고르도록 LazyConnectionDataSourceProxy 로 감싸서 사용
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final LongAdder fallbackCount = new LongAdder();
+
+    public ReplicaRoutingDataSource(ReplicaLagMonitor replicaLagMonitor) {
+        this.replicaLagMonitor = replicaLagMonitor;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("account.datasource.replica.fallback", fallbackCount,
+                        LongAdder::sum)
+                .description("replica 지연, 장애로 primary 에서 처리한 조회 수")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return DataSourceType.PRIMARY;
+        }
+
+        if (!replicaLagMonitor.isReplicaAvailable()) {
+            fallbackCount.increment();
+            return DataSourceType.PRIMARY;
+        }
+        return DataSourceType.REPLICA;
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.mission2_account.config;
+
+import com.example.mission2_account.service.RequestTracer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * 계좌, 거래 API 요청마다 구간 시간 기록 (RequestTracer)
+ * 관리용(/admin, /actuator) 요청은 기록하지 않음
+ * 비동기 요청(CompletableFuture, StreamingResponseBody 등)은 요청 스레드가 먼저 돌아오므로 응답이 끝날 때 trace 를 끝냄
+ */
+@Component
+@RequiredArgsConstructor
+public class RequestTraceFilter extends OncePerRequestFilter {
+    private final RequestTracer requestTracer;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        requestTracer.begin(request.getMethod(), request.getRequestURI());
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            if (request.isAsyncStarted()) {
+                endOnAsyncComplete(request);
+            } else {
+                requestTracer.end();
+            }
+        }
+    }
+
+    private void endOnAsyncComplete(HttpServletRequest request) {
+        RequestTracer.ActiveTrace trace = requestTracer.current();
+        requestTracer.detach();
+
+        request.getAsyncContext().addListener(new AsyncListener() {
+            @Override
+            public void onComplete(AsyncEvent event) {
+                requestTracer.end(trace);
+            }
+
+            @Override
+            public void onTimeout(AsyncEvent event) {
+                requestTracer.end(trace);
+            }
+
+            @Override
+            public void onError(AsyncEvent event) {
+                requestTracer.end(trace);
+            }
+
+            @Override
+            public void onStartAsync(AsyncEvent event) {
+            }
+        });
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        return uri.startsWith("/admin") || uri.startsWith("/actuator");
+    }
+}
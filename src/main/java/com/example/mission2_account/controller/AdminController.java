@@ -0,0 +1,29 @@
+package com.example.mission2_account.controller;
+
+import com.example.mission2_account.dto.RequestTraceResponse;
+import com.example.mission2_account.service.RequestTraceBuffer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@RestController
+@RequiredArgsConstructor
+public class AdminController {
+    private final RequestTraceBuffer requestTraceBuffer;
+
+    /**
+     * 최근 요청 중 가장 오래 걸린 요청과 구간별 시간 (잠금 대기, DB 조회/저장, 커밋 등)
+     * */
+    @GetMapping("/admin/traces/slowest")
+    public List<RequestTraceResponse> getSlowestRequests(
+            @RequestParam(defaultValue = "10") int limit
+    ) {
+        return requestTraceBuffer.slowest(Math.max(1, Math.min(limit, 100))).stream()
+                .map(RequestTraceResponse::from)
+                .collect(Collectors.toList());
+    }
+}
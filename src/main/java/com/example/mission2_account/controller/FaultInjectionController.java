@@ -0,0 +1,40 @@
+package com.example.mission2_account.controller;
+
+import com.example.mission2_account.dto.FaultSpec;
+import com.example.mission2_account.service.FaultInjector;
+import com.example.mission2_account.type.FaultPoint;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.Map;
+
+/**
+ * 지연/오류 주입 설정 조회, 변경 (fault 프로필에서만 사용)
+ * */
+@RestController
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.fault", name = "enabled", havingValue = "true")
+public class FaultInjectionController {
+    private final FaultInjector faultInjector;
+
+    @GetMapping("/admin/faults")
+    public Map<FaultPoint, FaultSpec> getFaults() {
+        return faultInjector.getFaults();
+    }
+
+    @PutMapping("/admin/faults/{point}")
+    public FaultSpec setFault(
+            @PathVariable FaultPoint point,
+            @RequestBody @Valid FaultSpec fault
+    ) {
+        faultInjector.setFault(point, fault);
+        return fault;
+    }
+
+    @DeleteMapping("/admin/faults/{point}")
+    public void clearFault(@PathVariable FaultPoint point) {
+        faultInjector.clearFault(point);
+    }
+}
@@ -1,43 +1,77 @@
 package com.example.mission2_account.controller;
 
 import com.example.mission2_account.aop.AccountLock;
+import com.example.mission2_account.aop.Idempotent;
 import com.example.mission2_account.dto.CancelBalance;
 import com.example.mission2_account.dto.QueryTransactionResponse;
+import com.example.mission2_account.dto.TransactionHistory;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.dto.Transfer;
 import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.dto.UseBalanceBatch;
 import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.service.FailedTransactionRecorder;
+import com.example.mission2_account.service.TransactionAsyncService;
+import com.example.mission2_account.service.TransactionBatchService;
+import com.example.mission2_account.service.TransactionExportService;
 import com.example.mission2_account.service.TransactionService;
+import com.example.mission2_account.type.AccountLockStrategy;
+import com.example.mission2_account.type.LockLeaseMode;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import com.example.mission2_account.type.TransactionExportFormat;
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPOutputStream;
 
 @Slf4j
 @RestController
 @RequiredArgsConstructor
 public class TransactionController {
     private final TransactionService transactionService;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final TransactionExportService transactionExportService;
+    private final TransactionBatchService transactionBatchService;
+    private final TransactionAsyncService transactionAsyncService;
+
+    @Value("${account.transaction.mode:LOCKED}")
+    private TransactionExecutionMode transactionMode;
 
     /**
      * 거래 - 계좌 금액 사용
+     * Idempotency-Key 헤더가 있으면 같은 키의 재시도에 처음 응답을 돌려줌
      * */
     @PostMapping("/transaction/use")
-    @AccountLock
+    @Idempotent(operation = "use")
+    @AccountLock(tryLockTime = 1000L, leaseMode = LockLeaseMode.WATCHDOG,
+            optionalInAtomicMode = true)
     public UseBalance.Response useBalance(
             @RequestBody @Valid UseBalance.Request request
-    ) throws InterruptedException {
+    ) {
         try {
-            Thread.sleep(3000L);
-            return UseBalance.Response.from(
-                    transactionService.useBalance(
-                            request.getUserId(),
-                            request.getAccountNumber(),
-                            request.getAmount())
+            return UseBalance.Response.from(executeUseBalance(
+                    request.getUserId(),
+                    request.getAccountNumber(),
+                    request.getAmount())
             );
         } catch (AccountException e) {
             log.error("Failed to use balance");
 
-            transactionService.saveFailedUseTransaction(
+            failedTransactionRecorder.record(
+                    TransactionType.USE,
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -45,11 +79,61 @@ public class TransactionController {
         }
     }
 
+    private TransactionDto executeUseBalance(Long userId, String accountNumber, Long amount) {
+        if (transactionMode == TransactionExecutionMode.ATOMIC) {
+            return transactionService.useBalanceAtomic(userId, accountNumber, amount);
+        }
+
+        return transactionService.useBalance(userId, accountNumber, amount);
+    }
+
+    /**
+     * 거래 - 계좌 금액 사용 (비동기)
+     * 잠금 대기, DB 작업 동안 요청 스레드를 반납해서 같은 계좌에 요청이 몰려도 다른 API 가 밀리지 않음
+     * 잠금은 TransactionAsyncService 에서 직접 얻으므로 @AccountLock 없음 (Idempotency-Key 미지원)
+     * */
+    @PostMapping("/transaction/use/async")
+    public CompletableFuture<UseBalance.Response> useBalanceAsync(
+            @RequestBody @Valid UseBalance.Request request
+    ) {
+        return transactionAsyncService.useBalance(
+                        request.getUserId(),
+                        request.getAccountNumber(),
+                        request.getAmount())
+                .whenComplete((transactionDto, e) -> {
+                    if (e instanceof AccountException) {
+                        log.error("Failed to use balance");
+
+                        failedTransactionRecorder.record(
+                                TransactionType.USE,
+                                request.getAccountNumber(),
+                                request.getAmount()
+                        );
+                    }
+                })
+                .thenApply(UseBalance.Response::from);
+    }
+
+    /**
+     * 거래 - 계좌 금액 사용 여러 건
+     * 계좌 별로 묶어서 계좌 잠금은 한 번만 얻고, 다른 계좌는 병렬로 처리
+     * 요청 순서대로 건별 결과(성공 거래 또는 오류 코드) 리턴
+     * */
+    @PostMapping("/transaction/use/batch")
+    public UseBalanceBatch.Response useBalances(
+            @RequestBody @Valid UseBalanceBatch.Request request
+    ) {
+        return UseBalanceBatch.Response.from(
+                transactionBatchService.useBalances(request.getRequests()));
+    }
+
     /**
      * 거래 취소 - 계좌 금액 사용 취소
+     * Idempotency-Key 헤더가 있으면 같은 키의 재시도에 처음 응답을 돌려줌
      * */
     @PostMapping("/transaction/cancel")
-    @AccountLock
+    @Idempotent(operation = "cancel")
+    @AccountLock(tryLockTime = 1000L, strategy = AccountLockStrategy.QUEUE)
     public CancelBalance.Response cancelBalance(
             @Valid @RequestBody CancelBalance.Request request
     ) {
@@ -64,7 +148,8 @@ public class TransactionController {
         } catch (AccountException e) {
             log.error("Failed to use balance");
 
-            transactionService.saveFailedCancelTransaction(
+            failedTransactionRecorder.record(
+                    TransactionType.CANCEL,
                     request.getAccountNumber(),
                     request.getAmount()
             );
@@ -73,6 +158,62 @@ public class TransactionController {
         }
     }
 
+    /**
+     * 거래 취소 - 계좌 금액 사용 취소 (비동기)
+     * 잠금은 TransactionAsyncService 에서 직접 얻으므로 @AccountLock 없음 (Idempotency-Key 미지원)
+     * */
+    @PostMapping("/transaction/cancel/async")
+    public CompletableFuture<CancelBalance.Response> cancelBalanceAsync(
+            @Valid @RequestBody CancelBalance.Request request
+    ) {
+        return transactionAsyncService.cancelBalance(
+                        request.getTransactionId(),
+                        request.getAccountNumber(),
+                        request.getAmount())
+                .whenComplete((transactionDto, e) -> {
+                    if (e instanceof AccountException) {
+                        log.error("Failed to cancel balance");
+
+                        failedTransactionRecorder.record(
+                                TransactionType.CANCEL,
+                                request.getAccountNumber(),
+                                request.getAmount()
+                        );
+                    }
+                })
+                .thenApply(CancelBalance.Response::from);
+    }
+
+    /**
+     * 이체 - 보내는 계좌에서 받는 계좌로 금액 이동
+     * 두 계좌를 계좌 번호 순서로 잠그고 출금, 입금 거래를 한 트랜잭션에서 저장
+     * Idempotency-Key 헤더가 있으면 같은 키의 재시도에 처음 응답을 돌려줌
+     * */
+    @PostMapping("/transaction/transfer")
+    @Idempotent(operation = "transfer")
+    @AccountLock(tryLockTime = 1000L, leaseMode = LockLeaseMode.WATCHDOG)
+    public Transfer.Response transfer(
+            @RequestBody @Valid Transfer.Request request
+    ) {
+        try {
+            return Transfer.Response.from(transactionService.transfer(
+                    request.getUserId(),
+                    request.getFromAccountNumber(),
+                    request.getToAccountNumber(),
+                    request.getAmount())
+            );
+        } catch (AccountException e) {
+            log.error("Failed to transfer");
+
+            failedTransactionRecorder.record(
+                    TransactionType.TRANSFER_OUT,
+                    request.getFromAccountNumber(),
+                    request.getAmount()
+            );
+            throw e;
+        }
+    }
+
     /**
      * 잔액 사용 확인
      * */
@@ -83,4 +224,71 @@ public class TransactionController {
         return QueryTransactionResponse.from(
                 transactionService.queryTransaction(transactionId));
     }
+
+    /**
+     * 계좌 거래 내역 조회 (최근 거래부터)
+     * 다음 페이지는 응답의 nextCursor 를 cursor 로 전달
+     */
+    @GetMapping("/account/{accountNumber}/transactions")
+    public TransactionHistory.Response getTransactionHistory(
+            @PathVariable String accountNumber,
+            @RequestParam(value = "transaction_type", required = false)
+            TransactionType transactionType,
+            @RequestParam(value = "transaction_result", required = false)
+            TransactionResultType transactionResult,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "size", defaultValue = "20") int size
+    ) {
+        return TransactionHistory.Response.from(accountNumber,
+                transactionService.getTransactionHistory(
+                        accountNumber, transactionType, transactionResult,
+                        from, to, cursor, size));
+    }
+
+    /**
+     * 거래 내역 내보내기 (NDJSON, CSV)
+     * 1년이 지나 보관된 거래도 포함
+     * 조회하면서 바로 응답에 쓰므로 거래 건수와 관계없이 메모리 사용량이 일정함
+     * gzip=true 면 압축한 파일로 내려줌
+     */
+    @GetMapping("/transaction/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(value = "format", defaultValue = "NDJSON")
+            TransactionExportFormat format,
+            @RequestParam(value = "account_number", required = false) String accountNumber,
+            @RequestParam(value = "from", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(value = "to", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(value = "gzip", defaultValue = "false") boolean gzip
+    ) {
+        String fileName = "transactions." + format.name().toLowerCase() + (gzip ? ".gz" : "");
+        MediaType contentType = gzip
+                ? MediaType.parseMediaType("application/gzip")
+                : format == TransactionExportFormat.CSV
+                ? MediaType.parseMediaType("text/csv")
+                : MediaType.parseMediaType("application/x-ndjson");
+
+        StreamingResponseBody body = out -> {
+            if (gzip) {
+                try (GZIPOutputStream gzipOut = new GZIPOutputStream(out, 64 * 1024)) {
+                    transactionExportService.export(format, accountNumber, from, to, gzipOut);
+                }
+            } else {
+                transactionExportService.export(format, accountNumber, from, to, out);
+            }
+        };
+
+        return ResponseEntity.ok()
+                .contentType(contentType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename(fileName)
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
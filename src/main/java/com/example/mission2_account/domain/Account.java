@@ -4,10 +4,13 @@ import com.example.mission2_account.exception.AccountException;
 import com.example.mission2_account.type.AccountStatus;
 import lombok.*;
 
+import javax.persistence.Column;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
 import javax.persistence.ManyToOne;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 import static com.example.mission2_account.type.ErrorCode.*;
@@ -20,8 +23,9 @@ import static com.example.mission2_account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
 @Builder
 @Entity
 public class Account extends BaseEntity{
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private AccountUser accountUser;        //계좌 소유주
+    @Column(unique = true)
     private String accountNumber;           //계좌 번호
 
     @Enumerated(EnumType.STRING)
@@ -31,6 +35,9 @@ public class Account extends BaseEntity{
     private LocalDateTime registeredAt;     //계좌 가입 날짜
     private LocalDateTime unRegisteredAt;   //계좌 해지 날짜
 
+    @Version
+    private Long version;                   //계좌 수정 버전(잔액 캐시에 늦게 도착한 이전 값이 덮어쓰지 않도록 비교)
+
     //계좌 금액 사용(계좌 금액보다 사용량이 많으면 오류 출력)
     public void useBalance(Long amount) {
         if (amount > balance) {
@@ -1,12 +1,15 @@
 package com.example.mission2_account.domain;
 
 import lombok.*;
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import javax.persistence.EntityListeners;
 import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.MappedSuperclass;
 import java.time.LocalDateTime;
@@ -18,8 +21,21 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 @EntityListeners(AuditingEntityListener.class)
 public class BaseEntity {
+    /**
+     * 엔티티별 시퀀스(account_seq, transaction_seq ...)를 pooled-lo 방식으로 사용
+     * 시퀀스를 한 번 읽으면 increment_size 개의 id 를 메모리에서 발급하므로
+     * insert 마다 시퀀스를 조회하지 않고, JDBC batch insert 도 가능
+     */
     @Id
-    @GeneratedValue
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "pooledLoSequence")
+    @GenericGenerator(
+            name = "pooledLoSequence",
+            strategy = "org.hibernate.id.enhanced.SequenceStyleGenerator",
+            parameters = {
+                    @Parameter(name = "prefer_sequence_per_entity", value = "true"),
+                    @Parameter(name = "increment_size", value = "50"),
+                    @Parameter(name = "optimizer", value = "pooled-lo")
+            })
     private Long id;        //계좌, 거래 등의 고유 id
 
     @CreatedDate
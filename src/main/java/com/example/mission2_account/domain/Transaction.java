@@ -7,7 +7,10 @@ import lombok.*;
 import javax.persistence.Entity;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
+import javax.persistence.FetchType;
+import javax.persistence.Index;
 import javax.persistence.ManyToOne;
+import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 @Getter
@@ -16,6 +19,13 @@ import java.time.LocalDateTime;
 @AllArgsConstructor
 @Builder
 @Entity
+@Table(indexes = {
+        //계좌별 거래 내역 keyset 조회 (account_id 로 찾고 최근 거래부터 읽음)
+        @Index(name = "idx_transaction_account_transacted_at",
+                columnList = "account_id DESC, transactedAt DESC, id DESC"),
+        //거래 아이디 조회, 실패 거래를 다시 저장할 때 같은 거래가 두 번 들어가지 않도록 unique
+        @Index(name = "uk_transaction_transaction_id", columnList = "transactionId", unique = true)
+})
 public class Transaction extends BaseEntity{
 
     //거래 상태(거래 사용, 취소 상태)
@@ -26,7 +36,7 @@ public class Transaction extends BaseEntity{
     @Enumerated(EnumType.STRING)
     private TransactionResultType transactionResultType;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Account account;                //거래 계좌
     private Long amount;                    //거래 금액
     private Long balanceSnapshot;           //잔액 조회금
@@ -0,0 +1,47 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.domain.Account;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 잔액 캐시에 보관하는 계좌 정보
+ * 계좌 수정 버전을 같이 보관해서 더 높은 버전만 캐시에 쓰도록 함
+ */
+@Getter
+@AllArgsConstructor
+@Builder
+@ToString
+public class AccountBalanceEntry {
+    private final Long accountId;
+    private final Long version;
+    private final Long userId;
+    private final String accountNumber;
+    private final Long balance;
+
+    private final LocalDateTime registeredAt;
+    private final LocalDateTime unRegisteredAt;
+
+    public static AccountBalanceEntry fromEntity(Account account) {
+        return AccountBalanceEntry.builder()
+                .accountId(account.getId())
+                .version(account.getVersion())
+                .userId(account.getAccountUser().getId())
+                .accountNumber(account.getAccountNumber())
+                .balance(account.getBalance())
+                .registeredAt(account.getRegisteredAt())
+                .unRegisteredAt(account.getUnRegisteredAt())
+                .build();
+    }
+
+    public AccountDto toAccountDto() {
+        return AccountDto.builder()
+                .userId(userId)
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .registeredAt(registeredAt)
+                .unRegisteredAt(unRegisteredAt)
+                .build();
+    }
+}
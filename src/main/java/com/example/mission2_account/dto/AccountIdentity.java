@@ -0,0 +1,15 @@
+package com.example.mission2_account.dto;
+
+import lombok.*;
+
+/**
+ * 계좌 번호로 찾은 계좌 아이디와 소유주 아이디
+ * 계좌가 만들어진 뒤 바뀌지 않는 값이라 near cache 에 보관 (계좌 해지 시 제거)
+ */
+@Getter
+@AllArgsConstructor
+@ToString
+public class AccountIdentity {
+    private final Long accountId;
+    private final Long accountUserId;
+}
@@ -0,0 +1,25 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.type.TransactionType;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 나중에 저장할 실패 거래 정보
+ * 거래 아이디와 거래 일시는 요청이 실패한 시점에 정해짐
+ * attempts 는 저장에 실패한 횟수 (spill 파일에 함께 기록)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FailedTransaction {
+    private TransactionType transactionType;
+    private String accountNumber;
+    private Long amount;
+    private String transactionId;
+    private LocalDateTime transactedAt;
+    private int attempts;
+}
@@ -0,0 +1,35 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.type.ErrorCode;
+import lombok.*;
+
+import javax.validation.constraints.DecimalMax;
+import javax.validation.constraints.DecimalMin;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Min;
+
+/**
+ * 한 지점에 주입할 지연/오류
+ * latency(ms) 에 0 ~ jitter(ms) 사이의 임의 시간을 더해서 대기한 뒤
+ * errorRate 확률로 errorCode(없으면 INTERNAL_SERVER_ERROR) 오류를 던짐
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FaultSpec {
+    @Min(0)
+    @Max(60_000)
+    private long latency;
+
+    @Min(0)
+    @Max(60_000)
+    private long jitter;
+
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double errorRate;
+
+    private ErrorCode errorCode;
+}
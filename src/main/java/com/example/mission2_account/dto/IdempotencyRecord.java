@@ -0,0 +1,21 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.type.ErrorCode;
+import com.example.mission2_account.type.IdempotencyStatus;
+import lombok.*;
+
+/**
+ * Idempotency-Key 로 저장한 요청 처리 상태와 처음 응답
+ * 요청 내용 fingerprint 를 같이 저장해서 같은 키로 다른 요청을 보내면 거절
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IdempotencyRecord {
+    private IdempotencyStatus status;
+    private String fingerprint;
+    private String response;        //COMPLETED 일 때 응답 JSON
+    private ErrorCode errorCode;    //FAILED 일 때 오류 코드
+}
@@ -0,0 +1,30 @@
+package com.example.mission2_account.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 끝난 요청 하나의 구간별 시간
+ * 구간의 시작 시각은 요청 시작 기준 상대 시간(ns), parent 는 상위 구간 위치 (-1 이면 요청 바로 아래)
+ */
+@Getter
+@AllArgsConstructor
+public class RequestTrace {
+    private final String traceId;
+    private final String method;
+    private final String uri;
+    private final long startEpochNanos;
+    private final long durationNanos;
+    private final List<Phase> phases;
+
+    @Getter
+    @AllArgsConstructor
+    public static class Phase {
+        private final String name;
+        private final int parent;
+        private final long startOffsetNanos;
+        private final long durationNanos;
+    }
+}
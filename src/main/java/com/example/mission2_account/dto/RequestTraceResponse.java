@@ -0,0 +1,69 @@
+package com.example.mission2_account.dto;
+
+import lombok.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 느린 요청 조회 응답
+ * 구간은 시작 순서대로, depth 는 중첩 깊이 (0 이면 요청 바로 아래)
+ * unaccountedMs : 요청 시간 중 depth 0 구간에 속하지 않는 시간 (필터, 컨트롤러, 직렬화 등)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RequestTraceResponse {
+    private String traceId;
+    private String method;
+    private String uri;
+    private Instant startedAt;
+    private double durationMs;
+    private double unaccountedMs;
+    private List<Phase> phases;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Phase {
+        private String name;
+        private int depth;
+        private double startMs;
+        private double durationMs;
+    }
+
+    public static RequestTraceResponse from(RequestTrace trace) {
+        List<RequestTrace.Phase> tracePhases = trace.getPhases();
+        int[] depths = new int[tracePhases.size()];
+        List<Phase> phases = new ArrayList<>(tracePhases.size());
+        long accounted = 0;
+        for (int i = 0; i < tracePhases.size(); i++) {
+            RequestTrace.Phase phase = tracePhases.get(i);
+            //상위 구간은 항상 먼저 시작하므로 앞에 있음
+            depths[i] = phase.getParent() < 0 ? 0 : depths[phase.getParent()] + 1;
+            if (depths[i] == 0) {
+                accounted += phase.getDurationNanos();
+            }
+            phases.add(new Phase(phase.getName(), depths[i],
+                    toMillis(phase.getStartOffsetNanos()), toMillis(phase.getDurationNanos())));
+        }
+
+        return RequestTraceResponse.builder()
+                .traceId(trace.getTraceId())
+                .method(trace.getMethod())
+                .uri(trace.getUri())
+                .startedAt(Instant.ofEpochSecond(0, trace.getStartEpochNanos()))
+                .durationMs(toMillis(trace.getDurationNanos()))
+                .unaccountedMs(toMillis(Math.max(0, trace.getDurationNanos() - accounted)))
+                .phases(phases)
+                .build();
+    }
+
+    private static double toMillis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
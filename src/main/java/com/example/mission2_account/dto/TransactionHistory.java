@@ -0,0 +1,35 @@
+package com.example.mission2_account.dto;
+
+import lombok.*;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
+
+public class TransactionHistory {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String accountNumber;
+        private List<TransactionHistoryItem> transactions;
+        private boolean hasNext;
+        private String nextCursor;          //다음 페이지 요청 시 cursor 로 전달
+
+        public static Response from(String accountNumber,
+                                    Slice<TransactionHistoryItem> slice) {
+            List<TransactionHistoryItem> transactions = slice.getContent();
+
+            return Response.builder()
+                    .accountNumber(accountNumber)
+                    .transactions(transactions)
+                    .hasNext(slice.hasNext())
+                    .nextCursor(slice.hasNext()
+                            ? TransactionHistoryCursor.from(
+                                    transactions.get(transactions.size() - 1)).encode()
+                            : null)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.exception.AccountException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+import static com.example.mission2_account.type.ErrorCode.INVALID_REQUEST;
+
+/**
+ * 거래 내역 keyset 페이지 커서
+ * 이전 페이지 마지막 거래의 (거래 일시, id) 로, 다음 페이지는 이 값보다 앞선 거래부터 조회
+ * 클라이언트에는 Base64 문자열로 전달
+ */
+@Getter
+@AllArgsConstructor
+public class TransactionHistoryCursor {
+    private static final String DELIMITER = "|";
+
+    private final LocalDateTime transactedAt;
+    private final Long id;
+
+    /**
+     * 첫 페이지용 커서 - to 이전의 모든 거래
+     */
+    public static TransactionHistoryCursor first(LocalDateTime to) {
+        return new TransactionHistoryCursor(to, Long.MIN_VALUE);
+    }
+
+    public static TransactionHistoryCursor from(TransactionHistoryItem item) {
+        return new TransactionHistoryCursor(item.getTransactedAt(), item.getId());
+    }
+
+    public static TransactionHistoryCursor decode(String cursor) {
+        try {
+            String decoded = new String(
+                    Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int delimiter = decoded.indexOf(DELIMITER);
+            return new TransactionHistoryCursor(
+                    LocalDateTime.parse(decoded.substring(0, delimiter)),
+                    Long.parseLong(decoded.substring(delimiter + 1)));
+        } catch (IllegalArgumentException | DateTimeParseException
+                 | StringIndexOutOfBoundsException e) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+    }
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (transactedAt + DELIMITER + id).getBytes(StandardCharsets.UTF_8));
+    }
+}
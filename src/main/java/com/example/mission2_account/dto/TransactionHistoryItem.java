@@ -0,0 +1,28 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * 거래 내역 목록의 한 건
+ * 계좌, 사용자 엔티티를 읽지 않도록 필요한 컬럼만 조회해서 생성 (select new)
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransactionHistoryItem {
+    @JsonIgnore
+    private Long id;                        //다음 페이지 커서용 거래 고유 id
+    private TransactionType transactionType;
+    private TransactionResultType transactionResult;
+    private String transactionId;
+    private Long amount;
+    private Long balanceSnapshot;
+    private LocalDateTime transactedAt;
+}
@@ -0,0 +1,78 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.aop.AccountLockIdInterface;
+import com.example.mission2_account.type.TransactionResultType;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.*;
+
+import javax.validation.constraints.*;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+
+public class Transfer {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request implements AccountLockIdInterface {
+        @NotNull
+        @Min(1)
+        private Long userId;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String fromAccountNumber;
+
+        @NotBlank
+        @Size(min = 10, max = 10)
+        private String toAccountNumber;
+
+        @NotNull
+        @Min(10)
+        @Max(1000_000_000)
+        private Long amount;
+
+        //실패 거래 기록, 계좌별 작업 큐는 보내는 계좌 기준
+        @JsonIgnore
+        @Override
+        public String getAccountNumber() {
+            return fromAccountNumber;
+        }
+
+        //두 계좌 모두 잠금
+        @Override
+        public List<String> getAccountNumbers() {
+            return Arrays.asList(fromAccountNumber, toAccountNumber);
+        }
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private String fromAccountNumber;
+        private String toAccountNumber;
+        private TransactionResultType transactionResult;
+        private String withdrawalTransactionId;
+        private String depositTransactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+
+        public static Response from(TransferDto transferDto) {
+            TransactionDto withdrawal = transferDto.getWithdrawal();
+            TransactionDto deposit = transferDto.getDeposit();
+            return Response.builder()
+                    .fromAccountNumber(withdrawal.getAccountNumber())
+                    .toAccountNumber(deposit.getAccountNumber())
+                    .transactionResult(withdrawal.getTransactionResultType())
+                    .withdrawalTransactionId(withdrawal.getTransactionId())
+                    .depositTransactionId(deposit.getTransactionId())
+                    .amount(withdrawal.getAmount())
+                    .transactedAt(withdrawal.getTransactedAt())
+                    .build();
+        }
+    }
+}
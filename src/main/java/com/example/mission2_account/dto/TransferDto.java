@@ -0,0 +1,16 @@
+package com.example.mission2_account.dto;
+
+import lombok.*;
+
+/**
+ * 이체 결과 - 같은 트랜잭션에서 저장한 출금, 입금 거래
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TransferDto {
+    private TransactionDto withdrawal;      //보내는 계좌의 출금 거래(TRANSFER_OUT)
+    private TransactionDto deposit;         //받는 계좌의 입금 거래(TRANSFER_IN)
+}
@@ -0,0 +1,77 @@
+package com.example.mission2_account.dto;
+
+import com.example.mission2_account.type.ErrorCode;
+import com.example.mission2_account.type.TransactionResultType;
+import lombok.*;
+
+import javax.validation.Valid;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.time.LocalDateTime;
+import java.util.List;
+
+public class UseBalanceBatch {
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Request {
+        @NotEmpty
+        @Size(max = 1000)
+        @Valid
+        private List<UseBalance.Request> requests;
+    }
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Response {
+        private List<Item> results;
+
+        public static Response from(List<Item> results) {
+            return new Response(results);
+        }
+    }
+
+    /**
+     * 요청 한 건의 결과 (index 는 요청 목록에서의 순서)
+     * 실패하면 transactionId 없이 오류 코드와 메시지
+     */
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Item {
+        private int index;
+        private String accountNumber;
+        private TransactionResultType transactionResult;
+        private String transactionId;
+        private Long amount;
+        private LocalDateTime transactedAt;
+        private ErrorCode errorCode;
+        private String errorMessage;
+
+        public static Item success(TransactionDto transactionDto) {
+            return Item.builder()
+                    .accountNumber(transactionDto.getAccountNumber())
+                    .transactionResult(transactionDto.getTransactionResultType())
+                    .transactionId(transactionDto.getTransactionId())
+                    .amount(transactionDto.getAmount())
+                    .transactedAt(transactionDto.getTransactedAt())
+                    .build();
+        }
+
+        public static Item failure(UseBalance.Request request, ErrorCode errorCode) {
+            return Item.builder()
+                    .accountNumber(request.getAccountNumber())
+                    .transactionResult(TransactionResultType.FAIL)
+                    .amount(request.getAmount())
+                    .errorCode(errorCode)
+                    .errorMessage(errorCode.getDescription())
+                    .build();
+        }
+    }
+}
@@ -1,38 +1,62 @@
 package com.example.mission2_account.exception;
 
 import com.example.mission2_account.dto.ErrorResponse;
+import com.example.mission2_account.type.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import java.util.EnumMap;
+import java.util.Map;
+
 import static com.example.mission2_account.type.ErrorCode.INTERNAL_SERVER_ERROR;
 import static com.example.mission2_account.type.ErrorCode.INVALID_REQUEST;
 
 
+/**
+ * 응답한 오류 코드 별 횟수 account.errors{errorCode}
+ */
 @Slf4j
 @RestControllerAdvice
 public class GlobalExceptionHandler {
+    private final Map<ErrorCode, Counter> errorCounters = new EnumMap<>(ErrorCode.class);
+
+    public GlobalExceptionHandler(MeterRegistry meterRegistry) {
+        for (ErrorCode errorCode : ErrorCode.values()) {
+            errorCounters.put(errorCode, Counter.builder("account.errors")
+                    .description("응답한 오류 코드 별 횟수")
+                    .tag("errorCode", errorCode.name())
+                    .register(meterRegistry));
+        }
+    }
 
     @ExceptionHandler(AccountException.class)
     public ErrorResponse handleAccountException(AccountException e) {
         log.error("{} is occurred.", e.getErrorCode());
 
-        return new ErrorResponse(e.getErrorCode(), e.getErrorMessage());
+        return errorResponse(e.getErrorCode(), e.getErrorMessage());
     }
 
     @ExceptionHandler(DataIntegrityViolationException.class)
     public ErrorResponse handleDataIntegrityViolationException(DataIntegrityViolationException e) {
         log.error("DataIntegrityViolationException is occurred.", e);
 
-        return new ErrorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
+        return errorResponse(INVALID_REQUEST, INVALID_REQUEST.getDescription());
     }
 
     @ExceptionHandler(Exception.class)
     public ErrorResponse handleException(Exception e) {
         log.error("Exception is occurred.", e);
 
-        return new ErrorResponse(INTERNAL_SERVER_ERROR,
-                INTERNAL_SERVER_ERROR.getDescription());
+        return errorResponse(INTERNAL_SERVER_ERROR, INTERNAL_SERVER_ERROR.getDescription());
+    }
+
+    private ErrorResponse errorResponse(ErrorCode errorCode, String errorMessage) {
+        errorCounters.get(errorCode).increment();
+
+        return new ErrorResponse(errorCode, errorMessage);
     }
 }
@@ -1,18 +1,80 @@
 package com.example.mission2_account.repository;
 
+import com.example.mission2_account.aop.ReadOnlyTransactional;
 import com.example.mission2_account.domain.Account;
 import com.example.mission2_account.domain.AccountUser;
+import com.example.mission2_account.dto.AccountBalanceEntry;
+import com.example.mission2_account.dto.AccountIdentity;
+import com.example.mission2_account.type.AccountStatus;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
+import static com.example.mission2_account.config.CacheConfiguration.ACCOUNT_IDENTITY_CACHE;
+
 @Repository
 public interface AccountRepository  extends JpaRepository<Account, Long> {
     Integer countByAccountUser(AccountUser accountUser);
 
     Optional<Account> findByAccountNumber(String accountNumber);
 
-    List<Account> findByAccountUser(AccountUser accountUser);
+    /**
+     * 사용자의 계좌 목록을 잔액 캐시 항목으로 조회 (소유주 아이디는 계좌의 외래 키라서 join 없음)
+     */
+    @ReadOnlyTransactional
+    @Query("select new com.example.mission2_account.dto.AccountBalanceEntry(" +
+            "a.id, a.version, a.accountUser.id, a.accountNumber, a.balance, " +
+            "a.registeredAt, a.unRegisteredAt) " +
+            "from Account a where a.accountUser.id = :userId order by a.id")
+    List<AccountBalanceEntry> findBalanceEntriesByAccountUserId(@Param("userId") Long userId);
+
+    /**
+     * 계좌 번호로 계좌 아이디, 소유주 아이디 조회 (near cache)
+     */
+    @Cacheable(cacheNames = ACCOUNT_IDENTITY_CACHE, unless = "#result == null")
+    @Query("select new com.example.mission2_account.dto.AccountIdentity(a.id, a.accountUser.id) " +
+            "from Account a where a.accountNumber = :accountNumber")
+    Optional<AccountIdentity> findIdentityByAccountNumber(
+            @Param("accountNumber") String accountNumber);
+
+    List<Account> findByAccountNumberIn(Collection<String> accountNumbers);
+
+    @Query("select a.accountNumber from Account a order by a.id")
+    Slice<String> findAccountNumbers(Pageable pageable);
+
+    /**
+     * 소유주, 계좌 상태, 잔액 조건을 모두 만족할 때만 잔액 차감
+     * 수정된 행 수(0 또는 1) 리턴
+     * 잔액 캐시 버전 비교를 위해 계좌 수정 버전도 올림 (versioned)
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Account a set a.balance = a.balance - :amount " +
+            "where a.accountNumber = :accountNumber " +
+            "and a.accountUser.id = :userId " +
+            "and a.accountStatus = :accountStatus " +
+            "and a.balance >= :amount")
+    int useBalanceIfSufficient(@Param("accountNumber") String accountNumber,
+                               @Param("userId") Long userId,
+                               @Param("accountStatus") AccountStatus accountStatus,
+                               @Param("amount") Long amount);
+
+    /**
+     * 읽은 잔액에 더해서 쓰지 않고 DB 에서 바로 잔액 증가 (ATOMIC 모드의 입금, 사용 취소)
+     * 계좌 잠금 없이 처리되는 조건부 차감과 동시에 실행돼도 어느 쪽 수정도 사라지지 않음
+     * 수정된 행 수(0 또는 1) 리턴
+     */
+    @Modifying(clearAutomatically = true)
+    @Query("update versioned Account a set a.balance = a.balance + :amount " +
+            "where a.accountNumber = :accountNumber")
+    int addBalance(@Param("accountNumber") String accountNumber,
+                   @Param("amount") Long amount);
 }
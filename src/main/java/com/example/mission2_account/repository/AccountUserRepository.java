@@ -1,11 +1,20 @@
 package com.example.mission2_account.repository;
 
 import com.example.mission2_account.domain.AccountUser;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import static com.example.mission2_account.config.CacheConfiguration.ACCOUNT_USER_CACHE;
+
 @Repository
 public interface AccountUserRepository
         extends JpaRepository<AccountUser, Long> {
 
+    /**
+     * 사용자 존재 여부 (near cache, 있는 사용자만 보관)
+     */
+    @Override
+    @Cacheable(cacheNames = ACCOUNT_USER_CACHE, unless = "!#result")
+    boolean existsById(Long id);
 }
@@ -1,13 +1,80 @@
 package com.example.mission2_account.repository;
 
 
+import com.example.mission2_account.aop.ReadOnlyTransactional;
 import com.example.mission2_account.domain.Transaction;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.dto.TransactionHistoryItem;
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface TransactionRepository extends JpaRepository<Transaction, Long> {
-    Optional<Transaction> findByTransactionId(String transactionId);
+public interface TransactionRepository extends JpaRepository<Transaction, Long>,
+        TransactionRepositoryCustom {
+    /**
+     * 거래와 거래 계좌를 한 번에 조회 (거래 취소)
+     */
+    @Query("select t from Transaction t join fetch t.account " +
+            "where t.transactionId = :transactionId")
+    Optional<Transaction> findWithAccountByTransactionId(
+            @Param("transactionId") String transactionId);
+
+    /**
+     * 주어진 거래 아이디 중 이미 저장된 것 (실패 거래 다시 저장 시 중복 방지)
+     */
+    @Query("select t.transactionId from Transaction t " +
+            "where t.transactionId in :transactionIds")
+    List<String> findTransactionIdsByTransactionIdIn(
+            @Param("transactionIds") Collection<String> transactionIds);
+
+    /**
+     * 거래 확인에 필요한 컬럼만 DTO 로 조회 (계좌는 계좌 번호만 join)
+     * 캐시 miss 때만 조회하므로 서비스 대신 여기서 조회 전용 트랜잭션 시작
+     */
+    @ReadOnlyTransactional
+    @Query("select new com.example.mission2_account.dto.TransactionDto(" +
+            "a.accountNumber, t.transactionType, t.transactionResultType, " +
+            "t.amount, t.balanceSnapshot, t.transactionId, t.transactedAt) " +
+            "from Transaction t join t.account a " +
+            "where t.transactionId = :transactionId")
+    Optional<TransactionDto> findDtoByTransactionId(
+            @Param("transactionId") String transactionId);
+
+    /**
+     * 계좌 거래 내역 keyset 조회 (거래 일시, id 역순)
+     * 커서(조회 기간 끝 포함)보다 앞선 거래부터 pageable 크기만큼 읽으므로
+     * 페이지 깊이와 관계없이 (account_id, transacted_at, id) 색인에서 바로 시작 위치를 찾음
+     * transactedAt <= 커서 조건은 색인 시작 위치용, 정렬에 account_id 를 넣은 것은 색인 순서를 그대로 쓰기 위함
+     * 조건이 없을 때도 null 대신 전체 범위 값을 넘겨서 같은 실행 계획을 사용
+     */
+    @Query("select new com.example.mission2_account.dto.TransactionHistoryItem(" +
+            "t.id, t.transactionType, t.transactionResultType, t.transactionId, " +
+            "t.amount, t.balanceSnapshot, t.transactedAt) " +
+            "from Transaction t " +
+            "where t.account.id = :accountId " +
+            "and t.transactedAt <= :cursorTransactedAt " +
+            "and (t.transactedAt < :cursorTransactedAt or t.id < :cursorId) " +
+            "and t.transactedAt >= :from " +
+            "and t.transactionType in :transactionTypes " +
+            "and t.transactionResultType in :transactionResultTypes " +
+            "order by t.account.id desc, t.transactedAt desc, t.id desc")
+    Slice<TransactionHistoryItem> findHistory(
+            @Param("accountId") Long accountId,
+            @Param("cursorTransactedAt") LocalDateTime cursorTransactedAt,
+            @Param("cursorId") Long cursorId,
+            @Param("from") LocalDateTime from,
+            @Param("transactionTypes") Collection<TransactionType> transactionTypes,
+            @Param("transactionResultTypes") Collection<TransactionResultType> transactionResultTypes,
+            Pageable pageable);
 }
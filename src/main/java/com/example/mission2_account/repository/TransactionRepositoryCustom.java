@@ -0,0 +1,14 @@
+package com.example.mission2_account.repository;
+
+import com.example.mission2_account.domain.Transaction;
+
+import java.util.Collection;
+
+public interface TransactionRepositoryCustom {
+    /**
+     * 거래 내역 여러 건을 JDBC batch insert 로 저장
+     * batch 크기마다 flush, clear 해서 영속성 컨텍스트가 커지지 않게 함
+     * 호출한 트랜잭션의 영속성 컨텍스트도 비워지므로, 저장 뒤에는 엔티티를 다시 조회해서 사용
+     */
+    void saveAllInBatches(Collection<Transaction> transactions);
+}
@@ -0,0 +1,40 @@
+package com.example.mission2_account.repository;
+
+import com.example.mission2_account.domain.Transaction;
+import org.springframework.beans.factory.annotation.Value;
+
+import javax.persistence.EntityManager;
+import javax.transaction.Transactional;
+import java.util.Collection;
+
+public class TransactionRepositoryImpl implements TransactionRepositoryCustom {
+    private final EntityManager entityManager;
+    private final int batchSize;
+
+    public TransactionRepositoryImpl(
+            EntityManager entityManager,
+            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int batchSize
+    ) {
+        this.entityManager = entityManager;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @Override
+    @Transactional
+    public void saveAllInBatches(Collection<Transaction> transactions) {
+        int count = 0;
+        for (Transaction transaction : transactions) {
+            entityManager.persist(transaction);
+
+            if (++count % batchSize == 0) {
+                entityManager.flush();
+                entityManager.clear();
+            }
+        }
+
+        if (count % batchSize != 0) {
+            entityManager.flush();
+            entityManager.clear();
+        }
+    }
+}
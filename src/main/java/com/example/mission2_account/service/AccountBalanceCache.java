@@ -0,0 +1,272 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.domain.Account;
+import com.example.mission2_account.dto.AccountBalanceEntry;
+import com.example.mission2_account.dto.AccountDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RScript;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * 사용자 계좌 목록, 잔액 캐시 (Redis hash, 사용자 별 key, 계좌 번호 -> 계좌 항목)
+ * 잔액이 바뀌는 거래는 커밋 직후(계좌 잠금을 가진 채로) 캐시에도 씀 (write-through)
+ * 항목은 "계좌 수정 버전|계좌 아이디|잔액|가입 일시|해지 일시" 형식이고
+ * 캐시에 있는 항목보다 버전이 높을 때만 씀 (늦게 도착한 이전 잔액이 최신 잔액을 덮어쓰지 않도록)
+ * 사용자의 계좌를 모두 DB 에서 읽어 채운 hash 에만 완료 표시가 있고, 완료 표시가 없으면 캐시 miss
+ */
+@Slf4j
+@Component
+public class AccountBalanceCache {
+    private static final String KEY_PREFIX = "ACBAL: ";
+    //검증 작업이 표본을 뽑는 캐시된 사용자 아이디 목록
+    private static final String USERS_KEY = "ACBAL: users";
+    private static final String COMPLETE_FIELD = "_complete";
+    private static final String SEPARATOR = "|";
+
+    /**
+     * KEYS[1] 사용자 key, ARGV 계좌 번호, 버전, 항목, 만료 시간(ms)
+     * 기존 항목의 버전이 같거나 높으면 쓰지 않고 0 리턴
+     */
+    private static final String PUT_SCRIPT =
+            "local current = redis.call('hget', KEYS[1], ARGV[1]) " +
+            "local version = current and tonumber(string.match(current, '^(%d+)|')) " +
+            "if version and version >= tonumber(ARGV[2]) then return 0 end " +
+            "redis.call('hset', KEYS[1], ARGV[1], ARGV[3]) " +
+            "if redis.call('pttl', KEYS[1]) < 0 then redis.call('pexpire', KEYS[1], ARGV[4]) end " +
+            "return 1";
+
+    /**
+     * KEYS[1] 사용자 key, KEYS[2] 사용자 목록, ARGV 만료 시간(ms), 사용자 아이디, (계좌 번호, 버전, 항목) 반복
+     * DB 에서 읽은 사이에 먼저 쓰인 더 높은 버전의 항목은 그대로 두고 완료 표시
+     */
+    private static final String LOAD_SCRIPT =
+            "for i = 3, #ARGV, 3 do " +
+            "  local current = redis.call('hget', KEYS[1], ARGV[i]) " +
+            "  local version = current and tonumber(string.match(current, '^(%d+)|')) " +
+            "  if not version or version < tonumber(ARGV[i + 1]) then " +
+            "    redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 2]) " +
+            "  end " +
+            "end " +
+            "redis.call('hset', KEYS[1], '" + COMPLETE_FIELD + "', '1') " +
+            "redis.call('pexpire', KEYS[1], ARGV[1]) " +
+            "redis.call('sadd', KEYS[2], ARGV[2]) " +
+            "return 1";
+
+    private final RedissonClient redissonClient;
+    private final RScript script;
+    private final long ttlMillis;
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter staleWriteCounter;
+
+    public AccountBalanceCache(
+            RedissonClient redissonClient,
+            @Value("${account.balance-cache.ttl:3600000}") long ttlMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.redissonClient = redissonClient;
+        this.script = redissonClient.getScript(StringCodec.INSTANCE);
+        this.ttlMillis = ttlMillis;
+
+        this.hitCounter = Counter.builder("account.balance.cache.gets")
+                .tag("result", "hit")
+                .description("계좌 잔액 캐시 조회 수")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("account.balance.cache.gets")
+                .tag("result", "miss")
+                .description("계좌 잔액 캐시 조회 수")
+                .register(meterRegistry);
+        this.staleWriteCounter = Counter.builder("account.balance.cache.stale.writes")
+                .description("캐시에 더 높은 버전이 있어서 쓰지 않은 계좌 항목 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 사용자의 계좌 목록 (계좌 생성 순서)
+     * 완료 표시가 없거나 Redis 오류면 캐시 miss
+     */
+    public Optional<List<AccountDto>> get(Long userId) {
+        Optional<Map<String, AccountBalanceEntry>> entries = getEntries(userId);
+        if (entries.isEmpty()) {
+            missCounter.increment();
+            return Optional.empty();
+        }
+        hitCounter.increment();
+
+        return Optional.of(entries.get().values().stream()
+                .sorted(Comparator.comparing(AccountBalanceEntry::getAccountId))
+                .map(AccountBalanceEntry::toAccountDto)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 계좌 번호 -> 계좌 항목 (완료 표시가 있는 경우만)
+     */
+    public Optional<Map<String, AccountBalanceEntry>> getEntries(Long userId) {
+        Map<String, String> fields;
+        try {
+            fields = redissonClient.<String, String>getMap(key(userId), StringCodec.INSTANCE)
+                    .readAllMap();
+        } catch (RedisException e) {
+            log.warn("Failed to read account balance cache. userId : {}", userId, e);
+            return Optional.empty();
+        }
+        if (!fields.containsKey(COMPLETE_FIELD)) {
+            return Optional.empty();
+        }
+
+        Map<String, AccountBalanceEntry> entries = new LinkedHashMap<>();
+        fields.forEach((accountNumber, value) -> {
+            if (!COMPLETE_FIELD.equals(accountNumber)) {
+                entries.put(accountNumber, decode(userId, accountNumber, value));
+            }
+        });
+        return Optional.of(entries);
+    }
+
+    /**
+     * DB 에서 읽은 사용자의 전체 계좌 목록으로 캐시를 채움
+     * 실패해도 다음 조회 때 다시 채우므로 조회는 실패하지 않음
+     */
+    public void load(Long userId, List<AccountBalanceEntry> entries) {
+        List<Object> args = new ArrayList<>(2 + entries.size() * 3);
+        args.add(ttlMillis);
+        args.add(userId);
+        for (AccountBalanceEntry entry : entries) {
+            args.add(entry.getAccountNumber());
+            args.add(version(entry));
+            args.add(encode(entry));
+        }
+
+        try {
+            script.eval(RScript.Mode.READ_WRITE, LOAD_SCRIPT, RScript.ReturnType.INTEGER,
+                    List.<Object>of(key(userId), USERS_KEY), args.toArray());
+        } catch (RedisException e) {
+            log.warn("Failed to load account balance cache. userId : {}", userId, e);
+        }
+    }
+
+    /**
+     * 수정한 계좌를 캐시에 씀
+     * 트랜잭션 안이면 커밋된 뒤에 씀 (롤백된 잔액이 조회되지 않도록, 버전도 커밋 시점에 올라감)
+     */
+    public void putAfterCommit(Account account) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(AccountBalanceEntry.fromEntity(account));
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(AccountBalanceEntry.fromEntity(account));
+            }
+        });
+    }
+
+    /**
+     * 버전이 더 높을 때만 씀
+     * 쓰지 못하면 이전 잔액이 남지 않도록 사용자 캐시를 지움 (다음 조회 때 DB 에서 다시 채움)
+     */
+    void put(AccountBalanceEntry entry) {
+        try {
+            Long written = script.eval(RScript.Mode.READ_WRITE, PUT_SCRIPT,
+                    RScript.ReturnType.INTEGER, List.<Object>of(key(entry.getUserId())),
+                    entry.getAccountNumber(), version(entry), encode(entry), ttlMillis);
+            if (written != null && written == 0) {
+                staleWriteCounter.increment();
+            }
+        } catch (RedisException e) {
+            log.warn("Failed to write account balance cache. accountNumber : {}",
+                    entry.getAccountNumber(), e);
+            evict(entry.getUserId());
+        }
+    }
+
+    /**
+     * 사용자 캐시 제거
+     */
+    public void evict(Long userId) {
+        try {
+            redissonClient.getKeys().delete(key(userId));
+        } catch (RedisException e) {
+            log.error("Failed to evict account balance cache. userId : {}", userId, e);
+        }
+    }
+
+    /**
+     * 캐시된 사용자 아이디 표본
+     */
+    public List<Long> sampleUserIds(int count) {
+        return users().random(count).stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 만료된 사용자를 표본 대상에서 제외
+     */
+    public void forget(Long userId) {
+        users().remove(String.valueOf(userId));
+    }
+
+    private RSet<String> users() {
+        return redissonClient.getSet(USERS_KEY, StringCodec.INSTANCE);
+    }
+
+    private static String key(Long userId) {
+        return KEY_PREFIX + userId;
+    }
+
+    private static long version(AccountBalanceEntry entry) {
+        return entry.getVersion() == null ? 0 : entry.getVersion();
+    }
+
+    static String encode(AccountBalanceEntry entry) {
+        return version(entry) + SEPARATOR
+                + entry.getAccountId() + SEPARATOR
+                + entry.getBalance() + SEPARATOR
+                + toText(entry.getRegisteredAt()) + SEPARATOR
+                + toText(entry.getUnRegisteredAt());
+    }
+
+    static AccountBalanceEntry decode(Long userId, String accountNumber, String value) {
+        String[] fields = value.split("\\" + SEPARATOR, -1);
+        return AccountBalanceEntry.builder()
+                .version(Long.valueOf(fields[0]))
+                .accountId(Long.valueOf(fields[1]))
+                .userId(userId)
+                .accountNumber(accountNumber)
+                .balance(Long.valueOf(fields[2]))
+                .registeredAt(fromText(fields[3]))
+                .unRegisteredAt(fromText(fields[4]))
+                .build();
+    }
+
+    private static String toText(LocalDateTime dateTime) {
+        return dateTime == null ? "" : dateTime.toString();
+    }
+
+    private static LocalDateTime fromText(String text) {
+        return text.isEmpty() ? null : LocalDateTime.parse(text);
+    }
+}
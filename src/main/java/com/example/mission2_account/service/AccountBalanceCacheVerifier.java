@@ -0,0 +1,124 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.AccountBalanceEntry;
+import com.example.mission2_account.repository.AccountRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * 계좌 잔액 캐시 검증 작업
+ * 캐시된 사용자를 표본으로 뽑아 DB 의 계좌 버전, 잔액, 해지 여부와 비교
+ * 다르면 커밋 직후 캐시에 쓰는 중일 수 있으므로 캐시를 한 번 더 읽어 비교하고
+ * 그래도 다르면 사용자 캐시를 지움 (다음 조회 때 DB 에서 다시 채움)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.balance-cache.verify", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class AccountBalanceCacheVerifier {
+    private final AccountBalanceCache accountBalanceCache;
+    private final AccountRepository accountRepository;
+    private final int sampleSize;
+
+    private final Counter verifiedCounter;
+    private final Counter mismatchCounter;
+
+    public AccountBalanceCacheVerifier(
+            AccountBalanceCache accountBalanceCache,
+            AccountRepository accountRepository,
+            @Value("${account.balance-cache.verify.sample-size:100}") int sampleSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.accountBalanceCache = accountBalanceCache;
+        this.accountRepository = accountRepository;
+        this.sampleSize = sampleSize;
+
+        this.verifiedCounter = Counter.builder("account.balance.cache.verified")
+                .description("DB 와 비교한 캐시된 사용자 수")
+                .register(meterRegistry);
+        this.mismatchCounter = Counter.builder("account.balance.cache.mismatches")
+                .description("DB 와 달라서 캐시를 지운 사용자 수")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${account.balance-cache.verify.interval:60000}",
+            initialDelayString = "${account.balance-cache.verify.interval:60000}")
+    public void verify() {
+        int mismatches = 0;
+        List<Long> userIds = accountBalanceCache.sampleUserIds(sampleSize);
+        for (Long userId : userIds) {
+            if (!verifyUser(userId)) {
+                mismatches++;
+            }
+        }
+
+        if (mismatches > 0) {
+            log.warn("Account balance cache mismatches. sampled : {}, mismatched : {}",
+                    userIds.size(), mismatches);
+        }
+    }
+
+    /**
+     * 사용자 캐시가 DB 와 같으면 true
+     */
+    boolean verifyUser(Long userId) {
+        Optional<Map<String, AccountBalanceEntry>> cached = accountBalanceCache.getEntries(userId);
+        if (cached.isEmpty()) {
+            //만료된 사용자
+            accountBalanceCache.forget(userId);
+            return true;
+        }
+        verifiedCounter.increment();
+
+        List<AccountBalanceEntry> stored =
+                accountRepository.findBalanceEntriesByAccountUserId(userId);
+        if (matches(cached.get(), stored)) {
+            return true;
+        }
+
+        Optional<Map<String, AccountBalanceEntry>> reread = accountBalanceCache.getEntries(userId);
+        if (reread.isEmpty() || matches(reread.get(), stored)) {
+            return true;
+        }
+
+        log.warn("Account balance cache mismatch. userId : {}, cached : {}, stored : {}",
+                userId, reread.get().values(), stored);
+        mismatchCounter.increment();
+        accountBalanceCache.evict(userId);
+        return false;
+    }
+
+    private static boolean matches(Map<String, AccountBalanceEntry> cached,
+                                   List<AccountBalanceEntry> stored) {
+        for (AccountBalanceEntry storedEntry : stored) {
+            AccountBalanceEntry cachedEntry = cached.get(storedEntry.getAccountNumber());
+            if (cachedEntry == null) {
+                return false;
+            }
+
+            long cachedVersion = Objects.requireNonNullElse(cachedEntry.getVersion(), 0L);
+            long storedVersion = Objects.requireNonNullElse(storedEntry.getVersion(), 0L);
+            //replica 에서 읽은 경우 DB 쪽이 이전 버전일 수 있음
+            if (cachedVersion > storedVersion) {
+                continue;
+            }
+            if (cachedVersion < storedVersion
+                    || !Objects.equals(cachedEntry.getBalance(), storedEntry.getBalance())
+                    || (cachedEntry.getUnRegisteredAt() == null)
+                    != (storedEntry.getUnRegisteredAt() == null)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,259 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_QUEUE_FULL;
+
+/**
+ * 계좌별 단일 작업 실행기
+ * 계좌 번호마다 크기 제한이 있는 대기열을 두고, 공용 작업 스레드 풀에서 한 번에 하나씩 처리
+ * 같은 계좌 요청은 도착 순서대로 처리되므로 잠금 경합으로 거절되는 대신 앞선 요청이 끝나기를 기다림
+ * 대기열 기준이 잠금과 같은 계좌 번호라서 잠금을 기다리는 계좌는 스레드 하나만 차지하고,
+ * 다른 계좌 요청은 나머지 스레드에서 계속 처리됨
+ * 대기열이 가득 차면 ACCOUNT_TRANSACTION_QUEUE_FULL 로 바로 거절,
+ * 제한 시간 안에 시작하지 못하면 ACCOUNT_TRANSACTION_LOCK (이미 시작한 요청은 끝날 때까지 기다림)
+ */
+@Slf4j
+@Component
+public class AccountCommandExecutor {
+    private final ThreadPoolExecutor executor;
+    private final Map<String, ArrayDeque<QueuedCommand<?>>> queues = new ConcurrentHashMap<>();
+    private final AtomicInteger queued = new AtomicInteger();
+    private final int capacity;
+    private final long timeout;
+    private final MeterRegistry meterRegistry;
+
+    public AccountCommandExecutor(
+            @Value("${account.command-queue.threads:16}") int threads,
+            @Value("${account.command-queue.capacity:100}") int capacity,
+            @Value("${account.command-queue.timeout:5000}") long timeout,
+            MeterRegistry meterRegistry
+    ) {
+        this.capacity = capacity;
+        this.timeout = timeout;
+        this.meterRegistry = meterRegistry;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(),
+                runnable -> new Thread(runnable,
+                        "account-command-" + threadNumber.getAndIncrement()));
+
+        Gauge.builder("account.command.queue.depth", queued, AtomicInteger::get)
+                .description("계좌별 작업 대기열에 쌓인 요청 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 계좌 번호의 대기열에 command 를 넣고 결과를 기다림
+     * command 에서 발생한 예외는 그대로 호출한 쪽으로 전달
+     * 제한 시간 안에 시작하지 못한 command 는 실행하지 않고 ACCOUNT_TRANSACTION_LOCK
+     * 제한 시간이 지났어도 이미 실행 중인 command 는 결과(성공, 예외)를 그대로 전달
+     */
+    public <T> T execute(String accountNumber, String endpoint,
+                         AccountCommand<T> command) throws Throwable {
+        QueuedCommand<T> queuedCommand = new QueuedCommand<>(command, endpoint);
+        if (!enqueue(accountNumber, queuedCommand)) {
+            log.error("Account command queue is full. accountNumber : {}", accountNumber);
+            rejectedCounter(endpoint).increment();
+            throw new AccountException(ACCOUNT_TRANSACTION_QUEUE_FULL);
+        }
+
+        try {
+            return queuedCommand.result.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw e.getCause();
+        } catch (TimeoutException e) {
+            if (queuedCommand.cancel()) {
+                log.warn("Account command timed out in queue. accountNumber : {}",
+                        accountNumber);
+                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+            }
+            log.warn("Account command is still running after timeout. accountNumber : {}",
+                    accountNumber);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queuedCommand.cancel()) {
+                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+            }
+        }
+
+        //이미 시작한 command 는 커밋될 수 있으므로 실패로 응답하지 않고 결과를 기다림
+        //(재시도 가능한 잠금 오류로 응답하면 같은 요청이 다시 실행될 수 있음)
+        return awaitRunning(queuedCommand);
+    }
+
+    private <T> T awaitRunning(QueuedCommand<T> queuedCommand) throws Throwable {
+        boolean interrupted = false;
+        try {
+            while (true) {
+                try {
+                    return queuedCommand.result.get();
+                } catch (ExecutionException e) {
+                    throw e.getCause();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        //이미 받은 요청은 끝까지 처리
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 대기열에 넣고, 처리 중인 요청이 없던 계좌면 작업 스레드 풀에 처리를 맡김
+     * 대기열의 추가, 꺼내기는 계좌 번호 단위로 ConcurrentHashMap.compute 안에서만 함
+     */
+    private boolean enqueue(String accountNumber, QueuedCommand<?> command) {
+        AtomicBoolean accepted = new AtomicBoolean();
+        AtomicBoolean start = new AtomicBoolean();
+        queues.compute(accountNumber, (key, queue) -> {
+            if (queue == null) {
+                queue = new ArrayDeque<>();
+                start.set(true);
+            } else if (queue.size() >= capacity) {
+                return queue;
+            }
+            queue.add(command);
+            queued.incrementAndGet();
+            accepted.set(true);
+            return queue;
+        });
+
+        if (start.get()) {
+            try {
+                executor.execute(() -> drain(accountNumber));
+            } catch (RejectedExecutionException e) {
+                //종료 중 - 넣은 요청을 되돌림
+                queues.remove(accountNumber);
+                queued.decrementAndGet();
+                return false;
+            }
+        }
+        return accepted.get();
+    }
+
+    /**
+     * 계좌 대기열에서 하나를 처리하고, 남은 요청이 있으면 다시 풀에 맡겨서
+     * 다른 계좌 요청과 번갈아 처리 (대기열이 비면 계좌 항목을 지움)
+     */
+    private void drain(String accountNumber) {
+        while (true) {
+            QueuedCommand<?> command = poll(accountNumber);
+            if (command == null) {
+                return;
+            }
+            command.run();
+
+            try {
+                executor.execute(() -> drain(accountNumber));
+                return;
+            } catch (RejectedExecutionException e) {
+                //종료 중이면 남은 요청을 이 스레드에서 이어서 처리
+            }
+        }
+    }
+
+    private QueuedCommand<?> poll(String accountNumber) {
+        QueuedCommand<?>[] polled = new QueuedCommand<?>[1];
+        queues.compute(accountNumber, (key, queue) -> {
+            if (queue == null || queue.isEmpty()) {
+                return null;
+            }
+            polled[0] = queue.poll();
+            queued.decrementAndGet();
+            return queue;
+        });
+        return polled[0];
+    }
+
+    private Timer queueWaitTimer(String endpoint) {
+        return Timer.builder("account.command.queue.wait")
+                .description("계좌별 작업 대기열 대기 시간")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Counter rejectedCounter(String endpoint) {
+        return Counter.builder("account.command.queue.rejected")
+                .description("대기열이 가득 차서 거절된 요청 수")
+                .tag("endpoint", endpoint)
+                .register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    public interface AccountCommand<T> {
+        T run() throws Throwable;
+    }
+
+    /**
+     * 대기열에 들어간 요청, 시작 전에 제한 시간이 지나면 취소되어 실행하지 않음
+     */
+    private class QueuedCommand<T> {
+        private static final int QUEUED = 0;
+        private static final int RUNNING = 1;
+        private static final int CANCELLED = 2;
+
+        private final AccountCommand<T> command;
+        private final String endpoint;
+        private final long enqueuedAt = System.nanoTime();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+
+        private QueuedCommand(AccountCommand<T> command, String endpoint) {
+            this.command = command;
+            this.endpoint = endpoint;
+        }
+
+        private boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+
+        private void run() {
+            if (!state.compareAndSet(QUEUED, RUNNING)) {
+                return;
+            }
+
+            queueWaitTimer(endpoint).record(
+                    System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+            try {
+                result.complete(command.run());
+            } catch (Throwable t) {
+                result.completeExceptionally(t);
+            }
+        }
+    }
+}
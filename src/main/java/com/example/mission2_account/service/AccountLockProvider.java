@@ -0,0 +1,46 @@
+package com.example.mission2_account.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 계좌 잠금 백엔드
+ * account.lock.provider 설정(local, redisson, database)에 따라
+ * 하나의 구현체만 빈으로 등록됨
+ * 비동기 잠금을 지원하는 백엔드는 AsyncAccountLockProvider 도 구현
+ */
+public interface AccountLockProvider {
+    long DEFAULT_TRY_LOCK_TIME = 1000L;
+    long DEFAULT_LEASE_TIME = 15000L;
+
+    //leaseTime 으로 넘기면 메서드가 끝날 때까지 잠금을 자동 연장(watchdog)
+    long WATCHDOG_LEASE_TIME = -1L;
+
+    default void lock(String accountNumber) {
+        lock(accountNumber, DEFAULT_TRY_LOCK_TIME, DEFAULT_LEASE_TIME);
+    }
+
+    /**
+     * 계좌 잠금 획득
+     * tryLockTime(ms) 안에 잠금을 얻지 못하면 ACCOUNT_TRANSACTION_LOCK 예외 발생
+     * leaseTime(ms)이 지나면 자동 해제, WATCHDOG_LEASE_TIME 이면 unlock 까지 유지
+     * 만료 개념이 없는 백엔드(local, database)는 leaseTime 을 무시하고 unlock 까지 유지
+     */
+    void lock(String accountNumber, long tryLockTime, long leaseTime);
+
+    /**
+     * 계좌 잠금 해제
+     */
+    void unlock(String accountNumber);
+
+    /**
+     * 여러 계좌를 잠글 때 lock 을 호출할 계좌와 순서
+     * 모든 요청이 이 순서로 잠그면 교착 상태가 생기지 않음 (해제는 반대 순서)
+     * 기본은 중복을 뺀 계좌 번호 순서
+     */
+    default List<String> lockOrder(Collection<String> accountNumbers) {
+        return new ArrayList<>(new TreeSet<>(accountNumbers));
+    }
+}
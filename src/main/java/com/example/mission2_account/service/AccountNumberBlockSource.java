@@ -0,0 +1,14 @@
+package com.example.mission2_account.service;
+
+/**
+ * 계좌 번호 블록 발급처
+ * 모든 노드가 공유하는 단조 증가 카운터에서 블록 번호를 하나씩 가져감
+ * account.number.block-source 설정(redis, sequence)에 따라 구현체가 선택됨
+ */
+public interface AccountNumberBlockSource {
+    /**
+     * 다음 블록 번호(0 부터 시작) 발급
+     * 같은 블록 번호는 어느 노드에도 두 번 발급되지 않음
+     */
+    long nextBlock();
+}
@@ -0,0 +1,110 @@
+package com.example.mission2_account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 10자리 계좌 번호 생성
+ * 앞 9자리는 블록 단위로 빌려온 일련번호, 마지막 1자리는 Luhn 검증 숫자
+ * 블록 안의 번호는 AtomicLong 으로 잠금 없이 나눠주고
+ * 블록을 다 쓴 경우에만 AccountNumberBlockSource 에서 다음 블록을 받아옴
+ * 블록 번호가 노드 간에 겹치지 않으므로 DB 중복 조회 없이 유일함이 보장됨
+ */
+@Component
+public class AccountNumberGenerator {
+    //9자리 일련번호 범위 (맨 앞이 0 이 되지 않도록 1억부터 시작)
+    private static final long FIRST_SERIAL = 100_000_000L;
+    private static final long LAST_SERIAL = 999_999_999L;
+
+    private final AccountNumberBlockSource accountNumberBlockSource;
+    private final int blockSize;
+
+    private volatile Block currentBlock = Block.EXHAUSTED;
+
+    public AccountNumberGenerator(
+            AccountNumberBlockSource accountNumberBlockSource,
+            @Value("${account.number.block-size:1000}") int blockSize
+    ) {
+        this.accountNumberBlockSource = accountNumberBlockSource;
+        this.blockSize = blockSize;
+    }
+
+    public String next() {
+        while (true) {
+            Block block = currentBlock;
+            long serial = block.next.getAndIncrement();
+            if (serial < block.end) {
+                return withCheckDigit(serial);
+            }
+            refill(block);
+        }
+    }
+
+    /**
+     * 블록을 다 쓴 경우 다음 블록으로 교체
+     * 여러 스레드가 동시에 들어와도 한 번만 교체되도록 현재 블록을 다시 확인
+     */
+    private synchronized void refill(Block exhausted) {
+        if (currentBlock != exhausted) {
+            return;
+        }
+
+        long start = FIRST_SERIAL + accountNumberBlockSource.nextBlock() * blockSize;
+        if (start + blockSize - 1 > LAST_SERIAL) {
+            throw new IllegalStateException("Account number range exhausted");
+        }
+        currentBlock = new Block(start, start + blockSize);
+    }
+
+    /**
+     * 9자리 일련번호 뒤에 Luhn 검증 숫자를 붙임
+     */
+    static String withCheckDigit(long serial) {
+        String digits = Long.toString(serial);
+        return digits + checkDigit(digits);
+    }
+
+    /**
+     * 계좌 번호 마지막 자리가 Luhn 검증 숫자와 일치하는지 확인
+     */
+    public static boolean isValid(String accountNumber) {
+        if (accountNumber == null || accountNumber.length() < 2
+                || !accountNumber.chars().allMatch(Character::isDigit)) {
+            return false;
+        }
+        int last = accountNumber.length() - 1;
+        return checkDigit(accountNumber.substring(0, last))
+                == accountNumber.charAt(last) - '0';
+    }
+
+    private static int checkDigit(String digits) {
+        int sum = 0;
+        boolean doubled = true;
+        for (int i = digits.length() - 1; i >= 0; i--) {
+            int digit = digits.charAt(i) - '0';
+            if (doubled) {
+                digit *= 2;
+                if (digit > 9) {
+                    digit -= 9;
+                }
+            }
+            sum += digit;
+            doubled = !doubled;
+        }
+        return (10 - sum % 10) % 10;
+    }
+
+    private static class Block {
+        private static final Block EXHAUSTED = new Block(0, 0);
+
+        private final AtomicLong next;
+        private final long end;
+
+        private Block(long start, long end) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.mission2_account.service;
+
+import java.util.Iterator;
+
+/**
+ * 발급된 계좌 번호 존재 여부 색인 (Bloom filter)
+ * 없는 계좌 번호 요청을 DB, Redis 잠금 전에 ACCOUNT_NOT_FOUND 로 거절할 때 사용
+ * account.number-index.type 설정(local, redis)에 따라 구현체가 선택됨
+ */
+public interface AccountNumberIndex {
+    /**
+     * 새로 발급한 계좌 번호 추가
+     */
+    void add(String accountNumber);
+
+    /**
+     * 발급된 적이 없는 계좌 번호가 확실하면 true
+     * 색인을 만드는 중이거나 오탐인 경우는 false 이므로 DB 조회로 확인해야 함
+     */
+    boolean isDefinitelyAbsent(String accountNumber);
+
+    /**
+     * 전체 계좌 번호로 색인 다시 만들기 (시작할 때, needsRebuild 가 true 일 때)
+     */
+    void rebuild(Iterator<String> accountNumbers);
+
+    /**
+     * 공유 색인이 없거나 사라져서(Redis 초기화 등) 다시 만들어야 하면 true
+     */
+    default boolean needsRebuild() {
+        return false;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.repository.AccountRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * 애플리케이션 시작 시 전체 계좌 번호로 색인을 만듦
+ * 이후 주기적으로 확인해서 색인이 사라졌으면 다시 만듦
+ * 계좌 번호를 한 번에 다 읽지 않고 페이지 단위로 읽음
+ */
+@Component
+@RequiredArgsConstructor
+public class AccountNumberIndexInitializer {
+    private static final int PAGE_SIZE = 10_000;
+
+    private final AccountRepository accountRepository;
+    private final AccountNumberIndex accountNumberIndex;
+
+    @Scheduled(fixedDelayString = "${account.number-index.check-interval:10000}",
+            initialDelayString = "${account.number-index.check-interval:10000}")
+    public void rebuildIfMissing() {
+        if (accountNumberIndex.needsRebuild()) {
+            buildIndex();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildIndex() {
+        accountNumberIndex.rebuild(new Iterator<>() {
+            private Slice<String> page = accountRepository
+                    .findAccountNumbers(PageRequest.of(0, PAGE_SIZE));
+            private Iterator<String> current = page.iterator();
+
+            @Override
+            public boolean hasNext() {
+                while (!current.hasNext()) {
+                    if (!page.hasNext()) {
+                        current = Collections.emptyIterator();
+                        return false;
+                    }
+                    page = accountRepository.findAccountNumbers(page.nextPageable());
+                    current = page.iterator();
+                }
+                return true;
+            }
+
+            @Override
+            public String next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return current.next();
+            }
+        });
+    }
+}
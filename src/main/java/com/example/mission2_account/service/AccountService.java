@@ -2,13 +2,14 @@ package com.example.mission2_account.service;
 
 import com.example.mission2_account.domain.Account;
 import com.example.mission2_account.domain.AccountUser;
+import com.example.mission2_account.dto.AccountBalanceEntry;
 import com.example.mission2_account.dto.AccountDto;
 import com.example.mission2_account.exception.AccountException;
-import com.example.mission2_account.repository.AccountNumberRepository;
 import com.example.mission2_account.repository.AccountRepository;
 import com.example.mission2_account.repository.AccountUserRepository;
 import com.example.mission2_account.type.AccountStatus;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
@@ -16,9 +17,10 @@ import javax.transaction.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Objects;
-import java.util.Random;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
+import static com.example.mission2_account.config.CacheConfiguration.ACCOUNT_IDENTITY_CACHE;
 import static com.example.mission2_account.type.AccountStatus.IN_USE;
 import static com.example.mission2_account.type.ErrorCode.*;
 
@@ -28,14 +30,17 @@ public class AccountService {
 
     private final AccountRepository accountRepository;
     private final AccountUserRepository accountUserRepository;
-    private final AccountNumberRepository accountNumberRepository;
+    private final AccountNumberGenerator accountNumberGenerator;
+    private final AccountNumberIndex accountNumberIndex;
+    private final AccountBalanceCache accountBalanceCache;
 
     /**
      * 계좌 생성하기
      * 사용자가 있는지 확인
-     * 계좌번호 랜덤 생성
+     * 계좌번호 생성
      * 계좌 소유 개수 체크
      * 계좌 저장하고 정보 리턴
+     * 새 계좌는 커밋 후 잔액 캐시에 추가
      */
     @Transactional
     public AccountDto createAccount(Long userId, Long initialBalance) {
@@ -44,42 +49,21 @@ public class AccountService {
         //유효성 검사
         validateCreateAccount(accountUser);
 
-        //랜덤 10자리 계좌 생성하기
-        String newAccountNumber = generateRandomAccountNumber();
-
-        return AccountDto.fromEntity(
-                accountRepository.save(
-                        Account.builder()
-                                .accountUser(accountUser)
-                                .accountStatus(IN_USE)
-                                .accountNumber(newAccountNumber)
-                                .balance(initialBalance)
-                                .registeredAt(LocalDateTime.now())
-                                .build()));
-    }
+        //10자리 계좌 번호 발급 (블록 단위로 빌려온 번호라 중복 조회 불필요)
+        String newAccountNumber = accountNumberGenerator.next();
+        accountNumberIndex.add(newAccountNumber);
 
-    /**
-     * 계좌번호 랜덤 10자리 생성
-     * DB에 동일한 계좌번호가 있는지 체크 후
-     * 존재하지 않으면 계좌 번호 리턴
-     */
-    private String generateRandomAccountNumber() {
-        String accNum = "";
-
-        while (true) {
-            Random random = new Random();
-            for (int i = 0; i < 10; i++) {
-                accNum += random.nextInt(10);
-            }
-
-            boolean isExist = accountNumberRepository
-                    .existsAccountNumberByAccountNumber(accNum);
-            if (!isExist) {
-                break;
-            }
-        }
+        Account account = accountRepository.save(
+                Account.builder()
+                        .accountUser(accountUser)
+                        .accountStatus(IN_USE)
+                        .accountNumber(newAccountNumber)
+                        .balance(initialBalance)
+                        .registeredAt(LocalDateTime.now())
+                        .build());
+        accountBalanceCache.putAfterCommit(account);
 
-        return accNum;
+        return AccountDto.fromEntity(account);
     }
 
     /**
@@ -100,8 +84,15 @@ public class AccountService {
      * 계좌 상태 확인
      * 잔액이 있는지 확인 후
      * 계좌를 해지하고 정보 저장
+     * 해지한 계좌는 near cache 에서 제거하고, 잔액 캐시는 해지 상태로 수정
      */
+    @CacheEvict(cacheNames = ACCOUNT_IDENTITY_CACHE, key = "#accountNumber")
     public AccountDto deleteAccount(Long userId, String accountNumber) {
+        //발급된 적 없는 계좌 번호면 DB 조회 없이 바로 거절
+        if (accountNumberIndex.isDefinitelyAbsent(accountNumber)) {
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
+
         AccountUser accountUser = getAccountUser(userId);
 
         Account account = accountRepository.findByAccountNumber(accountNumber)
@@ -112,7 +103,7 @@ public class AccountService {
         account.setAccountStatus(AccountStatus.UNREGISTERED);
         account.setUnRegisteredAt(LocalDateTime.now());
 
-        accountRepository.save(account);
+        accountBalanceCache.putAfterCommit(accountRepository.save(account));
 
         return AccountDto.fromEntity(account);
     }
@@ -137,22 +128,40 @@ public class AccountService {
         }
     }
 
-    @Transactional
+    /**
+     * 사용자 계좌 목록 조회
+     * 잔액 캐시에 있으면 DB 조회 없음 (잔액이 바뀌는 거래는 커밋 직후 캐시에도 씀)
+     * 없으면 DB 에서 읽어 캐시를 채움
+     * 계좌가 없을 때만 사용자가 있는지 확인
+     */
     public List<AccountDto> getAccountsByUserId(Long userId) {
-        AccountUser accountUser = getAccountUser(userId);
+        Optional<List<AccountDto>> cached = accountBalanceCache.get(userId);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
 
-        List<Account> accounts = accountRepository.findByAccountUser(accountUser);
+        List<AccountBalanceEntry> accounts =
+                accountRepository.findBalanceEntriesByAccountUserId(userId);
+
+        if (accounts.isEmpty() && !accountUserRepository.existsById(userId)) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
+        accountBalanceCache.load(userId, accounts);
 
         return accounts.stream()
-                .map(AccountDto::fromEntity)
+                .map(AccountBalanceEntry::toAccountDto)
                 .collect(Collectors.toList());
     }
 
     /**
      * 계좌 소유주 정보 가져오기
+     * 존재 여부는 near cache 로 확인하고, 아이디만 쓰므로 조회 없이 참조만 가져옴
      * */
     private AccountUser getAccountUser(Long userId) {
-        return accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        if (!accountUserRepository.existsById(userId)) {
+            throw new AccountException(USER_NOT_FOUND);
+        }
+
+        return accountUserRepository.getReferenceById(userId);
     }
 }
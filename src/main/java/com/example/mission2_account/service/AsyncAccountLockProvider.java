@@ -0,0 +1,22 @@
+package com.example.mission2_account.service;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * 스레드를 붙잡지 않는 비동기 잠금을 지원하는 계좌 잠금 백엔드 (redisson)
+ * local, database 백엔드는 잠금을 얻은 스레드에서 풀어야 하므로 구현하지 않음
+ */
+public interface AsyncAccountLockProvider extends AccountLockProvider {
+    /**
+     * 계좌 잠금 비동기 획득
+     * 잠금 소유자는 스레드가 아니라 lockId 로 구분하므로 다른 스레드에서 unlockAsync 로 풀 수 있음
+     * tryLockTime(ms) 안에 잠금을 얻지 못하면 ACCOUNT_TRANSACTION_LOCK 예외로 완료
+     */
+    CompletableFuture<Void> lockAsync(String accountNumber, long lockId,
+                                      long tryLockTime, long leaseTime);
+
+    /**
+     * lockAsync 로 얻은 계좌 잠금 비동기 해제
+     */
+    CompletableFuture<Void> unlockAsync(String accountNumber, long lockId);
+}
@@ -0,0 +1,167 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * DB 행 잠금(SELECT ... FOR UPDATE) 백엔드 - Redis 없이 여러 노드에서 사용
+ * 거래 처리 트랜잭션이 account 행을 수정하므로 같은 행을 잠그면 서로 막히게 됨
+ * 그래서 잠금 전용 account_lock 테이블의 행을 별도 커넥션으로 잠그고
+ * 해제할 때 롤백해서 잠금을 풀어줌
+ * 잠금 커넥션은 거래 처리(JPA) 커넥션 풀과 따로 만든 전용 풀에서 가져옴
+ * 같은 풀을 쓰면 잠금을 잡은 요청들이 풀을 다 차지한 채 트랜잭션 커넥션을 기다리며 멈출 수 있음
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "account.lock", name = "provider", havingValue = "database")
+public class DatabaseAccountLockProvider implements AccountLockProvider {
+    private static final String CREATE_LOCK_TABLE =
+            "create table if not exists account_lock (account_number varchar(20) primary key)";
+    private static final String SELECT_FOR_UPDATE =
+            "select account_number from account_lock where account_number = ? for update";
+    private static final String INSERT_LOCK_ROW =
+            "insert into account_lock (account_number) values (?)";
+
+    private final DataSource dataSource;
+
+    //잠금을 잡고 있는 커넥션 (lock 과 unlock 은 같은 스레드에서 호출됨)
+    private final ThreadLocal<Map<String, Connection>> heldConnections =
+            ThreadLocal.withInitial(HashMap::new);
+
+    @Autowired
+    public DatabaseAccountLockProvider(
+            DataSourceProperties properties,
+            @Value("${account.lock.database.pool-size:32}") int poolSize,
+            @Value("${account.lock.database.connection-timeout:1000}") long connectionTimeout
+    ) {
+        this(lockDataSource(properties, poolSize, connectionTimeout));
+    }
+
+    DatabaseAccountLockProvider(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * 잠금 전용 커넥션 풀 (spring.datasource 와 같은 DB)
+     * 풀이 부족하면 connectionTimeout(ms) 뒤에 잠금 실패로 처리
+     */
+    private static HikariDataSource lockDataSource(DataSourceProperties properties,
+                                                   int poolSize, long connectionTimeout) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("account-lock");
+        dataSource.setMaximumPoolSize(poolSize);
+        dataSource.setConnectionTimeout(connectionTimeout);
+        return dataSource;
+    }
+
+    @PreDestroy
+    public void closeLockDataSource() {
+        if (dataSource instanceof HikariDataSource) {
+            ((HikariDataSource) dataSource).close();
+        }
+    }
+
+    @PostConstruct
+    public void createLockTable() throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             Statement statement = connection.createStatement()) {
+            statement.execute(CREATE_LOCK_TABLE);
+        }
+    }
+
+    @Override
+    public void lock(String accountNumber, long tryLockTime, long leaseTime) {
+        log.debug("Trying row lock for accountNumber : {}", accountNumber);
+
+        Connection connection = null;
+        try {
+            connection = dataSource.getConnection();
+            connection.setAutoCommit(false);
+
+            //처음 잠그는 계좌면 잠금 행을 먼저 만들어 둠
+            //JDBC 쿼리 타임아웃은 초 단위라 올림
+            int timeoutSeconds = (int) Math.max(1, (tryLockTime + 999) / 1000);
+            if (!selectForUpdate(connection, accountNumber, timeoutSeconds)) {
+                insertLockRow(connection, accountNumber);
+                selectForUpdate(connection, accountNumber, timeoutSeconds);
+            }
+
+            heldConnections.get().put(accountNumber, connection);
+        } catch (SQLException e) {
+            log.error("============Lock acquisition failed===============", e);
+            release(connection);
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("Row unlock for accountNumber : {}", accountNumber);
+        release(heldConnections.get().remove(accountNumber));
+    }
+
+    private boolean selectForUpdate(Connection connection, String accountNumber,
+                                    int timeoutSeconds) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_FOR_UPDATE)) {
+            statement.setQueryTimeout(timeoutSeconds);
+            statement.setString(1, accountNumber);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
+        }
+    }
+
+    private void insertLockRow(Connection connection, String accountNumber)
+            throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_LOCK_ROW)) {
+            statement.setString(1, accountNumber);
+            statement.executeUpdate();
+            connection.commit();
+        } catch (SQLException e) {
+            //다른 노드가 먼저 행을 만든 경우(무결성 위반)는 무시하고 잠금만 시도
+            connection.rollback();
+            if (e.getSQLState() == null || !e.getSQLState().startsWith("23")) {
+                throw e;
+            }
+        }
+    }
+
+    private void release(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+
+        try {
+            connection.rollback();
+        } catch (SQLException e) {
+            log.error("Row lock rollback failed", e);
+        } finally {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.error("Row lock connection close failed", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.FailedTransaction;
+import com.example.mission2_account.type.TransactionType;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 실패 거래 지연 저장 (write-behind)
+ * 요청 스레드는 실패 거래를 크기 제한 큐에 넣기만 하고 바로 돌아감 (잠금도 바로 해제)
+ * 작업 스레드가 큐에서 batch 크기만큼 모아 한 번에 저장
+ * 큐가 가득 차거나 저장에 실패하면 spill 파일에 한 줄씩 기록하고, 큐가 비었을 때 retry-interval 마다 다시 저장
+ * 다시 저장하다 중단되어도 이미 저장된 거래 아이디는 건너뛰므로 중복 저장되지 않음
+ * max-attempts 번 저장에 실패한 거래는 더 이상 재시도하지 않고 dead letter 파일(spill 파일.dead)에 기록
+ * 종료할 때는 큐에 남은 거래를 모두 저장한 뒤 끝냄
+ */
+@Slf4j
+@Component
+public class FailedTransactionRecorder {
+    private final TransactionService transactionService;
+    private final AccountNumberIndex accountNumberIndex;
+    private final ObjectMapper objectMapper;
+    private final BlockingQueue<FailedTransaction> queue;
+    private final int batchSize;
+    private final long flushIntervalMs;
+    private final long retryIntervalMs;
+    private final int maxAttempts;
+    private final Path spillFile;
+    private final Path replayFile;
+    private final Path deadLetterFile;
+    private final Object spillLock = new Object();
+
+    private final Counter writtenCounter;
+    private final Counter spilledCounter;
+    private final Counter deadLetteredCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+    //spill 파일을 다시 저장해도 되는 시각 (작업 스레드에서만 사용)
+    private long nextReplayAt;
+
+    public FailedTransactionRecorder(
+            TransactionService transactionService,
+            AccountNumberIndex accountNumberIndex,
+            ObjectMapper objectMapper,
+            @Value("${account.failed-transaction.capacity:10000}") int capacity,
+            @Value("${account.failed-transaction.batch-size:500}") int batchSize,
+            @Value("${account.failed-transaction.flush-interval:200}") long flushIntervalMs,
+            @Value("${account.failed-transaction.retry-interval:5000}") long retryIntervalMs,
+            @Value("${account.failed-transaction.max-attempts:10}") int maxAttempts,
+            @Value("${account.failed-transaction.spill-file:failed-transactions.spill}") String spillFile,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionService = transactionService;
+        this.accountNumberIndex = accountNumberIndex;
+        this.objectMapper = objectMapper;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMs = flushIntervalMs;
+        this.retryIntervalMs = retryIntervalMs;
+        this.maxAttempts = maxAttempts;
+        this.spillFile = Paths.get(spillFile);
+        this.replayFile = Paths.get(spillFile + ".replay");
+        this.deadLetterFile = Paths.get(spillFile + ".dead");
+
+        Gauge.builder("account.failed.transaction.queue.size", queue, BlockingQueue::size)
+                .description("저장을 기다리는 실패 거래 수")
+                .register(meterRegistry);
+        Gauge.builder("account.failed.transaction.queue.lag", this,
+                        FailedTransactionRecorder::getLagMillis)
+                .description("가장 오래 기다린 실패 거래의 대기 시간")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        this.writtenCounter = Counter.builder("account.failed.transaction.written")
+                .description("저장된 실패 거래 수")
+                .register(meterRegistry);
+        this.spilledCounter = Counter.builder("account.failed.transaction.spilled")
+                .description("큐가 가득 차거나 저장에 실패해서 spill 파일에 기록한 실패 거래 수")
+                .register(meterRegistry);
+        this.deadLetteredCounter = Counter.builder("account.failed.transaction.dead.lettered")
+                .description("재시도 횟수를 넘겨서 dead letter 파일에 기록한 실패 거래 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runWriter, "failed-transaction-writer");
+        writerThread.start();
+    }
+
+    /**
+     * 실패 거래를 큐에 넣음
+     * 큐가 가득 찼거나 종료 중이면 spill 파일에 기록
+     */
+    public void record(TransactionType transactionType, String accountNumber, Long amount) {
+        //발급된 적 없는 계좌 번호는 저장할 계좌가 없음
+        if (accountNumberIndex.isDefinitelyAbsent(accountNumber)) {
+            return;
+        }
+
+        FailedTransaction failedTransaction = FailedTransaction.builder()
+                .transactionType(transactionType)
+                .accountNumber(accountNumber)
+                .amount(amount)
+                .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                .transactedAt(LocalDateTime.now())
+                .build();
+
+        if (!running || !queue.offer(failedTransaction)) {
+            spill(Collections.singletonList(failedTransaction));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+
+        //작업 스레드가 끝난 뒤 남은 거래를 모두 저장
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+        while (queue.drainTo(batch, batchSize) > 0) {
+            write(batch);
+            batch = new ArrayList<>(batchSize);
+        }
+    }
+
+    private void runWriter() {
+        List<FailedTransaction> batch = new ArrayList<>(batchSize);
+
+        //이전에 저장하지 못한 거래부터 처리
+        replaySpillFileQuietly();
+
+        while (running) {
+            try {
+                FailedTransaction first = queue.poll(flushIntervalMs, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (System.currentTimeMillis() >= nextReplayAt) {
+                        replaySpillFileQuietly();
+                    }
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                write(batch);
+                batch = new ArrayList<>(batchSize);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed transaction writer error", e);
+            }
+        }
+    }
+
+    private void write(List<FailedTransaction> batch) {
+        try {
+            transactionService.saveFailedTransactions(batch);
+            writtenCounter.increment(batch.size());
+        } catch (RuntimeException e) {
+            log.error("Failed to save failed transactions. count : {}", batch.size(), e);
+            retryLater(batch);
+        }
+    }
+
+    /**
+     * 저장에 실패한 거래의 실패 횟수를 올리고
+     * max-attempts 를 넘지 않았으면 spill 파일, 넘었으면 dead letter 파일에 기록
+     * 다음 재시도는 retry-interval 이후
+     */
+    private void retryLater(List<FailedTransaction> batch) {
+        List<FailedTransaction> retries = new ArrayList<>(batch.size());
+        List<FailedTransaction> deadLetters = new ArrayList<>();
+        for (FailedTransaction failedTransaction : batch) {
+            failedTransaction.setAttempts(failedTransaction.getAttempts() + 1);
+            if (failedTransaction.getAttempts() >= maxAttempts) {
+                deadLetters.add(failedTransaction);
+            } else {
+                retries.add(failedTransaction);
+            }
+        }
+
+        if (!retries.isEmpty()) {
+            spill(retries);
+        }
+        if (!deadLetters.isEmpty()) {
+            log.error("Failed transactions exceeded max attempts. count : {}, file : {}",
+                    deadLetters.size(), deadLetterFile);
+            if (append(deadLetterFile, deadLetters)) {
+                deadLetteredCounter.increment(deadLetters.size());
+            }
+        }
+        nextReplayAt = System.currentTimeMillis() + retryIntervalMs;
+    }
+
+    private void spill(List<FailedTransaction> failedTransactions) {
+        if (append(spillFile, failedTransactions)) {
+            spilledCounter.increment(failedTransactions.size());
+        }
+    }
+
+    /**
+     * 파일에 한 줄에 하나씩 JSON 으로 추가
+     * 파일에 쓰지도 못하면 로그로라도 남김
+     */
+    private boolean append(Path file, List<FailedTransaction> failedTransactions) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (FailedTransaction failedTransaction : failedTransactions) {
+                    writer.write(objectMapper.writeValueAsString(failedTransaction));
+                    writer.newLine();
+                }
+                return true;
+            } catch (IOException e) {
+                log.error("Failed to write failed transactions to {}. {}",
+                        file, toJsonQuietly(failedTransactions), e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * spill 파일을 읽지 못해도 작업 스레드는 계속 동작하고, retry-interval 이후 다시 시도
+     */
+    private void replaySpillFileQuietly() {
+        try {
+            replaySpillFile();
+        } catch (RuntimeException e) {
+            log.error("Failed to replay spill file. {}", replayFile, e);
+            nextReplayAt = System.currentTimeMillis() + retryIntervalMs;
+        }
+    }
+
+    /**
+     * spill 파일을 replay 파일로 옮긴 뒤 batch 단위로 다시 저장
+     * 저장에 실패한 거래는 write 에서 다시 spill 파일로 기록됨
+     * 중간에 중단되면 다음 시작 때 replay 파일을 처음부터 다시 읽고, 이미 저장된 거래는 건너뜀
+     * 읽을 수 없는 줄(깨진 JSON)은 dead letter 파일로 옮기고 나머지를 계속 처리
+     */
+    private void replaySpillFile() {
+        synchronized (spillLock) {
+            if (Files.notExists(replayFile)) {
+                if (Files.notExists(spillFile)) {
+                    return;
+                }
+                try {
+                    Files.move(spillFile, replayFile, StandardCopyOption.ATOMIC_MOVE);
+                } catch (IOException e) {
+                    log.error("Failed to move spill file. {}", spillFile, e);
+                    return;
+                }
+            }
+        }
+
+        try (BufferedReader reader = Files.newBufferedReader(replayFile, StandardCharsets.UTF_8)) {
+            List<FailedTransaction> batch = new ArrayList<>(batchSize);
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                FailedTransaction failedTransaction;
+                try {
+                    failedTransaction = objectMapper.readValue(line, FailedTransaction.class);
+                } catch (JsonProcessingException e) {
+                    log.error("Unreadable spill line moved to {}. {}", deadLetterFile, line, e);
+                    deadLetterLine(line);
+                    continue;
+                }
+                batch.add(failedTransaction);
+                if (batch.size() == batchSize) {
+                    write(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                write(batch);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        try {
+            Files.delete(replayFile);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void deadLetterLine(String line) {
+        synchronized (spillLock) {
+            try (BufferedWriter writer = Files.newBufferedWriter(deadLetterFile,
+                    StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                writer.write(line);
+                writer.newLine();
+                deadLetteredCounter.increment();
+            } catch (IOException e) {
+                log.error("Failed to write unreadable spill line to {}. {}",
+                        deadLetterFile, line, e);
+            }
+        }
+    }
+
+    private double getLagMillis() {
+        FailedTransaction oldest = queue.peek();
+        if (oldest == null) {
+            return 0;
+        }
+        return Duration.between(oldest.getTransactedAt(), LocalDateTime.now()).toMillis();
+    }
+
+    private String toJsonQuietly(List<FailedTransaction> failedTransactions) {
+        try {
+            return objectMapper.writeValueAsString(failedTransactions);
+        } catch (JsonProcessingException e) {
+            return failedTransactions.toString();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.type.FaultPoint;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * 지연/오류 주입 지점
+ * LOCK : AccountLockProvider.lock 호출 전
+ * LOAD, SAVE : repository 호출 전 (save, delete, update 로 시작하는 메서드는 SAVE, 나머지는 LOAD)
+ * 서비스는 계좌 잠금 안에서 실행되므로 LOAD, SAVE 지연은 잠금을 잡은 채로 대기
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "account.fault", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class FaultInjectionAspect {
+    private final FaultInjector faultInjector;
+
+    @Around("execution(* com.example.mission2_account.service.AccountLockProvider+.lock(String, long, long))")
+    public Object aroundLock(ProceedingJoinPoint pjp) throws Throwable {
+        faultInjector.inject(FaultPoint.LOCK);
+        return pjp.proceed();
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object aroundRepository(ProceedingJoinPoint pjp) throws Throwable {
+        faultInjector.inject(pointOf(pjp.getSignature().getName()));
+        return pjp.proceed();
+    }
+
+    static FaultPoint pointOf(String methodName) {
+        return methodName.startsWith("save")
+                || methodName.startsWith("delete")
+                || methodName.startsWith("update")
+                ? FaultPoint.SAVE : FaultPoint.LOAD;
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.FaultSpec;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.FaultPoint;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static com.example.mission2_account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+
+/**
+ * 지연/오류 주입 (경합, 장애 상황 재현용, fault 프로필에서만 사용)
+ * 처음 설정은 account.fault.points.{lock|load|save}, 실행 중에는 /admin/faults 로 바꿈
+ * 주입 지점은 FaultInjectionAspect 참고
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.fault", name = "enabled", havingValue = "true")
+public class FaultInjector {
+    private final Map<FaultPoint, FaultSpec> faults = new ConcurrentHashMap<>();
+    private final RequestTracer requestTracer;
+    private final Map<FaultPoint, Counter> delayCounters = new EnumMap<>(FaultPoint.class);
+    private final Map<FaultPoint, Counter> errorCounters = new EnumMap<>(FaultPoint.class);
+
+    public FaultInjector(Environment environment, RequestTracer requestTracer,
+                         MeterRegistry meterRegistry) {
+        this.requestTracer = requestTracer;
+        faults.putAll(Binder.get(environment)
+                .bind("account.fault.points", Bindable.mapOf(FaultPoint.class, FaultSpec.class))
+                .orElse(Collections.emptyMap()));
+        faults.forEach((point, fault) -> log.warn("Fault injection enabled. point : {}", point));
+
+        for (FaultPoint point : FaultPoint.values()) {
+            delayCounters.put(point, injectedCounter(meterRegistry, point, "delay"));
+            errorCounters.put(point, injectedCounter(meterRegistry, point, "error"));
+        }
+    }
+
+    /**
+     * 지점에 설정된 지연/오류 주입, 설정이 없으면 바로 리턴
+     */
+    public void inject(FaultPoint point) {
+        FaultSpec fault = faults.get(point);
+        if (fault == null) {
+            return;
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = fault.getLatency()
+                + (fault.getJitter() > 0 ? random.nextLong(fault.getJitter() + 1) : 0);
+        if (delay > 0) {
+            delayCounters.get(point).increment();
+            try (RequestTracer.Span ignored =
+                         requestTracer.span("fault." + point.name().toLowerCase())) {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        if (fault.getErrorRate() > 0 && random.nextDouble() < fault.getErrorRate()) {
+            errorCounters.get(point).increment();
+            throw new AccountException(fault.getErrorCode() == null
+                    ? INTERNAL_SERVER_ERROR : fault.getErrorCode());
+        }
+    }
+
+    public Map<FaultPoint, FaultSpec> getFaults() {
+        Map<FaultPoint, FaultSpec> copy = new EnumMap<>(FaultPoint.class);
+        copy.putAll(faults);
+        return copy;
+    }
+
+    public void setFault(FaultPoint point, FaultSpec fault) {
+        log.warn("Fault injection changed. point : {}, latency : {}, errorRate : {}",
+                point, fault.getLatency(), fault.getErrorRate());
+        faults.put(point, fault);
+    }
+
+    public void clearFault(FaultPoint point) {
+        log.warn("Fault injection cleared. point : {}", point);
+        faults.remove(point);
+    }
+
+    private static Counter injectedCounter(MeterRegistry meterRegistry, FaultPoint point,
+                                           String type) {
+        return Counter.builder("account.fault.injected")
+                .description("주입한 지연/오류 수")
+                .tag("point", point.name())
+                .tag("type", type)
+                .register(meterRegistry);
+    }
+}
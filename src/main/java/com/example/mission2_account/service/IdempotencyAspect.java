@@ -0,0 +1,236 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.aop.Idempotent;
+import com.example.mission2_account.dto.IdempotencyRecord;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.ErrorCode;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mission2_account.type.ErrorCode.*;
+import static com.example.mission2_account.type.IdempotencyStatus.*;
+
+/**
+ * Idempotency-Key 헤더로 같은 요청의 재시도를 한 번만 처리
+ * 처음 요청이 처리 중 표시를 남기고 실행한 뒤 응답(또는 오류 코드)을 Redis 에 저장
+ * 같은 키로 다시 오면 서비스 실행, 계좌 잠금 없이 저장된 응답을 돌려줌 (계좌 잠금보다 먼저 실행)
+ * 처리 중이면 끝날 때까지 잠시 기다렸다가 돌려주고, 그래도 끝나지 않으면 IDEMPOTENT_REQUEST_IN_PROGRESS
+ * 잠금 경합처럼 다시 시도하면 성공할 수 있는 오류는 저장하지 않음
+ */
+@Aspect
+@Component
+//계좌 잠금(LockAopAspect, 기본 순서)보다 먼저 실행
+//HIGHEST_PRECEDENCE 면 advice 인자 바인딩에 필요한 ExposeInvocationInterceptor 보다 앞서 실행되어 실패함
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+@Slf4j
+public class IdempotencyAspect {
+    public static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+    private static final String KEY_PREFIX = "IDEM: ";
+    private static final int MAX_KEY_LENGTH = 64;
+    private static final long POLL_INTERVAL_MILLIS = 50;
+    private static final Set<ErrorCode> RETRYABLE_ERRORS = EnumSet.of(
+            ACCOUNT_TRANSACTION_LOCK, ACCOUNT_TRANSACTION_QUEUE_FULL, INTERNAL_SERVER_ERROR);
+
+    private final RedissonClient redissonClient;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final long ttlMillis;
+    private final long inFlightTtlMillis;
+    private final long waitMillis;
+
+    public IdempotencyAspect(
+            RedissonClient redissonClient,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${account.idempotency.ttl:86400000}") long ttlMillis,
+            @Value("${account.idempotency.in-flight-ttl:30000}") long inFlightTtlMillis,
+            @Value("${account.idempotency.wait:3000}") long waitMillis
+    ) {
+        this.redissonClient = redissonClient;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        this.ttlMillis = ttlMillis;
+        this.inFlightTtlMillis = inFlightTtlMillis;
+        this.waitMillis = waitMillis;
+    }
+
+    @Around("@annotation(idempotent)")
+    public Object aroundMethod(ProceedingJoinPoint pjp, Idempotent idempotent) throws Throwable {
+        String idempotencyKey = getIdempotencyKey();
+        if (idempotencyKey == null) {
+            return pjp.proceed();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+
+        String operation = idempotent.operation();
+        RBucket<String> bucket = redissonClient.getBucket(
+                KEY_PREFIX + operation + ":" + idempotencyKey, StringCodec.INSTANCE);
+        String fingerprint = DigestUtils.md5DigestAsHex(
+                objectMapper.writeValueAsBytes(pjp.getArgs()));
+
+        while (true) {
+            boolean acquired;
+            try {
+                acquired = bucket.trySet(write(IdempotencyRecord.builder()
+                                .status(IN_FLIGHT)
+                                .fingerprint(fingerprint)
+                                .build()),
+                        inFlightTtlMillis, TimeUnit.MILLISECONDS);
+            } catch (RedisException e) {
+                //저장소를 쓸 수 없으면 재시도 보호 없이 처리
+                log.warn("Idempotency store unavailable. operation : {}", operation, e);
+                requestCounter(operation, "unavailable").increment();
+                return pjp.proceed();
+            }
+            if (acquired) {
+                requestCounter(operation, "executed").increment();
+                return execute(pjp, bucket, fingerprint);
+            }
+
+            IdempotencyRecord record = awaitCompletion(bucket, fingerprint);
+            if (record == null) {
+                //처음 요청이 다시 시도할 수 있는 오류로 끝나서 지워짐
+                continue;
+            }
+            if (!fingerprint.equals(record.getFingerprint())) {
+                requestCounter(operation, "reused").increment();
+                throw new AccountException(IDEMPOTENCY_KEY_REUSED);
+            }
+
+            switch (record.getStatus()) {
+                case COMPLETED:
+                    requestCounter(operation, "replayed").increment();
+                    Class<?> returnType = ((MethodSignature) pjp.getSignature()).getReturnType();
+                    return objectMapper.readValue(record.getResponse(), returnType);
+                case FAILED:
+                    requestCounter(operation, "replayed").increment();
+                    throw new AccountException(record.getErrorCode());
+                default:
+                    requestCounter(operation, "in_progress").increment();
+                    throw new AccountException(IDEMPOTENT_REQUEST_IN_PROGRESS);
+            }
+        }
+    }
+
+    /**
+     * 처음 요청 실행 후 결과 저장
+     */
+    private Object execute(ProceedingJoinPoint pjp, RBucket<String> bucket,
+                           String fingerprint) throws Throwable {
+        Object response;
+        try {
+            response = pjp.proceed();
+        } catch (AccountException e) {
+            if (RETRYABLE_ERRORS.contains(e.getErrorCode())) {
+                deleteQuietly(bucket);
+            } else {
+                saveQuietly(bucket, IdempotencyRecord.builder()
+                        .status(FAILED)
+                        .fingerprint(fingerprint)
+                        .errorCode(e.getErrorCode())
+                        .build());
+            }
+            throw e;
+        } catch (Throwable e) {
+            deleteQuietly(bucket);
+            throw e;
+        }
+
+        saveQuietly(bucket, IdempotencyRecord.builder()
+                .status(COMPLETED)
+                .fingerprint(fingerprint)
+                .response(objectMapper.writeValueAsString(response))
+                .build());
+        return response;
+    }
+
+    /**
+     * 같은 요청이 처리 중이면 끝날 때까지 기다린 뒤 저장된 상태 리턴 (없으면 null)
+     */
+    private IdempotencyRecord awaitCompletion(RBucket<String> bucket, String fingerprint)
+            throws JsonProcessingException, InterruptedException {
+        long deadline = System.currentTimeMillis() + waitMillis;
+        IdempotencyRecord record = read(bucket);
+        while (record != null
+                && record.getStatus() == IN_FLIGHT
+                && fingerprint.equals(record.getFingerprint())
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+            record = read(bucket);
+        }
+        return record;
+    }
+
+    /**
+     * 저장에 실패하면 처리 중 표시가 만료될 때까지 같은 키의 요청은 IDEMPOTENT_REQUEST_IN_PROGRESS
+     */
+    private void saveQuietly(RBucket<String> bucket, IdempotencyRecord record) {
+        try {
+            bucket.set(write(record), ttlMillis, TimeUnit.MILLISECONDS);
+        } catch (RedisException | JsonProcessingException e) {
+            log.error("Failed to save idempotent response. key : {}", bucket.getName(), e);
+        }
+    }
+
+    private void deleteQuietly(RBucket<String> bucket) {
+        try {
+            bucket.delete();
+        } catch (RedisException e) {
+            log.error("Failed to delete idempotency marker. key : {}", bucket.getName(), e);
+        }
+    }
+
+    private IdempotencyRecord read(RBucket<String> bucket) throws JsonProcessingException {
+        String value = bucket.get();
+        return value == null ? null : objectMapper.readValue(value, IdempotencyRecord.class);
+    }
+
+    private String write(IdempotencyRecord record) throws JsonProcessingException {
+        return objectMapper.writeValueAsString(record);
+    }
+
+    private static String getIdempotencyKey() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return null;
+        }
+        return ((ServletRequestAttributes) attributes).getRequest()
+                .getHeader(IDEMPOTENCY_KEY_HEADER);
+    }
+
+    /**
+     * 작업별 Idempotency-Key 요청 수 (replayed / 전체 = 재시도 비율)
+     */
+    private Counter requestCounter(String operation, String result) {
+        return Counter.builder("account.idempotency.requests")
+                .description("Idempotency-Key 가 있는 요청 수")
+                .tag("operation", operation)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+
+/**
+ * JVM 내부 잠금 백엔드 - 단일 노드 배포용
+ * 계좌 번호 해시로 고정 개수의 ReentrantLock 중 하나를 선택(stripe)
+ * 다른 계좌가 같은 stripe 에 걸리면 서로 기다릴 수 있으므로
+ * stripe 개수는 동시 거래 계좌 수보다 충분히 크게 설정
+ * 여러 계좌는 계좌 번호가 아니라 stripe 순서로 잠금 (계좌 번호 순서와 stripe 순서가 달라 생기는 교착 상태 방지)
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(prefix = "account.lock", name = "provider", havingValue = "local")
+public class LocalAccountLockProvider implements AccountLockProvider {
+    private final ReentrantLock[] stripes;
+
+    public LocalAccountLockProvider(
+            @Value("${account.lock.stripes:1024}") int stripeCount
+    ) {
+        //해시 분배를 비트 연산으로 하기 위해 2의 거듭제곱으로 맞춤
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public void lock(String accountNumber, long tryLockTime, long leaseTime) {
+        log.debug("Trying local lock for accountNumber : {}", accountNumber);
+
+        try {
+            if (!getStripe(accountNumber).tryLock(tryLockTime, TimeUnit.MILLISECONDS)) {
+                log.error("============Lock acquisition failed===============");
+                throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+        }
+    }
+
+    @Override
+    public void unlock(String accountNumber) {
+        log.debug("Local unlock for accountNumber : {}", accountNumber);
+        ReentrantLock stripe = getStripe(accountNumber);
+        if (stripe.isHeldByCurrentThread()) {
+            stripe.unlock();
+        }
+    }
+
+    /**
+     * stripe 번호 순서로, 같은 stripe 에 걸리는 계좌는 하나만 (가장 작은 계좌 번호)
+     */
+    @Override
+    public List<String> lockOrder(Collection<String> accountNumbers) {
+        TreeMap<Integer, String> byStripe = new TreeMap<>();
+        for (String accountNumber : accountNumbers) {
+            byStripe.merge(stripeIndex(accountNumber), accountNumber,
+                    (first, second) -> first.compareTo(second) <= 0 ? first : second);
+        }
+        return new ArrayList<>(byStripe.values());
+    }
+
+    int stripeIndex(String accountNumber) {
+        int hash = accountNumber.hashCode();
+        hash ^= (hash >>> 16);
+        return hash & (stripes.length - 1);
+    }
+
+    private ReentrantLock getStripe(String accountNumber) {
+        return stripes[stripeIndex(accountNumber)];
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.mission2_account.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * JVM 메모리 Bloom filter 계좌 번호 색인 - 단일 노드 전용 (account.number-index.type: local)
+ * 노드마다 시작할 때 DB 에서 다시 만들고, 이 노드에서 계좌를 만들 때만 추가됨
+ * 다른 노드에서 발급한 번호는 알 수 없어서 여러 노드로 띄우면 실제 계좌를 없는 계좌로 거절함
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.number-index", name = "type", havingValue = "local")
+public class LocalAccountNumberIndex implements AccountNumberIndex {
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    //조회에 사용하는 색인, 처음 만들어지기 전에는 null
+    private volatile BloomFilter current;
+    //만들고 있는 색인, 만드는 동안 발급된 번호도 빠지지 않도록 함께 추가
+    private volatile BloomFilter building;
+
+    public LocalAccountNumberIndex(
+            @Value("${account.number-index.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${account.number-index.false-positive-rate:0.001}") double falsePositiveRate,
+            MeterRegistry meterRegistry
+    ) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.building = BloomFilter.create(expectedInsertions, falsePositiveRate);
+
+        Gauge.builder("account.number.index.insertions", this, index -> index.stat(BloomFilter::getInsertions))
+                .description("계좌 번호 색인에 추가된 번호 수")
+                .register(meterRegistry);
+        Gauge.builder("account.number.index.memory", this, index -> index.stat(BloomFilter::getMemoryBytes))
+                .description("계좌 번호 색인 메모리 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        Gauge.builder("account.number.index.false.positive.rate", this,
+                        index -> index.stat(BloomFilter::getExpectedFalsePositiveRate))
+                .description("추가된 번호 수 기준 예상 오탐률")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(String accountNumber) {
+        BloomFilter buildingFilter = building;
+        if (buildingFilter != null) {
+            buildingFilter.put(accountNumber);
+        }
+        BloomFilter currentFilter = current;
+        if (currentFilter != null) {
+            currentFilter.put(accountNumber);
+        }
+    }
+
+    @Override
+    public boolean isDefinitelyAbsent(String accountNumber) {
+        BloomFilter currentFilter = current;
+        return currentFilter != null && !currentFilter.mightContain(accountNumber);
+    }
+
+    @Override
+    public void rebuild(Iterator<String> accountNumbers) {
+        BloomFilter filter = building != null
+                ? building
+                : BloomFilter.create(expectedInsertions, falsePositiveRate);
+        building = filter;
+        while (accountNumbers.hasNext()) {
+            filter.put(accountNumbers.next());
+        }
+        current = filter;
+        building = null;
+
+        log.info("Account number index built. count : {}, bits : {}, hash functions : {}, " +
+                        "memory : {} bytes, expected false positive rate : {}",
+                filter.getInsertions(), filter.getBitSize(), filter.getHashFunctions(),
+                filter.getMemoryBytes(), filter.getExpectedFalsePositiveRate());
+    }
+
+    private double stat(ToDoubleFunction<BloomFilter> getter) {
+        BloomFilter filter = current != null ? current : building;
+        return filter == null ? 0 : getter.applyAsDouble(filter);
+    }
+}
@@ -1,32 +1,165 @@
 package com.example.mission2_account.service;
 
+import com.example.mission2_account.aop.AccountLock;
 import com.example.mission2_account.aop.AccountLockIdInterface;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.AccountLockStrategy;
+import com.example.mission2_account.type.LockLeaseMode;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+
 @Aspect
 @Component
 @Slf4j
 @RequiredArgsConstructor
 public class LockAopAspect {
-    private final LockService lockService;
+    private final AccountLockProvider accountLockProvider;
+    private final AccountCommandExecutor accountCommandExecutor;
+    private final AccountNumberIndex accountNumberIndex;
+    private final MeterRegistry meterRegistry;
+    private final RequestTracer requestTracer;
 
-    @Around("@annotation(com.example.mission2_account.aop.AccountLock) && args(request)")
+    @Value("${account.transaction.mode:LOCKED}")
+    private TransactionExecutionMode transactionMode;
+
+    @Around("@annotation(accountLock) && args(request)")
     public Object aroundMethod(
             ProceedingJoinPoint pjp,
+            AccountLock accountLock,
             AccountLockIdInterface request
     ) throws Throwable {
+        //발급된 적 없는 계좌 번호면 잠금 시도 없이 바로 거절
+        for (String accountNumber : request.getAccountNumbers()) {
+            if (accountNumberIndex.isDefinitelyAbsent(accountNumber)) {
+                throw new AccountException(ACCOUNT_NOT_FOUND);
+            }
+        }
+
+        //조건부 UPDATE 로 처리하는 경우 잠금 생략
+        if (accountLock.optionalInAtomicMode()
+                && transactionMode == TransactionExecutionMode.ATOMIC) {
+            return pjp.proceed();
+        }
+
+        String endpoint = pjp.getSignature().toShortString();
+
+        //계좌별 작업 스레드에서 순서대로 처리 (같은 노드 안의 경합은 큐에서 대기)
+        //요청 trace 는 작업 스레드에서 이어서 기록 (요청 스레드는 결과를 기다리는 중)
+        if (accountLock.strategy() == AccountLockStrategy.QUEUE) {
+            //대기 구간은 작업 스레드가 시작할 때 닫고, 시작하지 못한 경우(거절, 시간 초과)만 여기서 닫음
+            RequestTracer.ActiveTrace trace = requestTracer.current();
+            RequestTracer.Span queueWait = requestTracer.span("lock.queue");
+            AtomicBoolean queueWaitClosed = new AtomicBoolean();
+            try {
+                return accountCommandExecutor.execute(request.getAccountNumber(), endpoint,
+                        () -> {
+                            if (queueWaitClosed.compareAndSet(false, true)) {
+                                queueWait.close();
+                            }
+                            requestTracer.attach(trace);
+                            try {
+                                return proceedWithLock(pjp, accountLock, request, endpoint);
+                            } finally {
+                                requestTracer.detach();
+                            }
+                        });
+            } finally {
+                if (queueWaitClosed.compareAndSet(false, true)) {
+                    queueWait.close();
+                }
+            }
+        }
+
+        return proceedWithLock(pjp, accountLock, request, endpoint);
+    }
+
+    /**
+     * 요청의 계좌를 모두 잠그고 실행
+     * 여러 계좌는 항상 잠금 백엔드가 정한 순서(lockOrder, 기본은 계좌 번호 순서)로 잠가서
+     * (A -> B, B -> A 이체가 동시에 와도) 교착 상태가 생기지 않음
+     * 중간에 잠금을 얻지 못하면 이미 얻은 잠금을 풀고 ACCOUNT_TRANSACTION_LOCK
+     */
+    private Object proceedWithLock(
+            ProceedingJoinPoint pjp,
+            AccountLock accountLock,
+            AccountLockIdInterface request,
+            String endpoint
+    ) throws Throwable {
+        long leaseTime = accountLock.leaseMode() == LockLeaseMode.WATCHDOG
+                ? AccountLockProvider.WATCHDOG_LEASE_TIME
+                : accountLock.leaseTime();
+        List<String> accountNumbers = accountLockProvider.lockOrder(request.getAccountNumbers());
+
         //lock 취득 시도
-        lockService.lock(request.getAccountNumber());
+        Timer.Sample waitSample = Timer.start(meterRegistry);
+        Deque<String> locked = new ArrayDeque<>(accountNumbers.size());
+        try (RequestTracer.Span ignored = requestTracer.span("lock.wait")) {
+            for (String accountNumber : accountNumbers) {
+                accountLockProvider.lock(accountNumber, accountLock.tryLockTime(), leaseTime);
+                locked.push(accountNumber);
+            }
+        } catch (AccountException e) {
+            unlockAll(locked);
+            waitSample.stop(lockWaitTimer(endpoint, "failed"));
+            throw e;
+        }
+        waitSample.stop(lockWaitTimer(endpoint, "acquired"));
+
+        Timer.Sample holdSample = Timer.start(meterRegistry);
         try {
             return pjp.proceed();
         } finally {
-            //lock 해제
-            lockService.unlock(request.getAccountNumber());
+            //lock 해제 (잠근 순서의 반대로)
+            unlockAll(locked);
+            holdSample.stop(lockHoldTimer(endpoint));
+        }
+    }
+
+    private void unlockAll(Deque<String> locked) {
+        try (RequestTracer.Span ignored = requestTracer.span("lock.release")) {
+            while (!locked.isEmpty()) {
+                accountLockProvider.unlock(locked.pop());
+            }
         }
     }
+
+    /**
+     * 엔드포인트별 잠금 대기 시간 히스토그램
+     * tryLockTime 설정값을 실제 트래픽 기준으로 잡을 때 사용
+     */
+    private Timer lockWaitTimer(String endpoint, String result) {
+        return Timer.builder("account.lock.wait")
+                .description("계좌 잠금 획득 대기 시간")
+                .tag("endpoint", endpoint)
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    /**
+     * 엔드포인트별 잠금 보유 시간 히스토그램
+     * leaseTime 설정값을 실제 트래픽 기준으로 잡을 때 사용
+     */
+    private Timer lockHoldTimer(String endpoint) {
+        return Timer.builder("account.lock.hold")
+                .description("계좌 잠금 보유 시간")
+                .tag("endpoint", endpoint)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
 }
@@ -5,24 +5,32 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Service;
 
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
 
+/**
+ * Redisson(Redis) 분산 잠금 백엔드 - 기본값
+ */
 @Slf4j
 @Service
 @RequiredArgsConstructor
-public class LockService {
+@ConditionalOnProperty(prefix = "account.lock", name = "provider",
+        havingValue = "redisson", matchIfMissing = true)
+public class LockService implements AsyncAccountLockProvider {
     private final RedissonClient redissonClient;
 
-    public void lock(String accountNumber) {
+    @Override
+    public void lock(String accountNumber, long tryLockTime, long leaseTime) {
         RLock lock = redissonClient.getLock(getLockKey(accountNumber));
         log.debug("Trying lock for accountNumber : {}", accountNumber);
 
         try {
-            boolean isLock = lock.tryLock(1, 15, TimeUnit.SECONDS);
+            boolean isLock = lock.tryLock(tryLockTime, leaseTime, TimeUnit.MILLISECONDS);
             if (!isLock) {
                 log.error("============Lock acquisition failed===============");
                 throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
@@ -34,11 +42,40 @@ public class LockService {
         }
     }
 
+    @Override
     public void unlock(String accountNumber) {
         log.debug("Unlock for accountNumber : {}", accountNumber);
         redissonClient.getLock(getLockKey(accountNumber)).unlock();
     }
 
+    /**
+     * tryLockAsync 는 Redis 응답(잠금 해제 알림 포함)을 Redisson 이벤트 스레드에서 처리하므로
+     * 기다리는 동안 호출한 스레드를 붙잡지 않음
+     */
+    @Override
+    public CompletableFuture<Void> lockAsync(String accountNumber, long lockId,
+                                             long tryLockTime, long leaseTime) {
+        log.debug("Trying async lock for accountNumber : {}", accountNumber);
+
+        return redissonClient.getLock(getLockKey(accountNumber))
+                .tryLockAsync(tryLockTime, leaseTime, TimeUnit.MILLISECONDS, lockId)
+                .toCompletableFuture()
+                .thenAccept(isLock -> {
+                    if (!isLock) {
+                        log.error("============Lock acquisition failed===============");
+                        throw new AccountException(ACCOUNT_TRANSACTION_LOCK);
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Void> unlockAsync(String accountNumber, long lockId) {
+        log.debug("Async unlock for accountNumber : {}", accountNumber);
+        return redissonClient.getLock(getLockKey(accountNumber))
+                .unlockAsync(lockId)
+                .toCompletableFuture();
+    }
+
     private static String getLockKey(String accountNumber) {
         return "ACLK: " + accountNumber;
     }
@@ -0,0 +1,195 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.RequestTrace;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 끝난 요청 trace 를 OpenTelemetry OTLP/JSON 형식(ExportTraceServiceRequest)으로 파일에 한 줄씩 추가
+ * OpenTelemetry Collector 의 otlpjsonfile receiver 로 읽어서 tracing 백엔드로 보낼 수 있음
+ * 요청 스레드는 큐에 넣기만 하고 파일 쓰기는 작업 스레드에서 함, 큐가 가득 차면 버림
+ */
+@Slf4j
+@Component
+public class OtlpTraceFileExporter {
+    private static final int SPAN_KIND_INTERNAL = 1;
+    private static final int SPAN_KIND_SERVER = 2;
+    private static final int BATCH_SIZE = 100;
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path file;
+    private final BlockingQueue<RequestTrace> queue;
+    private final Counter droppedCounter;
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public OtlpTraceFileExporter(
+            ObjectMapper objectMapper,
+            @Value("${account.trace.otlp-file.enabled:false}") boolean enabled,
+            @Value("${account.trace.otlp-file.path:traces.otlp.jsonl}") String file,
+            @Value("${account.trace.otlp-file.capacity:10000}") int capacity,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.file = Paths.get(file);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.droppedCounter = Counter.builder("account.trace.export.dropped")
+                .description("큐가 가득 차서 내보내지 못한 요청 trace 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        writerThread = new Thread(this::runWriter, "otlp-trace-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+    }
+
+    public void export(RequestTrace trace) {
+        if (running && !queue.offer(trace)) {
+            droppedCounter.increment();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        if (writerThread != null) {
+            writerThread.join(TimeUnit.SECONDS.toMillis(10));
+        }
+
+        //작업 스레드가 끝난 뒤 남은 trace 를 모두 기록
+        List<RequestTrace> batch = new ArrayList<>(BATCH_SIZE);
+        while (queue.drainTo(batch, BATCH_SIZE) > 0) {
+            write(batch);
+            batch.clear();
+        }
+    }
+
+    private void runWriter() {
+        List<RequestTrace> batch = new ArrayList<>(BATCH_SIZE);
+        while (running) {
+            try {
+                RequestTrace first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+
+                batch.add(first);
+                queue.drainTo(batch, BATCH_SIZE - 1);
+                write(batch);
+                batch.clear();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    private void write(List<RequestTrace> batch) {
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            for (RequestTrace trace : batch) {
+                writer.write(toOtlpJson(trace));
+                writer.newLine();
+            }
+        } catch (IOException e) {
+            log.error("Failed to export request traces. count : {}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 요청 하나 = ExportTraceServiceRequest 하나 (요청이 root span, 구간이 하위 span)
+     * OTLP/JSON 규칙대로 아이디는 16진수 문자열, 시각(unix ns)은 10진수 문자열
+     */
+    String toOtlpJson(RequestTrace trace) throws JsonProcessingException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        String rootSpanId = RequestTracer.toHex(random.nextLong());
+        long start = trace.getStartEpochNanos();
+
+        List<Map<String, Object>> spans = new ArrayList<>(trace.getPhases().size() + 1);
+        Map<String, Object> root = span(trace.getTraceId(), rootSpanId, null,
+                trace.getMethod() + " " + trace.getUri(), SPAN_KIND_SERVER,
+                start, start + trace.getDurationNanos());
+        root.put("attributes", List.of(
+                attribute("http.method", trace.getMethod()),
+                attribute("http.target", trace.getUri())));
+        spans.add(root);
+
+        String[] spanIds = new String[trace.getPhases().size()];
+        for (int i = 0; i < spanIds.length; i++) {
+            RequestTrace.Phase phase = trace.getPhases().get(i);
+            spanIds[i] = RequestTracer.toHex(random.nextLong());
+            long phaseStart = start + phase.getStartOffsetNanos();
+            spans.add(span(trace.getTraceId(), spanIds[i],
+                    phase.getParent() < 0 ? rootSpanId : spanIds[phase.getParent()],
+                    phase.getName(), SPAN_KIND_INTERNAL,
+                    phaseStart, phaseStart + phase.getDurationNanos()));
+        }
+
+        Map<String, Object> scopeSpans = new LinkedHashMap<>();
+        scopeSpans.put("scope", Collections.singletonMap("name", "com.example.mission2_account"));
+        scopeSpans.put("spans", spans);
+
+        Map<String, Object> resourceSpans = new LinkedHashMap<>();
+        resourceSpans.put("resource", Collections.singletonMap("attributes",
+                List.of(attribute("service.name", "mission2-account"))));
+        resourceSpans.put("scopeSpans", List.of(scopeSpans));
+
+        return objectMapper.writeValueAsString(
+                Collections.singletonMap("resourceSpans", List.of(resourceSpans)));
+    }
+
+    private static Map<String, Object> span(String traceId, String spanId, String parentSpanId,
+                                            String name, int kind, long start, long end) {
+        Map<String, Object> span = new LinkedHashMap<>();
+        span.put("traceId", traceId);
+        span.put("spanId", spanId);
+        if (parentSpanId != null) {
+            span.put("parentSpanId", parentSpanId);
+        }
+        span.put("name", name);
+        span.put("kind", kind);
+        span.put("startTimeUnixNano", String.valueOf(start));
+        span.put("endTimeUnixNano", String.valueOf(end));
+        return span;
+    }
+
+    private static Map<String, Object> attribute(String key, String value) {
+        Map<String, Object> attribute = new LinkedHashMap<>();
+        attribute.put("key", key);
+        attribute.put("value", Collections.singletonMap("stringValue", value));
+        return attribute;
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.mission2_account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis INCR 로 블록 번호 발급 - 기본값
+ * 카운터가 유실되면 번호가 중복될 수 있으므로 운영 Redis 는 영속화(AOF 등)가 필요
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "account.number", name = "block-source",
+        havingValue = "redis", matchIfMissing = true)
+public class RedisAccountNumberBlockSource implements AccountNumberBlockSource {
+    private static final String BLOCK_COUNTER_KEY = "ACNUM: block";
+
+    private final RedissonClient redissonClient;
+
+    @Override
+    public long nextBlock() {
+        return redissonClient.getAtomicLong(BLOCK_COUNTER_KEY).getAndIncrement();
+    }
+}
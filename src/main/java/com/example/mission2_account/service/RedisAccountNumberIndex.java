@@ -0,0 +1,221 @@
+package com.example.mission2_account.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Iterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Redis(RBloomFilter) 계좌 번호 색인 - 기본값
+ * 모든 노드가 하나의 색인을 같이 사용하고, 색인이 없으면 잠금을 얻은 노드 하나가 DB 에서 만듦
+ * 새 색인은 새 이름의 filter 에 다 채운 뒤 current 키가 가리키도록 바꾸므로 만들다 만 색인은 쓰이지 않음
+ * current 키가 없거나 가리키는 filter 가 사라지면(FLUSHDB, eviction, 새 Redis)
+ * 다시 만들 때까지 모든 번호를 있는 것으로 취급
+ * 색인이 없는 동안 발급된 번호는 pending 집합에 모았다가 새 색인에 추가
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.number-index", name = "type",
+        havingValue = "redis", matchIfMissing = true)
+public class RedisAccountNumberIndex implements AccountNumberIndex {
+    private static final String CURRENT_KEY = "ACIDX: current";
+    private static final String FILTER_KEY_PREFIX = "ACIDX: filter:";
+    private static final String PENDING_KEY = "ACIDX: pending";
+    private static final String LOCK_KEY = "ACIDX: lock";
+
+    private final RedissonClient redissonClient;
+    private final RBucket<String> currentName;
+    private final RSet<String> pending;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    //조회에 사용하는 색인, 없거나 사라진 것을 확인하면 null
+    private volatile RBloomFilter<String> bloomFilter;
+    //사라진 것을 확인한 색인 이름, current 키가 아직 이 이름이면 색인이 없는 것으로 취급
+    private volatile String lostName;
+
+    public RedisAccountNumberIndex(
+            RedissonClient redissonClient,
+            @Value("${account.number-index.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${account.number-index.false-positive-rate:0.001}") double falsePositiveRate,
+            MeterRegistry meterRegistry
+    ) {
+        this.redissonClient = redissonClient;
+        this.currentName = redissonClient.getBucket(CURRENT_KEY, StringCodec.INSTANCE);
+        this.pending = redissonClient.getSet(PENDING_KEY, StringCodec.INSTANCE);
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+
+        Gauge.builder("account.number.index.insertions", this,
+                        index -> index.stat(RBloomFilter::count))
+                .description("계좌 번호 색인에 추가된 번호 수(추정)")
+                .register(meterRegistry);
+        Gauge.builder("account.number.index.memory", this,
+                        index -> index.stat(filter -> filter.getSize() / 8.0))
+                .description("계좌 번호 색인 메모리 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(String accountNumber) {
+        RBloomFilter<String> filter = current();
+        if (filter != null && addTo(filter, accountNumber)) {
+            return;
+        }
+
+        //색인이 없는 동안 발급된 번호 - 색인을 만드는 노드가 새 색인에 옮김
+        pending.add(accountNumber);
+        //pending 에 넣는 사이에 새 색인으로 바뀌었으면 직접 추가
+        //(rebuild 는 색인을 바꾼 뒤에 pending 을 옮기므로 둘 중 하나에서는 반드시 추가됨)
+        filter = current();
+        if (filter != null) {
+            addTo(filter, accountNumber);
+        }
+    }
+
+    @Override
+    public boolean isDefinitelyAbsent(String accountNumber) {
+        RBloomFilter<String> filter = current();
+        if (filter == null) {
+            return false;
+        }
+
+        try {
+            return !filter.contains(accountNumber);
+        } catch (IllegalStateException e) {
+            lost(filter);
+            return false;
+        }
+    }
+
+    @Override
+    public boolean needsRebuild() {
+        RBloomFilter<String> filter = current();
+        if (filter == null) {
+            return true;
+        }
+
+        try {
+            //설정이 없으면(filter 가 사라짐) IllegalStateException
+            filter.getExpectedInsertions();
+            return false;
+        } catch (IllegalStateException e) {
+            lost(filter);
+            return true;
+        }
+    }
+
+    @Override
+    public void rebuild(Iterator<String> accountNumbers) {
+        RLock lock = redissonClient.getLock(LOCK_KEY);
+        if (!lock.tryLock()) {
+            log.info("Account number index is being built by another node.");
+            return;
+        }
+
+        try {
+            //이미 다른 노드가 만든 색인이 있으면 그대로 사용
+            if (!needsRebuild()) {
+                log.info("Account number index already exists in redis.");
+                return;
+            }
+
+            RBloomFilter<String> building =
+                    redissonClient.getBloomFilter(FILTER_KEY_PREFIX + UUID.randomUUID());
+            try {
+                building.tryInit(expectedInsertions, falsePositiveRate);
+                while (accountNumbers.hasNext()) {
+                    building.add(accountNumbers.next());
+                }
+            } catch (RuntimeException e) {
+                building.delete();
+                throw e;
+            }
+
+            String previous = currentName.getAndSet(building.getName());
+            bloomFilter = building;
+
+            Set<String> added = pending.readAll();
+            for (String accountNumber : added) {
+                building.add(accountNumber);
+            }
+            pending.removeAll(added);
+
+            if (previous != null) {
+                redissonClient.getBloomFilter(previous).delete();
+            }
+
+            log.info("Account number index built in redis. count : {}, bits : {}, " +
+                            "hash functions : {}, expected false positive rate : {}",
+                    building.count(), building.getSize(),
+                    building.getHashIterations(), building.getFalseProbability());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 사용 중인 색인, 아직 모르면 current 키에서 읽음 (없으면 null)
+     */
+    private RBloomFilter<String> current() {
+        RBloomFilter<String> filter = bloomFilter;
+        if (filter != null) {
+            return filter;
+        }
+
+        String name = currentName.get();
+        if (name == null || name.equals(lostName)) {
+            return null;
+        }
+        filter = redissonClient.getBloomFilter(name);
+        bloomFilter = filter;
+        return filter;
+    }
+
+    private boolean addTo(RBloomFilter<String> filter, String accountNumber) {
+        try {
+            filter.add(accountNumber);
+            return true;
+        } catch (IllegalStateException e) {
+            lost(filter);
+            return false;
+        }
+    }
+
+    private void lost(RBloomFilter<String> filter) {
+        if (bloomFilter == filter) {
+            lostName = filter.getName();
+            bloomFilter = null;
+            log.warn("Account number index is missing in redis. " +
+                    "Every number is treated as existing until it is rebuilt. filter : {}",
+                    filter.getName());
+        }
+    }
+
+    private double stat(ToDoubleFunction<RBloomFilter<String>> getter) {
+        RBloomFilter<String> filter = bloomFilter;
+        if (filter == null) {
+            return 0;
+        }
+
+        try {
+            return getter.applyAsDouble(filter);
+        } catch (IllegalStateException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.example.mission2_account.service;
+
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 요청 trace 의 서비스, DB 구간
+ * service.{메서드} : 트랜잭션 바깥에서 측정해서 커밋까지 포함
+ * db.{메서드} : repository 호출 (JPA 는 insert/update 를 커밋할 때 보내므로 저장 시간은 대부분 db.commit 에 나옴)
+ * db.commit : 커밋 직전(flush 포함)부터 커밋 직후까지, 트랜잭션마다 한 번
+ */
+@Aspect
+@Component
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class RequestTraceAspect {
+    private static final Object COMMIT_SPAN_KEY = new Object();
+
+    private final RequestTracer requestTracer;
+
+    @Around("execution(public * com.example.mission2_account.service.AccountService.*(..))"
+            + " || execution(public * com.example.mission2_account.service.TransactionService.*(..))")
+    public Object aroundService(ProceedingJoinPoint pjp) throws Throwable {
+        if (requestTracer.current() == null) {
+            return pjp.proceed();
+        }
+
+        try (RequestTracer.Span ignored =
+                     requestTracer.span("service." + pjp.getSignature().getName())) {
+            return pjp.proceed();
+        }
+    }
+
+    @Around("this(org.springframework.data.repository.Repository)")
+    public Object aroundRepository(ProceedingJoinPoint pjp) throws Throwable {
+        if (requestTracer.current() == null) {
+            return pjp.proceed();
+        }
+
+        traceCommit();
+        try (RequestTracer.Span ignored =
+                     requestTracer.span("db." + pjp.getSignature().getName())) {
+            return pjp.proceed();
+        }
+    }
+
+    /**
+     * 진행 중인 트랜잭션에 커밋 구간 기록을 한 번만 등록
+     * 다른 afterCommit 작업(캐시 쓰기 등)보다 먼저 구간을 닫음
+     */
+    private void traceCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()
+                || TransactionSynchronizationManager.hasResource(COMMIT_SPAN_KEY)) {
+            return;
+        }
+        TransactionSynchronizationManager.bindResource(COMMIT_SPAN_KEY, Boolean.TRUE);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            private RequestTracer.Span commit;
+
+            @Override
+            public int getOrder() {
+                return Ordered.HIGHEST_PRECEDENCE;
+            }
+
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                commit = requestTracer.span("db.commit");
+            }
+
+            @Override
+            public void afterCommit() {
+                closeCommit();
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                closeCommit();
+                TransactionSynchronizationManager.unbindResourceIfPossible(COMMIT_SPAN_KEY);
+            }
+
+            private void closeCommit() {
+                if (commit != null) {
+                    commit.close();
+                    commit = null;
+                }
+            }
+        });
+    }
+}
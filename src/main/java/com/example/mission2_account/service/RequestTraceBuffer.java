@@ -0,0 +1,49 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.RequestTrace;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.stream.Collectors;
+
+/**
+ * 최근 요청 trace 를 크기가 고정된 ring buffer 에 보관 (가득 차면 가장 오래된 것부터 덮어씀)
+ * 요청 스레드는 자리 하나만 잡아서 쓰고, 정렬은 조회할 때만 함
+ */
+@Component
+public class RequestTraceBuffer {
+    private final AtomicReferenceArray<RequestTrace> traces;
+    private final AtomicLong cursor = new AtomicLong();
+
+    public RequestTraceBuffer(@Value("${account.trace.buffer-size:1024}") int bufferSize) {
+        this.traces = new AtomicReferenceArray<>(bufferSize);
+    }
+
+    public void add(RequestTrace trace) {
+        int index = (int) Math.floorMod(cursor.getAndIncrement(), (long) traces.length());
+        traces.set(index, trace);
+    }
+
+    /**
+     * 보관 중인 trace 중 가장 오래 걸린 limit 개 (느린 순)
+     */
+    public List<RequestTrace> slowest(int limit) {
+        List<RequestTrace> snapshot = new ArrayList<>(traces.length());
+        for (int i = 0; i < traces.length(); i++) {
+            RequestTrace trace = traces.get(i);
+            if (trace != null) {
+                snapshot.add(trace);
+            }
+        }
+
+        return snapshot.stream()
+                .sorted(Comparator.comparingLong(RequestTrace::getDurationNanos).reversed())
+                .limit(limit)
+                .collect(Collectors.toList());
+    }
+}
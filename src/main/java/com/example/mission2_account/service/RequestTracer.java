@@ -0,0 +1,188 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.RequestTrace;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 요청별 구간 시간 기록 (잠금 대기, DB 조회/저장, 커밋 등)
+ * RequestTraceFilter 가 요청 시작/끝을 알리고, 그 사이의 구간은 현재 스레드의 trace 에 쌓임
+ * 끝난 trace 는 RequestTraceBuffer 에 넣고, 설정돼 있으면 OTLP 파일로 내보냄
+ * 진행 중인 trace 가 없는 스레드(스케줄러, batch 작업 스레드 등)에서는 아무것도 기록하지 않음
+ */
+@Component
+public class RequestTracer {
+    private static final Span NOOP = () -> {
+    };
+
+    private final ThreadLocal<ActiveTrace> current = new ThreadLocal<>();
+    private final RequestTraceBuffer requestTraceBuffer;
+    private final OtlpTraceFileExporter otlpTraceFileExporter;
+    private final boolean enabled;
+
+    public RequestTracer(
+            RequestTraceBuffer requestTraceBuffer,
+            OtlpTraceFileExporter otlpTraceFileExporter,
+            @Value("${account.trace.enabled:true}") boolean enabled
+    ) {
+        this.requestTraceBuffer = requestTraceBuffer;
+        this.otlpTraceFileExporter = otlpTraceFileExporter;
+        this.enabled = enabled;
+    }
+
+    /**
+     * 현재 스레드에서 요청 trace 시작
+     */
+    public void begin(String method, String uri) {
+        if (enabled) {
+            current.set(new ActiveTrace(method, uri));
+        }
+    }
+
+    /**
+     * 현재 스레드의 요청 trace 를 끝내고 보관
+     */
+    public void end() {
+        ActiveTrace trace = current.get();
+        if (trace == null) {
+            return;
+        }
+        current.remove();
+        end(trace);
+    }
+
+    /**
+     * 비동기 요청처럼 요청 스레드가 먼저 끝난 trace 를 다른 스레드에서 끝낼 때 사용
+     * 이미 끝난 trace 면 아무것도 하지 않음
+     */
+    public void end(ActiveTrace trace) {
+        RequestTrace finished = trace == null ? null : trace.finish();
+        if (finished == null) {
+            return;
+        }
+
+        requestTraceBuffer.add(finished);
+        otlpTraceFileExporter.export(finished);
+    }
+
+    /**
+     * 구간 시작, 닫으면(close) 구간 끝
+     * 진행 중인 trace 가 없으면 아무것도 하지 않는 Span 리턴
+     */
+    public Span span(String name) {
+        ActiveTrace trace = current.get();
+        return trace == null ? NOOP : trace.open(name);
+    }
+
+    /**
+     * 다른 스레드에서 이어서 기록할 때 사용 (attach / detach)
+     */
+    public ActiveTrace current() {
+        return current.get();
+    }
+
+    public void attach(ActiveTrace trace) {
+        if (trace != null) {
+            current.set(trace);
+        }
+    }
+
+    public void detach() {
+        current.remove();
+    }
+
+    @FunctionalInterface
+    public interface Span extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    /**
+     * 진행 중인 요청 trace
+     * 요청 스레드가 기다리는 동안 계좌별 작업 스레드에서 이어서 기록할 수 있으므로
+     * 구간 추가/종료는 trace 단위로 동기화 (경합이 없어서 비용은 작음)
+     */
+    public static final class ActiveTrace {
+        private final String method;
+        private final String uri;
+        private final long startEpochNanos;
+        private final long startNanos;
+        private final List<MutablePhase> phases = new ArrayList<>();
+        private int parent = -1;
+        private boolean finished;
+
+        ActiveTrace(String method, String uri) {
+            this.method = method;
+            this.uri = uri;
+            this.startEpochNanos = System.currentTimeMillis() * 1_000_000L;
+            this.startNanos = System.nanoTime();
+        }
+
+        synchronized Span open(String name) {
+            if (finished) {
+                return NOOP;
+            }
+
+            int index = phases.size();
+            MutablePhase phase = new MutablePhase(name, parent, System.nanoTime() - startNanos);
+            phases.add(phase);
+            parent = index;
+            return () -> close(phase);
+        }
+
+        private synchronized void close(MutablePhase phase) {
+            if (finished || phase.duration >= 0) {
+                return;
+            }
+
+            phase.duration = System.nanoTime() - startNanos - phase.startOffset;
+            parent = phase.parent;
+        }
+
+        synchronized RequestTrace finish() {
+            if (finished) {
+                return null;
+            }
+            finished = true;
+            long duration = System.nanoTime() - startNanos;
+
+            List<RequestTrace.Phase> result = new ArrayList<>(phases.size());
+            for (MutablePhase phase : phases) {
+                //닫히지 않은 구간(다른 스레드에서 아직 실행 중)은 요청 끝까지로 기록
+                result.add(new RequestTrace.Phase(phase.name, phase.parent, phase.startOffset,
+                        phase.duration >= 0 ? phase.duration : duration - phase.startOffset));
+            }
+            return new RequestTrace(newTraceId(), method, uri, startEpochNanos, duration, result);
+        }
+
+        private static String newTraceId() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return toHex(random.nextLong()) + toHex(random.nextLong());
+        }
+    }
+
+    private static final class MutablePhase {
+        private final String name;
+        private final int parent;
+        private final long startOffset;
+        private long duration = -1;
+
+        private MutablePhase(String name, int parent, long startOffset) {
+            this.name = name;
+            this.parent = parent;
+            this.startOffset = startOffset;
+        }
+    }
+
+    /**
+     * 16자리 16진수 (OTLP 의 trace/span 아이디 형식)
+     */
+    static String toHex(long value) {
+        String hex = Long.toHexString(value);
+        return "0000000000000000".substring(hex.length()) + hex;
+    }
+}
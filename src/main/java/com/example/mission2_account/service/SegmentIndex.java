@@ -0,0 +1,85 @@
+package com.example.mission2_account.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 보관 거래의 거래 아이디 -> segment 번호 색인
+ * 거래 아이디의 32bit 지문(fingerprint)과 segment 번호를 long 하나로 묶어 open addressing 표에 저장
+ * 지문이 같은 항목은 같은 탐색 구간에 있으므로 계좌, segment 수와 관계없이 한 번에 후보 segment 를 고름
+ * 다른 거래 아이디와 지문이 같을 수 있으므로 후보 segment 를 읽어서 확인해야 함
+ * 거래 한 건당 8 ~ 16 byte (표는 절반이 차면 두 배로 늘림)
+ * 스레드 안전하지 않음 (TransactionArchive 의 잠금 안에서 사용)
+ */
+final class SegmentIndex {
+    private static final int INITIAL_CAPACITY = 1024;
+
+    //상위 32bit 지문, 하위 32bit segment 번호 + 1 (0 은 빈 칸)
+    private long[] slots = new long[INITIAL_CAPACITY];
+    private int size;
+
+    static int fingerprint(String transactionId) {
+        return (int) (BloomFilter.hash(transactionId) >>> 32);
+    }
+
+    /**
+     * 추가 (같은 지문, segment 가 이미 있으면 무시)
+     */
+    void add(int fingerprint, int segment) {
+        long entry = ((long) fingerprint << 32) | (segment + 1L);
+        int mask = slots.length - 1;
+        int i = fingerprint & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == entry) {
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = entry;
+        size++;
+
+        if (size * 2 > slots.length) {
+            grow();
+        }
+    }
+
+    /**
+     * 지문이 같은 거래가 있는 segment 번호 (없으면 빈 목록)
+     */
+    List<Integer> find(int fingerprint) {
+        List<Integer> segments = new ArrayList<>(1);
+        int mask = slots.length - 1;
+        int i = fingerprint & mask;
+        while (slots[i] != 0) {
+            if ((int) (slots[i] >>> 32) == fingerprint) {
+                segments.add((int) slots[i] - 1);
+            }
+            i = (i + 1) & mask;
+        }
+        return segments;
+    }
+
+    int size() {
+        return size;
+    }
+
+    long getMemoryBytes() {
+        return (long) slots.length * Long.BYTES;
+    }
+
+    private void grow() {
+        long[] old = slots;
+        slots = new long[old.length * 2];
+        int mask = slots.length - 1;
+        for (long entry : old) {
+            if (entry == 0) {
+                continue;
+            }
+            int i = (int) (entry >>> 32) & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = entry;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.mission2_account.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+
+/**
+ * DB 시퀀스로 블록 번호 발급
+ * 시퀀스 조회 문법은 DB 마다 달라서 설정으로 받음
+ * (H2 : select next value for ..., PostgreSQL : select nextval('...'))
+ */
+@Component
+@ConditionalOnProperty(prefix = "account.number", name = "block-source", havingValue = "sequence")
+public class SequenceAccountNumberBlockSource implements AccountNumberBlockSource {
+    private final JdbcTemplate jdbcTemplate;
+    private final String createSequenceSql;
+    private final String nextValueSql;
+
+    public SequenceAccountNumberBlockSource(
+            JdbcTemplate jdbcTemplate,
+            @Value("${account.number.sequence.create-sql:" +
+                    "create sequence if not exists account_number_block_seq start with 0 minvalue 0}")
+            String createSequenceSql,
+            @Value("${account.number.sequence.next-value-sql:" +
+                    "select next value for account_number_block_seq}")
+            String nextValueSql
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.createSequenceSql = createSequenceSql;
+        this.nextValueSql = nextValueSql;
+    }
+
+    @PostConstruct
+    public void createSequence() {
+        jdbcTemplate.execute(createSequenceSql);
+    }
+
+    @Override
+    public long nextBlock() {
+        Long block = jdbcTemplate.queryForObject(nextValueSql, Long.class);
+        if (block == null) {
+            throw new IllegalStateException("Account number sequence returned null");
+        }
+        return block;
+    }
+}
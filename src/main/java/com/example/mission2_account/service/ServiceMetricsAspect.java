@@ -0,0 +1,68 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AccountService, TransactionService 의 public 메서드 실행 시간
+ * account.service{class, method, result} : result 는 성공이면 success, 실패면 오류 코드(또는 예외 이름)
+ * 트랜잭션 바깥에서 측정해서 커밋 시간까지 포함
+ * 성공 Timer 는 메서드별로 한 번만 만들어 두고 재사용 (요청마다 태그 생성 없음)
+ */
+@Aspect
+@Component
+@ConditionalOnProperty(prefix = "account.metrics", name = "service-timer", havingValue = "true",
+        matchIfMissing = true)
+@Order(Ordered.LOWEST_PRECEDENCE - 1)
+@RequiredArgsConstructor
+public class ServiceMetricsAspect {
+    private static final String SUCCESS = "success";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<Method, Timer> successTimers = new ConcurrentHashMap<>();
+
+    @Around("execution(public * com.example.mission2_account.service.AccountService.*(..))"
+            + " || execution(public * com.example.mission2_account.service.TransactionService.*(..))")
+    public Object aroundMethod(ProceedingJoinPoint pjp) throws Throwable {
+        long started = System.nanoTime();
+        try {
+            Object result = pjp.proceed();
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            successTimers.computeIfAbsent(method, key -> timer(key, SUCCESS))
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Throwable e) {
+            Method method = ((MethodSignature) pjp.getSignature()).getMethod();
+            timer(method, e instanceof AccountException
+                    ? ((AccountException) e).getErrorCode().name()
+                    : e.getClass().getSimpleName())
+                    .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+    }
+
+    private Timer timer(Method method, String result) {
+        return Timer.builder("account.service")
+                .description("서비스 메서드 실행 시간")
+                .tag("class", method.getDeclaringClass().getSimpleName())
+                .tag("method", method.getName())
+                .tag("result", result)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,390 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 보관 거래 저장소 (여러 노드가 같이 쓰는 공유 디스크, account.archive.directory)
+ * 계좌, 월 별로 segment 파일 하나({directory}/{계좌 번호}/{yyyy-MM}.ndjson.gz)에 추가만 함
+ * 추가할 때마다 gzip member 를 하나씩 이어 붙이므로 기존 내용은 다시 쓰지 않음
+ * 거래 아이디 색인은 메모리에 두 단계로 둠
+ * - 전체 색인(Bloom filter) : 보관된 적 없는 거래 아이디는 잠금 없이 바로 거름 (거래 테이블에서 못 찾을 때마다 조회되므로)
+ * - segment 색인(SegmentIndex) : 거래 아이디 지문으로 읽을 segment 를 바로 고름 (계좌 수와 관계없음)
+ * segment 를 읽어서 색인할 내용을 만드는 동안에는 잠그지 않고, 색인에 넣을 때만 쓰기 잠금을 잡음
+ */
+@Slf4j
+@Component
+public class TransactionArchive {
+    private static final String SEGMENT_SUFFIX = ".ndjson.gz";
+
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final double falsePositiveRate;
+    //segment 번호 -> 경로, segment 색인에는 번호만 저장
+    private final List<Path> segments = new ArrayList<>();
+    private final Map<Path, Integer> segmentNumbers = new ConcurrentHashMap<>();
+    private final SegmentIndex segmentIndex = new SegmentIndex();
+    //전체 거래 아이디 색인, 예상 개수(allIndexCapacity)를 넘으면 두 배 크기로 다시 만듦
+    private volatile BloomFilter allIndex;
+    private long allIndexCapacity;
+    //segment 에 추가하거나 segment 색인을 바꾸는 중에는 읽지 않도록 (추가는 보관 작업에서만 가끔 발생)
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    //색인을 바꾸는 작업(추가, refresh, 전체 색인 다시 만들기)은 한 번에 하나씩, 조회는 기다리지 않음
+    private final Lock updateLock = new ReentrantLock();
+
+    public TransactionArchive(
+            ObjectMapper objectMapper,
+            @Value("${account.archive.directory:archive}") String directory,
+            @Value("${account.archive.expected-insertions:1000000}") long expectedInsertions,
+            @Value("${account.archive.false-positive-rate:0.01}") double falsePositiveRate,
+            MeterRegistry meterRegistry
+    ) {
+        this.objectMapper = objectMapper;
+        this.directory = Paths.get(directory);
+        this.falsePositiveRate = falsePositiveRate;
+        this.allIndex = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        this.allIndexCapacity = expectedInsertions;
+
+        Gauge.builder("account.archive.segments", segmentNumbers, Map::size)
+                .description("보관 거래 segment 파일 수")
+                .register(meterRegistry);
+        Gauge.builder("account.archive.index.memory", this,
+                        TransactionArchive::getIndexMemoryBytes)
+                .description("보관 거래 색인 메모리 크기")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 시작할 때 기존 segment 를 읽어서 색인 생성
+     */
+    @PostConstruct
+    public void loadIndex() throws IOException {
+        if (Files.notExists(directory)) {
+            return;
+        }
+
+        List<String> accountNumbers;
+        try (Stream<Path> paths = Files.list(directory)) {
+            accountNumbers = paths.filter(Files::isDirectory)
+                    .map(path -> path.getFileName().toString())
+                    .collect(Collectors.toList());
+        }
+
+        updateLock.lock();
+        try {
+            for (String accountNumber : accountNumbers) {
+                indexAccount(accountNumber);
+            }
+        } finally {
+            updateLock.unlock();
+        }
+
+        log.info("Transaction archive index loaded. accounts : {}, transactions : {}",
+                accountNumbers.size(), allIndex.getInsertions());
+    }
+
+    /**
+     * 한 계좌, 한 달의 거래를 segment 에 추가하고 디스크에 기록될 때까지 기다림
+     * 추가한 거래만 색인에 넣음 (기존 segment 는 다시 읽지 않음)
+     */
+    public void append(String accountNumber, YearMonth month,
+                       List<TransactionDto> transactions) throws IOException {
+        Path segment = directory.resolve(accountNumber).resolve(month + SEGMENT_SUFFIX);
+        List<String> transactionIds = transactions.stream()
+                .map(TransactionDto::getTransactionId)
+                .collect(Collectors.toList());
+
+        updateLock.lock();
+        try {
+            lock.writeLock().lock();
+            try {
+                Files.createDirectories(segment.getParent());
+                try (FileChannel channel = FileChannel.open(segment,
+                        StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.APPEND)) {
+                    GZIPOutputStream gzipOut = new GZIPOutputStream(
+                            Channels.newOutputStream(channel), 64 * 1024);
+                    BufferedWriter writer = new BufferedWriter(
+                            new OutputStreamWriter(gzipOut, StandardCharsets.UTF_8));
+                    for (TransactionDto transaction : transactions) {
+                        writer.write(objectMapper.writeValueAsString(transaction));
+                        writer.write('\n');
+                    }
+                    writer.flush();
+                    gzipOut.finish();
+                    channel.force(true);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            addToIndex(Collections.singletonMap(segment, transactionIds));
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 다른 노드가 segment 에 추가한 뒤 이 노드의 색인을 맞춤 (TransactionArchiver 가 알림을 받아 호출)
+     */
+    public void refresh(String accountNumber) throws IOException {
+        updateLock.lock();
+        try {
+            indexAccount(accountNumber);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    /**
+     * 거래 아이디로 보관 거래 찾기
+     */
+    public Optional<TransactionDto> find(String transactionId) {
+        //보관된 적 없는 거래 아이디는 잠금 없이 거름
+        if (!allIndex.mightContain(transactionId)) {
+            return Optional.empty();
+        }
+
+        int fingerprint = SegmentIndex.fingerprint(transactionId);
+        lock.readLock().lock();
+        try {
+            for (int segment : segmentIndex.find(fingerprint)) {
+                Optional<TransactionDto> found = findInSegment(segments.get(segment), transactionId);
+                if (found.isPresent()) {
+                    return found;
+                }
+            }
+            return Optional.empty();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 보관 거래를 계좌 번호, 월 순서로 consumer 에 넘김 (거래 내역 내보내기용)
+     * 계좌 번호, 기간(from 이상 to 미만)은 없으면 전체, 기간에 걸치는 월의 segment 만 읽음
+     * segment 하나씩 읽기 잠금 안에서 읽어 두고 잠금을 푼 뒤에 넘김 (느린 consumer 가 추가, 조회를 막지 않도록)
+     * 보관 후 삭제 전에 실패해서 같은 거래가 segment 에 두 번 추가된 경우 한 번만 넘김
+     */
+    public void forEachArchived(String accountNumber, LocalDateTime from, LocalDateTime to,
+                                Consumer<TransactionDto> consumer) throws IOException {
+        if (Files.notExists(directory)) {
+            return;
+        }
+
+        List<Path> accountDirectories;
+        if (accountNumber != null) {
+            accountDirectories = Collections.singletonList(directory.resolve(accountNumber));
+        } else {
+            try (Stream<Path> paths = Files.list(directory)) {
+                accountDirectories = paths.filter(Files::isDirectory)
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+        }
+
+        for (Path accountDirectory : accountDirectories) {
+            if (Files.notExists(accountDirectory)) {
+                continue;
+            }
+
+            List<Path> segmentPaths;
+            try (Stream<Path> paths = Files.list(accountDirectory)) {
+                segmentPaths = paths.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                        .filter(path -> overlaps(monthOf(path), from, to))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+
+            for (Path segment : segmentPaths) {
+                List<TransactionDto> transactions = new ArrayList<>();
+                Set<String> transactionIds = new HashSet<>();
+                lock.readLock().lock();
+                try {
+                    forEach(segment, transaction -> {
+                        if (transactionIds.add(transaction.getTransactionId())
+                                && (from == null || !transaction.getTransactedAt().isBefore(from))
+                                && (to == null || transaction.getTransactedAt().isBefore(to))) {
+                            transactions.add(transaction);
+                        }
+                    });
+                } finally {
+                    lock.readLock().unlock();
+                }
+                transactions.forEach(consumer);
+            }
+        }
+    }
+
+    /**
+     * 계좌의 segment 를 모두 읽어서 색인에 추가 (updateLock 안에서 호출)
+     * 이미 색인된 거래는 다시 추가해도 바뀌지 않음
+     */
+    private void indexAccount(String accountNumber) throws IOException {
+        Path accountDirectory = directory.resolve(accountNumber);
+        if (Files.notExists(accountDirectory)) {
+            return;
+        }
+
+        List<Path> segmentPaths;
+        try (Stream<Path> paths = Files.list(accountDirectory)) {
+            segmentPaths = paths.filter(path -> path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+
+        Map<Path, List<String>> segmentIds = new LinkedHashMap<>();
+        for (Path segment : segmentPaths) {
+            List<String> ids = new ArrayList<>();
+            forEach(segment, transaction -> ids.add(transaction.getTransactionId()));
+            segmentIds.put(segment, ids);
+        }
+        addToIndex(segmentIds);
+    }
+
+    /**
+     * 전체 색인에 추가하고 segment 색인에 넣을 지문을 만든 뒤 쓰기 잠금 안에서 한 번에 넣음
+     * (updateLock 안에서 호출)
+     */
+    private void addToIndex(Map<Path, List<String>> segmentIds) throws IOException {
+        Map<Path, int[]> fingerprints = new LinkedHashMap<>();
+        for (Map.Entry<Path, List<String>> entry : segmentIds.entrySet()) {
+            int[] segmentFingerprints = new int[entry.getValue().size()];
+            int i = 0;
+            for (String transactionId : entry.getValue()) {
+                segmentFingerprints[i++] = SegmentIndex.fingerprint(transactionId);
+                //전체 색인은 잠금 없이 추가 가능 (segment 색인에 들어가기 전까지는 찾지 못할 뿐)
+                if (!allIndex.mightContain(transactionId)) {
+                    allIndex.put(transactionId);
+                }
+            }
+            fingerprints.put(entry.getKey(), segmentFingerprints);
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (Map.Entry<Path, int[]> entry : fingerprints.entrySet()) {
+                int segment = segmentNumbers.computeIfAbsent(entry.getKey(), path -> {
+                    segments.add(path);
+                    return segments.size() - 1;
+                });
+                for (int fingerprint : entry.getValue()) {
+                    segmentIndex.add(fingerprint, segment);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        if (allIndex.getInsertions() > allIndexCapacity) {
+            rebuildAllIndex(allIndex.getInsertions() * 2);
+        }
+    }
+
+    /**
+     * 전체 색인이 예상 개수를 넘으면 오탐률이 올라가므로 더 크게 다시 만듦
+     * (updateLock 안에서 호출, 다 만든 뒤에 바꾸므로 조회는 기존 색인을 계속 사용)
+     */
+    private void rebuildAllIndex(long size) throws IOException {
+        List<Path> paths;
+        lock.readLock().lock();
+        try {
+            paths = new ArrayList<>(segments);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        BloomFilter filter = BloomFilter.create(size, falsePositiveRate);
+        for (Path segment : paths) {
+            forEach(segment, transaction -> filter.put(transaction.getTransactionId()));
+        }
+        allIndex = filter;
+        allIndexCapacity = size;
+        log.info("Transaction archive index resized. transactions : {}, bits : {}",
+                filter.getInsertions(), filter.getBitSize());
+    }
+
+    private static YearMonth monthOf(Path segment) {
+        String fileName = segment.getFileName().toString();
+        return YearMonth.parse(fileName.substring(0, fileName.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    //[from, to) 기간과 그 달이 겹치는지
+    private static boolean overlaps(YearMonth month, LocalDateTime from, LocalDateTime to) {
+        return (from == null || month.plusMonths(1).atDay(1).atStartOfDay().isAfter(from))
+                && (to == null || month.atDay(1).atStartOfDay().isBefore(to));
+    }
+
+    private Optional<TransactionDto> findInSegment(Path segment, String transactionId)
+            throws IOException {
+        TransactionDto[] found = new TransactionDto[1];
+        forEach(segment, transaction -> {
+            if (found[0] == null && transactionId.equals(transaction.getTransactionId())) {
+                found[0] = transaction;
+            }
+        });
+        return Optional.ofNullable(found[0]);
+    }
+
+    private void forEach(Path segment, Consumer<TransactionDto> consumer)
+            throws IOException {
+        //GZIPInputStream 은 이어 붙인 gzip member 를 차례로 모두 읽음
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(segment), 64 * 1024),
+                StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    consumer.accept(objectMapper.readValue(line, TransactionDto.class));
+                }
+            }
+        }
+    }
+
+    private double getIndexMemoryBytes() {
+        return allIndex.getMemoryBytes() + segmentIndex.getMemoryBytes();
+    }
+}
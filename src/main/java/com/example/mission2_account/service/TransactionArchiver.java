@@ -0,0 +1,200 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * 1년이 지난 거래 보관 작업
+ * 1년이 지난 거래는 취소할 수 없어서(TOO_OLD_ORDER_TO_CANCEL) 더 이상 바뀌지 않으므로
+ * chunk 단위로 읽어 계좌, 월 별 segment 에 추가한 뒤 거래 테이블에서 삭제
+ * segment 에 기록된 뒤에 삭제하므로 중간에 실패해도 거래가 사라지지 않음
+ * (삭제 전에 실패하면 다음 실행 때 같은 거래가 한 번 더 추가될 수 있고, 조회는 먼저 찾은 것을 사용)
+ * 모든 노드에서 스케줄이 돌지만 Redis 잠금을 얻은 한 노드만 보관하고 (segment 는 공유 디스크)
+ * 추가한 계좌를 알려서 다른 노드도 그 계좌의 색인을 다시 만들게 함
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.archive", name = "enabled", havingValue = "true",
+        matchIfMissing = true)
+public class TransactionArchiver {
+    private static final String LOCK_KEY = "ARCHIVE: lock";
+    private static final String APPENDED_TOPIC_KEY = "ARCHIVE: appended";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionArchive transactionArchive;
+    private final int chunkSize;
+    private final Counter archivedCounter;
+    private final RLock archiveLock;
+    private final RTopic appendedTopic;
+    //자기가 보낸 알림은 무시하기 위한 노드 구분 값
+    private final String nodeId = UUID.randomUUID().toString();
+    private int listenerId;
+
+    public TransactionArchiver(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            TransactionArchive transactionArchive,
+            RedissonClient redissonClient,
+            @Value("${account.archive.chunk-size:1000}") int chunkSize,
+            MeterRegistry meterRegistry
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.transactionArchive = transactionArchive;
+        this.archiveLock = redissonClient.getLock(LOCK_KEY);
+        this.appendedTopic = redissonClient.getTopic(APPENDED_TOPIC_KEY, StringCodec.INSTANCE);
+        this.chunkSize = chunkSize;
+        this.archivedCounter = Counter.builder("account.archive.transactions")
+                .description("보관 처리된 거래 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 다른 노드가 segment 에 추가한 계좌는 이 노드에서 색인을 다시 만듦
+     * 알림 형식 : "{노드 구분 값} {계좌 번호}"
+     */
+    @PostConstruct
+    public void subscribe() {
+        listenerId = appendedTopic.addListener(String.class, (channel, message) -> {
+            String[] parts = message.split(" ", 2);
+            if (parts.length < 2 || nodeId.equals(parts[0])) {
+                return;
+            }
+
+            try {
+                transactionArchive.refresh(parts[1]);
+            } catch (IOException e) {
+                log.error("Failed to refresh archive index. accountNumber : {}", parts[1], e);
+            }
+        });
+    }
+
+    @PreDestroy
+    public void unsubscribe() {
+        appendedTopic.removeListener(listenerId);
+    }
+
+    @Scheduled(cron = "${account.archive.cron:0 0 3 * * *}")
+    public void archive() throws IOException {
+        //다른 노드가 보관 중이면 건너뜀 (잠금은 watchdog 으로 작업이 끝날 때까지 유지)
+        if (!archiveLock.tryLock()) {
+            log.info("Archive is already running on another node.");
+            return;
+        }
+
+        try {
+            //거래 취소 가능 기간(TransactionService.validateCancelBalance)이 지난 거래
+            LocalDateTime cutoff = LocalDateTime.now().minusYears(1);
+
+            long total = 0;
+            int archived;
+            do {
+                archived = archiveChunk(cutoff);
+                total += archived;
+            } while (archived == chunkSize);
+
+            log.info("Archived {} transactions older than {}", total, cutoff);
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    /**
+     * 가장 오래된 거래부터 chunk 크기만큼 보관하고 보관한 거래 수 리턴
+     */
+    int archiveChunk(LocalDateTime cutoff) throws IOException {
+        List<ArchivedRow> rows = jdbcTemplate.query(
+                "select t.id, a.account_number, t.transaction_type, t.transaction_result_type, " +
+                        "t.transaction_id, t.amount, t.balance_snapshot, t.transacted_at " +
+                        "from transaction t join account a on a.id = t.account_id " +
+                        "where t.transacted_at < ? order by t.id limit ?",
+                (resultSet, rowNum) -> new ArchivedRow(
+                        resultSet.getLong(1),
+                        TransactionDto.builder()
+                                .accountNumber(resultSet.getString(2))
+                                .transactionType(TransactionType.valueOf(resultSet.getString(3)))
+                                .transactionResultType(
+                                        TransactionResultType.valueOf(resultSet.getString(4)))
+                                .transactionId(resultSet.getString(5))
+                                .amount(resultSet.getLong(6))
+                                .balanceSnapshot(resultSet.getLong(7))
+                                .transactedAt(resultSet.getTimestamp(8).toLocalDateTime())
+                                .build()),
+                Timestamp.valueOf(cutoff), chunkSize);
+        if (rows.isEmpty()) {
+            return 0;
+        }
+
+        //계좌, 월 별로 묶어서 segment 에 추가
+        Map<String, Map<YearMonth, List<TransactionDto>>> segments = rows.stream()
+                .map(ArchivedRow::getTransaction)
+                .collect(Collectors.groupingBy(TransactionDto::getAccountNumber,
+                        LinkedHashMap::new,
+                        Collectors.groupingBy(
+                                transaction -> YearMonth.from(transaction.getTransactedAt()),
+                                LinkedHashMap::new, Collectors.toList())));
+        for (Map.Entry<String, Map<YearMonth, List<TransactionDto>>> account : segments.entrySet()) {
+            for (Map.Entry<YearMonth, List<TransactionDto>> month : account.getValue().entrySet()) {
+                transactionArchive.append(account.getKey(), month.getKey(), month.getValue());
+            }
+        }
+
+        List<Object[]> ids = new ArrayList<>(rows.size());
+        rows.forEach(row -> ids.add(new Object[]{row.getId()}));
+        transactionTemplate.executeWithoutResult(status ->
+                jdbcTemplate.batchUpdate("delete from transaction where id = ?", ids));
+        archivedCounter.increment(rows.size());
+
+        for (String accountNumber : segments.keySet()) {
+            publishAppended(accountNumber);
+        }
+
+        return rows.size();
+    }
+
+    private void publishAppended(String accountNumber) {
+        try {
+            appendedTopic.publish(nodeId + " " + accountNumber);
+        } catch (RuntimeException e) {
+            //알림을 못 받은 노드는 다시 시작할 때 색인을 만듦
+            log.error("Failed to publish archive append. accountNumber : {}", accountNumber, e);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class ArchivedRow {
+        private final long id;
+        private final TransactionDto transaction;
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_QUEUE_FULL;
+
+/**
+ * 거래 - 금액 사용, 사용 취소 (비동기)
+ * 잠금 대기와 DB 작업 동안 요청(Tomcat) 스레드를 붙잡지 않고 결과는 CompletableFuture 로 리턴
+ * 잠금 백엔드가 비동기 잠금을 지원하면(AsyncAccountLockProvider, redisson) 잠금은 스레드 없이 기다리고,
+ * 잠금을 얻은 뒤의 DB 작업만 크기 제한이 있는 작업 스레드 풀에서 처리
+ * 지원하지 않으면(local, database) 잠금부터 해제까지 작업 스레드에서 처리
+ * 결과는 잠금을 푼 뒤에 완료하므로 응답을 받은 다음 요청은 바로 잠금을 얻을 수 있음
+ */
+@Slf4j
+@Service
+public class TransactionAsyncService {
+    private final TransactionService transactionService;
+    private final AccountLockProvider accountLockProvider;
+    private final AccountNumberIndex accountNumberIndex;
+    private final RequestTracer requestTracer;
+    private final long tryLockTime;
+    private final TransactionExecutionMode transactionMode;
+    private final ThreadPoolExecutor executor;
+
+    //비동기 잠금의 소유자 아이디 (음수부터 발급해서 스레드 아이디와 겹치지 않음)
+    private final AtomicLong lockIds = new AtomicLong(Long.MIN_VALUE);
+
+    public TransactionAsyncService(
+            TransactionService transactionService,
+            AccountLockProvider accountLockProvider,
+            AccountNumberIndex accountNumberIndex,
+            RequestTracer requestTracer,
+            @Value("${account.async.threads:8}") int threads,
+            @Value("${account.async.capacity:1000}") int capacity,
+            @Value("${account.async.try-lock-time:1000}") long tryLockTime,
+            @Value("${account.transaction.mode:LOCKED}") TransactionExecutionMode transactionMode,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionService = transactionService;
+        this.accountLockProvider = accountLockProvider;
+        this.accountNumberIndex = accountNumberIndex;
+        this.requestTracer = requestTracer;
+        this.tryLockTime = tryLockTime;
+        this.transactionMode = transactionMode;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> new Thread(runnable,
+                        "transaction-async-" + threadNumber.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("account.async.queue.depth", executor, e -> e.getQueue().size())
+                .description("작업 스레드를 기다리는 비동기 거래 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 실패하면 AccountException(또는 처리 중 발생한 예외) 그대로 예외 완료
+     * ATOMIC 모드면 동기 요청과 같이 잠금 없이 조건부 UPDATE 로 처리
+     */
+    public CompletableFuture<TransactionDto> useBalance(Long userId, String accountNumber,
+                                                        Long amount) {
+        if (transactionMode == TransactionExecutionMode.ATOMIC) {
+            return executeWithoutLock(accountNumber,
+                    () -> transactionService.useBalanceAtomic(userId, accountNumber, amount));
+        }
+
+        return executeWithLock(accountNumber,
+                () -> transactionService.useBalance(userId, accountNumber, amount));
+    }
+
+    public CompletableFuture<TransactionDto> cancelBalance(String transactionId,
+                                                           String accountNumber, Long amount) {
+        return executeWithLock(accountNumber,
+                () -> transactionService.cancelBalance(transactionId, accountNumber, amount));
+    }
+
+    private CompletableFuture<TransactionDto> executeWithoutLock(String accountNumber,
+                                                                 Supplier<TransactionDto> work) {
+        CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+        RequestTracer.ActiveTrace trace = requestTracer.current();
+        submit(result, accountNumber, () -> {
+            requestTracer.attach(trace);
+            try {
+                result.complete(work.get());
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            } finally {
+                requestTracer.detach();
+            }
+        });
+        return result;
+    }
+
+    private CompletableFuture<TransactionDto> executeWithLock(String accountNumber,
+                                                              Supplier<TransactionDto> work) {
+        CompletableFuture<TransactionDto> result = new CompletableFuture<>();
+
+        //발급된 적 없는 계좌 번호면 잠금 시도 없이 바로 거절
+        if (accountNumberIndex.isDefinitelyAbsent(accountNumber)) {
+            result.completeExceptionally(new AccountException(ACCOUNT_NOT_FOUND));
+            return result;
+        }
+
+        RequestTracer.ActiveTrace trace = requestTracer.current();
+        if (!(accountLockProvider instanceof AsyncAccountLockProvider)) {
+            submit(result, accountNumber, () -> runWithLock(result, trace, accountNumber, work));
+            return result;
+        }
+
+        AsyncAccountLockProvider asyncLockProvider =
+                (AsyncAccountLockProvider) accountLockProvider;
+        long lockId = lockIds.getAndIncrement();
+        RequestTracer.Span lockWait = requestTracer.span("lock.wait");
+        asyncLockProvider.lockAsync(accountNumber, lockId, tryLockTime,
+                        AccountLockProvider.WATCHDOG_LEASE_TIME)
+                .whenComplete((ignored, e) -> {
+                    lockWait.close();
+                    if (e != null) {
+                        result.completeExceptionally(unwrap(e));
+                        return;
+                    }
+
+                    //잠금 응답을 받은 Redisson 이벤트 스레드에서는 DB 작업을 하지 않음
+                    boolean submitted = submit(result, accountNumber, () ->
+                            runAndUnlockAsync(result, trace, asyncLockProvider,
+                                    accountNumber, lockId, work));
+                    if (!submitted) {
+                        asyncLockProvider.unlockAsync(accountNumber, lockId);
+                    }
+                });
+        return result;
+    }
+
+    /**
+     * 비동기로 얻은 잠금 안에서 실행하고, 잠금을 푼 뒤에 결과 완료
+     */
+    private void runAndUnlockAsync(CompletableFuture<TransactionDto> result,
+                                   RequestTracer.ActiveTrace trace,
+                                   AsyncAccountLockProvider asyncLockProvider,
+                                   String accountNumber, long lockId,
+                                   Supplier<TransactionDto> work) {
+        TransactionDto transactionDto = null;
+        Throwable failure = null;
+        RequestTracer.Span lockRelease;
+
+        requestTracer.attach(trace);
+        try {
+            try {
+                transactionDto = work.get();
+            } catch (Throwable e) {
+                failure = e;
+            }
+            lockRelease = requestTracer.span("lock.release");
+        } finally {
+            requestTracer.detach();
+        }
+
+        TransactionDto success = transactionDto;
+        Throwable fail = failure;
+        asyncLockProvider.unlockAsync(accountNumber, lockId)
+                .whenComplete((ignored, e) -> {
+                    lockRelease.close();
+                    if (e != null) {
+                        log.error("Failed to unlock. accountNumber : {}", accountNumber, e);
+                    }
+
+                    if (fail != null) {
+                        result.completeExceptionally(fail);
+                    } else {
+                        result.complete(success);
+                    }
+                });
+    }
+
+    /**
+     * 잠금을 얻은 스레드에서 풀어야 하는 백엔드(local, database) - 작업 스레드에서 잠금부터 해제까지 처리
+     */
+    private void runWithLock(CompletableFuture<TransactionDto> result,
+                             RequestTracer.ActiveTrace trace, String accountNumber,
+                             Supplier<TransactionDto> work) {
+        requestTracer.attach(trace);
+        try {
+            try (RequestTracer.Span ignored = requestTracer.span("lock.wait")) {
+                accountLockProvider.lock(accountNumber, tryLockTime,
+                        AccountLockProvider.WATCHDOG_LEASE_TIME);
+            }
+
+            TransactionDto transactionDto;
+            try {
+                transactionDto = work.get();
+            } finally {
+                try (RequestTracer.Span ignored = requestTracer.span("lock.release")) {
+                    accountLockProvider.unlock(accountNumber);
+                }
+            }
+            result.complete(transactionDto);
+        } catch (Throwable e) {
+            result.completeExceptionally(e);
+        } finally {
+            requestTracer.detach();
+        }
+    }
+
+    private boolean submit(CompletableFuture<TransactionDto> result, String accountNumber,
+                           Runnable task) {
+        try {
+            executor.execute(task);
+            return true;
+        } catch (RejectedExecutionException e) {
+            log.error("Transaction async queue is full. accountNumber : {}", accountNumber);
+            result.completeExceptionally(new AccountException(ACCOUNT_TRANSACTION_QUEUE_FULL));
+            return false;
+        }
+    }
+
+    private static Throwable unwrap(Throwable e) {
+        return e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+    }
+}
@@ -0,0 +1,190 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.dto.UseBalanceBatch;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.ErrorCode;
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static com.example.mission2_account.type.ErrorCode.*;
+
+/**
+ * 거래 - 금액 사용 여러 건 (batch)
+ * 요청을 계좌 번호 별로 묶어서 계좌마다 잠금을 한 번만 얻고, 한 트랜잭션에서 요청 순서대로 처리
+ * 다른 계좌 묶음은 크기 제한이 있는 작업 스레드 풀에서 병렬로 처리
+ * 한 번에 하나의 계좌 잠금만 가지므로 계좌 잠금끼리 교착 상태가 생기지 않음
+ * 실패한 요청은 단건 요청과 같이 실패 거래로 저장
+ */
+@Slf4j
+@Service
+public class TransactionBatchService {
+    private final TransactionService transactionService;
+    private final AccountLockProvider accountLockProvider;
+    private final AccountNumberIndex accountNumberIndex;
+    private final FailedTransactionRecorder failedTransactionRecorder;
+    private final long tryLockTime;
+    private final ThreadPoolExecutor executor;
+
+    private final Counter successCounter;
+    private final Counter failCounter;
+
+    public TransactionBatchService(
+            TransactionService transactionService,
+            AccountLockProvider accountLockProvider,
+            AccountNumberIndex accountNumberIndex,
+            FailedTransactionRecorder failedTransactionRecorder,
+            @Value("${account.batch.threads:8}") int threads,
+            @Value("${account.batch.capacity:1000}") int capacity,
+            @Value("${account.batch.try-lock-time:1000}") long tryLockTime,
+            MeterRegistry meterRegistry
+    ) {
+        this.transactionService = transactionService;
+        this.accountLockProvider = accountLockProvider;
+        this.accountNumberIndex = accountNumberIndex;
+        this.failedTransactionRecorder = failedTransactionRecorder;
+        this.tryLockTime = tryLockTime;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(
+                threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(capacity),
+                runnable -> new Thread(runnable,
+                        "transaction-batch-" + threadNumber.getAndIncrement()),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("account.batch.queue.depth", executor, e -> e.getQueue().size())
+                .description("처리를 기다리는 계좌 묶음 수")
+                .register(meterRegistry);
+        this.successCounter = Counter.builder("account.batch.items")
+                .tag("result", "success")
+                .description("batch 로 처리한 금액 사용 요청 수")
+                .register(meterRegistry);
+        this.failCounter = Counter.builder("account.batch.items")
+                .tag("result", "fail")
+                .description("batch 로 처리한 금액 사용 요청 수")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        executor.awaitTermination(30, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 요청 순서대로 건별 결과 리턴
+     */
+    public List<UseBalanceBatch.Item> useBalances(List<UseBalance.Request> requests) {
+        //계좌 번호 별 요청 위치 (요청 순서 유지)
+        Map<String, List<Integer>> groups = new LinkedHashMap<>();
+        for (int i = 0; i < requests.size(); i++) {
+            groups.computeIfAbsent(requests.get(i).getAccountNumber(),
+                    accountNumber -> new ArrayList<>()).add(i);
+        }
+
+        UseBalanceBatch.Item[] results = new UseBalanceBatch.Item[requests.size()];
+        List<CompletableFuture<Void>> futures = new ArrayList<>(groups.size());
+        for (Map.Entry<String, List<Integer>> group : groups.entrySet()) {
+            try {
+                futures.add(CompletableFuture.runAsync(() -> useAccountBalances(
+                        group.getKey(), group.getValue(), requests, results), executor));
+            } catch (RejectedExecutionException e) {
+                log.error("Transaction batch queue is full. accountNumber : {}", group.getKey());
+                fail(group.getKey(), group.getValue(), requests, results,
+                        ACCOUNT_TRANSACTION_QUEUE_FULL);
+            }
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).join();
+
+        return Arrays.asList(results);
+    }
+
+    /**
+     * 한 계좌의 요청을 잠금 한 번으로 처리
+     * 계좌가 없거나 잠금을 얻지 못하면 묶음 전체가 같은 오류로 실패
+     */
+    private void useAccountBalances(String accountNumber, List<Integer> indexes,
+                                    List<UseBalance.Request> requests,
+                                    UseBalanceBatch.Item[] results) {
+        List<UseBalance.Request> accountRequests = indexes.stream()
+                .map(requests::get)
+                .collect(Collectors.toList());
+
+        List<UseBalanceBatch.Item> accountResults;
+        try {
+            accountResults = useWithLock(accountNumber, accountRequests);
+        } catch (AccountException e) {
+            fail(accountNumber, indexes, requests, results, e.getErrorCode());
+            return;
+        } catch (RuntimeException e) {
+            log.error("Failed to use balances. accountNumber : {}", accountNumber, e);
+            fail(accountNumber, indexes, requests, results, INTERNAL_SERVER_ERROR);
+            return;
+        }
+
+        for (int i = 0; i < indexes.size(); i++) {
+            UseBalanceBatch.Item result = accountResults.get(i);
+            result.setIndex(indexes.get(i));
+            results[indexes.get(i)] = result;
+
+            if (result.getTransactionResult() == TransactionResultType.SUCCESS) {
+                successCounter.increment();
+            } else {
+                failCounter.increment();
+                failedTransactionRecorder.record(
+                        TransactionType.USE, accountNumber, result.getAmount());
+            }
+        }
+    }
+
+    private List<UseBalanceBatch.Item> useWithLock(String accountNumber,
+                                                  List<UseBalance.Request> requests) {
+        //발급된 적 없는 계좌 번호면 잠금 시도 없이 바로 거절
+        if (accountNumberIndex.isDefinitelyAbsent(accountNumber)) {
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
+
+        accountLockProvider.lock(accountNumber, tryLockTime,
+                AccountLockProvider.WATCHDOG_LEASE_TIME);
+        try {
+            return transactionService.useBalances(accountNumber, requests);
+        } finally {
+            accountLockProvider.unlock(accountNumber);
+        }
+    }
+
+    private void fail(String accountNumber, List<Integer> indexes,
+                      List<UseBalance.Request> requests, UseBalanceBatch.Item[] results,
+                      ErrorCode errorCode) {
+        for (Integer index : indexes) {
+            UseBalanceBatch.Item result =
+                    UseBalanceBatch.Item.failure(requests.get(index), errorCode);
+            result.setIndex(index);
+            results[index] = result;
+            failCounter.increment();
+            failedTransactionRecorder.record(
+                    TransactionType.USE, accountNumber, result.getAmount());
+        }
+    }
+}
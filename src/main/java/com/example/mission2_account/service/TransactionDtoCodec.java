@@ -0,0 +1,143 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.ByteBufInputStream;
+import io.netty.buffer.ByteBufOutputStream;
+import org.redisson.client.codec.BaseCodec;
+import org.redisson.client.protocol.Decoder;
+import org.redisson.client.protocol.Encoder;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 거래 확인 결과(TransactionDto) Redis 저장용 binary codec
+ * JSON 대신 필드 순서대로 값만 기록 (필드 이름 없음)
+ * [버전 1byte][값이 있는 필드 bit mask 1byte][있는 필드 값 ...]
+ * 필드를 바꿀 때는 VERSION 을 올리고, 모르는 버전은 읽지 않음(캐시 miss 로 처리)
+ */
+public class TransactionDtoCodec extends BaseCodec {
+    public static final TransactionDtoCodec INSTANCE = new TransactionDtoCodec();
+
+    private static final byte VERSION = 1;
+
+    private static final int ACCOUNT_NUMBER = 1;
+    private static final int TRANSACTION_TYPE = 1 << 1;
+    private static final int TRANSACTION_RESULT_TYPE = 1 << 2;
+    private static final int AMOUNT = 1 << 3;
+    private static final int BALANCE_SNAPSHOT = 1 << 4;
+    private static final int TRANSACTION_ID = 1 << 5;
+    private static final int TRANSACTED_AT = 1 << 6;
+
+    private final Encoder encoder = in -> {
+        ByteBuf out = ByteBufAllocator.DEFAULT.buffer(64);
+        try (ByteBufOutputStream stream = new ByteBufOutputStream(out)) {
+            write((TransactionDto) in, stream);
+            return out;
+        } catch (IOException | RuntimeException e) {
+            out.release();
+            throw e;
+        }
+    };
+
+    private final Decoder<Object> decoder = (buf, state) -> {
+        try (ByteBufInputStream stream = new ByteBufInputStream(buf)) {
+            return read(stream);
+        }
+    };
+
+    public TransactionDtoCodec() {
+    }
+
+    /**
+     * Redisson 이 다른 ClassLoader 용으로 codec 을 복사할 때 사용 (상태가 없어서 그대로 생성)
+     */
+    public TransactionDtoCodec(ClassLoader classLoader, TransactionDtoCodec codec) {
+        this();
+    }
+
+    @Override
+    public Encoder getValueEncoder() {
+        return encoder;
+    }
+
+    @Override
+    public Decoder<Object> getValueDecoder() {
+        return decoder;
+    }
+
+    static void write(TransactionDto transaction, DataOutput out) throws IOException {
+        int mask = (transaction.getAccountNumber() != null ? ACCOUNT_NUMBER : 0)
+                | (transaction.getTransactionType() != null ? TRANSACTION_TYPE : 0)
+                | (transaction.getTransactionResultType() != null ? TRANSACTION_RESULT_TYPE : 0)
+                | (transaction.getAmount() != null ? AMOUNT : 0)
+                | (transaction.getBalanceSnapshot() != null ? BALANCE_SNAPSHOT : 0)
+                | (transaction.getTransactionId() != null ? TRANSACTION_ID : 0)
+                | (transaction.getTransactedAt() != null ? TRANSACTED_AT : 0);
+
+        out.writeByte(VERSION);
+        out.writeByte(mask);
+        if ((mask & ACCOUNT_NUMBER) != 0) {
+            out.writeUTF(transaction.getAccountNumber());
+        }
+        if ((mask & TRANSACTION_TYPE) != 0) {
+            out.writeUTF(transaction.getTransactionType().name());
+        }
+        if ((mask & TRANSACTION_RESULT_TYPE) != 0) {
+            out.writeUTF(transaction.getTransactionResultType().name());
+        }
+        if ((mask & AMOUNT) != 0) {
+            out.writeLong(transaction.getAmount());
+        }
+        if ((mask & BALANCE_SNAPSHOT) != 0) {
+            out.writeLong(transaction.getBalanceSnapshot());
+        }
+        if ((mask & TRANSACTION_ID) != 0) {
+            out.writeUTF(transaction.getTransactionId());
+        }
+        if ((mask & TRANSACTED_AT) != 0) {
+            out.writeLong(transaction.getTransactedAt().toEpochSecond(ZoneOffset.UTC));
+            out.writeInt(transaction.getTransactedAt().getNano());
+        }
+    }
+
+    static TransactionDto read(DataInput in) throws IOException {
+        byte version = in.readByte();
+        if (version != VERSION) {
+            return null;
+        }
+
+        int mask = in.readUnsignedByte();
+        TransactionDto transaction = new TransactionDto();
+        if ((mask & ACCOUNT_NUMBER) != 0) {
+            transaction.setAccountNumber(in.readUTF());
+        }
+        if ((mask & TRANSACTION_TYPE) != 0) {
+            transaction.setTransactionType(TransactionType.valueOf(in.readUTF()));
+        }
+        if ((mask & TRANSACTION_RESULT_TYPE) != 0) {
+            transaction.setTransactionResultType(TransactionResultType.valueOf(in.readUTF()));
+        }
+        if ((mask & AMOUNT) != 0) {
+            transaction.setAmount(in.readLong());
+        }
+        if ((mask & BALANCE_SNAPSHOT) != 0) {
+            transaction.setBalanceSnapshot(in.readLong());
+        }
+        if ((mask & TRANSACTION_ID) != 0) {
+            transaction.setTransactionId(in.readUTF());
+        }
+        if ((mask & TRANSACTED_AT) != 0) {
+            transaction.setTransactedAt(LocalDateTime.ofEpochSecond(
+                    in.readLong(), in.readInt(), ZoneOffset.UTC));
+        }
+        return transaction;
+    }
+}
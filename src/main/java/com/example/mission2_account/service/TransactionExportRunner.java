@@ -0,0 +1,77 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.type.TransactionExportFormat;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 명령행에서 거래 내역 내보내기
+ * 예) java -jar app.jar --spring.main.web-application-type=none
+ *         --account.export.output=transactions.ndjson.gz
+ *         --account.export.format=CSV --account.export.account-number=1000000008
+ *         --account.export.from=2022-01-01T00:00:00 --account.export.to=2023-01-01T00:00:00
+ * 파일 이름이 .gz 로 끝나면 gzip 으로 압축, 다 쓰고 나면 애플리케이션 종료
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "account.export", name = "output")
+public class TransactionExportRunner implements ApplicationRunner {
+    private final TransactionExportService transactionExportService;
+    private final ConfigurableApplicationContext context;
+    private final Path output;
+    private final TransactionExportFormat format;
+    private final String accountNumber;
+    private final LocalDateTime from;
+    private final LocalDateTime to;
+
+    public TransactionExportRunner(
+            TransactionExportService transactionExportService,
+            ConfigurableApplicationContext context,
+            @Value("${account.export.output}") String output,
+            @Value("${account.export.format:NDJSON}") TransactionExportFormat format,
+            @Value("${account.export.account-number:#{null}}") String accountNumber,
+            @Value("${account.export.from:#{null}}") String from,
+            @Value("${account.export.to:#{null}}") String to
+    ) {
+        this.transactionExportService = transactionExportService;
+        this.context = context;
+        this.output = Paths.get(output);
+        this.format = format;
+        this.accountNumber = accountNumber;
+        this.from = from == null ? null : LocalDateTime.parse(from);
+        this.to = to == null ? null : LocalDateTime.parse(to);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) throws Exception {
+        long count;
+        try (OutputStream out = open(output)) {
+            count = transactionExportService.export(format, accountNumber, from, to, out);
+        }
+        log.info("Exported {} transactions to {}", count, output.toAbsolutePath());
+
+        System.exit(SpringApplication.exit(context, () -> 0));
+    }
+
+    private static OutputStream open(Path output) throws Exception {
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(output), 64 * 1024);
+        if (output.getFileName().toString().endsWith(".gz")) {
+            return new GZIPOutputStream(out, 64 * 1024);
+        }
+        return out;
+    }
+}
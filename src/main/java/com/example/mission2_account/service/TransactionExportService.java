@@ -0,0 +1,271 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.type.TransactionExportFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.transaction.Transactional;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 거래 내역 전체 내보내기 (대사용)
+ * 1년이 지나 거래 테이블에서 옮겨진 거래(TransactionArchive)를 먼저 쓰고 거래 테이블의 거래를 씀
+ * 엔티티를 만들지 않고 forward-only 커서로 fetch size 만큼씩 읽으면서 바로 출력 스트림에 씀
+ * 거래 건수와 관계없이 메모리 사용량이 일정함 (보관 거래는 segment 하나 크기만큼만 사용)
+ * PostgreSQL 처럼 커서 조회에 트랜잭션이 필요한 DB 를 위해 트랜잭션 안에서 조회
+ */
+@Slf4j
+@Service
+public class TransactionExportService {
+    private static final String[] COLUMNS = {
+            "accountNumber", "transactionType", "transactionResult", "transactionId",
+            "amount", "balanceSnapshot", "transactedAt"
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TransactionArchive transactionArchive;
+    private final int fetchSize;
+
+    public TransactionExportService(
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            TransactionArchive transactionArchive,
+            @Value("${account.export.fetch-size:1000}") int fetchSize
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.transactionArchive = transactionArchive;
+        this.fetchSize = fetchSize;
+    }
+
+    /**
+     * 조건에 맞는 거래를 out 에 씀 (out 은 닫지 않음)
+     * 보관 거래는 계좌 번호, 월 순서로, 거래 테이블의 거래는 거래 id 순서로 씀
+     * 계좌 번호, 기간(from 이상 to 미만)은 없으면 전체
+     * 내보낸 거래 수 리턴
+     */
+    @Transactional
+    public long export(TransactionExportFormat format,
+                       String accountNumber,
+                       LocalDateTime from, LocalDateTime to,
+                       OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "select a.account_number, t.transaction_type, t.transaction_result_type, " +
+                        "t.transaction_id, t.amount, t.balance_snapshot, t.transacted_at " +
+                        "from transaction t join account a on a.id = t.account_id where 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (accountNumber != null) {
+            sql.append(" and a.account_number = ?");
+            args.add(accountNumber);
+        }
+        if (from != null) {
+            sql.append(" and t.transacted_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" and t.transacted_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        sql.append(" order by t.id");
+
+        RowWriter rowWriter = format == TransactionExportFormat.CSV
+                ? new CsvRowWriter(out)
+                : new NdjsonRowWriter(objectMapper.getFactory().createGenerator(out));
+        rowWriter.writeHeader();
+
+        //보관 작업이 segment 에 추가한 뒤 삭제하기 전(또는 삭제에 실패한 경우)에는 거래 테이블에도 남아 있으므로
+        //보관 대상(1년이 지난 거래)인 거래 테이블의 거래는 보관 거래에 없는 것만 씀
+        LocalDateTime archiveCutoff = LocalDateTime.now().minusYears(1);
+        long[] count = {0};
+        try {
+            transactionArchive.forEachArchived(accountNumber, from, to, transaction -> {
+                try {
+                    rowWriter.write(transaction.getAccountNumber(),
+                            transaction.getTransactionType().name(),
+                            transaction.getTransactionResultType().name(),
+                            transaction.getTransactionId(),
+                            transaction.getAmount(),
+                            transaction.getBalanceSnapshot(),
+                            transaction.getTransactedAt());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                count[0]++;
+            });
+
+            query(sql.toString(), args, resultSet -> {
+                String transactionId = resultSet.getString(4);
+                Timestamp transactedAt = resultSet.getTimestamp(7);
+                if (transactedAt != null
+                        && transactedAt.toLocalDateTime().isBefore(archiveCutoff)
+                        && transactionArchive.find(transactionId).isPresent()) {
+                    return;
+                }
+
+                rowWriter.write(resultSet.getString(1),
+                        resultSet.getString(2),
+                        resultSet.getString(3),
+                        transactionId,
+                        getLong(resultSet, 5),
+                        getLong(resultSet, 6),
+                        transactedAt == null ? null : transactedAt.toLocalDateTime());
+                count[0]++;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        rowWriter.flush();
+        log.info("Exported {} transactions. format : {}", count[0], format);
+
+        return count[0];
+    }
+
+    private void query(String sql, List<Object> args, RowConsumer rowConsumer) {
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < args.size(); i++) {
+                statement.setObject(i + 1, args.get(i));
+            }
+            return statement;
+        }, resultSet -> {
+            try {
+                rowConsumer.accept(resultSet);
+            } catch (IOException e) {
+                //클라이언트 연결이 끊긴 경우 등, 커서 조회도 바로 중단
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    private static Long getLong(ResultSet resultSet, int column) throws SQLException {
+        long value = resultSet.getLong(column);
+        return resultSet.wasNull() ? null : value;
+    }
+
+    @FunctionalInterface
+    private interface RowConsumer {
+        void accept(ResultSet resultSet) throws IOException, SQLException;
+    }
+
+    private interface RowWriter {
+        void writeHeader() throws IOException;
+
+        void write(String accountNumber, String transactionType, String transactionResult,
+                   String transactionId, Long amount, Long balanceSnapshot,
+                   LocalDateTime transactedAt) throws IOException;
+
+        void flush() throws IOException;
+    }
+
+    private static class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(JsonGenerator generator) {
+            this.generator = generator;
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void writeHeader() {
+        }
+
+        @Override
+        public void write(String accountNumber, String transactionType, String transactionResult,
+                          String transactionId, Long amount, Long balanceSnapshot,
+                          LocalDateTime transactedAt) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField(COLUMNS[0], accountNumber);
+            generator.writeStringField(COLUMNS[1], transactionType);
+            generator.writeStringField(COLUMNS[2], transactionResult);
+            generator.writeStringField(COLUMNS[3], transactionId);
+            writeNumberField(COLUMNS[4], amount);
+            writeNumberField(COLUMNS[5], balanceSnapshot);
+            generator.writeStringField(COLUMNS[6],
+                    transactedAt == null ? null : transactedAt.toString());
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        private void writeNumberField(String name, Long value) throws IOException {
+            if (value == null) {
+                generator.writeNullField(name);
+            } else {
+                generator.writeNumberField(name, value);
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    private static class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvRowWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(String accountNumber, String transactionType, String transactionResult,
+                          String transactionId, Long amount, Long balanceSnapshot,
+                          LocalDateTime transactedAt) throws IOException {
+            Object[] values = {accountNumber, transactionType, transactionResult,
+                    transactionId, amount, balanceSnapshot, transactedAt};
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writeCsvValue(values[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        //쉼표, 따옴표, 줄바꿈이 있으면 따옴표로 감쌈
+        private void writeCsvValue(String value) throws IOException {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                    && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 저장된 거래 수 account.transactions{type, result}
+ * 롤백된 거래는 세지 않도록 커밋 후에 셈
+ */
+@Component
+public class TransactionMetrics {
+    private final Map<TransactionType, Map<TransactionResultType, Counter>> counters =
+            new EnumMap<>(TransactionType.class);
+
+    public TransactionMetrics(MeterRegistry meterRegistry) {
+        for (TransactionType transactionType : TransactionType.values()) {
+            Map<TransactionResultType, Counter> byResult =
+                    new EnumMap<>(TransactionResultType.class);
+            for (TransactionResultType resultType : TransactionResultType.values()) {
+                byResult.put(resultType, Counter.builder("account.transactions")
+                        .description("저장된 거래 수")
+                        .tag("type", transactionType.name())
+                        .tag("result", resultType.name())
+                        .register(meterRegistry));
+            }
+            counters.put(transactionType, byResult);
+        }
+    }
+
+    public void countAfterCommit(TransactionType transactionType,
+                                 TransactionResultType resultType, long count) {
+        Counter counter = counters.get(transactionType).get(resultType);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            counter.increment(count);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                counter.increment(count);
+            }
+        });
+    }
+}
@@ -0,0 +1,151 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 거래 확인 결과 캐시 (Redis RMapCache, 거래 아이디 -> TransactionDto)
+ * 저장된 거래는 바뀌지 않으므로 거래 저장 시(커밋 후) 넣어 두고, 없으면 DB 에서 읽어 채움 (read-through)
+ * 같은 거래 아이디를 동시에 찾으면 DB 조회는 한 번만 하고 나머지는 그 결과를 같이 사용
+ * Redis 오류는 캐시 miss 로 처리해서 조회가 실패하지 않도록 함
+ */
+@Slf4j
+@Component
+public class TransactionQueryCache {
+    private static final String CACHE_KEY = "TXQ: transaction";
+
+    private final RMapCache<String, TransactionDto> cache;
+    private final long ttlMillis;
+    private final Map<String, CompletableFuture<Optional<TransactionDto>>> loads =
+            new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter coalescedCounter;
+
+    public TransactionQueryCache(
+            RedissonClient redissonClient,
+            @Value("${account.transaction-cache.ttl:600000}") long ttlMillis,
+            MeterRegistry meterRegistry
+    ) {
+        this.cache = redissonClient.getMapCache(CACHE_KEY,
+                new CompositeCodec(StringCodec.INSTANCE, TransactionDtoCodec.INSTANCE));
+        this.ttlMillis = ttlMillis;
+
+        this.hitCounter = Counter.builder("account.transaction.cache.gets")
+                .tag("result", "hit")
+                .description("거래 확인 캐시 조회 수")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("account.transaction.cache.gets")
+                .tag("result", "miss")
+                .description("거래 확인 캐시 조회 수")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("account.transaction.cache.coalesced")
+                .description("다른 요청의 DB 조회 결과를 같이 사용한 캐시 miss 수")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 캐시에서 찾고, 없으면 loader 로 DB 에서 읽어 캐시에 넣음
+     */
+    public Optional<TransactionDto> get(String transactionId,
+                                        Supplier<Optional<TransactionDto>> loader) {
+        TransactionDto cached = getQuietly(transactionId);
+        if (cached != null) {
+            hitCounter.increment();
+            return Optional.of(cached);
+        }
+        missCounter.increment();
+
+        CompletableFuture<Optional<TransactionDto>> load = new CompletableFuture<>();
+        CompletableFuture<Optional<TransactionDto>> inFlight = loads.putIfAbsent(transactionId, load);
+        if (inFlight != null) {
+            coalescedCounter.increment();
+            return join(inFlight);
+        }
+
+        try {
+            Optional<TransactionDto> loaded = loader.get();
+            loaded.ifPresent(this::put);
+            load.complete(loaded);
+            return loaded;
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            loads.remove(transactionId, load);
+        }
+    }
+
+    /**
+     * 저장한 거래를 캐시에 넣음
+     * 트랜잭션 안이면 커밋된 뒤에 넣음 (롤백된 거래가 조회되지 않도록)
+     */
+    public void putAfterCommit(TransactionDto transactionDto) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            put(transactionDto);
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                put(transactionDto);
+            }
+        });
+    }
+
+    private TransactionDto getQuietly(String transactionId) {
+        try {
+            return cache.get(transactionId);
+        } catch (RedisException e) {
+            log.warn("Failed to read transaction cache. transactionId : {}", transactionId, e);
+            return null;
+        }
+    }
+
+    /**
+     * 응답을 기다리지 않고 넣음 (실패해도 다음 조회 때 DB 에서 다시 채움)
+     */
+    private void put(TransactionDto transactionDto) {
+        cache.fastPutAsync(transactionDto.getTransactionId(), transactionDto,
+                        ttlMillis, TimeUnit.MILLISECONDS)
+                .whenComplete((added, e) -> {
+                    if (e != null) {
+                        log.warn("Failed to write transaction cache. transactionId : {}",
+                                transactionDto.getTransactionId(), e);
+                    }
+                });
+    }
+
+    private static Optional<TransactionDto> join(
+            CompletableFuture<Optional<TransactionDto>> inFlight) {
+        try {
+            return inFlight.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
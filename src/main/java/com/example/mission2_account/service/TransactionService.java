@@ -1,39 +1,77 @@
 package com.example.mission2_account.service;
 
+import com.example.mission2_account.aop.ReadOnlyTransactional;
 import com.example.mission2_account.domain.Account;
-import com.example.mission2_account.domain.AccountUser;
 import com.example.mission2_account.domain.Transaction;
+import com.example.mission2_account.dto.AccountIdentity;
+import com.example.mission2_account.dto.FailedTransaction;
 import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.dto.TransactionHistoryCursor;
+import com.example.mission2_account.dto.TransactionHistoryItem;
+import com.example.mission2_account.dto.TransferDto;
+import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.dto.UseBalanceBatch;
 import com.example.mission2_account.exception.AccountException;
 import com.example.mission2_account.repository.AccountRepository;
 import com.example.mission2_account.repository.AccountUserRepository;
 import com.example.mission2_account.repository.TransactionRepository;
 import com.example.mission2_account.type.AccountStatus;
+import com.example.mission2_account.type.TransactionExecutionMode;
 import com.example.mission2_account.type.TransactionResultType;
 import com.example.mission2_account.type.TransactionType;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 
 import javax.transaction.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static com.example.mission2_account.type.AccountStatus.IN_USE;
 import static com.example.mission2_account.type.ErrorCode.*;
 import static com.example.mission2_account.type.TransactionResultType.FAIL;
 import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
 import static com.example.mission2_account.type.TransactionType.CANCEL;
+import static com.example.mission2_account.type.TransactionType.TRANSFER_IN;
+import static com.example.mission2_account.type.TransactionType.TRANSFER_OUT;
 import static com.example.mission2_account.type.TransactionType.USE;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class TransactionService {
+    //거래 내역 조회 기간 조건이 없을 때 사용하는 전체 범위
+    private static final LocalDateTime HISTORY_MIN_DATE_TIME = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime HISTORY_MAX_DATE_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final int HISTORY_MAX_PAGE_SIZE = 100;
+
     private final TransactionRepository transactionRepository;
     private final AccountUserRepository accountUserRepository;
     private final AccountRepository accountRepository;
+    private final AccountNumberIndex accountNumberIndex;
+    private final TransactionArchive transactionArchive;
+    private final TransactionQueryCache transactionQueryCache;
+    private final AccountBalanceCache accountBalanceCache;
+    private final TransactionMetrics transactionMetrics;
+
+    //ATOMIC 모드면 금액 사용이 계좌 잠금 없이 처리되므로 다른 잔액 수정도 모두 UPDATE 한 번으로 처리
+    @Value("${account.transaction.mode:LOCKED}")
+    private TransactionExecutionMode transactionMode;
 
     /**
      * 거래 - 계좌 금액 사용하기
@@ -41,53 +79,223 @@ public class TransactionService {
      * 계좌 상태 확인, 계좌 금액과 사용금액 비교
      * 거래 금액 확인 후 성공 시 거래 금액만큼 계좌 금액 차감
      * 거래 정보 저장
+     * 바뀐 잔액은 커밋 후 잔액 캐시에 씀
      */
     @Transactional
     public TransactionDto useBalance(Long userId, String accountNumber, Long amount) {
-        AccountUser user = accountUserRepository.findById(userId)
-                .orElseThrow(() -> new AccountException(USER_NOT_FOUND));
+        validateAccountNumberIssued(accountNumber);
 
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        Account account = getAccountOwnedBy(userId, accountNumber);
 
-        validateUseBalance(user, account, amount);
+        validateUseBalance(account, amount);
 
         account.useBalance(amount);
+        accountBalanceCache.putAfterCommit(account);
 
         return TransactionDto.fromEntity(
                 saveAndGetTransaction(USE, SUCCESS, account, amount));
     }
 
     /**
-     * 거래 시 유효성 검사
-     * */
-    private void validateUseBalance(AccountUser user, Account account, Long amount) {
-        //사용자와 계좌 소유주 정보 불일치
-        if (!Objects.equals(user.getId(), account.getAccountUser().getId())) {
-            throw new AccountException(USER_ACCOUNT_UN_MATCH);
+     * 거래 - 계좌 금액 사용하기 (ATOMIC 모드)
+     * 소유주, 계좌 상태, 잔액 검사와 차감을 조건부 UPDATE 한 번으로 처리
+     * 수정된 계좌 행은 커밋까지 DB 가 잠그므로 계좌 잠금 없이 동시에 요청해도 안전함
+     * 차감이 안 된 경우에만 실패 원인을 찾기 위해 사용자와 계좌를 조회
+     * 거래 정보 저장
+     * 잠금이 없어서 잔액 캐시 쓰기 순서가 바뀔 수 있지만 계좌 수정 버전이 높은 잔액만 남음
+     */
+    @Transactional
+    public TransactionDto useBalanceAtomic(Long userId, String accountNumber, Long amount) {
+        validateAccountNumberIssued(accountNumber);
+
+        int updated = accountRepository.useBalanceIfSufficient(
+                accountNumber, userId, IN_USE, amount);
+        if (updated == 0) {
+            throw getUseBalanceFailure(userId, accountNumber, amount);
         }
 
-        //해지된 계좌
-        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
+        //같은 트랜잭션에서 방금 수정한 행이라 다른 거래의 차감이 섞이지 않은 잔액
+        Account account = getAccount(accountNumber);
+        accountBalanceCache.putAfterCommit(account);
+
+        return TransactionDto.fromEntity(
+                saveAndGetTransaction(USE, SUCCESS, account, amount));
+    }
+
+    /**
+     * 거래 - 한 계좌의 금액 사용 여러 건
+     * 계좌는 한 번만 조회하고 요청 순서대로 검사, 차감 (실패한 요청은 건너뛰고 다음 요청 처리)
+     * 성공한 거래 내역은 batch insert 로 저장하고, 잔액 수정은 커밋할 때 한 번
+     * 계좌 잠금은 호출한 쪽(TransactionBatchService)에서 얻음
+     */
+    @Transactional
+    public List<UseBalanceBatch.Item> useBalances(String accountNumber,
+                                                  List<UseBalance.Request> requests) {
+        Account account = getAccount(accountNumber);
+
+        List<Transaction> transactions = new ArrayList<>(requests.size());
+        List<UseBalanceBatch.Item> results = new ArrayList<>(requests.size());
+        for (UseBalance.Request request : requests) {
+            try {
+                validateOwner(account, request.getUserId());
+                validateUseBalance(account, request.getAmount());
+                if (isAtomicMode()) {
+                    account = useBalanceAtomically(account, request.getUserId(),
+                            request.getAmount());
+                }
+            } catch (AccountException e) {
+                results.add(UseBalanceBatch.Item.failure(request, e.getErrorCode()));
+                continue;
+            }
+
+            if (!isAtomicMode()) {
+                account.useBalance(request.getAmount());
+            }
+            Transaction transaction = newTransaction(USE, SUCCESS, account, request.getAmount());
+            transactions.add(transaction);
+            results.add(UseBalanceBatch.Item.success(TransactionDto.fromEntity(transaction)));
+        }
+
+        if (!transactions.isEmpty()) {
+            transactionRepository.saveAllInBatches(transactions);
+            transactions.forEach(transaction -> transactionQueryCache.putAfterCommit(
+                    TransactionDto.fromEntity(transaction)));
+            accountBalanceCache.putAfterCommit(account);
+            transactionMetrics.countAfterCommit(USE, SUCCESS, transactions.size());
+        }
+        return results;
+    }
+
+    /**
+     * 이체 - 보내는 계좌에서 차감하고 받는 계좌에 입금
+     * 보내는 계좌는 금액 사용과 같이 소유주, 계좌 상태, 잔액 검사
+     * 받는 계좌는 계좌 상태만 검사 (다른 사용자 계좌로도 이체 가능)
+     * 출금(TRANSFER_OUT), 입금(TRANSFER_IN) 거래는 한 트랜잭션에서 저장
+     * 두 계좌의 잠금은 호출한 쪽(LockAopAspect)에서 계좌 번호 순서로 얻음
+     * 바뀐 잔액은 커밋 후 잔액 캐시에 씀
+     */
+    @Transactional
+    public TransferDto transfer(Long userId, String fromAccountNumber,
+                                String toAccountNumber, Long amount) {
+        if (fromAccountNumber.equals(toAccountNumber)) {
+            throw new AccountException(TRANSFER_TO_SAME_ACCOUNT);
+        }
+        validateAccountNumberIssued(fromAccountNumber);
+        validateAccountNumberIssued(toAccountNumber);
+
+        Account fromAccount = getAccountOwnedBy(userId, fromAccountNumber);
+        validateUseBalance(fromAccount, amount);
+
+        Account toAccount = getAccount(toAccountNumber);
+        if (toAccount.getAccountStatus() == AccountStatus.UNREGISTERED) {
             throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
         }
 
-        //계좌 금액보다 사용 금액이 더 큰 경우
-        if (account.getBalance() < amount) {
+        if (isAtomicMode()) {
+            fromAccount = useBalanceAtomically(fromAccount, userId, amount);
+            toAccount = addBalanceAtomically(toAccount, amount);
+        } else {
+            fromAccount.useBalance(amount);
+            toAccount.cancelBalance(amount);
+        }
+        accountBalanceCache.putAfterCommit(fromAccount);
+        accountBalanceCache.putAfterCommit(toAccount);
+
+        return TransferDto.builder()
+                .withdrawal(TransactionDto.fromEntity(
+                        saveAndGetTransaction(TRANSFER_OUT, SUCCESS, fromAccount, amount)))
+                .deposit(TransactionDto.fromEntity(
+                        saveAndGetTransaction(TRANSFER_IN, SUCCESS, toAccount, amount)))
+                .build();
+    }
+
+    private boolean isAtomicMode() {
+        return transactionMode == TransactionExecutionMode.ATOMIC;
+    }
+
+    /**
+     * ATOMIC 모드 차감 - 앞에서 검사한 조건을 조건부 UPDATE 로 다시 확인하면서 차감
+     * 검사 후 잠금 없는 다른 차감으로 잔액이 줄었으면 잔액 부족
+     * 수정한 계좌를 다시 조회해서 리턴 (UPDATE 후 영속성 컨텍스트가 비워짐)
+     */
+    private Account useBalanceAtomically(Account account, Long userId, Long amount) {
+        int updated = accountRepository.useBalanceIfSufficient(
+                account.getAccountNumber(), userId, IN_USE, amount);
+        if (updated == 0) {
             throw new AccountException(AMOUNT_EXCEED_BALANCE);
         }
+
+        return getAccount(account.getAccountNumber());
     }
 
     /**
-     * 거래 요청을 했을 때 사용중인 계좌여서
-     * 거래 요청이 취소 되었을때
-     * 정보를 저장
-     * */
-    public void saveFailedUseTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
+     * ATOMIC 모드 입금 - 읽은 잔액이 아니라 DB 의 현재 잔액에 더함
+     */
+    private Account addBalanceAtomically(Account account, Long amount) {
+        accountRepository.addBalance(account.getAccountNumber(), amount);
+
+        return getAccount(account.getAccountNumber());
+    }
+
+    /**
+     * 사용자 아이디와 계좌 소유주가 다르면 사용자가 있는지 확인해서 오류 구분
+     */
+    private void validateOwner(Account account, Long userId) {
+        if (!Objects.equals(userId, account.getAccountUser().getId())) {
+            throw new AccountException(accountUserRepository.existsById(userId)
+                    ? USER_ACCOUNT_UN_MATCH
+                    : USER_NOT_FOUND);
+        }
+    }
+
+    /**
+     * 조건부 UPDATE 가 실패한 원인 찾기
+     * 조회 시점에는 조건을 만족하면(그 사이 다른 거래로 잔액이 바뀐 경우) 잔액 부족으로 처리
+     */
+    private AccountException getUseBalanceFailure(Long userId, String accountNumber, Long amount) {
+        Account account = getAccountOwnedBy(userId, accountNumber);
+
+        validateUseBalance(account, amount);
+
+        return new AccountException(AMOUNT_EXCEED_BALANCE);
+    }
+
+    /**
+     * 사용자 소유 계좌 가져오기
+     * 계좌 번호 -> 계좌 아이디, 소유주는 near cache 에서 확인하고 잔액이 필요한 계좌 행만 조회
+     * 계좌가 없거나 소유주가 다를 때만 사용자가 있는지 확인해서 오류 구분 (사용자 존재 여부도 cache)
+     */
+    private Account getAccountOwnedBy(Long userId, String accountNumber) {
+        Optional<AccountIdentity> identity =
+                accountRepository.findIdentityByAccountNumber(accountNumber);
+        if (identity.isEmpty()
+                || !Objects.equals(userId, identity.get().getAccountUserId())) {
+            if (!accountUserRepository.existsById(userId)) {
+                throw new AccountException(USER_NOT_FOUND);
+            }
+
+            //사용자와 계좌 소유주 정보 불일치
+            throw new AccountException(
+                    identity.isPresent() ? USER_ACCOUNT_UN_MATCH : ACCOUNT_NOT_FOUND);
+        }
+
+        return accountRepository.findById(identity.get().getAccountId())
                 .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    }
+
+    /**
+     * 거래 시 유효성 검사
+     * */
+    private void validateUseBalance(Account account, Long amount) {
+        //해지된 계좌
+        if (account.getAccountStatus() == AccountStatus.UNREGISTERED) {
+            throw new AccountException(ACCOUNT_ALREADY_UNREGISTERED);
+        }
 
-        saveAndGetTransaction(USE, FAIL, account, amount);
+        //계좌 금액보다 사용 금액이 더 큰 경우
+        if (account.getBalance() < amount) {
+            throw new AccountException(AMOUNT_EXCEED_BALANCE);
+        }
     }
 
     /**
@@ -96,18 +304,33 @@ public class TransactionService {
      * 계좌 존재 여부 확인, 거래와 계좌 일치 여부 확인
      * 거래 금액과 거래 취소 금액이 같은지 확인
      * 1년이 지난 거래인지 확인 후 정보 저장
+     * 거래와 거래 계좌는 한 번에 조회하고, 요청 계좌가 거래 계좌와 다를 때만 요청 계좌를 조회
+     * 바뀐 잔액은 커밋 후 잔액 캐시에 씀
      * */
+    @Transactional
     public TransactionDto cancelBalance(String transactionId,
                                         String accountNumber, Long amount
     ) {
-        Transaction transaction = transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+        validateAccountNumberIssued(accountNumber);
+
+        Transaction transaction = transactionRepository.findWithAccountByTransactionId(transactionId)
+                .orElseThrow(() -> new AccountException(
+                        //보관된 거래는 1년이 지나서 옮겨진 거래
+                        transactionArchive.find(transactionId).isPresent()
+                                ? TOO_OLD_ORDER_TO_CANCEL
+                                : TRANSACTION_NOT_FOUND));
+        Account account = accountNumber.equals(transaction.getAccount().getAccountNumber())
+                ? transaction.getAccount()
+                : getAccount(accountNumber);
 
         validateCancelBalance(transaction, account, amount);
 
-        account.cancelBalance(amount);
+        if (isAtomicMode()) {
+            account = addBalanceAtomically(account, amount);
+        } else {
+            account.cancelBalance(amount);
+        }
+        accountBalanceCache.putAfterCommit(account);
 
         return TransactionDto.fromEntity(
                 saveAndGetTransaction(CANCEL, SUCCESS, account, amount));
@@ -117,6 +340,11 @@ public class TransactionService {
      * 거래 취소 시 유효성 검사
      * */
     private void validateCancelBalance(Transaction transaction, Account account, Long amount) {
+        //이체 거래는 상대 계좌와 함께 바뀌어야 하므로 한쪽만 취소할 수 없음
+        if (transaction.getTransactionType() != USE) {
+            throw new AccountException(TRANSACTION_NOT_CANCELABLE);
+        }
+
         //사용자와 계좌 소유주 정보 불일치
         if (!Objects.equals(transaction.getAccount().getId(), account.getId())){
             throw new AccountException(TRANSACTION_ACCOUNT_UN_MATCH);
@@ -134,47 +362,175 @@ public class TransactionService {
     }
 
     /**
-     * 거래 취소 요청 시 계좌가 사용중이여서
-     * 요청 실패할 때 정보 저장
+     * 쌓아 둔 실패 거래를 한 번에 저장
+     * 계좌는 한 번의 조회로 가져오고, 거래 내역은 batch insert 로 저장
+     * 잔액 조회금은 저장하는 시점의 계좌 잔액
+     * spill 파일을 다시 저장하다 중단된 경우 같은 거래가 다시 들어오므로
+     * 이미 저장된 거래 아이디는 건너뜀 (transactionId 는 unique)
      */
-    public void saveFailedCancelTransaction(String accountNumber, Long amount) {
-        Account account = accountRepository.findByAccountNumber(accountNumber)
-                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    @Transactional
+    public void saveFailedTransactions(List<FailedTransaction> failedTransactions) {
+        Set<String> savedTransactionIds = new HashSet<>(
+                transactionRepository.findTransactionIdsByTransactionIdIn(
+                        failedTransactions.stream()
+                                .map(FailedTransaction::getTransactionId)
+                                .collect(Collectors.toSet())));
 
-        saveAndGetTransaction(CANCEL, FAIL, account, amount);
+        Map<String, Account> accounts = accountRepository.findByAccountNumberIn(
+                        failedTransactions.stream()
+                                .map(FailedTransaction::getAccountNumber)
+                                .collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Account::getAccountNumber, Function.identity()));
+
+        List<Transaction> transactions = new ArrayList<>(failedTransactions.size());
+        Map<TransactionType, Long> counts = new EnumMap<>(TransactionType.class);
+        for (FailedTransaction failedTransaction : failedTransactions) {
+            Account account = accounts.get(failedTransaction.getAccountNumber());
+            if (account == null) {
+                log.warn("Skip failed transaction of unknown account. accountNumber : {}",
+                        failedTransaction.getAccountNumber());
+                continue;
+            }
+            if (!savedTransactionIds.add(failedTransaction.getTransactionId())) {
+                log.info("Skip already saved failed transaction. transactionId : {}",
+                        failedTransaction.getTransactionId());
+                continue;
+            }
+
+            transactions.add(Transaction.builder()
+                    .transactionType(failedTransaction.getTransactionType())
+                    .transactionResultType(FAIL)
+                    .account(account)
+                    .amount(failedTransaction.getAmount())
+                    .balanceSnapshot(account.getBalance())
+                    .transactionId(failedTransaction.getTransactionId())
+                    .transactedAt(failedTransaction.getTransactedAt())
+                    .build());
+            counts.merge(failedTransaction.getTransactionType(), 1L, Long::sum);
+        }
+
+        transactionRepository.saveAllInBatches(transactions);
+        counts.forEach((transactionType, count) ->
+                transactionMetrics.countAfterCommit(transactionType, FAIL, count));
+    }
+
+    /**
+     * 발급된 적 없는 계좌 번호면 DB 조회 없이 바로 거절
+     */
+    private void validateAccountNumberIssued(String accountNumber) {
+        if (accountNumberIndex.isDefinitelyAbsent(accountNumber)) {
+            throw new AccountException(ACCOUNT_NOT_FOUND);
+        }
     }
 
+    private Account getAccount(String accountNumber) {
+        return accountRepository.findByAccountNumber(accountNumber)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+    }
 
     /**
      * 거래 상태(성공, 실패)에 따라
      * 계좌 금액을 차감하거나 증감 시키고
      * 정보 저장
+     * 저장한 거래는 커밋 후 거래 확인 캐시에 넣음
      */
     private Transaction saveAndGetTransaction(
             TransactionType transactionType,
             TransactionResultType transactionResultType,
             Account account,
             Long amount) {
-        return transactionRepository.save(
-                Transaction.builder()
-                        .transactionType(transactionType)
-                        .transactionResultType(transactionResultType)
-                        .account(account)
-                        .amount(amount)
-                        .balanceSnapshot(account.getBalance())
-                        .transactionId(UUID.randomUUID().toString().replace("-", ""))
-                        .transactedAt(LocalDateTime.now())
-                        .build()
-        );
+        Transaction transaction = transactionRepository.save(
+                newTransaction(transactionType, transactionResultType, account, amount));
+        transactionQueryCache.putAfterCommit(TransactionDto.fromEntity(transaction));
+        transactionMetrics.countAfterCommit(transactionType, transactionResultType, 1);
+
+        return transaction;
+    }
+
+    private static Transaction newTransaction(
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            Account account,
+            Long amount) {
+        return Transaction.builder()
+                .transactionType(transactionType)
+                .transactionResultType(transactionResultType)
+                .account(account)
+                .amount(amount)
+                .balanceSnapshot(account.getBalance())
+                .transactionId(UUID.randomUUID().toString().replace("-", ""))
+                .transactedAt(LocalDateTime.now())
+                .build();
     }
 
     /**
      * 잔액 사용 확인
      * 해당 거래 아이디의 거래가 있는 지 확인
      * 실패한 거래도 확인할 수 있음
+     * 거래 테이블에 없으면 보관된 거래에서 찾음
+     * 저장된 거래는 바뀌지 않으므로 캐시를 먼저 확인 (캐시 적중 시 트랜잭션, DB 커넥션 없음)
      */
     public TransactionDto queryTransaction(String transactionId) {
-        return TransactionDto.fromEntity(transactionRepository.findByTransactionId(transactionId)
-                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND)));
+        return transactionQueryCache.get(transactionId,
+                        () -> transactionRepository.findDtoByTransactionId(transactionId))
+                .or(() -> transactionArchive.find(transactionId))
+                .orElseThrow(() -> new AccountException(TRANSACTION_NOT_FOUND));
+    }
+
+    /**
+     * 계좌 거래 내역 조회 (최근 거래부터, keyset 페이지)
+     * 거래 종류, 거래 결과, 기간(from 이상 to 미만) 조건은 없으면 전체
+     * 계좌는 id 만 조회하고, 거래 내역은 필요한 컬럼만 DTO 로 조회
+     * 한 페이지는 최대 100건
+     */
+    @ReadOnlyTransactional
+    public Slice<TransactionHistoryItem> getTransactionHistory(
+            String accountNumber,
+            TransactionType transactionType,
+            TransactionResultType transactionResultType,
+            LocalDateTime from, LocalDateTime to,
+            String cursor, int size
+    ) {
+        if (size < 1 || size > HISTORY_MAX_PAGE_SIZE) {
+            throw new AccountException(INVALID_REQUEST);
+        }
+        validateAccountNumberIssued(accountNumber);
+
+        Long accountId = accountRepository.findIdentityByAccountNumber(accountNumber)
+                .map(AccountIdentity::getAccountId)
+                .orElseThrow(() -> new AccountException(ACCOUNT_NOT_FOUND));
+
+        LocalDateTime historyFrom = Objects.requireNonNullElse(from, HISTORY_MIN_DATE_TIME);
+        LocalDateTime historyTo = Objects.requireNonNullElse(to, HISTORY_MAX_DATE_TIME);
+        TransactionHistoryCursor historyCursor = getHistoryCursor(cursor, historyTo);
+
+        return transactionRepository.findHistory(
+                accountId,
+                historyCursor.getTransactedAt(), historyCursor.getId(),
+                historyFrom,
+                transactionType == null
+                        ? EnumSet.allOf(TransactionType.class)
+                        : EnumSet.of(transactionType),
+                transactionResultType == null
+                        ? EnumSet.allOf(TransactionResultType.class)
+                        : EnumSet.of(transactionResultType),
+                PageRequest.of(0, size));
+    }
+
+    /**
+     * 조회 기간의 끝(to 미만)은 커서로 처리
+     * 커서가 없거나 to 보다 뒤면 to 직전 거래부터 조회
+     */
+    private TransactionHistoryCursor getHistoryCursor(String cursor, LocalDateTime to) {
+        if (cursor == null) {
+            return TransactionHistoryCursor.first(to);
+        }
+
+        TransactionHistoryCursor historyCursor = TransactionHistoryCursor.decode(cursor);
+        if (historyCursor.getTransactedAt().isBefore(to)) {
+            return historyCursor;
+        }
+        return TransactionHistoryCursor.first(to);
     }
 }
@@ -0,0 +1,6 @@
+package com.example.mission2_account.type;
+
+public enum AccountLockStrategy {
+    LOCK,   //계좌 잠금을 바로 시도, 대기 시간 안에 못 얻으면 거절
+    QUEUE   //계좌별 단일 작업 스레드 큐에 넣어 도착 순서대로 처리
+}
@@ -0,0 +1,6 @@
+package com.example.mission2_account.type;
+
+public enum DataSourceType {
+    PRIMARY,    //쓰기, 읽기 모두 (기본)
+    REPLICA     //조회 전용 트랜잭션
+}
@@ -18,7 +18,12 @@ public enum ErrorCode {
     MAX_ACCOUNT_PER_USER_10("사용자 최대 계좌는 10개입니다"),
     TOO_OLD_ORDER_TO_CANCEL("1년 이상 지난 거래는 취소가 불가능합니다."),
     ACCOUNT_TRANSACTION_LOCK("해당 계좌는 사용 중입니다."),
+    ACCOUNT_TRANSACTION_QUEUE_FULL("거래 요청이 많아 처리할 수 없습니다. 잠시 후 다시 시도해 주세요."),
     ACCOUNT_ALREADY_UNREGISTERED("계좌가 이미 해지되었습니다."),
+    TRANSFER_TO_SAME_ACCOUNT("같은 계좌로 이체할 수 없습니다."),
+    TRANSACTION_NOT_CANCELABLE("금액 사용 거래만 취소할 수 있습니다."),
+    IDEMPOTENT_REQUEST_IN_PROGRESS("같은 Idempotency-Key 의 요청을 처리하고 있습니다. 잠시 후 다시 시도해 주세요."),
+    IDEMPOTENCY_KEY_REUSED("같은 Idempotency-Key 로 다른 요청을 보낼 수 없습니다."),
     TRANSACTION_ACCOUNT_UN_MATCH("이 거래는 해당 계좌에서 발생한 거래가 아닙니다.");
 
     private final String description;
@@ -0,0 +1,7 @@
+package com.example.mission2_account.type;
+
+public enum FaultPoint {
+    LOCK,   //계좌 잠금 획득 전 (Redis 지연/오류)
+    LOAD,   //DB 조회 전 (계좌 잠금을 잡은 상태)
+    SAVE    //DB 저장 전 (계좌 잠금을 잡은 상태)
+}
@@ -0,0 +1,5 @@
+package com.example.mission2_account.type;
+
+public enum IdempotencyStatus {
+    IN_FLIGHT, COMPLETED, FAILED
+}
@@ -0,0 +1,6 @@
+package com.example.mission2_account.type;
+
+public enum LockLeaseMode {
+    FIXED,      //leaseTime 이 지나면 잠금 자동 해제
+    WATCHDOG    //메서드가 끝날 때까지 잠금 자동 연장, 끝나면 바로 해제
+}
@@ -0,0 +1,6 @@
+package com.example.mission2_account.type;
+
+public enum TransactionExecutionMode {
+    LOCKED,     //계좌 잠금 후 엔티티 조회, 검증, 변경
+    ATOMIC      //조건부 UPDATE 한 번으로 차감 (계좌 잠금 불필요)
+}
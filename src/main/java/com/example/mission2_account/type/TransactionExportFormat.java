@@ -0,0 +1,6 @@
+package com.example.mission2_account.type;
+
+public enum TransactionExportFormat {
+    NDJSON,     //한 줄에 거래 하나씩 JSON
+    CSV         //첫 줄은 컬럼 이름
+}
@@ -1,6 +1,8 @@
 package com.example.mission2_account.type;
 
 public enum TransactionType {
-    USE,        //거래 사용
-    CANCEL      //거래 취소
+    USE,            //거래 사용
+    CANCEL,         //거래 취소
+    TRANSFER_OUT,   //이체 출금
+    TRANSFER_IN     //이체 입금
 }
@@ -4,3 +4,6 @@ insert into account_user(id, name, created_at, updated_at)
 values (2, 'Micky', now(), now());
 insert into account_user(id, name, created_at, updated_at)
 values (3, 'Alice', now(), now());
+
+-- 직접 넣은 id 다음부터 발급하도록 시퀀스 이동
+alter sequence account_user_seq restart with 4;
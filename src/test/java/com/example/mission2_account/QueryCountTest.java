@@ -0,0 +1,261 @@
+package com.example.mission2_account;
+
+import com.example.mission2_account.domain.Account;
+import com.example.mission2_account.domain.AccountUser;
+import com.example.mission2_account.dto.AccountDto;
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.service.AccountBalanceCache;
+import com.example.mission2_account.service.AccountService;
+import com.example.mission2_account.service.TransactionDtoCodec;
+import com.example.mission2_account.service.TransactionService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.redisson.codec.CompositeCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static com.example.mission2_account.config.CacheConfiguration.ACCOUNT_IDENTITY_CACHE;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 기능별 실행 쿼리 수 확인
+ * 연관 관계 조회 방식이 바뀌어 쿼리가 늘어나면 실패
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-count",
+        "spring.redis.port=6392",
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.example.mission2_account.QueryCounter",
+        "account.archive.enabled=false"
+})
+class QueryCountTest {
+    @Autowired
+    private AccountService accountService;
+
+    @Autowired
+    private TransactionService transactionService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private RedissonClient redissonClient;
+
+    @Autowired
+    private AccountBalanceCache accountBalanceCache;
+
+    private String accountNumber;
+
+    @BeforeEach
+    void setUp() {
+        accountNumber = accountService.createAccount(2L, 100000L).getAccountNumber();
+    }
+
+    @Test
+    @DisplayName("잔액 사용 - 계좌 조회 1번, 거래 저장, 잔액 수정 (계좌 번호, 소유주는 cache)")
+    void useBalance() {
+        //given
+        transactionService.useBalance(2L, accountNumber, 1000L);
+        QueryCounter.reset();
+
+        //when
+        transactionService.useBalance(2L, accountNumber, 1000L);
+
+        //then
+        assertQueries(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("잔액 사용 취소 - 거래와 계좌 한 번에 조회, 거래 저장, 잔액 수정")
+    void cancelBalance() {
+        //given
+        TransactionDto used = transactionService.useBalance(2L, accountNumber, 1000L);
+        QueryCounter.reset();
+
+        //when
+        transactionService.cancelBalance(used.getTransactionId(), accountNumber, 1000L);
+
+        //then
+        assertQueries(1, 1, 1);
+    }
+
+    @Test
+    @DisplayName("거래 확인 - 저장할 때 캐시에 넣어서 DB 조회 없음")
+    void queryTransaction() {
+        //given
+        TransactionDto used = transactionService.useBalance(2L, accountNumber, 1000L);
+        awaitCached(used.getTransactionId());
+        QueryCounter.reset();
+
+        //when
+        transactionService.queryTransaction(used.getTransactionId());
+
+        //then
+        assertQueries(0, 0, 0);
+    }
+
+    @Test
+    @DisplayName("거래 확인 - 캐시 miss 면 조회 1번")
+    void queryTransactionCacheMiss() {
+        //given
+        TransactionDto used = transactionService.useBalance(2L, accountNumber, 1000L);
+        awaitCached(used.getTransactionId());
+        transactionCache().remove(used.getTransactionId());
+        QueryCounter.reset();
+
+        //when
+        transactionService.queryTransaction(used.getTransactionId());
+
+        //then
+        assertQueries(1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 목록 - 잔액 캐시 miss 면 조회 1번")
+    void getAccountsByUserIdCacheMiss() {
+        //given
+        accountBalanceCache.evict(2L);
+        QueryCounter.reset();
+
+        //when
+        accountService.getAccountsByUserId(2L);
+
+        //then
+        assertQueries(1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 목록 - 잔액 사용 후에도 DB 조회 없이 바뀐 잔액 (조건부 UPDATE 포함)")
+    void getAccountsByUserIdAfterUseBalance() {
+        //given
+        accountService.getAccountsByUserId(2L);
+        transactionService.useBalance(2L, accountNumber, 1000L);
+        transactionService.useBalanceAtomic(2L, accountNumber, 1000L);
+        QueryCounter.reset();
+
+        //when
+        List<AccountDto> accounts = accountService.getAccountsByUserId(2L);
+
+        //then
+        assertQueries(0, 0, 0);
+        assertEquals(98000L, balanceOf(accounts, accountNumber));
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 목록 - 늦게 도착한 이전 버전은 최신 잔액을 덮어쓰지 않음")
+    void staleBalanceIsNotWritten() {
+        //given
+        accountService.getAccountsByUserId(2L);
+        transactionService.useBalance(2L, accountNumber, 1000L);
+        AccountUser accountUser = new AccountUser();
+        accountUser.setId(2L);
+
+        //when
+        accountBalanceCache.putAfterCommit(Account.builder()
+                .accountUser(accountUser)
+                .accountNumber(accountNumber)
+                .balance(100000L)
+                .version(0L)
+                .build());
+
+        //then
+        assertEquals(99000L,
+                balanceOf(accountService.getAccountsByUserId(2L), accountNumber));
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 - 거래 내역 조회 1번 (계좌 아이디는 cache)")
+    void getTransactionHistory() {
+        //given
+        transactionService.useBalance(2L, accountNumber, 1000L);
+        QueryCounter.reset();
+
+        //when
+        transactionService.getTransactionHistory(accountNumber,
+                null, null, null, null, null, 20);
+
+        //then
+        assertQueries(1, 0, 0);
+    }
+
+    @Test
+    @DisplayName("계좌 생성 - 사용자는 cache, 계좌 수 조회, 계좌 저장")
+    void createAccount() {
+        //given
+        QueryCounter.reset();
+
+        //when
+        accountService.createAccount(3L, 0L);
+
+        //then
+        assertQueries(1, 1, 0);
+    }
+
+    @Test
+    @DisplayName("계좌 해지 - 계좌 번호 cache 에서 제거되어 다시 조회")
+    void deleteAccountEvictsIdentity() {
+        //given
+        String emptyAccountNumber = accountService.createAccount(3L, 0L).getAccountNumber();
+        transactionService.getTransactionHistory(emptyAccountNumber,
+                null, null, null, null, null, 20);
+        double hits = identityCacheHits();
+        accountService.deleteAccount(3L, emptyAccountNumber);
+        QueryCounter.reset();
+
+        //when
+        transactionService.getTransactionHistory(emptyAccountNumber,
+                null, null, null, null, null, 20);
+
+        //then
+        assertQueries(2, 0, 0);
+        assertEquals(hits, identityCacheHits());
+    }
+
+    /**
+     * 거래 확인 캐시는 커밋 후 비동기로 채워짐
+     */
+    private void awaitCached(String transactionId) {
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!transactionCache().containsKey(transactionId)) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("transaction is not cached. " + transactionId);
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private RMapCache<String, TransactionDto> transactionCache() {
+        return redissonClient.getMapCache("TXQ: transaction",
+                new CompositeCodec(StringCodec.INSTANCE, TransactionDtoCodec.INSTANCE));
+    }
+
+    private double identityCacheHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", ACCOUNT_IDENTITY_CACHE)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+
+    private static long balanceOf(List<AccountDto> accounts, String accountNumber) {
+        return accounts.stream()
+                .filter(account -> accountNumber.equals(account.getAccountNumber()))
+                .findFirst()
+                .orElseThrow()
+                .getBalance();
+    }
+
+    private static void assertQueries(long selects, long inserts, long updates) {
+        String statements = String.join("\n", QueryCounter.statements());
+        assertEquals(selects, QueryCounter.selects(), statements);
+        assertEquals(inserts, QueryCounter.inserts(), statements);
+        assertEquals(updates, QueryCounter.updates(), statements);
+    }
+}
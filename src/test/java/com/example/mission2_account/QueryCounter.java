@@ -0,0 +1,52 @@
+package com.example.mission2_account;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hibernate 가 실행하는 SQL 을 스레드별로 기록
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector 로 등록해서 사용
+ * 시퀀스 조회는 pooled-lo 라 여러 건에 한 번만 실행되므로 세지 않음
+ */
+public class QueryCounter implements StatementInspector {
+    private static final ThreadLocal<List<String>> STATEMENTS =
+            ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        String statement = sql.trim().toLowerCase(Locale.ROOT);
+        if (!statement.contains("next value for")) {
+            STATEMENTS.get().add(statement);
+        }
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static long selects() {
+        return count("select");
+    }
+
+    public static long inserts() {
+        return count("insert");
+    }
+
+    public static long updates() {
+        return count("update");
+    }
+
+    public static List<String> statements() {
+        return new ArrayList<>(STATEMENTS.get());
+    }
+
+    private static long count(String prefix) {
+        return STATEMENTS.get().stream()
+                .filter(statement -> statement.startsWith(prefix))
+                .count();
+    }
+}
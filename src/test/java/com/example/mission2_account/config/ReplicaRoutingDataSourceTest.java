@@ -0,0 +1,142 @@
+package com.example.mission2_account.config;
+
+import com.example.mission2_account.type.DataSourceType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaRoutingDataSourceTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private JdbcTemplate replicaJdbcTemplate;
+    private ReplicaLagMonitor replicaLagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        //primary, replica 역할의 H2 DB 두 개, 어느 DB 에서 조회했는지 node 테이블로 구분
+        DataSource primary = dataSource("jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1");
+        DataSource replica = dataSource("jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1");
+        JdbcTemplate primaryJdbcTemplate = new JdbcTemplate(primary);
+        replicaJdbcTemplate = new JdbcTemplate(replica);
+        for (JdbcTemplate template : new JdbcTemplate[]{primaryJdbcTemplate, replicaJdbcTemplate}) {
+            template.execute("drop table if exists node");
+            template.execute("create table node (name varchar(255))");
+        }
+        primaryJdbcTemplate.update("insert into node values ('PRIMARY')");
+        replicaJdbcTemplate.update("insert into node values ('REPLICA')");
+        replicaJdbcTemplate.execute("drop table if exists replica_lag");
+        replicaJdbcTemplate.execute("create table replica_lag (lag_millis bigint)");
+        replicaJdbcTemplate.update("insert into replica_lag values (0)");
+
+        replicaLagMonitor = new ReplicaLagMonitor(replica,
+                "select lag_millis from replica_lag", 1000);
+        replicaLagMonitor.bindTo(meterRegistry);
+        replicaLagMonitor.check();
+
+        ReplicaRoutingDataSource routingDataSource =
+                new ReplicaRoutingDataSource(replicaLagMonitor);
+        routingDataSource.bindTo(meterRegistry);
+        routingDataSource.setTargetDataSources(Map.of(
+                DataSourceType.PRIMARY, primary,
+                DataSourceType.REPLICA, replica));
+        routingDataSource.setDefaultTargetDataSource(primary);
+        routingDataSource.afterPropertiesSet();
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @Test
+    @DisplayName("조회 전용 트랜잭션은 replica 에서 조회")
+    void readOnlyTransactionUsesReplica() {
+        //given
+        transactionTemplate.setReadOnly(true);
+
+        //when
+        String node = queryNode();
+
+        //then
+        assertEquals("REPLICA", node);
+        assertEquals(0, fallbackCount());
+    }
+
+    @Test
+    @DisplayName("쓰기 트랜잭션은 primary 에서 처리")
+    void readWriteTransactionUsesPrimary() {
+        //given
+        transactionTemplate.setReadOnly(false);
+
+        //when
+        String node = queryNode();
+
+        //then
+        assertEquals("PRIMARY", node);
+        assertEquals(0, fallbackCount());
+    }
+
+    @Test
+    @DisplayName("replica 지연이 허용 범위를 넘으면 primary 에서 조회")
+    void replicaLagFallbackToPrimary() {
+        //given
+        replicaJdbcTemplate.update("update replica_lag set lag_millis = 5000");
+        replicaLagMonitor.check();
+        transactionTemplate.setReadOnly(true);
+
+        //when
+        String node = queryNode();
+
+        //then
+        assertFalse(replicaLagMonitor.isReplicaAvailable());
+        assertEquals("PRIMARY", node);
+        assertEquals(1, fallbackCount());
+        assertEquals(5000, meterRegistry.get("account.datasource.replica.lag").gauge().value());
+    }
+
+    @Test
+    @DisplayName("replica 지연 확인에 실패하면 primary 에서 조회하고, 복구되면 다시 replica 에서 조회")
+    void replicaFailureFallbackToPrimary() {
+        //given
+        replicaJdbcTemplate.execute("drop table replica_lag");
+        replicaLagMonitor.check();
+        transactionTemplate.setReadOnly(true);
+
+        //when
+        String duringFailure = queryNode();
+        replicaJdbcTemplate.execute("create table replica_lag (lag_millis bigint)");
+        replicaJdbcTemplate.update("insert into replica_lag values (10)");
+        replicaLagMonitor.check();
+        String afterRecovery = queryNode();
+
+        //then
+        assertEquals("PRIMARY", duringFailure);
+        assertEquals("REPLICA", afterRecovery);
+        assertEquals(1, fallbackCount());
+        assertEquals(1, meterRegistry.get("account.datasource.replica.available").gauge().value());
+    }
+
+    private String queryNode() {
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("select name from node", String.class));
+    }
+
+    private double fallbackCount() {
+        return meterRegistry.get("account.datasource.replica.fallback").functionCounter().count();
+    }
+
+    private static DataSource dataSource(String url) {
+        return new DriverManagerDataSource(url, "sa", "");
+    }
+}
@@ -4,12 +4,15 @@ import com.example.mission2_account.dto.AccountDto;
 import com.example.mission2_account.dto.CreateAccount;
 import com.example.mission2_account.dto.DeleteAccount;
 import com.example.mission2_account.service.AccountService;
+import com.example.mission2_account.service.RequestTracer;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
@@ -26,10 +29,15 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(AccountController.class)
+//GlobalExceptionHandler 의 오류 코드 Counter 용
+@Import(SimpleMeterRegistry.class)
 class AccountControllerTest {
     @MockBean
     private AccountService accountService;
 
+    @MockBean
+    private RequestTracer requestTracer;
+
     @Autowired
     private MockMvc mockMvc;
 
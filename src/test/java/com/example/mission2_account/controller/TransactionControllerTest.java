@@ -2,41 +2,98 @@ package com.example.mission2_account.controller;
 
 import com.example.mission2_account.dto.CancelBalance;
 import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.dto.TransactionHistoryCursor;
+import com.example.mission2_account.dto.TransactionHistoryItem;
+import com.example.mission2_account.dto.Transfer;
+import com.example.mission2_account.dto.TransferDto;
 import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.dto.UseBalanceBatch;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.service.FailedTransactionRecorder;
+import com.example.mission2_account.service.RequestTracer;
+import com.example.mission2_account.service.TransactionAsyncService;
+import com.example.mission2_account.service.TransactionBatchService;
+import com.example.mission2_account.service.TransactionExportService;
 import com.example.mission2_account.service.TransactionService;
+import com.example.mission2_account.type.ErrorCode;
+import com.example.mission2_account.type.TransactionExportFormat;
+import com.example.mission2_account.type.TransactionType;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.CompletableFuture;
+import java.util.zip.GZIPInputStream;
 
 import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
 import static com.example.mission2_account.type.TransactionType.USE;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.print;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(TransactionController.class)
+//GlobalExceptionHandler 의 오류 코드 Counter 용
+@Import(SimpleMeterRegistry.class)
 class TransactionControllerTest {
     @MockBean
     private TransactionService transactionService;
 
+    @MockBean
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    @MockBean
+    private TransactionExportService transactionExportService;
+
+    @MockBean
+    private TransactionBatchService transactionBatchService;
+
+    @MockBean
+    private TransactionAsyncService transactionAsyncService;
+
+    @MockBean
+    private RequestTracer requestTracer;
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Test
     @DisplayName("거래 성공")
     void successUseBalance() throws Exception {
@@ -64,6 +121,97 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.amount").value(12345));
     }
 
+    @Test
+    @DisplayName("거래 성공 - 비동기")
+    void successUseBalanceAsync() throws Exception {
+        //given
+        given(transactionAsyncService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(TransactionDto.builder()
+                        .accountNumber("1000000000")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(12345L)
+                        .transactionId("transactionId")
+                        .transactionResultType(SUCCESS)
+                        .build()));
+
+        //when
+        MvcResult asyncResult = mockMvc.perform(post("/transaction/use/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        )))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.transactionResult").value("SUCCESS"))
+                .andExpect(jsonPath("$.transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.amount").value(12345));
+    }
+
+    @Test
+    @DisplayName("거래 실패 - 비동기, 실패 거래 기록 후 오류 응답")
+    void useBalanceAsync_Failed() throws Exception {
+        //given
+        CompletableFuture<TransactionDto> failed = new CompletableFuture<>();
+        failed.completeExceptionally(
+                new AccountException(ErrorCode.ACCOUNT_TRANSACTION_LOCK));
+        given(transactionAsyncService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(failed);
+
+        //when
+        MvcResult asyncResult = mockMvc.perform(post("/transaction/use/async")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalance.Request(1L, "2000000000", 3000L)
+                        )))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(jsonPath("$.errorCode").value("ACCOUNT_TRANSACTION_LOCK"));
+        verify(failedTransactionRecorder).record(TransactionType.USE, "2000000000", 3000L);
+    }
+
+    @Test
+    @DisplayName("거래 여러 건 - 요청 순서대로 건별 결과")
+    void successUseBalances() throws Exception {
+        //given
+        given(transactionBatchService.useBalances(any()))
+                .willReturn(Arrays.asList(
+                        UseBalanceBatch.Item.builder()
+                                .index(0)
+                                .accountNumber("2000000000")
+                                .transactionResult(SUCCESS)
+                                .transactionId("transactionId")
+                                .amount(3000L)
+                                .build(),
+                        UseBalanceBatch.Item.failure(
+                                new UseBalance.Request(1L, "3000000000", 5000L),
+                                ErrorCode.AMOUNT_EXCEED_BALANCE)));
+
+        //when
+        //then
+        mockMvc.perform(post("/transaction/use/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new UseBalanceBatch.Request(Arrays.asList(
+                                        new UseBalance.Request(1L, "2000000000", 3000L),
+                                        new UseBalance.Request(1L, "3000000000", 5000L)))
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.results[0].transactionResult").value("SUCCESS"))
+                .andExpect(jsonPath("$.results[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.results[1].transactionResult").value("FAIL"))
+                .andExpect(jsonPath("$.results[1].errorCode").value("AMOUNT_EXCEED_BALANCE"));
+    }
+
     @Test
     @DisplayName("거래 취소 성공")
     void successCancelBalance() throws Exception {
@@ -93,6 +241,46 @@ class TransactionControllerTest {
 
     }
 
+    @Test
+    @DisplayName("이체 성공")
+    void successTransfer() throws Exception {
+        //given
+        given(transactionService.transfer(anyLong(), anyString(), anyString(), anyLong()))
+                .willReturn(TransferDto.builder()
+                        .withdrawal(TransactionDto.builder()
+                                .accountNumber("1000000000")
+                                .transactionType(TransactionType.TRANSFER_OUT)
+                                .transactionResultType(SUCCESS)
+                                .transactionId("withdrawalId")
+                                .amount(3000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build())
+                        .deposit(TransactionDto.builder()
+                                .accountNumber("2000000000")
+                                .transactionType(TransactionType.TRANSFER_IN)
+                                .transactionResultType(SUCCESS)
+                                .transactionId("depositId")
+                                .amount(3000L)
+                                .transactedAt(LocalDateTime.now())
+                                .build())
+                        .build());
+
+        //when
+        //then
+        mockMvc.perform(post("/transaction/transfer")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new Transfer.Request(1L, "1000000000", "2000000000", 3000L)
+                        ))
+                ).andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.fromAccountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.toAccountNumber").value("2000000000"))
+                .andExpect(jsonPath("$.withdrawalTransactionId").value("withdrawalId"))
+                .andExpect(jsonPath("$.depositTransactionId").value("depositId"))
+                .andExpect(jsonPath("$.amount").value(3000));
+    }
+
     @Test
     @DisplayName("거래 내역 확인 성공")
     void successQueryTransaction() throws Exception {
@@ -118,4 +306,96 @@ class TransactionControllerTest {
                 .andExpect(jsonPath("$.transactionId").value("transactionIdForCancel"))
                 .andExpect(jsonPath("$.amount").value(54321));
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("거래 내역 확인 실패 - 오류 코드 응답과 오류 횟수 기록")
+    void queryTransaction_TransactionNotFound() throws Exception {
+        //given
+        given(transactionService.queryTransaction(anyString()))
+                .willThrow(new AccountException(ErrorCode.TRANSACTION_NOT_FOUND));
+        double before = meterRegistry.get("account.errors")
+                .tag("errorCode", "TRANSACTION_NOT_FOUND")
+                .counter().count();
+
+        //when
+        //then
+        mockMvc.perform(get("/transaction/123456"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.errorCode").value("TRANSACTION_NOT_FOUND"));
+        assertEquals(before + 1, meterRegistry.get("account.errors")
+                .tag("errorCode", "TRANSACTION_NOT_FOUND")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 성공")
+    void successGetTransactionHistory() throws Exception {
+        //given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 9, 1, 12, 0);
+        given(transactionService.getTransactionHistory(anyString(), any(), any(),
+                any(), any(), any(), anyInt()))
+                .willReturn(new SliceImpl<>(Collections.singletonList(
+                        TransactionHistoryItem.builder()
+                                .id(77L)
+                                .transactionType(USE)
+                                .transactionResult(SUCCESS)
+                                .transactionId("transactionId")
+                                .amount(1000L)
+                                .balanceSnapshot(9000L)
+                                .transactedAt(transactedAt)
+                                .build()),
+                        PageRequest.of(0, 1), true));
+
+        //when
+        //then
+        mockMvc.perform(get("/account/1000000000/transactions")
+                        .param("transaction_type", "USE")
+                        .param("size", "1"))
+                .andDo(print())
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.accountNumber").value("1000000000"))
+                .andExpect(jsonPath("$.transactions[0].transactionId").value("transactionId"))
+                .andExpect(jsonPath("$.transactions[0].transactionResult").value("SUCCESS"))
+                .andExpect(jsonPath("$.transactions[0].id").doesNotExist())
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value(
+                        new TransactionHistoryCursor(transactedAt, 77L).encode()));
+        verify(transactionService).getTransactionHistory(
+                "1000000000", USE, null, null, null, null, 1);
+    }
+
+    @Test
+    @DisplayName("거래 내역 내보내기 - gzip 압축")
+    void exportTransactionsGzip() throws Exception {
+        //given
+        willAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(4);
+            out.write("{\"transactionId\":\"tx1\"}\n".getBytes(StandardCharsets.UTF_8));
+            return 1L;
+        }).given(transactionExportService).export(any(), any(), any(), any(), any());
+
+        //when
+        MvcResult asyncResult = mockMvc.perform(get("/transaction/export")
+                        .param("format", "NDJSON")
+                        .param("account_number", "1000000000")
+                        .param("gzip", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        //then
+        MvcResult result = mockMvc.perform(asyncDispatch(asyncResult))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "application/gzip"))
+                .andExpect(header().string("Content-Disposition",
+                        "attachment; filename=\"transactions.ndjson.gz\""))
+                .andReturn();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(
+                result.getResponse().getContentAsByteArray()))) {
+            assertEquals("{\"transactionId\":\"tx1\"}\n",
+                    new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+        verify(transactionExportService).export(eq(TransactionExportFormat.NDJSON),
+                eq("1000000000"), isNull(), isNull(), any());
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.mission2_account.repository;
+
+import com.example.mission2_account.domain.Transaction;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionRepositoryImplTest {
+    @Mock
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("대량 저장 - batch 크기마다 flush, clear")
+    void saveAllInBatches() {
+        //given
+        TransactionRepositoryImpl transactionRepository =
+                new TransactionRepositoryImpl(entityManager, 50);
+        List<Transaction> transactions = IntStream.range(0, 120)
+                .mapToObj(i -> Transaction.builder().amount((long) i).build())
+                .collect(Collectors.toList());
+
+        //when
+        transactionRepository.saveAllInBatches(transactions);
+
+        //then
+        verify(entityManager, times(120)).persist(any(Transaction.class));
+        verify(entityManager, times(3)).flush();
+        verify(entityManager, times(3)).clear();
+    }
+
+    @Test
+    @DisplayName("대량 저장 - batch 크기로 나누어 떨어질 때")
+    void saveAllInBatches_ExactMultiple() {
+        //given
+        TransactionRepositoryImpl transactionRepository =
+                new TransactionRepositoryImpl(entityManager, 50);
+        List<Transaction> transactions = IntStream.range(0, 100)
+                .mapToObj(i -> Transaction.builder().amount((long) i).build())
+                .collect(Collectors.toList());
+
+        //when
+        transactionRepository.saveAllInBatches(transactions);
+
+        //then
+        verify(entityManager, times(100)).persist(any(Transaction.class));
+        verify(entityManager, times(2)).flush();
+    }
+}
@@ -0,0 +1,188 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.AccountBalanceEntry;
+import com.example.mission2_account.dto.AccountDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RKeys;
+import org.redisson.api.RMap;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBalanceCacheTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RScript script;
+
+    @Mock
+    private RMap<String, String> map;
+
+    @Mock
+    private RKeys keys;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountBalanceCache accountBalanceCache;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.getScript(any(Codec.class)))
+                .willReturn(script);
+        accountBalanceCache = new AccountBalanceCache(redissonClient, 3600000, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("완료 표시가 있는 캐시 - 계좌 생성 순서로 리턴")
+    void cacheHit() {
+        //given
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("_complete", "1");
+        fields.put("2222222222", AccountBalanceCache.encode(entry(2L, "2222222222", 2000L)));
+        fields.put("1111111111", AccountBalanceCache.encode(entry(1L, "1111111111", 1000L)));
+        givenFields(fields);
+
+        //when
+        Optional<List<AccountDto>> accounts = accountBalanceCache.get(92L);
+
+        //then
+        assertEquals(2, accounts.orElseThrow().size());
+        assertEquals("1111111111", accounts.get().get(0).getAccountNumber());
+        assertEquals(1000L, accounts.get().get(0).getBalance());
+        assertEquals(92L, accounts.get().get(0).getUserId());
+        assertEquals("2222222222", accounts.get().get(1).getAccountNumber());
+    }
+
+    @Test
+    @DisplayName("완료 표시가 없는 캐시 - 거래로 일부 계좌만 쓰인 경우 캐시 miss")
+    void partialEntriesAreMiss() {
+        //given
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("1111111111", AccountBalanceCache.encode(entry(1L, "1111111111", 1000L)));
+        givenFields(fields);
+
+        //when
+        Optional<List<AccountDto>> accounts = accountBalanceCache.get(92L);
+
+        //then
+        assertTrue(accounts.isEmpty());
+    }
+
+    @Test
+    @DisplayName("Redis 오류 - 캐시 miss 로 처리")
+    void redisErrorIsMiss() {
+        //given
+        given(redissonClient.<String, String>getMap(anyString(), any(Codec.class)))
+                .willReturn(map);
+        given(map.readAllMap())
+                .willThrow(new RedisException("connection refused"));
+
+        //when
+        Optional<List<AccountDto>> accounts = accountBalanceCache.get(92L);
+
+        //then
+        assertTrue(accounts.isEmpty());
+    }
+
+    @Test
+    @DisplayName("캐시에 더 높은 버전이 있으면 쓰지 않음")
+    void staleWriteIsCounted() {
+        //given
+        given(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(), any(), any(), any()))
+                .willReturn(0L);
+
+        //when
+        accountBalanceCache.put(entry(1L, "1111111111", 1000L));
+
+        //then
+        assertEquals(1, meterRegistry.get("account.balance.cache.stale.writes")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("쓰기 실패 - 이전 잔액이 남지 않도록 사용자 캐시 제거")
+    void writeFailureEvicts() {
+        //given
+        given(script.eval(any(RScript.Mode.class), anyString(), any(RScript.ReturnType.class),
+                anyList(), any(), any(), any(), any()))
+                .willThrow(new RedisException("connection refused"));
+        given(redissonClient.getKeys())
+                .willReturn(keys);
+
+        //when
+        accountBalanceCache.put(entry(1L, "1111111111", 1000L));
+
+        //then
+        verify(keys).delete("ACBAL: 92");
+    }
+
+    @Test
+    @DisplayName("항목 형식 - 버전이 맨 앞에 오고 모든 필드를 그대로 복원")
+    void entryRoundTrip() {
+        //given
+        AccountBalanceEntry entry = AccountBalanceEntry.builder()
+                .accountId(1L)
+                .version(7L)
+                .userId(92L)
+                .accountNumber("1111111111")
+                .balance(1000L)
+                .registeredAt(LocalDateTime.of(2022, 9, 1, 12, 0, 0, 123_456_789))
+                .unRegisteredAt(LocalDateTime.of(2022, 9, 2, 12, 0))
+                .build();
+
+        //when
+        String encoded = AccountBalanceCache.encode(entry);
+        AccountBalanceEntry decoded = AccountBalanceCache.decode(92L, "1111111111", encoded);
+
+        //then
+        assertTrue(encoded.startsWith("7|"));
+        assertEquals(entry.getAccountId(), decoded.getAccountId());
+        assertEquals(entry.getVersion(), decoded.getVersion());
+        assertEquals(entry.getBalance(), decoded.getBalance());
+        assertEquals(entry.getRegisteredAt(), decoded.getRegisteredAt());
+        assertEquals(entry.getUnRegisteredAt(), decoded.getUnRegisteredAt());
+        assertNull(AccountBalanceCache.decode(92L, "1111111111",
+                AccountBalanceCache.encode(entry(1L, "1111111111", 1000L)))
+                .getUnRegisteredAt());
+    }
+
+    private void givenFields(Map<String, String> fields) {
+        given(redissonClient.<String, String>getMap(anyString(), any(Codec.class)))
+                .willReturn(map);
+        given(map.readAllMap())
+                .willReturn(fields);
+    }
+
+    private static AccountBalanceEntry entry(Long accountId, String accountNumber, Long balance) {
+        return AccountBalanceEntry.builder()
+                .accountId(accountId)
+                .version(1L)
+                .userId(92L)
+                .accountNumber(accountNumber)
+                .balance(balance)
+                .registeredAt(LocalDateTime.of(2022, 9, 1, 12, 0))
+                .build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.AccountBalanceEntry;
+import com.example.mission2_account.repository.AccountRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountBalanceCacheVerifierTest {
+    @Mock
+    private AccountBalanceCache accountBalanceCache;
+
+    @Mock
+    private AccountRepository accountRepository;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountBalanceCacheVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new AccountBalanceCacheVerifier(
+                accountBalanceCache, accountRepository, 100, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("DB 와 같은 캐시 - 그대로 둠")
+    void matched() {
+        //given
+        givenCached(entry(3L, 1000L));
+        given(accountRepository.findBalanceEntriesByAccountUserId(92L))
+                .willReturn(Collections.singletonList(entry(3L, 1000L)));
+
+        //when
+        boolean verified = verifier.verifyUser(92L);
+
+        //then
+        assertTrue(verified);
+        verify(accountBalanceCache, times(0)).evict(92L);
+    }
+
+    @Test
+    @DisplayName("캐시가 DB 보다 높은 버전 - replica 지연으로 보고 그대로 둠")
+    void cachedNewerThanReplica() {
+        //given
+        givenCached(entry(4L, 500L));
+        given(accountRepository.findBalanceEntriesByAccountUserId(92L))
+                .willReturn(Collections.singletonList(entry(3L, 1000L)));
+
+        //when
+        boolean verified = verifier.verifyUser(92L);
+
+        //then
+        assertTrue(verified);
+    }
+
+    @Test
+    @DisplayName("다시 읽어도 DB 보다 이전 버전 - 사용자 캐시 제거")
+    void staleEvicted() {
+        //given
+        givenCached(entry(3L, 1000L));
+        given(accountRepository.findBalanceEntriesByAccountUserId(92L))
+                .willReturn(Collections.singletonList(entry(4L, 500L)));
+
+        //when
+        boolean verified = verifier.verifyUser(92L);
+
+        //then
+        assertFalse(verified);
+        verify(accountBalanceCache).evict(92L);
+        assertEquals(1, meterRegistry.get("account.balance.cache.mismatches")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("같은 버전인데 잔액이 다름 - 사용자 캐시 제거")
+    void balanceMismatchEvicted() {
+        //given
+        givenCached(entry(3L, 900L));
+        given(accountRepository.findBalanceEntriesByAccountUserId(92L))
+                .willReturn(Collections.singletonList(entry(3L, 1000L)));
+
+        //when
+        boolean verified = verifier.verifyUser(92L);
+
+        //then
+        assertFalse(verified);
+        verify(accountBalanceCache).evict(92L);
+    }
+
+    @Test
+    @DisplayName("만료된 사용자 - 표본 대상에서 제외")
+    void expiredForgotten() {
+        //given
+        given(accountBalanceCache.getEntries(92L))
+                .willReturn(Optional.empty());
+
+        //when
+        boolean verified = verifier.verifyUser(92L);
+
+        //then
+        assertTrue(verified);
+        verify(accountBalanceCache).forget(92L);
+    }
+
+    private void givenCached(AccountBalanceEntry entry) {
+        given(accountBalanceCache.getEntries(92L))
+                .willReturn(Optional.of(Map.of(entry.getAccountNumber(), entry)));
+    }
+
+    private static AccountBalanceEntry entry(Long version, Long balance) {
+        return AccountBalanceEntry.builder()
+                .accountId(1L)
+                .version(version)
+                .userId(92L)
+                .accountNumber("1111111111")
+                .balance(balance)
+                .build();
+    }
+}
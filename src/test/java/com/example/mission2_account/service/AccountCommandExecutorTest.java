@@ -0,0 +1,202 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_QUEUE_FULL;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AccountCommandExecutorTest {
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private AccountCommandExecutor accountCommandExecutor;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        accountCommandExecutor.shutdown();
+    }
+
+    @Test
+    @DisplayName("같은 계좌 요청 - 도착 순서대로 처리")
+    void executeInOrder() {
+        //given
+        accountCommandExecutor = new AccountCommandExecutor(4, 100, 5000L, meterRegistry);
+        List<Integer> executed = Collections.synchronizedList(new ArrayList<>());
+        List<CompletableFuture<Void>> requests = new ArrayList<>();
+
+        //when
+        for (int i = 0; i < 50; i++) {
+            int order = i;
+            requests.add(CompletableFuture.runAsync(() -> executeQuietly(
+                    () -> executed.add(order))));
+            //다음 요청이 뒤에 도착하도록 큐에 들어갈 때까지 대기
+            waitUntilQueued(order + 1, executed);
+        }
+        CompletableFuture.allOf(requests.toArray(new CompletableFuture[0])).join();
+
+        //then
+        assertEquals(50, executed.size());
+        for (int i = 0; i < 50; i++) {
+            assertEquals(i, executed.get(i));
+        }
+    }
+
+    @Test
+    @DisplayName("작업 중 발생한 예외 - 호출한 쪽으로 전달")
+    void execute_throwCommandException() {
+        //given
+        accountCommandExecutor = new AccountCommandExecutor(4, 100, 5000L, meterRegistry);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountCommandExecutor.execute("1234567890", "test", () -> {
+                    throw new AccountException(ACCOUNT_NOT_FOUND);
+                }));
+
+        //then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("큐가 가득 찬 경우 - 요청 거절")
+    void execute_queueFull() throws InterruptedException {
+        //given
+        accountCommandExecutor = new AccountCommandExecutor(1, 1, 5000L, meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> executeQuietly(() -> {
+            running.countDown();
+            release.await();
+            return null;
+        }));
+        running.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Void> second = CompletableFuture.runAsync(
+                () -> executeQuietly(() -> null));
+        while (meterRegistry.get("account.command.queue.depth").gauge().value() < 1) {
+            Thread.sleep(10);
+        }
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountCommandExecutor.execute("1234567890", "test", () -> null));
+        release.countDown();
+        CompletableFuture.allOf(first, second).join();
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_QUEUE_FULL, exception.getErrorCode());
+        assertEquals(1, meterRegistry.get("account.command.queue.rejected")
+                .counter().count());
+    }
+
+    @Test
+    @DisplayName("제한 시간 안에 시작하지 못한 요청 - 잠금 오류, 이후에도 실행하지 않음, 앞선 요청은 완료")
+    void execute_timeout() throws Throwable {
+        //given
+        accountCommandExecutor = new AccountCommandExecutor(2, 10, 100L, meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> first = CompletableFuture.runAsync(() -> executeQuietly(() -> {
+            running.countDown();
+            release.await();
+            return null;
+        }));
+        running.await(5, TimeUnit.SECONDS);
+        AtomicBoolean executed = new AtomicBoolean();
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> accountCommandExecutor.execute("1234567890", "test",
+                        () -> executed.getAndSet(true)));
+        release.countDown();
+        first.join();
+        accountCommandExecutor.execute("1234567890", "test", () -> null);
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        assertFalse(executed.get());
+    }
+
+    @Test
+    @DisplayName("실행 중에 제한 시간이 지난 요청 - 잠금 오류 없이 실행 결과 전달")
+    void execute_timeoutWhileRunning() throws Throwable {
+        //given
+        accountCommandExecutor = new AccountCommandExecutor(2, 10, 100L, meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> request = CompletableFuture.supplyAsync(() -> {
+            try {
+                return accountCommandExecutor.execute("1234567890", "test", () -> {
+                    running.countDown();
+                    release.await();
+                    return "committed";
+                });
+            } catch (Throwable t) {
+                throw new IllegalStateException(t);
+            }
+        });
+        running.await(5, TimeUnit.SECONDS);
+
+        //when
+        //제한 시간(100ms)이 충분히 지난 뒤에 command 완료
+        Thread.sleep(300);
+        boolean completedBeforeRelease = request.isDone();
+        release.countDown();
+
+        //then
+        assertFalse(completedBeforeRelease);
+        assertEquals("committed", request.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    @DisplayName("한 계좌 요청이 오래 걸려도 - 다른 계좌 요청은 바로 처리")
+    void execute_otherAccountNotBlocked() throws Throwable {
+        //given
+        accountCommandExecutor = new AccountCommandExecutor(2, 10, 5000L, meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Void> hot = CompletableFuture.runAsync(() -> executeQuietly(() -> {
+            running.countDown();
+            release.await();
+            return null;
+        }));
+        running.await(5, TimeUnit.SECONDS);
+
+        //when
+        String result = accountCommandExecutor.execute("1234567891", "test", () -> "done");
+        release.countDown();
+        hot.join();
+
+        //then
+        assertEquals("done", result);
+    }
+
+    private void executeQuietly(AccountCommandExecutor.AccountCommand<?> command) {
+        try {
+            accountCommandExecutor.execute("1234567890", "test", command);
+        } catch (Throwable t) {
+            throw new IllegalStateException(t);
+        }
+    }
+
+    private void waitUntilQueued(int expected, List<Integer> executed) {
+        double queued;
+        do {
+            queued = executed.size() + meterRegistry.find("account.command.queue.depth")
+                    .gauges().stream().mapToDouble(g -> g.value()).sum();
+            Thread.onSpinWait();
+        } while (queued < expected);
+    }
+}
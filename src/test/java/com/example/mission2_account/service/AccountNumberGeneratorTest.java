@@ -0,0 +1,93 @@
+package com.example.mission2_account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class AccountNumberGeneratorTest {
+    @Mock
+    private AccountNumberBlockSource accountNumberBlockSource;
+
+    @Test
+    @DisplayName("블록 안에서 10자리 계좌 번호 순서대로 발급")
+    void nextInBlock() {
+        //given
+        given(accountNumberBlockSource.nextBlock()).willReturn(0L);
+        AccountNumberGenerator generator =
+                new AccountNumberGenerator(accountNumberBlockSource, 10);
+
+        //when
+        String first = generator.next();
+        String second = generator.next();
+
+        //then
+        assertEquals("1000000008", first);
+        assertEquals("1000000016", second);
+        assertTrue(AccountNumberGenerator.isValid(first));
+        assertTrue(AccountNumberGenerator.isValid(second));
+        verify(accountNumberBlockSource, times(1)).nextBlock();
+    }
+
+    @Test
+    @DisplayName("블록을 다 쓴 경우 - 다음 블록에서 발급")
+    void nextBlockWhenExhausted() {
+        //given
+        given(accountNumberBlockSource.nextBlock())
+                .willReturn(0L)
+                .willReturn(7L);
+        AccountNumberGenerator generator =
+                new AccountNumberGenerator(accountNumberBlockSource, 2);
+
+        //when
+        generator.next();
+        generator.next();
+        String third = generator.next();
+
+        //then
+        assertEquals("100000014", third.substring(0, 9));
+        verify(accountNumberBlockSource, times(2)).nextBlock();
+    }
+
+    @Test
+    @DisplayName("여러 스레드에서 동시에 발급해도 중복 없음")
+    void nextConcurrently() {
+        //given
+        AtomicLong blocks = new AtomicLong();
+        given(accountNumberBlockSource.nextBlock())
+                .willAnswer(invocation -> blocks.getAndIncrement());
+        AccountNumberGenerator generator =
+                new AccountNumberGenerator(accountNumberBlockSource, 100);
+        Set<String> issued = ConcurrentHashMap.newKeySet();
+
+        //when
+        IntStream.range(0, 10_000).parallel()
+                .forEach(i -> issued.add(generator.next()));
+
+        //then
+        assertEquals(10_000, issued.size());
+    }
+
+    @Test
+    @DisplayName("검증 숫자가 틀린 계좌 번호")
+    void invalidCheckDigit() {
+        //given
+        //when
+        //then
+        assertFalse(AccountNumberGenerator.isValid("1000000009"));
+        assertFalse(AccountNumberGenerator.isValid("10000a0008"));
+        assertFalse(AccountNumberGenerator.isValid(null));
+    }
+}
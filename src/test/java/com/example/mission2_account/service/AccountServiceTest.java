@@ -2,9 +2,9 @@ package com.example.mission2_account.service;
 
 import com.example.mission2_account.domain.Account;
 import com.example.mission2_account.domain.AccountUser;
+import com.example.mission2_account.dto.AccountBalanceEntry;
 import com.example.mission2_account.dto.AccountDto;
 import com.example.mission2_account.exception.AccountException;
-import com.example.mission2_account.repository.AccountNumberRepository;
 import com.example.mission2_account.repository.AccountRepository;
 import com.example.mission2_account.repository.AccountUserRepository;
 import com.example.mission2_account.type.AccountStatus;
@@ -18,6 +18,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
 
@@ -36,7 +37,13 @@ class AccountServiceTest {
     private AccountUserRepository accountUserRepository;
 
     @Mock
-    private AccountNumberRepository accountNumberRepository;
+    private AccountNumberGenerator accountNumberGenerator;
+
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+
+    @Mock
+    private AccountBalanceCache accountBalanceCache;
 
     @InjectMocks
     private AccountService accountService;
@@ -49,33 +56,35 @@ class AccountServiceTest {
         AccountUser yez = AccountUser.builder()
                             .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountNumberRepository.existsAccountNumberByAccountNumber(anyString()))
-                .willReturn(true)   //중복이 생겨도 다시 재생성하기 때문에 성공한다
-                .willReturn(false); //중복 아님
-
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
+        given(accountNumberGenerator.next())
+                .willReturn("1000000008");
         given(accountRepository.save(any()))
                 .willReturn(Account.builder()
                         .accountUser(yez)
-                        .accountNumber("0987654321")
+                        .accountNumber("1000000008")
                         .build());
+        ArgumentCaptor<Account> captor = ArgumentCaptor.forClass(Account.class);
 
         //when
         AccountDto accountDto = accountService.createAccount(1L, 1000L);
 
         //then
-        verify(accountNumberRepository, times(2))
-                .existsAccountNumberByAccountNumber(any());
+        verify(accountRepository, times(1)).save(captor.capture());
+        assertEquals("1000000008", captor.getValue().getAccountNumber());
         assertEquals(92L, accountDto.getUserId());
+        assertEquals("1000000008", accountDto.getAccountNumber());
     }
 
     @Test
     @DisplayName("해당 유저 없음 - 계좌 생성 실패")
     void createAccount_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -92,8 +101,10 @@ class AccountServiceTest {
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
         given(accountRepository.countByAccountUser(any()))
                 .willReturn(10);
 
@@ -112,8 +123,10 @@ class AccountServiceTest {
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(yez)
@@ -136,8 +149,8 @@ class AccountServiceTest {
     @DisplayName("해당 유저 없음 - 계좌 해지 실패")
     void deleteAccount_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -154,8 +167,10 @@ class AccountServiceTest {
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
@@ -177,8 +192,10 @@ class AccountServiceTest {
         AccountUser micky = AccountUser.builder()
                 .name("micky").build();
         micky.setId(13L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(micky)
@@ -200,8 +217,10 @@ class AccountServiceTest {
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(yez)
@@ -223,8 +242,10 @@ class AccountServiceTest {
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountUserRepository.getReferenceById(anyLong()))
+                .willReturn(yez);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(yez)
@@ -244,30 +265,31 @@ class AccountServiceTest {
     @DisplayName("사용자 계좌 찾기 성공")
     void successGetAccountsByUserId() {
         //given
-        AccountUser yez = AccountUser.builder()
-                .name("yez").build();
-        yez.setId(92L);
-        List<Account> accounts = Arrays.asList(
-                Account.builder()
-                        .accountUser(yez)
+        List<AccountBalanceEntry> accounts = Arrays.asList(
+                AccountBalanceEntry.builder()
+                        .accountId(1L)
+                        .version(0L)
+                        .userId(92L)
                         .accountNumber("1111111111")
                         .balance(1000L)
                         .build(),
-                Account.builder()
+                AccountBalanceEntry.builder()
+                        .accountId(2L)
+                        .version(0L)
+                        .userId(92L)
                         .accountNumber("2222222222")
-                        .accountUser(yez)
                         .balance(2000L)
                         .build(),
-                Account.builder()
+                AccountBalanceEntry.builder()
+                        .accountId(3L)
+                        .version(0L)
+                        .userId(92L)
                         .accountNumber("3333333333")
-                        .accountUser(yez)
                         .balance(3000L)
                         .build()
         );
 
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountRepository.findByAccountUser(any()))
+        given(accountRepository.findBalanceEntriesByAccountUserId(anyLong()))
                 .willReturn(accounts);
 
         //when
@@ -281,19 +303,61 @@ class AccountServiceTest {
         assertEquals(2000, accountDtos.get(1).getBalance());
         assertEquals("3333333333", accountDtos.get(2).getAccountNumber());
         assertEquals(3000, accountDtos.get(2).getBalance());
+        verify(accountUserRepository, times(0)).existsById(anyLong());
+        verify(accountBalanceCache, times(1)).load(1L, accounts);
+    }
+
+    @Test
+    @DisplayName("사용자 계좌 찾기 - 잔액 캐시에 있으면 DB 조회 없음")
+    void getAccountsByUserId_CacheHit() {
+        //given
+        given(accountBalanceCache.get(anyLong()))
+                .willReturn(Optional.of(Collections.singletonList(
+                        AccountDto.builder()
+                                .userId(92L)
+                                .accountNumber("1111111111")
+                                .balance(1000L)
+                                .build())));
+
+        //when
+        List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+
+        //then
+        assertEquals(1, accountDtos.size());
+        assertEquals(1000, accountDtos.get(0).getBalance());
+        verify(accountRepository, times(0)).findBalanceEntriesByAccountUserId(anyLong());
+    }
+
+    @Test
+    @DisplayName("계좌 없는 사용자 - 빈 목록")
+    void getAccountsByUserId_NoAccount() {
+        //given
+        given(accountRepository.findBalanceEntriesByAccountUserId(anyLong()))
+                .willReturn(Collections.emptyList());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+
+        //when
+        List<AccountDto> accountDtos = accountService.getAccountsByUserId(1L);
+
+        //then
+        assertTrue(accountDtos.isEmpty());
     }
 
     @Test
     @DisplayName("사용자 없음 - 계좌 찾기 실패")
     void failedToGetAccounts() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountRepository.findBalanceEntriesByAccountUserId(anyLong()))
+                .willReturn(Collections.emptyList());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
         //when
         AccountException exception = assertThrows(AccountException.class,
                 () -> accountService.getAccountsByUserId(1L));
 
         //then
         assertEquals(ErrorCode.USER_NOT_FOUND, exception.getErrorCode());
+        verify(accountBalanceCache, times(0)).load(anyLong(), any());
     }
 }
@@ -0,0 +1,184 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.FailedTransaction;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.mission2_account.type.TransactionType.CANCEL;
+import static com.example.mission2_account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FailedTransactionRecorderTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+
+    @TempDir
+    Path tempDir;
+
+    private Path spillFile;
+    private FailedTransactionRecorder recorder;
+
+    @BeforeEach
+    void setUp() {
+        spillFile = tempDir.resolve("failed-transactions.spill");
+        recorder = new FailedTransactionRecorder(
+                transactionService, accountNumberIndex,
+                new ObjectMapper().findAndRegisterModules(),
+                100, 10, 20L, 20L, 3, spillFile.toString(), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        recorder.shutdown();
+    }
+
+    @Test
+    @DisplayName("실패 거래 지연 저장 - 종료할 때 남은 거래까지 모두 저장")
+    void recordAndFlushOnShutdown() throws InterruptedException {
+        //given
+        recorder.start();
+
+        //when
+        for (int i = 0; i < 25; i++) {
+            recorder.record(USE, "1000000012", (long) i);
+        }
+        recorder.shutdown();
+
+        //then
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, atLeastOnce()).saveFailedTransactions(captor.capture());
+        List<Long> amounts = captor.getAllValues().stream()
+                .flatMap(List::stream)
+                .map(FailedTransaction::getAmount)
+                .collect(Collectors.toList());
+        assertEquals(25, amounts.size());
+        assertTrue(captor.getAllValues().stream().allMatch(batch -> batch.size() <= 10));
+    }
+
+    @Test
+    @DisplayName("실패 거래 지연 저장 - 시작 전 기록은 spill 파일에 남기고 시작할 때 저장")
+    void spillAndReplay() throws IOException {
+        //given
+        recorder.record(CANCEL, "1000000012", 1000L);
+        assertEquals(1, Files.readAllLines(spillFile).size());
+
+        //when
+        recorder.start();
+
+        //then
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, timeout(2000)).saveFailedTransactions(captor.capture());
+        FailedTransaction replayed = captor.getValue().get(0);
+        assertEquals(CANCEL, replayed.getTransactionType());
+        assertEquals("1000000012", replayed.getAccountNumber());
+        assertEquals(1000L, replayed.getAmount());
+        assertNotNull(replayed.getTransactionId());
+        assertNotNull(replayed.getTransactedAt());
+    }
+
+    @Test
+    @DisplayName("실패 거래 지연 저장 - 깨진 spill 줄은 dead letter 파일로 옮기고 나머지는 저장")
+    void replayCorruptSpillLine() throws IOException {
+        //given
+        recorder.record(CANCEL, "1000000012", 1000L);
+        Files.writeString(spillFile, "{\"transactionType\":\n",
+                StandardOpenOption.APPEND);
+        recorder.record(USE, "1000000020", 2000L);
+        Path deadLetterFile = tempDir.resolve("failed-transactions.spill.dead");
+
+        //when
+        recorder.start();
+
+        //then
+        ArgumentCaptor<List<FailedTransaction>> captor = ArgumentCaptor.forClass(List.class);
+        verify(transactionService, timeout(2000)).saveFailedTransactions(captor.capture());
+        assertEquals(List.of(1000L, 2000L), captor.getValue().stream()
+                .map(FailedTransaction::getAmount)
+                .collect(Collectors.toList()));
+        assertEquals(List.of("{\"transactionType\":"), Files.readAllLines(deadLetterFile));
+
+        //작업 스레드는 계속 동작
+        recorder.record(USE, "1000000012", 3000L);
+        verify(transactionService, timeout(2000).times(2)).saveFailedTransactions(anyList());
+    }
+
+    @Test
+    @DisplayName("실패 거래 지연 저장 - 저장에 실패하면 spill 파일에 남겼다가 다시 저장")
+    void saveFailedAndRetry() {
+        //given
+        willThrow(new RuntimeException("db down"))
+                .willDoNothing()
+                .given(transactionService).saveFailedTransactions(anyList());
+        recorder.start();
+
+        //when
+        recorder.record(USE, "1000000012", 1000L);
+
+        //then
+        verify(transactionService, timeout(2000).times(2)).saveFailedTransactions(anyList());
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    @DisplayName("실패 거래 지연 저장 - 재시도 횟수를 넘기면 dead letter 파일에 기록하고 더 이상 저장하지 않음")
+    void saveFailedUntilDeadLetter() throws IOException {
+        //given
+        willThrow(new RuntimeException("constraint violation"))
+                .given(transactionService).saveFailedTransactions(anyList());
+        Path deadLetterFile = tempDir.resolve("failed-transactions.spill.dead");
+        recorder.start();
+
+        //when
+        recorder.record(USE, "1000000012", 1000L);
+
+        //then
+        verify(transactionService, timeout(2000).times(3)).saveFailedTransactions(anyList());
+        verify(transactionService, after(200).times(3)).saveFailedTransactions(anyList());
+        List<String> deadLetters = Files.readAllLines(deadLetterFile);
+        assertEquals(1, deadLetters.size());
+        assertTrue(deadLetters.get(0).contains("\"attempts\":3"));
+        assertFalse(Files.exists(spillFile));
+    }
+
+    @Test
+    @DisplayName("실패 거래 지연 저장 - 발급된 적 없는 계좌 번호는 기록하지 않음")
+    void recordNotIssuedAccountNumber() throws InterruptedException {
+        //given
+        given(accountNumberIndex.isDefinitelyAbsent(anyString()))
+                .willReturn(true);
+        recorder.start();
+
+        //when
+        recorder.record(USE, "1234567890", 1000L);
+        recorder.shutdown();
+
+        //then
+        verify(transactionService, never()).saveFailedTransactions(anyList());
+        assertFalse(Files.exists(spillFile));
+    }
+}
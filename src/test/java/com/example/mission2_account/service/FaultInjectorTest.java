@@ -0,0 +1,110 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.FaultSpec;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.FaultPoint;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.mission2_account.type.ErrorCode.INTERNAL_SERVER_ERROR;
+import static org.junit.jupiter.api.Assertions.*;
+
+class FaultInjectorTest {
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final RequestTracer requestTracer =
+            new RequestTracer(new RequestTraceBuffer(16), null, false);
+
+    @Test
+    @DisplayName("설정에서 지점별 지연/오류 읽기")
+    void bindFromEnvironment() {
+        //given
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("account.fault.points.load.latency", "3000")
+                .withProperty("account.fault.points.lock.error-rate", "0.5")
+                .withProperty("account.fault.points.lock.error-code", "ACCOUNT_TRANSACTION_LOCK");
+
+        //when
+        FaultInjector faultInjector = new FaultInjector(environment, requestTracer, meterRegistry);
+
+        //then
+        assertEquals(3000L, faultInjector.getFaults().get(FaultPoint.LOAD).getLatency());
+        assertEquals(0.5, faultInjector.getFaults().get(FaultPoint.LOCK).getErrorRate());
+        assertEquals(ACCOUNT_TRANSACTION_LOCK,
+                faultInjector.getFaults().get(FaultPoint.LOCK).getErrorCode());
+        assertNull(faultInjector.getFaults().get(FaultPoint.SAVE));
+    }
+
+    @Test
+    @DisplayName("설정한 지연만큼 대기")
+    void injectLatency() {
+        //given
+        FaultInjector faultInjector =
+                new FaultInjector(new MockEnvironment(), requestTracer, meterRegistry);
+        faultInjector.setFault(FaultPoint.SAVE, FaultSpec.builder().latency(50L).build());
+
+        //when
+        long started = System.nanoTime();
+        faultInjector.inject(FaultPoint.SAVE);
+        faultInjector.inject(FaultPoint.LOAD);
+        long elapsedMillis = (System.nanoTime() - started) / 1_000_000;
+
+        //then
+        assertTrue(elapsedMillis >= 50);
+        assertEquals(1, meterRegistry.get("account.fault.injected")
+                .tag("point", "SAVE").tag("type", "delay").counter().count());
+        assertEquals(0, meterRegistry.get("account.fault.injected")
+                .tag("point", "LOAD").tag("type", "delay").counter().count());
+    }
+
+    @Test
+    @DisplayName("오류 확률이 1이면 항상 오류, 오류 코드가 없으면 INTERNAL_SERVER_ERROR")
+    void injectError() {
+        //given
+        FaultInjector faultInjector =
+                new FaultInjector(new MockEnvironment(), requestTracer, meterRegistry);
+        faultInjector.setFault(FaultPoint.LOCK, FaultSpec.builder()
+                .errorRate(1.0).errorCode(ACCOUNT_TRANSACTION_LOCK).build());
+        faultInjector.setFault(FaultPoint.LOAD, FaultSpec.builder().errorRate(1.0).build());
+
+        //when
+        AccountException lockException = assertThrows(AccountException.class,
+                () -> faultInjector.inject(FaultPoint.LOCK));
+        AccountException loadException = assertThrows(AccountException.class,
+                () -> faultInjector.inject(FaultPoint.LOAD));
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, lockException.getErrorCode());
+        assertEquals(INTERNAL_SERVER_ERROR, loadException.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("해제하면 더 이상 주입하지 않음")
+    void clearFault() {
+        //given
+        FaultInjector faultInjector =
+                new FaultInjector(new MockEnvironment(), requestTracer, meterRegistry);
+        faultInjector.setFault(FaultPoint.LOCK, FaultSpec.builder().errorRate(1.0).build());
+
+        //when
+        faultInjector.clearFault(FaultPoint.LOCK);
+
+        //then
+        assertDoesNotThrow(() -> faultInjector.inject(FaultPoint.LOCK));
+        assertTrue(faultInjector.getFaults().isEmpty());
+    }
+
+    @Test
+    @DisplayName("repository 메서드 이름으로 조회/저장 지점 구분")
+    void pointOfRepositoryMethod() {
+        assertEquals(FaultPoint.SAVE, FaultInjectionAspect.pointOf("save"));
+        assertEquals(FaultPoint.SAVE, FaultInjectionAspect.pointOf("saveAllInBatches"));
+        assertEquals(FaultPoint.SAVE, FaultInjectionAspect.pointOf("updateBalanceIfEnough"));
+        assertEquals(FaultPoint.LOAD, FaultInjectionAspect.pointOf("findByAccountNumber"));
+        assertEquals(FaultPoint.LOAD, FaultInjectionAspect.pointOf("existsById"));
+    }
+}
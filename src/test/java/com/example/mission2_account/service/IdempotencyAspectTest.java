@@ -0,0 +1,321 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.aop.Idempotent;
+import com.example.mission2_account.dto.IdempotencyRecord;
+import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.IdempotencyStatus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBucket;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.mission2_account.type.ErrorCode.*;
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyAspectTest {
+    private static final UseBalance.Request REQUEST =
+            new UseBalance.Request(1L, "1000000012", 1000L);
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<String> bucket;
+
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IdempotencyAspect idempotencyAspect;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyAspect = new IdempotencyAspect(redissonClient, objectMapper, meterRegistry,
+                86400000, 30000, 0);
+        lenient().when(proceedingJoinPoint.getArgs())
+                .thenReturn(new Object[]{REQUEST});
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    @DisplayName("Idempotency-Key 없음 - 저장소 사용 없이 실행")
+    void noKey() throws Throwable {
+        //given
+        givenIdempotencyKey(null);
+        given(proceedingJoinPoint.proceed())
+                .willReturn(response());
+
+        //when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent());
+
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verifyNoInteractions(redissonClient);
+    }
+
+    @Test
+    @DisplayName("처음 요청 - 실행하고 응답 저장")
+    void firstRequestStoresResponse() throws Throwable {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(true);
+        given(proceedingJoinPoint.proceed())
+                .willReturn(response());
+        ArgumentCaptor<String> captor = ArgumentCaptor.forClass(String.class);
+
+        //when
+        idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent());
+
+        //then
+        verify(redissonClient).getBucket(eq("IDEM: use:key-1"), any(Codec.class));
+        verify(bucket).set(captor.capture(), eq(86400000L), eq(TimeUnit.MILLISECONDS));
+        IdempotencyRecord stored = objectMapper.readValue(captor.getValue(),
+                IdempotencyRecord.class);
+        assertEquals(IdempotencyStatus.COMPLETED, stored.getStatus());
+        assertEquals("transactionId", objectMapper.readValue(stored.getResponse(),
+                UseBalance.Response.class).getTransactionId());
+        assertEquals(1, requests("executed"));
+    }
+
+    @Test
+    @DisplayName("같은 키로 재시도 - 실행 없이 처음 응답")
+    void duplicateReplaysResponse() throws Throwable {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        givenStored(IdempotencyRecord.builder()
+                .status(IdempotencyStatus.COMPLETED)
+                .fingerprint(fingerprint(REQUEST))
+                .response(objectMapper.writeValueAsString(response()))
+                .build());
+        MethodSignature signature = mock(MethodSignature.class);
+        given(proceedingJoinPoint.getSignature())
+                .willReturn(signature);
+        given(signature.getReturnType())
+                .willReturn(UseBalance.Response.class);
+
+        //when
+        Object replayed = idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent());
+
+        //then
+        verify(proceedingJoinPoint, times(0)).proceed();
+        assertEquals("transactionId", ((UseBalance.Response) replayed).getTransactionId());
+        assertEquals(1, requests("replayed"));
+    }
+
+    @Test
+    @DisplayName("같은 키로 재시도 - 처음 요청의 오류를 그대로 돌려줌")
+    void duplicateReplaysError() throws Throwable {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        givenStored(IdempotencyRecord.builder()
+                .status(IdempotencyStatus.FAILED)
+                .fingerprint(fingerprint(REQUEST))
+                .errorCode(AMOUNT_EXCEED_BALANCE)
+                .build());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent()));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(0)).proceed();
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 요청 - 거절")
+    void reusedKeyRejected() throws Throwable {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        givenStored(IdempotencyRecord.builder()
+                .status(IdempotencyStatus.COMPLETED)
+                .fingerprint(fingerprint(new UseBalance.Request(1L, "1000000012", 2000L)))
+                .response(objectMapper.writeValueAsString(response()))
+                .build());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent()));
+
+        //then
+        assertEquals(IDEMPOTENCY_KEY_REUSED, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("처음 요청이 아직 처리 중 - 기다려도 끝나지 않으면 거절")
+    void inProgressRejected() throws Throwable {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        givenStored(IdempotencyRecord.builder()
+                .status(IdempotencyStatus.IN_FLIGHT)
+                .fingerprint(fingerprint(REQUEST))
+                .build());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent()));
+
+        //then
+        assertEquals(IDEMPOTENT_REQUEST_IN_PROGRESS, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(0)).proceed();
+    }
+
+    @Test
+    @DisplayName("잠금 경합 오류 - 저장하지 않고 처리 중 표시 제거 (재시도 가능)")
+    void retryableErrorNotStored() throws Throwable {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(true);
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK));
+
+        //when
+        assertThrows(AccountException.class,
+                () -> idempotencyAspect.aroundMethod(proceedingJoinPoint, getIdempotent()));
+
+        //then
+        verify(bucket).delete();
+        verify(bucket, times(0)).set(anyString(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Spring proxy 를 거친 호출 - advice 인자 바인딩 후 저장된 응답")
+    void duplicateReplaysResponseThroughProxy() throws Exception {
+        //given
+        givenIdempotencyKey("key-1");
+        givenBucket();
+        givenStored(IdempotencyRecord.builder()
+                .status(IdempotencyStatus.COMPLETED)
+                .fingerprint(fingerprint(REQUEST))
+                .response(objectMapper.writeValueAsString(response()))
+                .build());
+
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext()) {
+            context.register(ProxyConfig.class);
+            context.registerBean(IdempotencyAspect.class, () -> idempotencyAspect);
+            context.registerBean(IdempotentTarget.class);
+            context.refresh();
+            IdempotentTarget target = context.getBean(IdempotentTarget.class);
+
+            //when
+            UseBalance.Response replayed = target.use(REQUEST);
+
+            //then
+            assertTrue(AopUtils.isAopProxy(target));
+            assertEquals(0, target.executed);
+            assertEquals("transactionId", replayed.getTransactionId());
+            assertEquals(1, requests("replayed"));
+        }
+    }
+
+    @Configuration
+    @EnableAspectJAutoProxy(proxyTargetClass = true)
+    static class ProxyConfig {
+    }
+
+    static class IdempotentTarget {
+        private int executed;
+
+        @Idempotent(operation = "use")
+        public UseBalance.Response use(UseBalance.Request request) {
+            executed++;
+            return response();
+        }
+    }
+
+    private void givenIdempotencyKey(String idempotencyKey) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (idempotencyKey != null) {
+            request.addHeader(IdempotencyAspect.IDEMPOTENCY_KEY_HEADER, idempotencyKey);
+        }
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private void givenBucket() {
+        given(redissonClient.<String>getBucket(anyString(), any(Codec.class)))
+                .willReturn(bucket);
+    }
+
+    private void givenStored(IdempotencyRecord record) throws Exception {
+        given(bucket.trySet(anyString(), anyLong(), any()))
+                .willReturn(false);
+        given(bucket.get())
+                .willReturn(objectMapper.writeValueAsString(record));
+    }
+
+    private String fingerprint(UseBalance.Request request) throws Exception {
+        return DigestUtils.md5DigestAsHex(
+                objectMapper.writeValueAsBytes(new Object[]{request}));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("account.idempotency.requests")
+                .tag("result", result)
+                .counter()
+                .count();
+    }
+
+    private static UseBalance.Response response() {
+        return UseBalance.Response.builder()
+                .accountNumber("1000000012")
+                .transactionResult(SUCCESS)
+                .transactionId("transactionId")
+                .amount(1000L)
+                .transactedAt(LocalDateTime.of(2022, 9, 1, 12, 0))
+                .build();
+    }
+
+    @Idempotent(operation = "use")
+    private void useMethod() {
+    }
+
+    private Idempotent getIdempotent() throws NoSuchMethodException {
+        return IdempotencyAspectTest.class.getDeclaredMethod("useMethod")
+                .getAnnotation(Idempotent.class);
+    }
+}
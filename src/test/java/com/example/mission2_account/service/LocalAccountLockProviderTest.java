@@ -0,0 +1,115 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalAccountLockProviderTest {
+    private final LocalAccountLockProvider lockProvider =
+            new LocalAccountLockProvider(1024);
+
+    @Test
+    @DisplayName("로컬 계좌 잠금 해제 성공")
+    void lockAndUnlock() {
+        //given
+        lockProvider.lock("1234567890");
+        lockProvider.unlock("1234567890");
+
+        //when
+        //then
+        assertDoesNotThrow(() -> CompletableFuture.runAsync(() -> {
+            lockProvider.lock("1234567890");
+            lockProvider.unlock("1234567890");
+        }).join());
+    }
+
+    @Test
+    @DisplayName("다른 스레드가 사용 중인 계좌 - 로컬 잠금 실패")
+    void failGetLock_lockedByOtherThread() {
+        //given
+        lockProvider.lock("1234567890");
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () -> {
+            try {
+                CompletableFuture.runAsync(() -> lockProvider.lock("1234567890")).join();
+            } catch (Exception e) {
+                throw e.getCause();
+            }
+        });
+        lockProvider.unlock("1234567890");
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("여러 계좌 잠금 순서 - stripe 순서, 같은 stripe 는 한 번만")
+    void lockOrderByStripe() {
+        //given
+        LocalAccountLockProvider twoStripes = new LocalAccountLockProvider(2);
+        String first = accountNumberInStripe(twoStripes, 0, "2000000000");
+        String second = accountNumberInStripe(twoStripes, 1, "1000000000");
+        String sameStripe = accountNumberInStripe(twoStripes, 1, "1500000000");
+
+        //when
+        List<String> lockOrder = twoStripes.lockOrder(
+                Arrays.asList(second, sameStripe, first, second));
+
+        //then
+        //계좌 번호 순서(second < first)와 달라도 stripe 순서로 잠금
+        assertEquals(Arrays.asList(first, second), lockOrder);
+    }
+
+    @Test
+    @DisplayName("계좌 번호 순서와 stripe 순서가 엇갈린 두 이체 - stripe 순서로 잠가서 교착 상태 없음")
+    void lockOrderWithoutDeadlock() {
+        //given
+        LocalAccountLockProvider twoStripes = new LocalAccountLockProvider(2);
+        //계좌 번호 순서로 잠그면 한쪽은 stripe 0 -> 1, 다른 쪽은 stripe 1 -> 0
+        List<String> first = Arrays.asList(
+                accountNumberInStripe(twoStripes, 0, "1000000000"),
+                accountNumberInStripe(twoStripes, 1, "2000000000"));
+        List<String> second = Arrays.asList(
+                accountNumberInStripe(twoStripes, 1, "3000000000"),
+                accountNumberInStripe(twoStripes, 0, "4000000000"));
+
+        //when
+        CompletableFuture<Void> firstTransfer = CompletableFuture.runAsync(
+                () -> lockAndUnlockAll(twoStripes, first));
+        CompletableFuture<Void> secondTransfer = CompletableFuture.runAsync(
+                () -> lockAndUnlockAll(twoStripes, second));
+
+        //then
+        assertDoesNotThrow(() -> CompletableFuture.allOf(firstTransfer, secondTransfer).join());
+    }
+
+    private static void lockAndUnlockAll(LocalAccountLockProvider provider,
+                                         List<String> accountNumbers) {
+        for (int i = 0; i < 1000; i++) {
+            List<String> lockOrder = provider.lockOrder(accountNumbers);
+            for (String accountNumber : lockOrder) {
+                provider.lock(accountNumber, 5000L, AccountLockProvider.WATCHDOG_LEASE_TIME);
+            }
+            for (int j = lockOrder.size() - 1; j >= 0; j--) {
+                provider.unlock(lockOrder.get(j));
+            }
+        }
+    }
+
+    private static String accountNumberInStripe(LocalAccountLockProvider provider,
+                                                int stripe, String from) {
+        long accountNumber = Long.parseLong(from);
+        while (provider.stripeIndex(String.valueOf(accountNumber)) != stripe) {
+            accountNumber++;
+        }
+        return String.valueOf(accountNumber);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.mission2_account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalAccountNumberIndexTest {
+    private final LocalAccountNumberIndex accountNumberIndex =
+            new LocalAccountNumberIndex(10_000, 0.001, new SimpleMeterRegistry());
+
+    @Test
+    @DisplayName("색인을 만들기 전 - 모든 계좌 번호를 있는 것으로 취급")
+    void notBuiltYet() {
+        //given
+        //when
+        //then
+        assertFalse(accountNumberIndex.isDefinitelyAbsent("1234567890"));
+    }
+
+    @Test
+    @DisplayName("색인 생성 후 - 없는 계좌 번호 거절")
+    void rebuildAndCheck() {
+        //given
+        List<String> issued = IntStream.range(0, 5_000)
+                .mapToObj(i -> String.valueOf(1_000_000_000L + i))
+                .collect(Collectors.toList());
+
+        //when
+        accountNumberIndex.rebuild(issued.iterator());
+
+        //then
+        issued.forEach(accountNumber ->
+                assertFalse(accountNumberIndex.isDefinitelyAbsent(accountNumber)));
+        long falsePositives = IntStream.range(0, 10_000)
+                .mapToObj(i -> String.valueOf(2_000_000_000L + i))
+                .filter(accountNumber -> !accountNumberIndex.isDefinitelyAbsent(accountNumber))
+                .count();
+        assertTrue(falsePositives < 100);
+    }
+
+    @Test
+    @DisplayName("색인을 만드는 중에 발급된 계좌 번호도 포함")
+    void addBeforeRebuild() {
+        //given
+        accountNumberIndex.add("1000000008");
+
+        //when
+        accountNumberIndex.rebuild(Collections.emptyIterator());
+        accountNumberIndex.add("1000000016");
+
+        //then
+        assertFalse(accountNumberIndex.isDefinitelyAbsent("1000000008"));
+        assertFalse(accountNumberIndex.isDefinitelyAbsent("1000000016"));
+        assertTrue(accountNumberIndex.isDefinitelyAbsent("1000000024"));
+    }
+}
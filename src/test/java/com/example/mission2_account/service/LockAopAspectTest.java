@@ -1,19 +1,43 @@
 package com.example.mission2_account.service;
 
+import com.example.mission2_account.aop.AccountLock;
+import com.example.mission2_account.dto.Transfer;
 import com.example.mission2_account.dto.UseBalance;
 import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.AccountLockStrategy;
+import com.example.mission2_account.type.LockLeaseMode;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.Signature;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import static com.example.mission2_account.type.ErrorCode.ACCOUNT_NOT_FOUND;
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_QUEUE_FULL;
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
@@ -22,12 +46,36 @@ class LockAopAspectTest {
     @Mock
     private LockService lockService;
 
+    @Mock
+    private AccountCommandExecutor accountCommandExecutor;
+
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+
     @Mock
     private ProceedingJoinPoint proceedingJoinPoint;
 
+    @Mock
+    private Signature signature;
+
+    @Spy
+    private MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Spy
+    private RequestTracer requestTracer = new RequestTracer(new RequestTraceBuffer(16), null, false);
+
     @InjectMocks
     private LockAopAspect lockAopAspect;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(proceedingJoinPoint.getSignature()).thenReturn(signature);
+        lenient().when(signature.toShortString())
+                .thenReturn("TransactionController.useBalance(..)");
+        lenient().when(lockService.lockOrder(anyCollection()))
+                .thenCallRealMethod();
+    }
+
     @Test
     @DisplayName("계좌 잠금 해제 성공")
     void lockAndUnlock() throws Throwable {
@@ -37,10 +85,11 @@ class LockAopAspectTest {
         UseBalance.Request request = new UseBalance.Request(1234L, "1234", 1000L);
 
         //when
-        lockAopAspect.aroundMethod(proceedingJoinPoint, request);
+        lockAopAspect.aroundMethod(proceedingJoinPoint,
+                getAccountLock("fixedLeaseMethod"), request);
 
         //then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
+        verify(lockService, times(1)).lock(lockCaptor.capture(), eq(2000L), eq(7000L));
         verify(lockService, times(1)).unlock(unLockCaptor.capture());
         assertEquals("1234", lockCaptor.getValue());
         assertEquals("1234", unLockCaptor.getValue());
@@ -59,12 +108,178 @@ class LockAopAspectTest {
 
         //when
         assertThrows(AccountException.class, () ->
-                lockAopAspect.aroundMethod(proceedingJoinPoint, request));
+                lockAopAspect.aroundMethod(proceedingJoinPoint,
+                        getAccountLock("fixedLeaseMethod"), request));
 
         //then
-        verify(lockService, times(1)).lock(lockCaptor.capture());
+        verify(lockService, times(1)).lock(lockCaptor.capture(), eq(2000L), eq(7000L));
         verify(lockService, times(1)).unlock(unLockCaptor.capture());
         assertEquals("54321", lockCaptor.getValue());
         assertEquals("54321", unLockCaptor.getValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("WATCHDOG 모드 - 잠금 자동 연장으로 요청")
+    void lock_watchdogLease() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1234L, "1234", 1000L);
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint,
+                getAccountLock("watchdogLeaseMethod"), request);
+
+        //then
+        verify(lockService, times(1)).lock("1234", 5000L,
+                AccountLockProvider.WATCHDOG_LEASE_TIME);
+        assertEquals(1, meterRegistry.get("account.lock.hold")
+                .tag("endpoint", "TransactionController.useBalance(..)")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("잠금 획득 실패 - 대기 시간 기록 후 실행하지 않음")
+    void lockFailed_notProceed() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1234L, "1234", 1000L);
+        willThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .given(lockService).lock(anyString(), anyLong(), anyLong());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint,
+                        getAccountLock("fixedLeaseMethod"), request));
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(proceedingJoinPoint, times(0)).proceed();
+        verify(lockService, times(0)).unlock(anyString());
+        assertEquals(1, meterRegistry.get("account.lock.wait")
+                .tag("result", "failed")
+                .timer().count());
+    }
+
+    @Test
+    @DisplayName("ATOMIC 모드 - 잠금 없이 실행")
+    void skipLock_atomicMode() throws Throwable {
+        //given
+        ReflectionTestUtils.setField(lockAopAspect, "transactionMode",
+                TransactionExecutionMode.ATOMIC);
+        UseBalance.Request request = new UseBalance.Request(1234L, "1234", 1000L);
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint,
+                getAccountLock("atomicOptionalMethod"), request);
+
+        //then
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, times(0)).lock(anyString(), anyLong(), anyLong());
+        verify(lockService, times(0)).unlock(anyString());
+    }
+
+    @Test
+    @DisplayName("QUEUE 방식 - 계좌별 작업 큐에서 잠금 후 실행")
+    void lockInCommandQueue() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1234L, "1234", 1000L);
+        RequestTracer.Span queueWait = mock(RequestTracer.Span.class);
+        doReturn(queueWait).when(requestTracer).span("lock.queue");
+        given(accountCommandExecutor.execute(anyString(), anyString(), any()))
+                .willAnswer(invocation -> invocation
+                        .<AccountCommandExecutor.AccountCommand<?>>getArgument(2).run());
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint,
+                getAccountLock("queueMethod"), request);
+
+        //then
+        verify(accountCommandExecutor, times(1)).execute(
+                eq("1234"), eq("TransactionController.useBalance(..)"), any());
+        verify(lockService, times(1)).lock("1234", 1000L, 15000L);
+        verify(proceedingJoinPoint, times(1)).proceed();
+        verify(lockService, times(1)).unlock("1234");
+        verify(queueWait, times(1)).close();
+    }
+
+    @Test
+    @DisplayName("QUEUE 방식 - 대기열이 가득 차서 거절되면 대기 구간을 한 번만 닫음")
+    void lockInCommandQueue_rejected() throws Throwable {
+        //given
+        UseBalance.Request request = new UseBalance.Request(1234L, "1234", 1000L);
+        RequestTracer.Span queueWait = mock(RequestTracer.Span.class);
+        doReturn(queueWait).when(requestTracer).span("lock.queue");
+        given(accountCommandExecutor.execute(anyString(), anyString(), any()))
+                .willThrow(new AccountException(ACCOUNT_TRANSACTION_QUEUE_FULL));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> lockAopAspect.aroundMethod(proceedingJoinPoint,
+                        getAccountLock("queueMethod"), request));
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_QUEUE_FULL, exception.getErrorCode());
+        verify(queueWait, times(1)).close();
+        verify(proceedingJoinPoint, times(0)).proceed();
+    }
+
+    @Test
+    @DisplayName("여러 계좌 - 계좌 번호 순서로 잠그고 반대 순서로 해제")
+    void lockMultipleAccountsInOrder() throws Throwable {
+        //given
+        Transfer.Request request = new Transfer.Request(
+                1234L, "2000000000", "1000000000", 1000L);
+
+        //when
+        lockAopAspect.aroundMethod(proceedingJoinPoint,
+                getAccountLock("fixedLeaseMethod"), request);
+
+        //then
+        InOrder inOrder = inOrder(lockService, proceedingJoinPoint);
+        inOrder.verify(lockService).lock("1000000000", 2000L, 7000L);
+        inOrder.verify(lockService).lock("2000000000", 2000L, 7000L);
+        inOrder.verify(proceedingJoinPoint).proceed();
+        inOrder.verify(lockService).unlock("2000000000");
+        inOrder.verify(lockService).unlock("1000000000");
+    }
+
+    @Test
+    @DisplayName("여러 계좌 - 두 번째 잠금 실패 시 먼저 얻은 잠금 해제")
+    void lockMultipleAccounts_releaseAcquiredOnFailure() throws Throwable {
+        //given
+        Transfer.Request request = new Transfer.Request(
+                1234L, "1000000000", "2000000000", 1000L);
+        lenient().doThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .when(lockService).lock(eq("2000000000"), anyLong(), anyLong());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class, () ->
+                lockAopAspect.aroundMethod(proceedingJoinPoint,
+                        getAccountLock("fixedLeaseMethod"), request));
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
+        verify(lockService, times(1)).unlock("1000000000");
+        verify(lockService, times(0)).unlock("2000000000");
+        verify(proceedingJoinPoint, times(0)).proceed();
+    }
+
+    @AccountLock(tryLockTime = 2000L, leaseTime = 7000L)
+    private void fixedLeaseMethod() {
+    }
+
+    @AccountLock(leaseMode = LockLeaseMode.WATCHDOG)
+    private void watchdogLeaseMethod() {
+    }
+
+    @AccountLock(optionalInAtomicMode = true)
+    private void atomicOptionalMethod() {
+    }
+
+    @AccountLock(tryLockTime = 1000L, strategy = AccountLockStrategy.QUEUE)
+    private void queueMethod() {
+    }
+
+    private AccountLock getAccountLock(String methodName) throws NoSuchMethodException {
+        return LockAopAspectTest.class.getDeclaredMethod(methodName)
+                .getAnnotation(AccountLock.class);
+    }
+}
@@ -9,11 +9,16 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
 
 import static com.example.mission2_account.type.ErrorCode.*;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
 
 @ExtendWith(MockitoExtension.class)
 class LockServiceTest {
@@ -56,4 +61,42 @@ class LockServiceTest {
         //then
         assertEquals(ACCOUNT_TRANSACTION_LOCK, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("계좌 잠금 비동기 - lockId 를 소유자로 잠금, 해제")
+    void successGetLockAsync() {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(true));
+        given(rLock.unlockAsync(anyLong()))
+                .willReturn(new CompletableFutureWrapper<>((Void) null));
+
+        //when
+        lockService.lockAsync("123", -7L, 1000L, -1L).join();
+        lockService.unlockAsync("123", -7L).join();
+
+        //then
+        verify(rLock).tryLockAsync(1000L, -1L, TimeUnit.MILLISECONDS, -7L);
+        verify(rLock).unlockAsync(-7L);
+    }
+
+    @Test
+    @DisplayName("계좌 잠금 비동기 실패")
+    void failGetLockAsync() {
+        //given
+        given(redissonClient.getLock(anyString()))
+                .willReturn(rLock);
+        given(rLock.tryLockAsync(anyLong(), anyLong(), any(), anyLong()))
+                .willReturn(new CompletableFutureWrapper<>(false));
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> lockService.lockAsync("123", -7L, 1000L, -1L).join());
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+    }
+}
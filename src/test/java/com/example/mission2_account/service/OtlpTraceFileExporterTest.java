@@ -0,0 +1,87 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.RequestTrace;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OtlpTraceFileExporterTest {
+    private static final RequestTrace TRACE = new RequestTrace(
+            "0123456789abcdef0123456789abcdef", "POST", "/transaction/use",
+            1_000_000_000L, 5_000_000L, Arrays.asList(
+            new RequestTrace.Phase("service.useBalance", -1, 1_000_000L, 3_000_000L),
+            new RequestTrace.Phase("db.commit", 0, 3_000_000L, 500_000L)));
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("요청은 root span, 구간은 하위 span 으로 OTLP/JSON 한 줄씩 기록")
+    void exportToFile() throws Exception {
+        //given
+        Path file = tempDir.resolve("traces.otlp.jsonl");
+        OtlpTraceFileExporter exporter = new OtlpTraceFileExporter(objectMapper, true,
+                file.toString(), 10, new SimpleMeterRegistry());
+        exporter.start();
+
+        //when
+        exporter.export(TRACE);
+        exporter.export(TRACE);
+        exporter.shutdown();
+
+        //then
+        List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+        assertEquals(2, lines.size());
+
+        JsonNode resourceSpans = objectMapper.readTree(lines.get(0)).get("resourceSpans").get(0);
+        assertEquals("mission2-account", resourceSpans.at("/resource/attributes/0/value/stringValue")
+                .asText());
+        JsonNode spans = resourceSpans.at("/scopeSpans/0/spans");
+        assertEquals(3, spans.size());
+
+        JsonNode root = spans.get(0);
+        assertEquals("POST /transaction/use", root.get("name").asText());
+        assertEquals(TRACE.getTraceId(), root.get("traceId").asText());
+        assertNull(root.get("parentSpanId"));
+        assertEquals("1000000000", root.get("startTimeUnixNano").asText());
+        assertEquals("1005000000", root.get("endTimeUnixNano").asText());
+
+        JsonNode service = spans.get(1);
+        JsonNode commit = spans.get(2);
+        assertEquals(root.get("spanId").asText(), service.get("parentSpanId").asText());
+        assertEquals(service.get("spanId").asText(), commit.get("parentSpanId").asText());
+        assertEquals(16, commit.get("spanId").asText().length());
+        assertEquals("1003000000", commit.get("startTimeUnixNano").asText());
+        assertEquals("1003500000", commit.get("endTimeUnixNano").asText());
+    }
+
+    @Test
+    @DisplayName("비활성화하면 파일을 만들지 않음")
+    void disabled() throws Exception {
+        //given
+        Path file = tempDir.resolve("traces.otlp.jsonl");
+        OtlpTraceFileExporter exporter = new OtlpTraceFileExporter(objectMapper, false,
+                file.toString(), 10, new SimpleMeterRegistry());
+        exporter.start();
+
+        //when
+        exporter.export(TRACE);
+        exporter.shutdown();
+
+        //then
+        assertFalse(Files.exists(file));
+    }
+}
@@ -0,0 +1,170 @@
+package com.example.mission2_account.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RBloomFilter;
+import org.redisson.api.RBucket;
+import org.redisson.api.RLock;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.Codec;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RedisAccountNumberIndexTest {
+    private static final String FILTER_NAME = "ACIDX: filter:1";
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RBucket<String> currentName;
+
+    @Mock
+    private RSet<String> pending;
+
+    @Mock
+    private RLock lock;
+
+    @Mock
+    private RBloomFilter<String> bloomFilter;
+
+    private RedisAccountNumberIndex redisAccountNumberIndex;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.<String>getBucket(eq("ACIDX: current"), any(Codec.class)))
+                .willReturn(currentName);
+        given(redissonClient.<String>getSet(eq("ACIDX: pending"), any(Codec.class)))
+                .willReturn(pending);
+        redisAccountNumberIndex = new RedisAccountNumberIndex(
+                redissonClient, 1000L, 0.01, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("색인 만들기 - 새 filter 를 다 채운 뒤 current 로 바꾸고 대기 중인 번호 추가")
+    void rebuild() {
+        //given
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        given(redissonClient.<String>getBloomFilter(startsWith("ACIDX: filter:")))
+                .willReturn(bloomFilter);
+        given(bloomFilter.getName()).willReturn(FILTER_NAME);
+        given(pending.readAll()).willReturn(Set.of("1000000099"));
+
+        //when
+        redisAccountNumberIndex.rebuild(List.of("1000000008", "1000000016").iterator());
+
+        //then
+        InOrder inOrder = inOrder(bloomFilter, currentName, pending, lock);
+        inOrder.verify(bloomFilter).tryInit(1000L, 0.01);
+        inOrder.verify(bloomFilter).add("1000000008");
+        inOrder.verify(bloomFilter).add("1000000016");
+        inOrder.verify(currentName).getAndSet(FILTER_NAME);
+        inOrder.verify(bloomFilter).add("1000000099");
+        inOrder.verify(pending).removeAll(Set.of("1000000099"));
+        inOrder.verify(lock).unlock();
+        assertTrue(redisAccountNumberIndex.isDefinitelyAbsent("1000000024"));
+    }
+
+    @Test
+    @DisplayName("다른 노드가 색인을 만드는 중 - 만들지 않음")
+    void rebuild_lockedByOtherNode() {
+        //given
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(false);
+
+        //when
+        redisAccountNumberIndex.rebuild(Collections.emptyIterator());
+
+        //then
+        verify(redissonClient, never()).getBloomFilter(anyString());
+        verify(currentName, never()).getAndSet(anyString());
+        assertFalse(redisAccountNumberIndex.isDefinitelyAbsent("1000000024"));
+    }
+
+    @Test
+    @DisplayName("색인을 만들다 실패 - 만들던 filter 삭제, current 는 그대로")
+    void rebuild_failed() {
+        //given
+        given(redissonClient.getLock(anyString())).willReturn(lock);
+        given(lock.tryLock()).willReturn(true);
+        given(redissonClient.<String>getBloomFilter(startsWith("ACIDX: filter:")))
+                .willReturn(bloomFilter);
+        Iterator<String> failing = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return true;
+            }
+
+            @Override
+            public String next() {
+                throw new IllegalArgumentException("db error");
+            }
+        };
+
+        //when
+        assertThrows(IllegalArgumentException.class,
+                () -> redisAccountNumberIndex.rebuild(failing));
+
+        //then
+        verify(bloomFilter).delete();
+        verify(currentName, never()).getAndSet(anyString());
+        verify(lock).unlock();
+    }
+
+    @Test
+    @DisplayName("색인이 사라진 경우 - 있는 것으로 취급하고 다시 만들어야 함")
+    void isDefinitelyAbsent_lostFilter() {
+        //given
+        given(currentName.get()).willReturn(FILTER_NAME);
+        given(redissonClient.<String>getBloomFilter(FILTER_NAME)).willReturn(bloomFilter);
+        given(bloomFilter.getName()).willReturn(FILTER_NAME);
+        given(bloomFilter.contains(anyString()))
+                .willThrow(new IllegalStateException("Bloom filter is not initialized!"));
+
+        //when
+        boolean absent = redisAccountNumberIndex.isDefinitelyAbsent("1000000024");
+
+        //then
+        assertFalse(absent);
+        assertTrue(redisAccountNumberIndex.needsRebuild());
+        assertFalse(redisAccountNumberIndex.isDefinitelyAbsent("1000000024"));
+        verify(bloomFilter, times(1)).contains(anyString());
+    }
+
+    @Test
+    @DisplayName("색인이 없는 동안 발급된 번호 - 대기 집합에 보관")
+    void add_withoutIndex() {
+        //given
+        given(currentName.get()).willReturn(null);
+
+        //when
+        redisAccountNumberIndex.add("1000000024");
+
+        //then
+        verify(pending).add("1000000024");
+        assertTrue(redisAccountNumberIndex.needsRebuild());
+    }
+}
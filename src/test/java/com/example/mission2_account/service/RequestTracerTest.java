@@ -0,0 +1,183 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.RequestTrace;
+import com.example.mission2_account.dto.RequestTraceResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class RequestTracerTest {
+    @Mock
+    private OtlpTraceFileExporter otlpTraceFileExporter;
+
+    private RequestTraceBuffer requestTraceBuffer;
+
+    private RequestTracer requestTracer;
+
+    @BeforeEach
+    void setUp() {
+        requestTraceBuffer = new RequestTraceBuffer(4);
+        requestTracer = new RequestTracer(requestTraceBuffer, otlpTraceFileExporter, true);
+    }
+
+    @Test
+    @DisplayName("구간 중첩 기록 후 요청이 끝나면 buffer 와 exporter 로 전달")
+    void recordNestedPhases() {
+        //given
+        requestTracer.begin("POST", "/transaction/use");
+
+        //when
+        try (RequestTracer.Span lock = requestTracer.span("lock.wait")) {
+            assertNotNull(lock);
+        }
+        try (RequestTracer.Span service = requestTracer.span("service.useBalance")) {
+            try (RequestTracer.Span read = requestTracer.span("db.findByAccountNumber")) {
+                assertNotNull(read);
+            }
+            try (RequestTracer.Span commit = requestTracer.span("db.commit")) {
+                assertNotNull(commit);
+            }
+        }
+        requestTracer.end();
+
+        //then
+        List<RequestTrace> traces = requestTraceBuffer.slowest(10);
+        assertEquals(1, traces.size());
+        RequestTrace trace = traces.get(0);
+        assertEquals("POST", trace.getMethod());
+        assertEquals("/transaction/use", trace.getUri());
+        assertEquals(32, trace.getTraceId().length());
+        assertEquals(4, trace.getPhases().size());
+        assertEquals(-1, trace.getPhases().get(0).getParent());
+        assertEquals(-1, trace.getPhases().get(1).getParent());
+        assertEquals(1, trace.getPhases().get(2).getParent());
+        assertEquals(1, trace.getPhases().get(3).getParent());
+        assertNull(requestTracer.current());
+        verify(otlpTraceFileExporter, times(1)).export(trace);
+
+        RequestTraceResponse response = RequestTraceResponse.from(trace);
+        assertEquals(1, response.getPhases().get(2).getDepth());
+        assertTrue(response.getUnaccountedMs() >= 0);
+    }
+
+    @Test
+    @DisplayName("비동기 요청 - 요청 스레드에서 떼어낸 trace 를 나중에 한 번만 끝냄")
+    void endDetachedTraceOnce() {
+        //given
+        requestTracer.begin("POST", "/transaction/use/async");
+        RequestTracer.ActiveTrace trace = requestTracer.current();
+        requestTracer.detach();
+
+        //when
+        requestTracer.end(trace);
+        requestTracer.end(trace);
+
+        //then
+        assertEquals(1, requestTraceBuffer.slowest(10).size());
+        verify(otlpTraceFileExporter, times(1)).export(any());
+    }
+
+    @Test
+    @DisplayName("진행 중인 요청이 없으면 기록하지 않음")
+    void noActiveTrace() {
+        //given
+        //when
+        try (RequestTracer.Span span = requestTracer.span("db.save")) {
+            assertNotNull(span);
+        }
+        requestTracer.end();
+
+        //then
+        assertTrue(requestTraceBuffer.slowest(10).isEmpty());
+        verify(otlpTraceFileExporter, times(0)).export(any());
+    }
+
+    @Test
+    @DisplayName("요청이 끝날 때 닫히지 않은 구간은 요청 끝까지로 기록")
+    void unclosedPhaseEndsWithRequest() {
+        //given
+        requestTracer.begin("POST", "/transaction/cancel");
+
+        //when
+        requestTracer.span("lock.queue");
+        requestTracer.end();
+
+        //then
+        RequestTrace trace = requestTraceBuffer.slowest(1).get(0);
+        assertEquals(trace.getDurationNanos(),
+                trace.getPhases().get(0).getStartOffsetNanos()
+                        + trace.getPhases().get(0).getDurationNanos());
+    }
+
+    @Test
+    @DisplayName("다른 스레드에서 이어서 기록")
+    void attachOnOtherThread() throws InterruptedException {
+        //given
+        requestTracer.begin("POST", "/transaction/cancel");
+        RequestTracer.ActiveTrace trace = requestTracer.current();
+
+        //when
+        Thread worker = new Thread(() -> {
+            requestTracer.attach(trace);
+            try (RequestTracer.Span ignored = requestTracer.span("lock.wait")) {
+                assertSame(trace, requestTracer.current());
+            } finally {
+                requestTracer.detach();
+            }
+        });
+        worker.start();
+        worker.join();
+        requestTracer.end();
+
+        //then
+        assertEquals("lock.wait",
+                requestTraceBuffer.slowest(1).get(0).getPhases().get(0).getName());
+    }
+
+    @Test
+    @DisplayName("ring buffer 가 가득 차면 오래된 요청부터 덮어쓰고, 느린 순으로 조회")
+    void slowestFromRingBuffer() {
+        //given
+        for (long duration = 1; duration <= 6; duration++) {
+            requestTraceBuffer.add(new RequestTrace(String.valueOf(duration), "GET",
+                    "/transaction/" + duration, 0L, duration, Collections.emptyList()));
+        }
+
+        //when
+        List<RequestTrace> slowest = requestTraceBuffer.slowest(2);
+
+        //then
+        assertEquals(2, slowest.size());
+        assertEquals(6L, slowest.get(0).getDurationNanos());
+        assertEquals(5L, slowest.get(1).getDurationNanos());
+        assertEquals(4, requestTraceBuffer.slowest(10).size());
+    }
+
+    @Test
+    @DisplayName("비활성화하면 요청을 기록하지 않음")
+    void disabled() {
+        //given
+        RequestTracer disabled = new RequestTracer(requestTraceBuffer, otlpTraceFileExporter, false);
+
+        //when
+        disabled.begin("POST", "/transaction/use");
+        disabled.span("lock.wait").close();
+        disabled.end();
+
+        //then
+        assertNull(disabled.current());
+        assertTrue(requestTraceBuffer.slowest(10).isEmpty());
+    }
+}
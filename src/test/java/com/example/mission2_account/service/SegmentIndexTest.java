@@ -0,0 +1,64 @@
+package com.example.mission2_account.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SegmentIndexTest {
+    @Test
+    @DisplayName("segment 색인 - 지문이 같은 segment 를 모두 찾음")
+    void find() {
+        //given
+        SegmentIndex segmentIndex = new SegmentIndex();
+
+        //when
+        segmentIndex.add(7, 0);
+        segmentIndex.add(7 + 1024, 1);
+        segmentIndex.add(7, 2);
+        segmentIndex.add(8, 3);
+
+        //then
+        assertEquals(Arrays.asList(0, 2), segmentIndex.find(7));
+        assertEquals(Collections.singletonList(1), segmentIndex.find(7 + 1024));
+        assertEquals(Collections.singletonList(3), segmentIndex.find(8));
+        assertTrue(segmentIndex.find(9).isEmpty());
+    }
+
+    @Test
+    @DisplayName("segment 색인 - 같은 거래를 다시 추가해도 한 번만 들어감")
+    void addTwice() {
+        //given
+        SegmentIndex segmentIndex = new SegmentIndex();
+        segmentIndex.add(-1, 5);
+
+        //when
+        segmentIndex.add(-1, 5);
+
+        //then
+        assertEquals(1, segmentIndex.size());
+        assertEquals(Collections.singletonList(5), segmentIndex.find(-1));
+    }
+
+    @Test
+    @DisplayName("segment 색인 - 표를 늘린 뒤에도 모두 찾음")
+    void grow() {
+        //given
+        SegmentIndex segmentIndex = new SegmentIndex();
+        long memory = segmentIndex.getMemoryBytes();
+
+        //when
+        for (int i = 0; i < 10000; i++) {
+            segmentIndex.add(SegmentIndex.fingerprint("tx" + i), i % 7);
+        }
+
+        //then
+        assertTrue(segmentIndex.getMemoryBytes() > memory);
+        for (int i = 0; i < 10000; i++) {
+            assertTrue(segmentIndex.find(SegmentIndex.fingerprint("tx" + i)).contains(i % 7));
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.exception.AccountException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static com.example.mission2_account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+class ServiceMetricsAspectTest {
+    @Mock
+    private ProceedingJoinPoint proceedingJoinPoint;
+
+    @Mock
+    private MethodSignature methodSignature;
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ServiceMetricsAspect serviceMetricsAspect;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        serviceMetricsAspect = new ServiceMetricsAspect(meterRegistry);
+        given(proceedingJoinPoint.getSignature()).willReturn(methodSignature);
+        given(methodSignature.getMethod()).willReturn(TransactionService.class.getMethod(
+                "useBalance", Long.class, String.class, Long.class));
+    }
+
+    @Test
+    @DisplayName("성공한 호출은 success Timer 하나에 기록")
+    void recordSuccess() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willReturn("result");
+
+        //when
+        serviceMetricsAspect.aroundMethod(proceedingJoinPoint);
+        Object result = serviceMetricsAspect.aroundMethod(proceedingJoinPoint);
+
+        //then
+        assertEquals("result", result);
+        Timer timer = meterRegistry.get("account.service")
+                .tag("class", "TransactionService")
+                .tag("method", "useBalance")
+                .tag("result", "success")
+                .timer();
+        assertEquals(2, timer.count());
+        assertEquals(1, meterRegistry.find("account.service").timers().size());
+    }
+
+    @Test
+    @DisplayName("실패한 호출은 오류 코드로 기록하고 예외는 그대로 던짐")
+    void recordErrorCode() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed())
+                .willThrow(new AccountException(AMOUNT_EXCEED_BALANCE));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> serviceMetricsAspect.aroundMethod(proceedingJoinPoint));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals(1, meterRegistry.get("account.service")
+                .tag("result", AMOUNT_EXCEED_BALANCE.name())
+                .timer().count());
+        assertNull(meterRegistry.find("account.service").tag("result", "success").timer());
+    }
+
+    @Test
+    @DisplayName("AccountException 이 아닌 예외는 예외 이름으로 기록")
+    void recordOtherException() throws Throwable {
+        //given
+        given(proceedingJoinPoint.proceed()).willThrow(new IllegalStateException());
+
+        //when
+        assertThrows(IllegalStateException.class,
+                () -> serviceMetricsAspect.aroundMethod(proceedingJoinPoint));
+
+        //then
+        assertEquals(1, meterRegistry.get("account.service")
+                .tag("result", "IllegalStateException")
+                .timer().count());
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static com.example.mission2_account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiveTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    @DisplayName("보관 거래 - 같은 segment 에 여러 번 추가해도 모두 찾음")
+    void appendAndFind() throws IOException {
+        //given
+        TransactionArchive archive = newArchive();
+
+        //when
+        archive.append("1000000008", YearMonth.of(2021, 3),
+                Arrays.asList(transaction("tx1"), transaction("tx2")));
+        archive.append("1000000008", YearMonth.of(2021, 3),
+                Collections.singletonList(transaction("tx3")));
+
+        //then
+        assertTrue(Files.exists(tempDir.resolve("1000000008").resolve("2021-03.ndjson.gz")));
+        assertEquals("tx1", archive.find("tx1").map(TransactionDto::getTransactionId).orElse(null));
+        Optional<TransactionDto> found = archive.find("tx3");
+        assertTrue(found.isPresent());
+        assertEquals("1000000008", found.get().getAccountNumber());
+        assertEquals(USE, found.get().getTransactionType());
+        assertEquals(1000L, found.get().getAmount());
+        assertFalse(archive.find("tx4").isPresent());
+    }
+
+    @Test
+    @DisplayName("보관 거래 - 다시 시작하면 기존 segment 로 색인 생성")
+    void loadIndex() throws IOException {
+        //given
+        newArchive().append("1000000016", YearMonth.of(2021, 4),
+                Collections.singletonList(transaction("tx1")));
+        TransactionArchive restarted = newArchive();
+
+        //when
+        restarted.loadIndex();
+
+        //then
+        assertTrue(restarted.find("tx1").isPresent());
+    }
+
+    @Test
+    @DisplayName("보관 거래 - 다른 노드가 추가한 segment 는 refresh 후에 찾음")
+    void refresh() throws IOException {
+        //given
+        TransactionArchive archive = newArchive();
+        archive.loadIndex();
+        newArchive().append("1000000008", YearMonth.of(2021, 5),
+                Collections.singletonList(transaction("tx1")));
+        assertFalse(archive.find("tx1").isPresent());
+
+        //when
+        archive.refresh("1000000008");
+
+        //then
+        assertTrue(archive.find("tx1").isPresent());
+    }
+
+    @Test
+    @DisplayName("보관 거래 - 전체 색인이 처음 크기를 넘으면 다시 만들어도 모두 찾음")
+    void resizeIndex() throws IOException {
+        //given
+        TransactionArchive archive = new TransactionArchive(objectMapper, tempDir.toString(),
+                2, 0.01, new SimpleMeterRegistry());
+
+        //when
+        for (int i = 0; i < 10; i++) {
+            archive.append("10000000" + (10 + i), YearMonth.of(2021, 3),
+                    Collections.singletonList(transaction("tx" + i)));
+        }
+
+        //then
+        for (int i = 0; i < 10; i++) {
+            assertTrue(archive.find("tx" + i).isPresent());
+        }
+        assertFalse(archive.find("tx10").isPresent());
+    }
+
+    private TransactionArchive newArchive() {
+        return new TransactionArchive(objectMapper, tempDir.toString(),
+                100, 0.01, new SimpleMeterRegistry());
+    }
+
+    private TransactionDto transaction(String transactionId) {
+        return TransactionDto.builder()
+                .accountNumber("1000000008")
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.of(2021, 3, 1, 10, 0))
+                .build();
+    }
+}
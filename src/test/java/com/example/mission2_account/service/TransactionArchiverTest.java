@@ -0,0 +1,147 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.listener.MessageListener;
+import org.redisson.client.codec.Codec;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.endsWith;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionArchiverTest {
+    @Mock
+    private TransactionArchive transactionArchive;
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RLock archiveLock;
+
+    @Mock
+    private RTopic appendedTopic;
+
+    private JdbcTemplate jdbcTemplate;
+    private TransactionArchiver transactionArchiver;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:archive;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("drop table if exists transaction");
+        jdbcTemplate.execute("drop table if exists account");
+        jdbcTemplate.execute("create table account (id bigint primary key, account_number varchar(255))");
+        jdbcTemplate.execute("create table transaction (id bigint primary key, account_id bigint, " +
+                "transaction_type varchar(255), transaction_result_type varchar(255), " +
+                "transaction_id varchar(255), amount bigint, balance_snapshot bigint, " +
+                "transacted_at timestamp)");
+        jdbcTemplate.update("insert into account values (1, '1000000008'), (2, '1000000016')");
+        jdbcTemplate.update("insert into transaction values " +
+                "(1, 1, 'USE', 'SUCCESS', 'tx1', 1000, 9000, '2021-03-01 10:00:00'), " +
+                "(2, 1, 'USE', 'SUCCESS', 'tx2', 1000, 8000, '2021-03-15 10:00:00'), " +
+                "(3, 2, 'USE', 'FAIL', 'tx3', 2000, 0, '2021-04-02 10:00:00'), " +
+                "(4, 1, 'CANCEL', 'SUCCESS', 'tx4', 1000, 9000, ?)",
+                LocalDateTime.now().minusDays(1));
+
+        given(redissonClient.getLock(anyString())).willReturn(archiveLock);
+        given(redissonClient.getTopic(anyString(), any(Codec.class))).willReturn(appendedTopic);
+        transactionArchiver = new TransactionArchiver(jdbcTemplate,
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)),
+                transactionArchive, redissonClient, 2, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("거래 보관 - 1년이 지난 거래만 계좌, 월 별로 옮기고 삭제")
+    void archive() throws IOException {
+        //given
+        given(archiveLock.tryLock()).willReturn(true);
+        ArgumentCaptor<List<TransactionDto>> captor = ArgumentCaptor.forClass(List.class);
+
+        //when
+        transactionArchiver.archive();
+
+        //then
+        verify(transactionArchive).append(eq("1000000008"), eq(YearMonth.of(2021, 3)),
+                captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals("tx1", captor.getValue().get(0).getTransactionId());
+        verify(transactionArchive).append(eq("1000000016"), eq(YearMonth.of(2021, 4)),
+                captor.capture());
+        assertEquals("tx3", captor.getValue().get(0).getTransactionId());
+        verify(transactionArchive, times(2)).append(anyString(), any(), anyList());
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "select count(*) from transaction", Integer.class));
+        assertEquals("tx4", jdbcTemplate.queryForObject(
+                "select transaction_id from transaction", String.class));
+        verify(appendedTopic).publish(endsWith(" 1000000008"));
+        verify(appendedTopic).publish(endsWith(" 1000000016"));
+        verify(archiveLock).unlock();
+    }
+
+    @Test
+    @DisplayName("거래 보관 - 다른 노드가 보관 중이면 건너뜀")
+    void archive_lockedByOtherNode() throws IOException {
+        //given
+        given(archiveLock.tryLock()).willReturn(false);
+
+        //when
+        transactionArchiver.archive();
+
+        //then
+        verify(transactionArchive, never()).append(anyString(), any(), anyList());
+        verify(archiveLock, never()).unlock();
+        assertEquals(4, jdbcTemplate.queryForObject(
+                "select count(*) from transaction", Integer.class));
+    }
+
+    @Test
+    @DisplayName("보관 알림 - 다른 노드가 추가한 계좌만 색인을 다시 만듦")
+    void refreshOnAppendedByOtherNode() throws IOException {
+        //given
+        ArgumentCaptor<MessageListener<String>> listener =
+                ArgumentCaptor.forClass(MessageListener.class);
+        ArgumentCaptor<String> published = ArgumentCaptor.forClass(String.class);
+        given(archiveLock.tryLock()).willReturn(true);
+        transactionArchiver.subscribe();
+        verify(appendedTopic).addListener(eq(String.class), listener.capture());
+        transactionArchiver.archive();
+        verify(appendedTopic, times(2)).publish(published.capture());
+
+        //when
+        listener.getValue().onMessage("ARCHIVE: appended", published.getValue());
+        listener.getValue().onMessage("ARCHIVE: appended", "otherNode 1000000024");
+
+        //then
+        verify(transactionArchive).refresh("1000000024");
+        verify(transactionArchive, times(1)).refresh(anyString());
+    }
+}
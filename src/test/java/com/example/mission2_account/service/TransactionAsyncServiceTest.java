@@ -0,0 +1,171 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+import static com.example.mission2_account.type.ErrorCode.*;
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionAsyncServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private AsyncAccountLockProvider asyncLockProvider;
+
+    @Mock
+    private AccountLockProvider accountLockProvider;
+
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+
+    private TransactionAsyncService transactionAsyncService;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transactionAsyncService.shutdown();
+    }
+
+    @Test
+    @DisplayName("비동기 잠금 - 같은 lockId 로 잠금, 해제 후 결과 완료")
+    void useBalanceWithAsyncLock() {
+        //given
+        transactionAsyncService = transactionAsyncService(asyncLockProvider);
+        given(asyncLockProvider.lockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(asyncLockProvider.unlockAsync(anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(transactionDto());
+
+        //when
+        TransactionDto result = transactionAsyncService
+                .useBalance(1L, "1000000012", 1000L).join();
+
+        //then
+        ArgumentCaptor<Long> lockId = ArgumentCaptor.forClass(Long.class);
+        verify(asyncLockProvider).lockAsync(eq("1000000012"), lockId.capture(),
+                eq(1000L), eq(AccountLockProvider.WATCHDOG_LEASE_TIME));
+        verify(asyncLockProvider).unlockAsync("1000000012", lockId.getValue());
+        verify(asyncLockProvider, never()).lock(anyString(), anyLong(), anyLong());
+        assertTrue(lockId.getValue() < 0);
+        assertEquals("transactionId", result.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("비동기 잠금 실패 - 거래 처리 없이 잠금 오류로 완료")
+    void useBalanceAsyncLockFailed() {
+        //given
+        CompletableFuture<Void> lockFailed = new CompletableFuture<>();
+        lockFailed.completeExceptionally(new CompletionException(
+                new AccountException(ACCOUNT_TRANSACTION_LOCK)));
+        transactionAsyncService = transactionAsyncService(asyncLockProvider);
+        given(asyncLockProvider.lockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willReturn(lockFailed);
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> transactionAsyncService.useBalance(1L, "1000000012", 1000L).join());
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verify(transactionService, never()).useBalance(anyLong(), anyString(), anyLong());
+        verify(asyncLockProvider, never()).unlockAsync(anyString(), anyLong());
+    }
+
+    @Test
+    @DisplayName("거래 처리 실패 - 잠금을 풀고 처리 오류로 완료")
+    void cancelBalanceFailedUnlocks() {
+        //given
+        transactionAsyncService = transactionAsyncService(asyncLockProvider);
+        given(asyncLockProvider.lockAsync(anyString(), anyLong(), anyLong(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(asyncLockProvider.unlockAsync(anyString(), anyLong()))
+                .willReturn(CompletableFuture.completedFuture(null));
+        given(transactionService.cancelBalance(anyString(), anyString(), anyLong()))
+                .willThrow(new AccountException(CANCEL_MUST_FULLY));
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> transactionAsyncService
+                        .cancelBalance("transactionId", "1000000012", 1000L).join());
+
+        //then
+        assertEquals(CANCEL_MUST_FULLY,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verify(asyncLockProvider).unlockAsync(eq("1000000012"), anyLong());
+    }
+
+    @Test
+    @DisplayName("비동기 잠금을 지원하지 않는 백엔드 - 작업 스레드에서 잠금부터 해제까지 처리")
+    void useBalanceWithThreadBoundLock() {
+        //given
+        transactionAsyncService = transactionAsyncService(accountLockProvider);
+        given(transactionService.useBalance(anyLong(), anyString(), anyLong()))
+                .willReturn(transactionDto());
+
+        //when
+        TransactionDto result = transactionAsyncService
+                .useBalance(1L, "1000000012", 1000L).join();
+
+        //then
+        verify(accountLockProvider).lock("1000000012", 1000L,
+                AccountLockProvider.WATCHDOG_LEASE_TIME);
+        verify(accountLockProvider).unlock("1000000012");
+        assertEquals("transactionId", result.getTransactionId());
+    }
+
+    @Test
+    @DisplayName("발급된 적 없는 계좌 번호 - 잠금 시도 없이 실패")
+    void useBalanceUnknownAccount() {
+        //given
+        transactionAsyncService = transactionAsyncService(asyncLockProvider);
+        given(accountNumberIndex.isDefinitelyAbsent(anyString())).willReturn(true);
+
+        //when
+        CompletionException exception = assertThrows(CompletionException.class,
+                () -> transactionAsyncService.useBalance(1L, "1000000012", 1000L).join());
+
+        //then
+        assertEquals(ACCOUNT_NOT_FOUND,
+                ((AccountException) exception.getCause()).getErrorCode());
+        verifyNoInteractions(asyncLockProvider);
+    }
+
+    private TransactionAsyncService transactionAsyncService(
+            AccountLockProvider lockProvider) {
+        return new TransactionAsyncService(transactionService,
+                lockProvider, accountNumberIndex,
+                new RequestTracer(new RequestTraceBuffer(16), null, false),
+                2, 10, 1000L, TransactionExecutionMode.LOCKED, new SimpleMeterRegistry());
+    }
+
+    private static TransactionDto transactionDto() {
+        return TransactionDto.builder()
+                .accountNumber("1000000012")
+                .transactionResultType(SUCCESS)
+                .transactionId("transactionId")
+                .amount(1000L)
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.dto.UseBalanceBatch;
+import com.example.mission2_account.exception.AccountException;
+import com.example.mission2_account.type.TransactionType;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.example.mission2_account.type.ErrorCode.ACCOUNT_TRANSACTION_LOCK;
+import static com.example.mission2_account.type.ErrorCode.AMOUNT_EXCEED_BALANCE;
+import static com.example.mission2_account.type.TransactionResultType.FAIL;
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionBatchServiceTest {
+    @Mock
+    private TransactionService transactionService;
+
+    @Mock
+    private AccountLockProvider accountLockProvider;
+
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+
+    @Mock
+    private FailedTransactionRecorder failedTransactionRecorder;
+
+    private TransactionBatchService transactionBatchService;
+
+    @BeforeEach
+    void setUp() {
+        transactionBatchService = new TransactionBatchService(transactionService,
+                accountLockProvider, accountNumberIndex, failedTransactionRecorder,
+                4, 100, 1000L, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        transactionBatchService.shutdown();
+    }
+
+    @Test
+    @DisplayName("계좌 별로 묶어서 잠금 한 번, 결과는 요청 순서대로")
+    void groupedByAccount() {
+        //given
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willAnswer(invocation -> {
+                    List<UseBalance.Request> requests = invocation.getArgument(1);
+                    return requests.stream()
+                            .map(request -> UseBalanceBatch.Item.builder()
+                                    .accountNumber(request.getAccountNumber())
+                                    .transactionResult(SUCCESS)
+                                    .amount(request.getAmount())
+                                    .build())
+                            .collect(Collectors.toList());
+                });
+
+        //when
+        List<UseBalanceBatch.Item> results = transactionBatchService.useBalances(Arrays.asList(
+                new UseBalance.Request(1L, "1000000012", 100L),
+                new UseBalance.Request(1L, "2000000012", 200L),
+                new UseBalance.Request(1L, "1000000012", 300L)));
+
+        //then
+        verify(accountLockProvider, times(1)).lock(eq("1000000012"), anyLong(), anyLong());
+        verify(accountLockProvider, times(1)).unlock("1000000012");
+        verify(accountLockProvider, times(1)).lock(eq("2000000012"), anyLong(), anyLong());
+        verify(transactionService).useBalances(eq("1000000012"), argThat(requests ->
+                requests.size() == 2
+                        && requests.get(0).getAmount() == 100L
+                        && requests.get(1).getAmount() == 300L));
+        assertEquals(3, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+        }
+        assertEquals(100L, results.get(0).getAmount());
+        assertEquals(200L, results.get(1).getAmount());
+        assertEquals(300L, results.get(2).getAmount());
+    }
+
+    @Test
+    @DisplayName("잠금 실패 - 그 계좌의 요청만 모두 실패 거래로 저장")
+    void lockFailureFailsAccountGroup() {
+        //given
+        //다른 계좌 잠금은 그대로 성공
+        lenient().doThrow(new AccountException(ACCOUNT_TRANSACTION_LOCK))
+                .when(accountLockProvider).lock(eq("1000000012"), anyLong(), anyLong());
+        given(transactionService.useBalances(eq("2000000012"), anyList()))
+                .willReturn(Collections.singletonList(UseBalanceBatch.Item.builder()
+                        .accountNumber("2000000012")
+                        .transactionResult(SUCCESS)
+                        .amount(200L)
+                        .build()));
+
+        //when
+        List<UseBalanceBatch.Item> results = transactionBatchService.useBalances(Arrays.asList(
+                new UseBalance.Request(1L, "1000000012", 100L),
+                new UseBalance.Request(1L, "2000000012", 200L),
+                new UseBalance.Request(1L, "1000000012", 300L)));
+
+        //then
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, results.get(0).getErrorCode());
+        assertEquals(SUCCESS, results.get(1).getTransactionResult());
+        assertEquals(ACCOUNT_TRANSACTION_LOCK, results.get(2).getErrorCode());
+        verify(accountLockProvider, times(0)).unlock("1000000012");
+        verify(failedTransactionRecorder, times(2))
+                .record(eq(TransactionType.USE), eq("1000000012"), anyLong());
+    }
+
+    @Test
+    @DisplayName("건별 실패 - 실패 거래로 저장")
+    void itemFailureRecorded() {
+        //given
+        given(transactionService.useBalances(anyString(), anyList()))
+                .willReturn(Collections.singletonList(UseBalanceBatch.Item.failure(
+                        new UseBalance.Request(1L, "1000000012", 100L),
+                        AMOUNT_EXCEED_BALANCE)));
+
+        //when
+        List<UseBalanceBatch.Item> results = transactionBatchService.useBalances(
+                Collections.singletonList(new UseBalance.Request(1L, "1000000012", 100L)));
+
+        //then
+        assertEquals(FAIL, results.get(0).getTransactionResult());
+        verify(failedTransactionRecorder)
+                .record(TransactionType.USE, "1000000012", 100L);
+    }
+}
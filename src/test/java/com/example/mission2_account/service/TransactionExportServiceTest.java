@@ -0,0 +1,173 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.type.TransactionExportFormat;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Collections;
+
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static com.example.mission2_account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionExportServiceTest {
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private JdbcTemplate jdbcTemplate;
+    private TransactionArchive transactionArchive;
+    private TransactionExportService transactionExportService;
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:h2:mem:export;DB_CLOSE_DELAY=-1", "sa", ""));
+        jdbcTemplate.execute("drop table if exists transaction");
+        jdbcTemplate.execute("drop table if exists account");
+        jdbcTemplate.execute("create table account (id bigint primary key, account_number varchar(255))");
+        jdbcTemplate.execute("create table transaction (id bigint primary key, account_id bigint, " +
+                "transaction_type varchar(255), transaction_result_type varchar(255), " +
+                "transaction_id varchar(255), amount bigint, balance_snapshot bigint, " +
+                "transacted_at timestamp)");
+        jdbcTemplate.update("insert into account values (1, '1000000008'), (2, '1000000016')");
+        jdbcTemplate.update("insert into transaction values " +
+                "(1, 1, 'USE', 'SUCCESS', 'tx1', 1000, 9000, '2022-09-01 10:00:00'), " +
+                "(2, 2, 'USE', 'FAIL', 'tx,2', 2000, 0, '2022-09-02 10:00:00'), " +
+                "(3, 1, 'CANCEL', 'SUCCESS', 'tx3', 1000, 10000, '2022-09-03 10:00:00')");
+
+        transactionArchive = new TransactionArchive(objectMapper, tempDir.toString(),
+                100, 0.01, new SimpleMeterRegistry());
+        transactionExportService = new TransactionExportService(
+                jdbcTemplate, objectMapper, transactionArchive, 2);
+    }
+
+    @Test
+    @DisplayName("거래 내역 NDJSON 내보내기")
+    void exportNdjson() throws IOException {
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportService.export(TransactionExportFormat.NDJSON,
+                null, null, null, out);
+
+        //then
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(3, count);
+        assertEquals(3, lines.length);
+        JsonNode first = objectMapper.readTree(lines[0]);
+        assertEquals("1000000008", first.get("accountNumber").asText());
+        assertEquals("USE", first.get("transactionType").asText());
+        assertEquals("SUCCESS", first.get("transactionResult").asText());
+        assertEquals("tx1", first.get("transactionId").asText());
+        assertEquals(1000L, first.get("amount").asLong());
+        assertEquals(9000L, first.get("balanceSnapshot").asLong());
+        assertEquals("2022-09-01T10:00", first.get("transactedAt").asText());
+    }
+
+    @Test
+    @DisplayName("거래 내역 CSV 내보내기 - 계좌, 기간 조건")
+    void exportCsvWithFilter() throws IOException {
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportService.export(TransactionExportFormat.CSV,
+                "1000000008",
+                LocalDateTime.of(2022, 9, 2, 0, 0),
+                LocalDateTime.of(2022, 9, 4, 0, 0),
+                out);
+
+        //then
+        assertEquals(1, count);
+        assertEquals("accountNumber,transactionType,transactionResult,transactionId," +
+                        "amount,balanceSnapshot,transactedAt\n" +
+                        "1000000008,CANCEL,SUCCESS,tx3,1000,10000,2022-09-03T10:00\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("거래 내역 CSV 내보내기 - 쉼표가 있는 값은 따옴표로 감쌈")
+    void exportCsvQuoted() throws IOException {
+        //given
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        transactionExportService.export(TransactionExportFormat.CSV,
+                "1000000016", null, null, out);
+
+        //then
+        assertTrue(out.toString(StandardCharsets.UTF_8)
+                .contains("1000000016,USE,FAIL,\"tx,2\",2000,0,2022-09-02T10:00\n"));
+    }
+
+    @Test
+    @DisplayName("거래 내역 내보내기 - 보관 거래를 먼저 쓰고 거래 테이블에 남은 보관 거래는 한 번만 씀")
+    void exportWithArchive() throws IOException {
+        //given
+        //tx0 은 보관만 된 거래, tx1 은 보관 후 거래 테이블에서 삭제되기 전인 거래
+        transactionArchive.append("1000000008", YearMonth.of(2022, 8),
+                Collections.singletonList(archived("tx0", LocalDateTime.of(2022, 8, 31, 10, 0))));
+        transactionArchive.append("1000000008", YearMonth.of(2022, 9),
+                Collections.singletonList(archived("tx1", LocalDateTime.of(2022, 9, 1, 10, 0))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportService.export(TransactionExportFormat.CSV,
+                "1000000008", LocalDateTime.of(2022, 8, 1, 0, 0), null, out);
+
+        //then
+        assertEquals(3, count);
+        assertEquals("accountNumber,transactionType,transactionResult,transactionId," +
+                        "amount,balanceSnapshot,transactedAt\n" +
+                        "1000000008,USE,SUCCESS,tx0,500,9500,2022-08-31T10:00\n" +
+                        "1000000008,USE,SUCCESS,tx1,1000,9000,2022-09-01T10:00\n" +
+                        "1000000008,CANCEL,SUCCESS,tx3,1000,10000,2022-09-03T10:00\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("거래 내역 내보내기 - 기간 밖의 보관 거래는 쓰지 않음")
+    void exportWithArchiveOutOfRange() throws IOException {
+        //given
+        transactionArchive.append("1000000008", YearMonth.of(2022, 8),
+                Collections.singletonList(archived("tx0", LocalDateTime.of(2022, 8, 31, 10, 0))));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        //when
+        long count = transactionExportService.export(TransactionExportFormat.NDJSON,
+                null, LocalDateTime.of(2022, 9, 1, 0, 0), null, out);
+
+        //then
+        assertEquals(3, count);
+        assertFalse(out.toString(StandardCharsets.UTF_8).contains("tx0"));
+    }
+
+    private TransactionDto archived(String transactionId, LocalDateTime transactedAt) {
+        boolean first = transactionId.equals("tx0");
+        return TransactionDto.builder()
+                .accountNumber("1000000008")
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .amount(first ? 500L : 1000L)
+                .balanceSnapshot(first ? 9500L : 9000L)
+                .transactionId(transactionId)
+                .transactedAt(transactedAt)
+                .build();
+    }
+}
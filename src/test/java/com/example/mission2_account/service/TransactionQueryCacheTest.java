@@ -0,0 +1,202 @@
+package com.example.mission2_account.service;
+
+import com.example.mission2_account.dto.TransactionDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RFuture;
+import org.redisson.api.RMapCache;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.Codec;
+import org.redisson.misc.CompletableFutureWrapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
+import static com.example.mission2_account.type.TransactionType.USE;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionQueryCacheTest {
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RMapCache<String, TransactionDto> mapCache;
+
+    private TransactionQueryCache transactionQueryCache;
+
+    @BeforeEach
+    void setUp() {
+        given(redissonClient.<String, TransactionDto>getMapCache(anyString(), any(Codec.class)))
+                .willReturn(mapCache);
+        transactionQueryCache = new TransactionQueryCache(
+                redissonClient, 600000, new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("캐시 적중 - DB 조회 없음")
+    void cacheHit() {
+        //given
+        given(mapCache.get("transactionId"))
+                .willReturn(transaction("transactionId"));
+
+        //when
+        Optional<TransactionDto> found = transactionQueryCache.get("transactionId",
+                () -> fail("cache hit must not load"));
+
+        //then
+        assertEquals(1000L, found.orElseThrow().getAmount());
+    }
+
+    @Test
+    @DisplayName("캐시 miss - DB 에서 읽어 TTL 과 함께 캐시에 넣음")
+    void cacheMissLoadsAndPuts() {
+        //given
+        TransactionDto transaction = transaction("transactionId");
+        given(mapCache.fastPutAsync(anyString(), any(), anyLong(), any()))
+                .willReturn(completed());
+
+        //when
+        Optional<TransactionDto> found = transactionQueryCache.get("transactionId",
+                () -> Optional.of(transaction));
+
+        //then
+        assertSame(transaction, found.orElseThrow());
+        verify(mapCache).fastPutAsync("transactionId", transaction,
+                600000, TimeUnit.MILLISECONDS);
+    }
+
+    @Test
+    @DisplayName("없는 거래 - 캐시에 넣지 않음")
+    void notFoundIsNotCached() {
+        //when
+        Optional<TransactionDto> found = transactionQueryCache.get("transactionId",
+                Optional::empty);
+
+        //then
+        assertTrue(found.isEmpty());
+        verify(mapCache, times(0)).fastPutAsync(anyString(), any(), anyLong(), any());
+    }
+
+    @Test
+    @DisplayName("Redis 오류 - 캐시 miss 로 처리하고 DB 에서 조회")
+    void redisErrorFallsBackToLoader() {
+        //given
+        given(mapCache.get(anyString()))
+                .willThrow(new RedisException("connection refused"));
+        given(mapCache.fastPutAsync(anyString(), any(), anyLong(), any()))
+                .willReturn(completed());
+
+        //when
+        Optional<TransactionDto> found = transactionQueryCache.get("transactionId",
+                () -> Optional.of(transaction("transactionId")));
+
+        //then
+        assertTrue(found.isPresent());
+    }
+
+    @Test
+    @DisplayName("같은 거래 동시 miss - DB 조회 한 번")
+    void concurrentMissesAreCoalesced() throws Exception {
+        //given
+        given(mapCache.fastPutAsync(anyString(), any(), anyLong(), any()))
+                .willReturn(completed());
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        //when
+        Future<Optional<TransactionDto>> first = executor.submit(() ->
+                transactionQueryCache.get("transactionId", () -> {
+                    loads.incrementAndGet();
+                    loading.countDown();
+                    await(release);
+                    return Optional.of(transaction("transactionId"));
+                }));
+        loading.await();
+        Future<Optional<TransactionDto>> second = executor.submit(() ->
+                transactionQueryCache.get("transactionId", () -> {
+                    loads.incrementAndGet();
+                    return Optional.of(transaction("transactionId"));
+                }));
+        //두 번째 요청이 진행 중인 조회를 기다릴 때까지 잠시 대기
+        Thread.sleep(100);
+        release.countDown();
+
+        //then
+        assertTrue(first.get(5, TimeUnit.SECONDS).isPresent());
+        assertTrue(second.get(5, TimeUnit.SECONDS).isPresent());
+        assertEquals(1, loads.get());
+        executor.shutdown();
+    }
+
+    @Test
+    @DisplayName("binary codec - 모든 필드를 그대로 복원")
+    void codecRoundTrip() throws IOException {
+        //given
+        TransactionDto transaction = transaction("0123456789abcdef0123456789abcdef");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        //when
+        TransactionDtoCodec.write(transaction, new DataOutputStream(bytes));
+        TransactionDto decoded = TransactionDtoCodec.read(
+                new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+        //then
+        assertEquals(transaction.getAccountNumber(), decoded.getAccountNumber());
+        assertEquals(transaction.getTransactionType(), decoded.getTransactionType());
+        assertEquals(transaction.getTransactionResultType(), decoded.getTransactionResultType());
+        assertEquals(transaction.getAmount(), decoded.getAmount());
+        assertEquals(transaction.getBalanceSnapshot(), decoded.getBalanceSnapshot());
+        assertEquals(transaction.getTransactionId(), decoded.getTransactionId());
+        assertEquals(transaction.getTransactedAt(), decoded.getTransactedAt());
+        assertTrue(bytes.size() < 100);
+    }
+
+    private static TransactionDto transaction(String transactionId) {
+        return TransactionDto.builder()
+                .accountNumber("1000000012")
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .amount(1000L)
+                .balanceSnapshot(9000L)
+                .transactionId(transactionId)
+                .transactedAt(LocalDateTime.of(2022, 9, 1, 12, 0, 0, 123_456_789))
+                .build();
+    }
+
+    private static RFuture<Boolean> completed() {
+        return new CompletableFutureWrapper<>(true);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -3,11 +3,20 @@ package com.example.mission2_account.service;
 import com.example.mission2_account.domain.Account;
 import com.example.mission2_account.domain.AccountUser;
 import com.example.mission2_account.domain.Transaction;
+import com.example.mission2_account.dto.AccountIdentity;
+import com.example.mission2_account.dto.FailedTransaction;
 import com.example.mission2_account.dto.TransactionDto;
+import com.example.mission2_account.dto.TransactionHistoryCursor;
+import com.example.mission2_account.dto.TransferDto;
+import com.example.mission2_account.dto.UseBalance;
+import com.example.mission2_account.dto.UseBalanceBatch;
 import com.example.mission2_account.exception.AccountException;
 import com.example.mission2_account.repository.AccountRepository;
 import com.example.mission2_account.repository.AccountUserRepository;
 import com.example.mission2_account.repository.TransactionRepository;
+import com.example.mission2_account.type.TransactionExecutionMode;
+import com.example.mission2_account.type.TransactionResultType;
+import com.example.mission2_account.type.TransactionType;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -15,15 +24,26 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static com.example.mission2_account.type.AccountStatus.*;
 import static com.example.mission2_account.type.ErrorCode.*;
 import static com.example.mission2_account.type.TransactionResultType.FAIL;
 import static com.example.mission2_account.type.TransactionResultType.SUCCESS;
 import static com.example.mission2_account.type.TransactionType.CANCEL;
+import static com.example.mission2_account.type.TransactionType.TRANSFER_IN;
+import static com.example.mission2_account.type.TransactionType.TRANSFER_OUT;
 import static com.example.mission2_account.type.TransactionType.USE;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -42,6 +62,21 @@ class TransactionServiceTest {
     @Mock
     private AccountUserRepository accountUserRepository;
 
+    @Mock
+    private AccountNumberIndex accountNumberIndex;
+
+    @Mock
+    private TransactionArchive transactionArchive;
+
+    @Mock
+    private TransactionQueryCache transactionQueryCache;
+
+    @Mock
+    private AccountBalanceCache accountBalanceCache;
+
+    @Mock
+    private TransactionMetrics transactionMetrics;
+
     @InjectMocks
     private TransactionService transactionService;
 
@@ -57,9 +92,9 @@ class TransactionServiceTest {
                 .accountStatus(IN_USE)
                 .balance(10000L)
                 .accountNumber("1000000012").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
                 .willReturn(Transaction.builder()
@@ -76,9 +111,10 @@ class TransactionServiceTest {
 
         //when
         TransactionDto transactionDto = transactionService
-                .useBalance(1L, "1000000000", 2000L);
+                .useBalance(92L, "1000000000", 2000L);
 
         //then
+        verify(accountUserRepository, times(0)).existsById(anyLong());
         verify(transactionRepository, times(1))
                 .save(captor.capture());
         assertEquals(2000L, captor.getValue().getAmount());
@@ -87,14 +123,108 @@ class TransactionServiceTest {
         assertEquals(USE, transactionDto.getTransactionType());
         assertEquals(9000L, transactionDto.getBalanceSnapshot());
         assertEquals(1000L, transactionDto.getAmount());
+        verify(accountBalanceCache).putAfterCommit(account);
+        verify(transactionMetrics).countAfterCommit(USE, SUCCESS, 1);
+    }
+
+    @Test
+    @DisplayName("이체 성공 - 출금, 입금 거래를 함께 저장")
+    void successTransfer() {
+        //given
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        AccountUser micky = AccountUser.builder()
+                .name("micky").build();
+        micky.setId(93L);
+        Account fromAccount = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        Account toAccount = Account.builder()
+                .accountUser(micky)
+                .accountStatus(IN_USE)
+                .balance(500L)
+                .accountNumber("2000000012").build();
+        given(accountRepository.findIdentityByAccountNumber("1000000012"))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(fromAccount));
+        given(accountRepository.findByAccountNumber("2000000012"))
+                .willReturn(Optional.of(toAccount));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+        ArgumentCaptor<Transaction> captor =
+                ArgumentCaptor.forClass(Transaction.class);
+
+        //when
+        TransferDto transferDto = transactionService
+                .transfer(92L, "1000000012", "2000000012", 3000L);
+
+        //then
+        verify(transactionRepository, times(2)).save(captor.capture());
+        List<Transaction> saved = captor.getAllValues();
+        assertEquals(TRANSFER_OUT, saved.get(0).getTransactionType());
+        assertEquals(7000L, saved.get(0).getBalanceSnapshot());
+        assertEquals(TRANSFER_IN, saved.get(1).getTransactionType());
+        assertEquals(3500L, saved.get(1).getBalanceSnapshot());
+        assertEquals("1000000012", transferDto.getWithdrawal().getAccountNumber());
+        assertEquals("2000000012", transferDto.getDeposit().getAccountNumber());
+        assertEquals(3000L, transferDto.getDeposit().getAmount());
+        verify(accountBalanceCache).putAfterCommit(fromAccount);
+        verify(accountBalanceCache).putAfterCommit(toAccount);
+    }
+
+    @Test
+    @DisplayName("이체 실패 - 잔액 부족이면 두 계좌 모두 그대로")
+    void transfer_AmountExceedBalance() {
+        //given
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        Account fromAccount = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(1000L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findIdentityByAccountNumber("1000000012"))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(fromAccount));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.transfer(
+                        92L, "1000000012", "2000000012", 3000L));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        assertEquals(1000L, fromAccount.getBalance());
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("이체 실패 - 같은 계좌로 이체")
+    void transfer_SameAccount() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.transfer(
+                        92L, "1000000012", "1000000012", 3000L));
+
+        //then
+        assertEquals(TRANSFER_TO_SAME_ACCOUNT, exception.getErrorCode());
+        verify(accountRepository, times(0)).findIdentityByAccountNumber(anyString());
     }
 
     @Test
     @DisplayName("해당 유저 없음 - 거래 실패")
     void useBalance_UserNotFound() {
         //given
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.empty());
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(false);
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -105,16 +235,31 @@ class TransactionServiceTest {
         assertEquals(USER_NOT_FOUND, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("발급된 적 없는 계좌 - DB 조회 없이 거래 실패")
+    void useBalance_AccountNumberNotIssued() {
+        //given
+        given(accountNumberIndex.isDefinitelyAbsent(anyString()))
+                .willReturn(true);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalance(
+                        1L, "1234567890", 1000L));
+
+        //then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+        verify(accountUserRepository, times(0)).existsById(anyLong());
+        verify(accountRepository, times(0)).findIdentityByAccountNumber(anyString());
+    }
+
     @Test
     @DisplayName("해당 계좌 없음 - 거래 실패")
     void useBalance_AccountNotFound() {
         //given
-        AccountUser yez = AccountUser.builder()
-                .name("yez").build();
-        yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
         //when
@@ -136,13 +281,10 @@ class TransactionServiceTest {
         AccountUser micky = AccountUser.builder()
                 .name("micky").build();
         micky.setId(13L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountRepository.findByAccountNumber(anyString()))
-                .willReturn(Optional.of(Account.builder()
-                        .accountUser(micky)
-                        .balance(0L)
-                        .accountNumber("1000000012").build()));
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(1L, micky.getId())));
 
         //when
         AccountException exception = assertThrows(AccountException.class,
@@ -160,9 +302,9 @@ class TransactionServiceTest {
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(Account.builder()
                         .accountUser(yez)
                         .accountStatus(UNREGISTERED)
@@ -172,7 +314,7 @@ class TransactionServiceTest {
         //when
         AccountException exception = assertThrows(AccountException.class,
                 () -> transactionService.useBalance(
-                        1L, "1234567890", 1000L));
+                        92L, "1234567890", 1000L));
 
         //then
         assertEquals(ACCOUNT_ALREADY_UNREGISTERED, exception.getErrorCode());
@@ -190,24 +332,24 @@ class TransactionServiceTest {
                 .accountStatus(IN_USE)
                 .balance(100L)
                 .accountNumber("1000000012").build();
-        given(accountUserRepository.findById(anyLong()))
-                .willReturn(Optional.of(yez));
-        given(accountRepository.findByAccountNumber(anyString()))
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(anyLong()))
                 .willReturn(Optional.of(account));
 
         //when
         //then
         AccountException exception = assertThrows(AccountException.class,
                 () -> transactionService.useBalance(
-                        1L, "1234567890", 1000L));
+                        92L, "1234567890", 1000L));
 
         assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
         verify(transactionRepository, times(0)).save(any());
     }
 
     @Test
-    @DisplayName("거래 실패 정보 저장")
-    void saveFailedUseTransaction() {
+    @DisplayName("조건부 UPDATE 차감 - 거래 성공")
+    void successUseBalanceAtomic() {
         //given
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
@@ -215,33 +357,316 @@ class TransactionServiceTest {
         Account account = Account.builder()
                 .accountUser(yez)
                 .accountStatus(IN_USE)
-                .balance(10000L)
+                .balance(8000L)
                 .accountNumber("1000000012").build();
+        given(accountRepository.useBalanceIfSufficient(
+                anyString(), anyLong(), any(), anyLong()))
+                .willReturn(1);
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
         given(transactionRepository.save(any()))
-                .willReturn(Transaction.builder()
-                        .account(account)
-                        .transactionType(USE)
-                        .transactionResultType(SUCCESS)
-                        .transactionId("transactionId")
-                        .amount(1000L)
-                        .balanceSnapshot(9000L)
-                        .build());
+                .willAnswer(invocation -> invocation.getArgument(0));
 
         ArgumentCaptor<Transaction> captor =
                 ArgumentCaptor.forClass(Transaction.class);
 
         //when
-        transactionService.saveFailedUseTransaction(
-                "1000000000", 200L);
+        TransactionDto transactionDto = transactionService
+                .useBalanceAtomic(92L, "1000000012", 2000L);
 
         //then
+        verify(accountRepository, times(1))
+                .useBalanceIfSufficient("1000000012", 92L, IN_USE, 2000L);
+        verify(accountUserRepository, times(0)).existsById(anyLong());
         verify(transactionRepository, times(1))
                 .save(captor.capture());
-        assertEquals(200L, captor.getValue().getAmount());
-        assertEquals(10000L, captor.getValue().getBalanceSnapshot());
-        assertEquals(FAIL, captor.getValue().getTransactionResultType());
+        assertEquals(2000L, captor.getValue().getAmount());
+        assertEquals(8000L, captor.getValue().getBalanceSnapshot());
+        assertEquals(SUCCESS, transactionDto.getTransactionResultType());
+        assertEquals(USE, transactionDto.getTransactionType());
+    }
+
+    @Test
+    @DisplayName("ATOMIC 모드 이체 - 출금은 조건부 UPDATE, 입금은 잔액 증가 UPDATE")
+    void transferAtomic() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "transactionMode",
+                TransactionExecutionMode.ATOMIC);
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        Account fromAccount = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        Account toAccount = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(500L)
+                .accountNumber("2000000012").build();
+        //UPDATE 후 다시 조회한 계좌 (그 사이 다른 거래가 반영된 잔액)
+        Account updatedFromAccount = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(6000L)
+                .accountNumber("1000000012").build();
+        Account updatedToAccount = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(3500L)
+                .accountNumber("2000000012").build();
+        given(accountRepository.findIdentityByAccountNumber("1000000012"))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(fromAccount));
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(updatedFromAccount));
+        given(accountRepository.findByAccountNumber("2000000012"))
+                .willReturn(Optional.of(toAccount), Optional.of(updatedToAccount));
+        given(accountRepository.useBalanceIfSufficient("1000000012", 92L, IN_USE, 3000L))
+                .willReturn(1);
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        TransferDto transferDto = transactionService
+                .transfer(92L, "1000000012", "2000000012", 3000L);
+
+        //then
+        verify(accountRepository).addBalance("2000000012", 3000L);
+        assertEquals(10000L, fromAccount.getBalance());
+        assertEquals(500L, toAccount.getBalance());
+        assertEquals(6000L, transferDto.getWithdrawal().getBalanceSnapshot());
+        assertEquals(3500L, transferDto.getDeposit().getBalanceSnapshot());
+        verify(accountBalanceCache).putAfterCommit(updatedFromAccount);
+        verify(accountBalanceCache).putAfterCommit(updatedToAccount);
+    }
+
+    @Test
+    @DisplayName("ATOMIC 모드 이체 실패 - 검사 후 다른 차감으로 잔액 부족")
+    void transferAtomic_ExceedAmount() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "transactionMode",
+                TransactionExecutionMode.ATOMIC);
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        given(accountRepository.findIdentityByAccountNumber("1000000012"))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(1L))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(yez)
+                        .accountStatus(IN_USE)
+                        .balance(10000L)
+                        .accountNumber("1000000012").build()));
+        given(accountRepository.findByAccountNumber("2000000012"))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(yez)
+                        .accountStatus(IN_USE)
+                        .balance(500L)
+                        .accountNumber("2000000012").build()));
+        given(accountRepository.useBalanceIfSufficient(anyString(), anyLong(), any(), anyLong()))
+                .willReturn(0);
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.transfer(92L, "1000000012", "2000000012", 3000L));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(accountRepository, times(0)).addBalance(anyString(), anyLong());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 차감 실패 - 원인(잔액 부족) 확인")
+    void useBalanceAtomic_ExceedAmount() {
+        //given
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        Account account = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(100L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.useBalanceIfSufficient(
+                anyString(), anyLong(), any(), anyLong()))
+                .willReturn(0);
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(1L, 92L)));
+        given(accountRepository.findById(anyLong()))
+                .willReturn(Optional.of(account));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalanceAtomic(
+                        92L, "1000000012", 1000L));
+
+        //then
+        assertEquals(AMOUNT_EXCEED_BALANCE, exception.getErrorCode());
+        verify(transactionRepository, times(0)).save(any());
+    }
+
+    @Test
+    @DisplayName("조건부 UPDATE 차감 실패 - 원인(소유주 불일치) 확인")
+    void useBalanceAtomic_userUnMatch() {
+        //given
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        AccountUser micky = AccountUser.builder()
+                .name("micky").build();
+        micky.setId(13L);
+        given(accountRepository.useBalanceIfSufficient(
+                anyString(), anyLong(), any(), anyLong()))
+                .willReturn(0);
+        given(accountUserRepository.existsById(anyLong()))
+                .willReturn(true);
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(1L, micky.getId())));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.useBalanceAtomic(
+                        92L, "1000000012", 1000L));
+
+        //then
+        assertEquals(USER_ACCOUNT_UN_MATCH, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("한 계좌 금액 사용 여러 건 - 실패한 요청은 건너뛰고 순서대로 차감, 거래는 한 번에 저장")
+    void useBalances() {
+        //given
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        Account account = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumber(anyString()))
+                .willReturn(Optional.of(account));
+        given(accountUserRepository.existsById(93L))
+                .willReturn(true);
+
+        ArgumentCaptor<List<Transaction>> captor =
+                ArgumentCaptor.forClass(List.class);
+
+        //when
+        List<UseBalanceBatch.Item> results = transactionService.useBalances("1000000012",
+                Arrays.asList(
+                        new UseBalance.Request(92L, "1000000012", 3000L),
+                        new UseBalance.Request(93L, "1000000012", 1000L),
+                        new UseBalance.Request(92L, "1000000012", 8000L),
+                        new UseBalance.Request(92L, "1000000012", 7000L)));
+
+        //then
+        assertEquals(SUCCESS, results.get(0).getTransactionResult());
+        assertEquals(USER_ACCOUNT_UN_MATCH, results.get(1).getErrorCode());
+        assertEquals(AMOUNT_EXCEED_BALANCE, results.get(2).getErrorCode());
+        assertEquals(SUCCESS, results.get(3).getTransactionResult());
+        assertEquals(0L, account.getBalance());
+        verify(transactionRepository, times(1))
+                .saveAllInBatches(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(7000L, captor.getValue().get(0).getBalanceSnapshot());
+        assertEquals(0L, captor.getValue().get(1).getBalanceSnapshot());
+        verify(transactionQueryCache, times(2)).putAfterCommit(any());
+        verify(accountBalanceCache, times(1)).putAfterCommit(account);
+    }
+
+    @Test
+    @DisplayName("실패 거래 한 번에 저장 - 없는 계좌는 건너뜀")
+    void saveFailedTransactions() {
+        //given
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(Collections.singletonList(account));
+        LocalDateTime transactedAt = LocalDateTime.now().minusSeconds(1);
+
+        ArgumentCaptor<List<Transaction>> captor =
+                ArgumentCaptor.forClass(List.class);
+
+        //when
+        transactionService.saveFailedTransactions(Arrays.asList(
+                FailedTransaction.builder()
+                        .transactionType(CANCEL)
+                        .accountNumber("1000000012")
+                        .amount(200L)
+                        .transactionId("transactionId")
+                        .transactedAt(transactedAt)
+                        .build(),
+                FailedTransaction.builder()
+                        .transactionType(USE)
+                        .accountNumber("9999999999")
+                        .amount(300L)
+                        .transactionId("unknown")
+                        .transactedAt(transactedAt)
+                        .build()));
+
+        //then
+        verify(transactionRepository, times(1))
+                .saveAllInBatches(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        Transaction saved = captor.getValue().get(0);
+        assertEquals(CANCEL, saved.getTransactionType());
+        assertEquals(FAIL, saved.getTransactionResultType());
+        assertEquals(200L, saved.getAmount());
+        assertEquals(10000L, saved.getBalanceSnapshot());
+        assertEquals("transactionId", saved.getTransactionId());
+        assertEquals(transactedAt, saved.getTransactedAt());
+        //저장하지 않은 거래는 세지 않음
+        verify(transactionMetrics).countAfterCommit(CANCEL, FAIL, 1);
+        verify(transactionMetrics, times(0)).countAfterCommit(eq(USE), any(), anyLong());
+    }
+
+    @Test
+    @DisplayName("실패 거래 한 번에 저장 - 이미 저장된 거래 아이디는 다시 저장하지 않음")
+    void saveFailedTransactions_skipSaved() {
+        //given
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        given(transactionRepository.findTransactionIdsByTransactionIdIn(anyCollection()))
+                .willReturn(Collections.singletonList("saved"));
+        given(accountRepository.findByAccountNumberIn(anyCollection()))
+                .willReturn(Collections.singletonList(account));
+        LocalDateTime transactedAt = LocalDateTime.now().minusSeconds(1);
+
+        ArgumentCaptor<List<Transaction>> captor =
+                ArgumentCaptor.forClass(List.class);
+
+        //when
+        transactionService.saveFailedTransactions(Arrays.asList(
+                FailedTransaction.builder()
+                        .transactionType(USE)
+                        .accountNumber("1000000012")
+                        .amount(200L)
+                        .transactionId("saved")
+                        .transactedAt(transactedAt)
+                        .build(),
+                FailedTransaction.builder()
+                        .transactionType(USE)
+                        .accountNumber("1000000012")
+                        .amount(300L)
+                        .transactionId("new")
+                        .transactedAt(transactedAt)
+                        .build()));
+
+        //then
+        verify(transactionRepository, times(1))
+                .saveAllInBatches(captor.capture());
+        assertEquals(1, captor.getValue().size());
+        assertEquals("new", captor.getValue().get(0).getTransactionId());
+        verify(transactionMetrics).countAfterCommit(USE, FAIL, 1);
     }
 
     @Test
@@ -265,7 +690,7 @@ class TransactionServiceTest {
                 .amount(2000L)
                 .balanceSnapshot(9000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -296,14 +721,95 @@ class TransactionServiceTest {
         assertEquals(CANCEL, transactionDto.getTransactionType());
         assertEquals(10000L, transactionDto.getBalanceSnapshot());
         assertEquals(2000L, transactionDto.getAmount());
+        verify(accountBalanceCache).putAfterCommit(account);
+    }
+
+    @Test
+    @DisplayName("ATOMIC 모드 거래 취소 - 읽은 잔액이 아니라 잔액 증가 UPDATE 로 입금")
+    void cancelBalanceAtomic() {
+        //given
+        ReflectionTestUtils.setField(transactionService, "transactionMode",
+                TransactionExecutionMode.ATOMIC);
+        AccountUser yez = AccountUser.builder()
+                .name("yez").build();
+        yez.setId(92L);
+        Account account = Account.builder()
+                .accountUser(yez)
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(USE)
+                .transactionResultType(SUCCESS)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(2000L)
+                .balanceSnapshot(9000L)
+                .build();
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+        //잠금 없는 다른 차감(1000)이 반영된 뒤 입금된 잔액
+        given(accountRepository.findByAccountNumber("1000000012"))
+                .willReturn(Optional.of(Account.builder()
+                        .accountUser(yez)
+                        .accountStatus(IN_USE)
+                        .balance(11000L)
+                        .accountNumber("1000000012").build()));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        TransactionDto transactionDto = transactionService.cancelBalance(
+                "transactionId", "1000000012", 2000L);
+
+        //then
+        verify(accountRepository).addBalance("1000000012", 2000L);
+        assertEquals(10000L, account.getBalance());
+        assertEquals(11000L, transactionDto.getBalanceSnapshot());
+    }
+
+    @Test
+    @DisplayName("거래 계좌로 취소 - 계좌를 다시 조회하지 않음")
+    void cancelBalance_SameAccountNotQueriedAgain() {
+        //given
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(account)
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId("transactionId")
+                        .transactedAt(LocalDateTime.now())
+                        .amount(2000L)
+                        .balanceSnapshot(8000L)
+                        .build()));
+        given(transactionRepository.save(any()))
+                .willAnswer(invocation -> invocation.getArgument(0));
+
+        //when
+        TransactionDto transactionDto = transactionService.cancelBalance(
+                "transactionId", "1000000012", 2000L);
+
+        //then
+        verify(accountRepository, times(0)).findByAccountNumber(anyString());
+        assertEquals(CANCEL, transactionDto.getTransactionType());
+        assertEquals(12000L, transactionDto.getBalanceSnapshot());
     }
 
     @Test
     @DisplayName("해당 계좌 없음 - 거래 취소 실패")
     void cancelTransaction_AccountNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(Transaction.builder().build()));
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.of(Transaction.builder()
+                        .account(Account.builder()
+                                .accountNumber("1000000012").build())
+                        .build()));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.empty());
 
@@ -320,7 +826,7 @@ class TransactionServiceTest {
     @DisplayName("원 사용 거래 없음 - 거래 취소 실패")
     void cancelTransaction_TransactionNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         //when
@@ -360,7 +866,7 @@ class TransactionServiceTest {
                 .amount(2000L)
                 .balanceSnapshot(9000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(accountNotUse));
@@ -396,7 +902,7 @@ class TransactionServiceTest {
                 .amount(3000L)
                 .balanceSnapshot(9000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -410,6 +916,37 @@ class TransactionServiceTest {
         assertEquals(CANCEL_MUST_FULLY, exception.getErrorCode());
     }
 
+    @Test
+    @DisplayName("이체 거래 취소 - 취소 실패")
+    void cancelTransaction_TransferNotCancelable() {
+        //given
+        Account account = Account.builder()
+                .accountStatus(IN_USE)
+                .balance(10000L)
+                .accountNumber("1000000012").build();
+        account.setId(1L);
+        Transaction transaction = Transaction.builder()
+                .account(account)
+                .transactionType(TRANSFER_OUT)
+                .transactionResultType(SUCCESS)
+                .transactionId("transactionId")
+                .transactedAt(LocalDateTime.now())
+                .amount(3000L)
+                .balanceSnapshot(7000L)
+                .build();
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.of(transaction));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance(
+                        "transactionId", "1000000012", 3000L));
+
+        //then
+        assertEquals(TRANSACTION_NOT_CANCELABLE, exception.getErrorCode());
+        assertEquals(10000L, account.getBalance());
+    }
+
     @Test
     @DisplayName("취소는 1년 이내에 가능 - 잔액 사용 취소 실패")
     void cancelTransaction_TooOldOrder() {
@@ -432,7 +969,7 @@ class TransactionServiceTest {
                 .amount(2000L)
                 .balanceSnapshot(8000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
                 .willReturn(Optional.of(transaction));
         given(accountRepository.findByAccountNumber(anyString()))
                 .willReturn(Optional.of(account));
@@ -450,6 +987,7 @@ class TransactionServiceTest {
     @DisplayName("잔액 조회 성공")
     void successQueryTransaction() {
         //given
+        givenTransactionQueryCacheMiss();
         AccountUser yez = AccountUser.builder()
                 .name("yez").build();
         yez.setId(92L);
@@ -468,8 +1006,8 @@ class TransactionServiceTest {
                 .amount(2000L)
                 .balanceSnapshot(8000L)
                 .build();
-        given(transactionRepository.findByTransactionId(anyString()))
-                .willReturn(Optional.of(transaction));
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.of(TransactionDto.fromEntity(transaction)));
 
         //when
         TransactionDto transactionDto =
@@ -486,7 +1024,8 @@ class TransactionServiceTest {
     @DisplayName("원 거래 없음 - 거래 조회 실패")
     void queryTransaction_TransactionNotFound() {
         //given
-        given(transactionRepository.findByTransactionId(anyString()))
+        givenTransactionQueryCacheMiss();
+        given(transactionRepository.findDtoByTransactionId(anyString()))
                 .willReturn(Optional.empty());
 
         //when
@@ -496,4 +1035,152 @@ class TransactionServiceTest {
         //then
         assertEquals(TRANSACTION_NOT_FOUND, exception.getErrorCode());
     }
-}
\ No newline at end of file
+
+    @Test
+    @DisplayName("보관된 거래 조회 성공")
+    void queryTransaction_Archived() {
+        //given
+        givenTransactionQueryCacheMiss();
+        given(transactionRepository.findDtoByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchive.find(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .accountNumber("1000000012")
+                        .transactionType(USE)
+                        .transactionResultType(SUCCESS)
+                        .transactionId("archivedId")
+                        .amount(2000L)
+                        .build()));
+
+        //when
+        TransactionDto transactionDto =
+                transactionService.queryTransaction("archivedId");
+
+        //then
+        assertEquals("archivedId", transactionDto.getTransactionId());
+        assertEquals(2000L, transactionDto.getAmount());
+    }
+
+    @Test
+    @DisplayName("보관된 거래 취소 - 1년이 지난 거래라 취소 실패")
+    void cancelTransaction_Archived() {
+        //given
+        given(transactionRepository.findWithAccountByTransactionId(anyString()))
+                .willReturn(Optional.empty());
+        given(transactionArchive.find(anyString()))
+                .willReturn(Optional.of(TransactionDto.builder()
+                        .transactionId("archivedId")
+                        .build()));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.cancelBalance(
+                        "archivedId", "1000000000", 1000L));
+
+        //then
+        assertEquals(TOO_OLD_ORDER_TO_CANCEL, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 - 첫 페이지는 조회 기간 끝부터, 없는 조건은 전체 범위로 조회")
+    void getTransactionHistory_FirstPage() {
+        //given
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(12L, 92L)));
+        given(transactionRepository.findHistory(anyLong(), any(), anyLong(), any(),
+                anyCollection(), anyCollection(), any()))
+                .willReturn(new SliceImpl<>(Collections.emptyList()));
+        LocalDateTime to = LocalDateTime.of(2022, 10, 1, 0, 0);
+        ArgumentCaptor<Collection<TransactionType>> typeCaptor =
+                ArgumentCaptor.forClass(Collection.class);
+        ArgumentCaptor<Pageable> pageableCaptor = ArgumentCaptor.forClass(Pageable.class);
+
+        //when
+        transactionService.getTransactionHistory("1000000012",
+                null, FAIL, null, to, null, 20);
+
+        //then
+        verify(transactionRepository).findHistory(eq(12L), eq(to),
+                eq(Long.MIN_VALUE), any(), typeCaptor.capture(),
+                eq(EnumSet.of(FAIL)), pageableCaptor.capture());
+        assertEquals(EnumSet.allOf(TransactionType.class), typeCaptor.getValue());
+        assertEquals(20, pageableCaptor.getValue().getPageSize());
+        assertEquals(0, pageableCaptor.getValue().getOffset());
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 - 커서 다음부터 조회")
+    void getTransactionHistory_NextPage() {
+        //given
+        LocalDateTime transactedAt = LocalDateTime.of(2022, 9, 1, 12, 0, 0, 123_000_000);
+        String cursor = new TransactionHistoryCursor(transactedAt, 77L).encode();
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(12L, 92L)));
+        given(transactionRepository.findHistory(anyLong(), any(), anyLong(), any(),
+                anyCollection(), anyCollection(), any()))
+                .willReturn(new SliceImpl<>(Collections.emptyList()));
+
+        //when
+        transactionService.getTransactionHistory("1000000012",
+                USE, null, null, null, cursor, 20);
+
+        //then
+        verify(transactionRepository).findHistory(eq(12L), eq(transactedAt), eq(77L),
+                any(), eq(EnumSet.of(USE)),
+                eq(EnumSet.allOf(TransactionResultType.class)), any());
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 실패 - 잘못된 커서")
+    void getTransactionHistory_InvalidCursor() {
+        //given
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.of(new AccountIdentity(12L, 92L)));
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory("1000000012",
+                        null, null, null, null, "not-a-cursor", 20));
+
+        //then
+        assertEquals(INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 실패 - 페이지 크기 초과")
+    void getTransactionHistory_InvalidSize() {
+        //given
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory("1000000012",
+                        null, null, null, null, null, 101));
+
+        //then
+        assertEquals(INVALID_REQUEST, exception.getErrorCode());
+    }
+
+    @Test
+    @DisplayName("계좌 거래 내역 조회 실패 - 해당 계좌 없음")
+    void getTransactionHistory_AccountNotFound() {
+        //given
+        given(accountRepository.findIdentityByAccountNumber(anyString()))
+                .willReturn(Optional.empty());
+
+        //when
+        AccountException exception = assertThrows(AccountException.class,
+                () -> transactionService.getTransactionHistory("1000000012",
+                        null, null, null, null, null, 20));
+
+        //then
+        assertEquals(ACCOUNT_NOT_FOUND, exception.getErrorCode());
+    }
+
+    /**
+     * 거래 확인 캐시 miss - DB 조회(loader) 결과를 그대로 리턴
+     */
+    private void givenTransactionQueryCacheMiss() {
+        given(transactionQueryCache.get(anyString(), any()))
+                .willAnswer(invocation -> invocation
+                        .<Supplier<Optional<TransactionDto>>>getArgument(1).get());
+    }
+}